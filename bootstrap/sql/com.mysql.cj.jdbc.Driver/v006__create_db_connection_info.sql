@@ -13,3 +13,135 @@ CREATE TABLE IF NOT EXISTS web_analytic_event (
 
 UPDATE bot_entity
 SET json = JSON_INSERT(JSON_REMOVE(json, '$.botType'), '$.provider', 'system');
+
+-- Turn change_event into a log that subscribers consume in order of the offset at their own speed
+ALTER TABLE change_event ADD COLUMN eventOffset BIGINT UNSIGNED NOT NULL AUTO_INCREMENT UNIQUE;
+
+CREATE TABLE IF NOT EXISTS change_event_consumers (
+    id VARCHAR(256) NOT NULL,
+    eventOffset BIGINT UNSIGNED NOT NULL,
+    updatedAt BIGINT UNSIGNED NOT NULL,
+    leaseOwner VARCHAR(64),
+    leaseExpiresAt BIGINT UNSIGNED NOT NULL DEFAULT 0,
+    PRIMARY KEY (id)
+);
+
+-- Offsets of the change events whose activity feed did not fit in the event handler queue, waiting to be processed
+CREATE TABLE IF NOT EXISTS change_event_spill (
+    id BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+    userName VARCHAR(256) NOT NULL,
+    eventOffset BIGINT UNSIGNED NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Profiles and test case results of past time buckets compacted into chunks of columns. The rows of
+-- entity_extension_time_series are moved into chunks by the compaction job when chunked storage is enabled.
+CREATE TABLE IF NOT EXISTS entity_extension_time_series_chunk (
+    entityFQN VARCHAR(1024) NOT NULL,           -- Entity FQN, we can refer to tables and columns
+    extension VARCHAR(256) NOT NULL,            -- Extension name same as entity.fieldName
+    bucketStart BIGINT UNSIGNED NOT NULL,       -- Start of the time bucket of the chunk
+    startTs BIGINT UNSIGNED NOT NULL,           -- Timestamp of the first entry in the chunk
+    endTs BIGINT UNSIGNED NOT NULL,             -- Timestamp of the last entry in the chunk
+    compactedAt BIGINT UNSIGNED NOT NULL,
+    chunk MEDIUMBLOB NOT NULL,
+    entityFQNHash VARCHAR(32) GENERATED ALWAYS AS (MD5(entityFQN)) STORED NOT NULL, -- Keyed, as entityFQN is too long
+    UNIQUE KEY entity_extension_time_series_chunk_bucket (entityFQNHash, extension, bucketStart),  -- One chunk per bucket
+    INDEX entity_extension_time_series_chunk_index (entityFQN(500), extension, endTs)
+);
+
+CREATE INDEX entity_extension_time_series_extension_index ON entity_extension_time_series (extension, timestamp);
+
+-- Rolling usage counts sum the daily counts of an entity over the previous days
+CREATE INDEX entity_usage_id_index ON entity_usage (id, usageDate);
+
+-- Tags of all the columns of a table are read by the prefix of the column FQNs
+CREATE INDEX tag_usage_target_index ON tag_usage (targetFQN);
+
+-- Latest entries of the extension of many entities are read with a single query
+CREATE INDEX entity_extension_time_series_entity_index
+    ON entity_extension_time_series (entityFQN(500), extension, timestamp);
+
+-- Cache keys invalidated by a server, read by the other servers to invalidate the same keys in their caches
+CREATE TABLE IF NOT EXISTS cache_invalidation (
+    id BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+    cacheName VARCHAR(64) NOT NULL,
+    cacheKey VARCHAR(256) NOT NULL,
+    serverId VARCHAR(36) NOT NULL,
+    createdAt BIGINT UNSIGNED NOT NULL,
+    PRIMARY KEY (id),
+    INDEX cache_invalidation_created_index (createdAt)
+);
+
+-- Posts of the feed threads, appended one row per post without rewriting the thread
+CREATE TABLE IF NOT EXISTS thread_post (
+    threadId VARCHAR(36) NOT NULL,
+    id VARCHAR(36) NOT NULL,
+    postTs BIGINT UNSIGNED NOT NULL,
+    json JSON NOT NULL,
+    PRIMARY KEY (threadId, id),
+    INDEX thread_post_ts_index (threadId, postTs, id)
+);
+
+INSERT IGNORE INTO thread_post (threadId, id, postTs, json)
+SELECT thread_entity.id, post.id, post.postTs, post.json
+FROM thread_entity,
+     JSON_TABLE(thread_entity.json, '$.posts[*]' COLUMNS (
+         id VARCHAR(36) PATH '$.id',
+         postTs BIGINT UNSIGNED PATH '$.postTs',
+         json JSON PATH '$')) AS post;
+
+UPDATE thread_entity
+SET json = JSON_SET(json, '$.postsCount', COALESCE(JSON_LENGTH(json, '$.posts'), 0), '$.posts', JSON_ARRAY());
+
+-- Number of threads about each entity link, updated with the threads and read by the thread count API
+CREATE TABLE IF NOT EXISTS thread_count (
+    entityLink VARCHAR(256) NOT NULL,
+    aboutFQN VARCHAR(256) NOT NULL,
+    aboutType VARCHAR(256) NOT NULL,
+    type VARCHAR(64) NOT NULL,
+    taskStatus VARCHAR(64) NOT NULL,            -- Empty for threads without a task
+    resolved BOOLEAN NOT NULL,
+    count INT NOT NULL,
+    PRIMARY KEY (entityLink, type, taskStatus, resolved),
+    INDEX thread_count_about_index (aboutFQN, aboutType)
+);
+
+INSERT INTO thread_count (entityLink, aboutFQN, aboutType, type, taskStatus, resolved, count)
+SELECT te.entityLink, fr.toFQN, fr.toType, te.type, COALESCE(te.taskStatus, ''), COALESCE(te.resolved, false),
+       COUNT(te.id)
+FROM thread_entity te INNER JOIN field_relationship fr ON fr.fromFQN = te.id
+WHERE fr.fromType = 'THREAD' AND fr.relation = 3                 -- Thread isAbout the entity link
+GROUP BY te.entityLink, fr.toFQN, fr.toType, te.type, COALESCE(te.taskStatus, ''), COALESCE(te.resolved, false);
+
+-- Users and teams that the tasks are assigned to, to list the tasks of a user without reading all the tasks
+CREATE TABLE IF NOT EXISTS thread_assignee (
+    threadId VARCHAR(36) NOT NULL,
+    assigneeId VARCHAR(36) NOT NULL,
+    assigneeType VARCHAR(64) NOT NULL,          -- user or team
+    PRIMARY KEY (assigneeId, threadId),
+    INDEX thread_assignee_thread_index (threadId)
+);
+
+INSERT IGNORE INTO thread_assignee (threadId, assigneeId, assigneeType)
+SELECT thread_entity.id, assignee.id, assignee.type
+FROM thread_entity,
+     JSON_TABLE(thread_entity.json, '$.task.assignees[*]' COLUMNS (
+         id VARCHAR(36) PATH '$.id',
+         type VARCHAR(64) PATH '$.type')) AS assignee
+WHERE thread_entity.type = 'Task';
+
+-- Users and teams mentioned in the threads, to list the threads a user is mentioned in
+CREATE TABLE IF NOT EXISTS thread_mention (
+    threadId VARCHAR(36) NOT NULL,
+    mentionFQN VARCHAR(256) NOT NULL,           -- Name of the user or team
+    mentionType VARCHAR(64) NOT NULL,           -- user or team
+    PRIMARY KEY (mentionType, mentionFQN, threadId),
+    INDEX thread_mention_thread_index (threadId)
+);
+
+INSERT IGNORE INTO thread_mention (threadId, mentionFQN, mentionType)
+SELECT toFQN, fromFQN, fromType FROM field_relationship
+WHERE toType = 'THREAD' AND relation = 5 AND fromType IN ('user', 'team');      -- User or team mentionedIn thread
+
+-- Tasks created by a user are listed in the order of the updated timestamp
+CREATE INDEX thread_entity_created_by_updated_at_index ON thread_entity (createdBy, updatedAt);
@@ -17,3 +17,135 @@ SET json = JSONB_SET(json::jsonb, '{provider}', '"system"', true);
 
 UPDATE bot_entity
 SET json = json::jsonb #- '{botType}';
+
+-- Turn change_event into a log that subscribers consume in order of the offset at their own speed
+ALTER TABLE change_event ADD COLUMN IF NOT EXISTS eventOffset BIGSERIAL;
+CREATE UNIQUE INDEX IF NOT EXISTS change_event_offset_index ON change_event(eventOffset);
+
+CREATE TABLE IF NOT EXISTS change_event_consumers (
+    id VARCHAR(256) NOT NULL,
+    eventOffset BIGINT NOT NULL,
+    updatedAt BIGINT NOT NULL,
+    leaseOwner VARCHAR(64),
+    leaseExpiresAt BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id)
+);
+
+-- Offsets of the change events whose activity feed did not fit in the event handler queue, waiting to be processed
+CREATE TABLE IF NOT EXISTS change_event_spill (
+    id BIGSERIAL NOT NULL,
+    userName VARCHAR(256) NOT NULL,
+    eventOffset BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Profiles and test case results of past time buckets compacted into chunks of columns. The rows of
+-- entity_extension_time_series are moved into chunks by the compaction job when chunked storage is enabled.
+CREATE TABLE IF NOT EXISTS entity_extension_time_series_chunk (
+    entityFQN VARCHAR(1024) NOT NULL,           -- Entity FQN, we can refer to tables and columns
+    extension VARCHAR(256) NOT NULL,            -- Extension name same as entity.fieldName
+    bucketStart BIGINT NOT NULL,                -- Start of the time bucket of the chunk
+    startTs BIGINT NOT NULL,                    -- Timestamp of the first entry in the chunk
+    endTs BIGINT NOT NULL,                      -- Timestamp of the last entry in the chunk
+    compactedAt BIGINT NOT NULL,
+    chunk BYTEA NOT NULL,
+    PRIMARY KEY (entityFQN, extension, bucketStart)  -- One chunk per bucket
+);
+CREATE INDEX IF NOT EXISTS entity_extension_time_series_chunk_index
+    ON entity_extension_time_series_chunk (entityFQN, extension, endTs);
+
+CREATE INDEX IF NOT EXISTS entity_extension_time_series_extension_index
+    ON entity_extension_time_series (extension, timestamp);
+
+-- Rolling usage counts sum the daily counts of an entity over the previous days
+CREATE INDEX IF NOT EXISTS entity_usage_id_index ON entity_usage (id, usageDate);
+
+-- Tags of all the columns of a table are read by the prefix of the column FQNs
+CREATE INDEX IF NOT EXISTS tag_usage_target_index ON tag_usage (targetFQN varchar_pattern_ops);
+
+-- Latest entries of the extension of many entities are read with a single query
+CREATE INDEX IF NOT EXISTS entity_extension_time_series_entity_index
+    ON entity_extension_time_series (entityFQN, extension, timestamp);
+
+-- Cache keys invalidated by a server, read by the other servers to invalidate the same keys in their caches
+CREATE TABLE IF NOT EXISTS cache_invalidation (
+    id BIGSERIAL NOT NULL,
+    cacheName VARCHAR(64) NOT NULL,
+    cacheKey VARCHAR(256) NOT NULL,
+    serverId VARCHAR(36) NOT NULL,
+    createdAt BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+CREATE INDEX IF NOT EXISTS cache_invalidation_created_index ON cache_invalidation (createdAt);
+
+-- Posts of the feed threads, appended one row per post without rewriting the thread
+CREATE TABLE IF NOT EXISTS thread_post (
+    threadId VARCHAR(36) NOT NULL,
+    id VARCHAR(36) NOT NULL,
+    postTs BIGINT NOT NULL,
+    json JSONB NOT NULL,
+    PRIMARY KEY (threadId, id)
+);
+CREATE INDEX IF NOT EXISTS thread_post_ts_index ON thread_post (threadId, postTs, id);
+
+INSERT INTO thread_post (threadId, id, postTs, json)
+SELECT thread_entity.id, post ->> 'id', (post ->> 'postTs')::bigint, post
+FROM thread_entity, jsonb_array_elements(COALESCE(thread_entity.json -> 'posts', '[]'::jsonb)) AS post
+ON CONFLICT DO NOTHING;
+
+UPDATE thread_entity
+SET json = jsonb_set(
+    jsonb_set(json, '{postsCount}', to_jsonb(jsonb_array_length(COALESCE(json -> 'posts', '[]'::jsonb)))),
+    '{posts}', '[]'::jsonb);
+
+-- Number of threads about each entity link, updated with the threads and read by the thread count API
+CREATE TABLE IF NOT EXISTS thread_count (
+    entityLink VARCHAR(256) NOT NULL,
+    aboutFQN VARCHAR(256) NOT NULL,
+    aboutType VARCHAR(256) NOT NULL,
+    type VARCHAR(64) NOT NULL,
+    taskStatus VARCHAR(64) NOT NULL,            -- Empty for threads without a task
+    resolved BOOLEAN NOT NULL,
+    count INT NOT NULL,
+    PRIMARY KEY (entityLink, type, taskStatus, resolved)
+);
+CREATE INDEX IF NOT EXISTS thread_count_about_index ON thread_count (aboutFQN, aboutType);
+
+INSERT INTO thread_count (entityLink, aboutFQN, aboutType, type, taskStatus, resolved, count)
+SELECT te.entityLink, fr.toFQN, fr.toType, te.type, COALESCE(te.taskStatus, ''), COALESCE(te.resolved, false),
+       COUNT(te.id)
+FROM thread_entity te INNER JOIN field_relationship fr ON fr.fromFQN = te.id
+WHERE fr.fromType = 'THREAD' AND fr.relation = 3                 -- Thread isAbout the entity link
+GROUP BY te.entityLink, fr.toFQN, fr.toType, te.type, COALESCE(te.taskStatus, ''), COALESCE(te.resolved, false);
+
+-- Users and teams that the tasks are assigned to, to list the tasks of a user without reading all the tasks
+CREATE TABLE IF NOT EXISTS thread_assignee (
+    threadId VARCHAR(36) NOT NULL,
+    assigneeId VARCHAR(36) NOT NULL,
+    assigneeType VARCHAR(64) NOT NULL,          -- user or team
+    PRIMARY KEY (assigneeId, threadId)
+);
+CREATE INDEX IF NOT EXISTS thread_assignee_thread_index ON thread_assignee (threadId);
+
+INSERT INTO thread_assignee (threadId, assigneeId, assigneeType)
+SELECT thread_entity.id, assignee ->> 'id', assignee ->> 'type'
+FROM thread_entity, jsonb_array_elements(COALESCE(thread_entity.json #> '{task,assignees}', '[]'::jsonb)) AS assignee
+WHERE thread_entity.type = 'Task'
+ON CONFLICT DO NOTHING;
+
+-- Users and teams mentioned in the threads, to list the threads a user is mentioned in
+CREATE TABLE IF NOT EXISTS thread_mention (
+    threadId VARCHAR(36) NOT NULL,
+    mentionFQN VARCHAR(256) NOT NULL,           -- Name of the user or team
+    mentionType VARCHAR(64) NOT NULL,           -- user or team
+    PRIMARY KEY (mentionType, mentionFQN, threadId)
+);
+CREATE INDEX IF NOT EXISTS thread_mention_thread_index ON thread_mention (threadId);
+
+INSERT INTO thread_mention (threadId, mentionFQN, mentionType)
+SELECT toFQN, fromFQN, fromType FROM field_relationship
+WHERE toType = 'THREAD' AND relation = 5 AND fromType IN ('user', 'team')      -- User or team mentionedIn thread
+ON CONFLICT DO NOTHING;
+
+-- Tasks created by a user are listed in the order of the updated timestamp
+CREATE INDEX IF NOT EXISTS thread_entity_created_by_updated_at_index ON thread_entity (createdBy, updatedAt);
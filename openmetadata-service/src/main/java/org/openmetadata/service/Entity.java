@@ -60,6 +60,7 @@ public final class Entity {
   public static final String FIELD_FOLLOWERS = "followers";
   public static final String FIELD_TAGS = "tags";
   public static final String FIELD_DELETED = "deleted";
+  public static final String FIELD_DELETED_CHILDREN = "deletedChildren";
   public static final String FIELD_PIPELINE_STATUSES = "pipelineStatuses";
   public static final String FIELD_DISPLAY_NAME = "displayName";
   public static final String FIELD_EXTENSION = "extension";
@@ -180,6 +181,20 @@ public final class Entity {
     return repository.dao.findEntityReferenceById(id, include);
   }
 
+  /**
+   * Get entity references for the given ids of an entity type from the reference cache, with a single query for the
+   * ids that are not cached. Missing ids are ignored.
+   */
+  public static Map<UUID, EntityReference> getEntityReferencesByIds(
+      @NonNull String entityType, @NonNull List<UUID> ids, Include include) {
+    EntityRepository<?> repository = ENTITY_REPOSITORY_MAP.get(entityType);
+    if (repository == null) {
+      throw EntityNotFoundException.byMessage(CatalogExceptionMessage.entityTypeNotFound(entityType));
+    }
+    include = repository.supportsSoftDelete ? Include.ALL : include;
+    return repository.dao.findEntityReferencesByIds(ids, include);
+  }
+
   public static EntityReference getEntityReferenceByName(
       @NonNull String entityType, @NonNull String fqn, Include include) {
     EntityDAO<?> dao = DAO_MAP.get(entityType);
@@ -263,6 +278,12 @@ public final class Entity {
     return EntityInterface.CANONICAL_ENTITY_NAME_MAP.get(object.getClass().getSimpleName().toLowerCase(Locale.ROOT));
   }
 
+  /** Returns the class of the given entity type or null when the entity type is not registered */
+  public static Class<? extends EntityInterface> getEntityClassFromType(String entityType) {
+    EntityDAO<?> dao = DAO_MAP.get(entityType);
+    return dao == null ? null : dao.getEntityClass();
+  }
+
   /**
    * Get list of all the entity field names from JsonPropertyOrder annotation from generated java class from entity.json
    */
@@ -70,7 +70,11 @@ import org.openmetadata.service.exception.CatalogGenericExceptionMapper;
 import org.openmetadata.service.exception.ConstraintViolationExceptionMapper;
 import org.openmetadata.service.exception.JsonMappingExceptionMapper;
 import org.openmetadata.service.fernet.Fernet;
+import org.openmetadata.service.jdbi3.AfterCommit;
+import org.openmetadata.service.jdbi3.CacheInvalidationFeed;
 import org.openmetadata.service.jdbi3.CollectionDAO;
+import org.openmetadata.service.jdbi3.EntityTimeSeriesStore;
+import org.openmetadata.service.jdbi3.EntityVersionStore;
 import org.openmetadata.service.jdbi3.locator.ConnectionAwareAnnotationSqlLocator;
 import org.openmetadata.service.migration.Migration;
 import org.openmetadata.service.migration.MigrationConfiguration;
@@ -120,6 +124,10 @@ public class OpenMetadataApplication extends Application<OpenMetadataApplication
     // Validate flyway Migrations
     validateMigrations(jdbi, catalogConfig.getMigrationConfiguration());
 
+    // Share invalidated cache keys with the other servers, when enabled. Started before the caches are created.
+    CacheInvalidationFeed.initialize(
+        catalogConfig.getCacheInvalidationConfiguration(), jdbi.onDemand(CollectionDAO.class));
+
     // Register Authorizer
     registerAuthorizer(catalogConfig, environment);
 
@@ -139,12 +147,20 @@ public class OpenMetadataApplication extends Application<OpenMetadataApplication
     environment.jersey().register(JsonMappingExceptionMapper.class);
     environment.healthChecks().register("OpenMetadataServerHealthCheck", new OpenMetadataServerHealthCheck());
     // start event hub before registering publishers
-    EventPubSub.start();
+    EventPubSub.start(jdbi.onDemand(CollectionDAO.class));
+
+    // Compact profiles and test case results into chunks, when enabled
+    EntityTimeSeriesStore.initialize(catalogConfig.getTimeSeriesConfiguration(), jdbi.onDemand(CollectionDAO.class));
+
+    // Store entity versions as snapshots and deltas, when enabled
+    EntityVersionStore.initialize(catalogConfig.getVersionHistoryConfiguration(), jdbi.onDemand(CollectionDAO.class));
 
     registerResources(catalogConfig, environment, jdbi);
 
     // Register Event Handler
     registerEventFilter(catalogConfig, environment, jdbi);
+    // Evict cache entries once the writes of a request are committed
+    environment.jersey().register(new AfterCommit());
     environment.lifecycle().manage(new ManagedShutdown());
     // Register Event publishers
     registerEventPublisher(catalogConfig, jdbi);
@@ -338,6 +354,10 @@ public class OpenMetadataApplication extends Application<OpenMetadataApplication
     @Override
     public void stop() throws InterruptedException {
       EventPubSub.shutdown();
+      EntityTimeSeriesStore.shutdown();
+      EntityVersionStore.shutdown();
+      CacheInvalidationFeed.shutdown();
+      WebSocketManager.shutdown();
       LOG.info("Stopping the application");
     }
   }
@@ -32,7 +32,11 @@ import org.openmetadata.schema.api.security.AuthorizerConfiguration;
 import org.openmetadata.schema.api.security.jwt.JWTTokenConfiguration;
 import org.openmetadata.schema.api.slackChat.SlackChatConfiguration;
 import org.openmetadata.schema.email.SmtpSettings;
+import org.openmetadata.service.jdbi3.CacheInvalidationConfiguration;
+import org.openmetadata.service.jdbi3.TimeSeriesConfiguration;
+import org.openmetadata.service.jdbi3.VersionHistoryConfiguration;
 import org.openmetadata.service.migration.MigrationConfiguration;
+import org.openmetadata.service.resources.lineage.LineageConfiguration;
 import org.openmetadata.service.secrets.SecretsManagerConfiguration;
 
 @Getter
@@ -96,6 +100,22 @@ public class OpenMetadataApplicationConfig extends Configuration {
   @JsonProperty("login")
   private LoginConfiguration loginSettings;
 
+  @JsonProperty("lineage")
+  @Valid
+  private LineageConfiguration lineageConfiguration = new LineageConfiguration();
+
+  @JsonProperty("timeSeries")
+  @Valid
+  private TimeSeriesConfiguration timeSeriesConfiguration = new TimeSeriesConfiguration();
+
+  @JsonProperty("versionHistory")
+  @Valid
+  private VersionHistoryConfiguration versionHistoryConfiguration = new VersionHistoryConfiguration();
+
+  @JsonProperty("cacheInvalidation")
+  @Valid
+  private CacheInvalidationConfiguration cacheInvalidationConfiguration = new CacheInvalidationConfiguration();
+
   @Override
   public String toString() {
     return "catalogConfig{"
@@ -22,26 +22,36 @@ import static org.openmetadata.service.resources.elasticSearch.BuildSearchIndexR
 import static org.openmetadata.service.resources.elasticSearch.BuildSearchIndexResource.ELASTIC_SEARCH_EXTENSION;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang.exception.ExceptionUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.support.WriteRequest;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.xcontent.XContentType;
-import org.elasticsearch.index.engine.DocumentMissingException;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.TermQueryBuilder;
 import org.elasticsearch.index.query.WildcardQueryBuilder;
@@ -94,15 +104,35 @@ public class ElasticSearchEventPublisher extends AbstractEventPublisher {
   private final CollectionDAO dao;
   private static final String SERVICE_NAME = "service.name";
   private static final String DATABASE_NAME = "database.name";
+  private static final int BULK_MAX_RETRIES = 3;
+  private static final long BULK_INITIAL_BACKOFF = 1000; // In milliseconds
+  private static final Set<RestStatus> RETRIABLE_STATUS =
+      Set.of(
+          RestStatus.TOO_MANY_REQUESTS,
+          RestStatus.SERVICE_UNAVAILABLE,
+          RestStatus.GATEWAY_TIMEOUT,
+          RestStatus.REQUEST_TIMEOUT);
+  private final BulkBatch bulkBatch = new BulkBatch();
+  private ChangeEvent currentEvent; // Change event being translated into ElasticSearch requests
 
   public ElasticSearchEventPublisher(ElasticSearchConfiguration esConfig, CollectionDAO dao) {
-    super(esConfig.getBatchSize(), new ArrayList<>());
+    this(esConfig.getBatchSize(), ElasticSearchClientUtils.createElasticSearchClient(esConfig), dao);
+    esIndexDefinition.createIndexes();
+  }
+
+  /** Publisher writing to the given client, without creating the indexes */
+  ElasticSearchEventPublisher(int batchSize, RestHighLevelClient client, CollectionDAO dao) {
+    super(batchSize, new ArrayList<>());
     this.dao = dao;
     // needs Db connection
     registerElasticSearchJobs();
-    this.client = ElasticSearchClientUtils.createElasticSearchClient(esConfig);
+    this.client = client;
     esIndexDefinition = new ElasticSearchIndexDefinition(client, dao);
-    esIndexDefinition.createIndexes();
+  }
+
+  @Override
+  public String getName() {
+    return "elasticsearch";
   }
 
   @Override
@@ -112,10 +142,10 @@ public class ElasticSearchEventPublisher extends AbstractEventPublisher {
 
   @Override
   public void publish(ChangeEventList events) throws EventPublisherException, JsonProcessingException {
+    bulkBatch.clear();
     for (ChangeEvent event : events.getData()) {
+      currentEvent = event;
       String entityType = event.getEntityType();
-      String contextInfo =
-          event.getEntity() != null ? String.format("Entity Info : %s", JsonUtils.pojoToJson(event.getEntity())) : null;
       try {
         switch (entityType) {
           case Entity.TABLE:
@@ -175,15 +205,8 @@ public class ElasticSearchEventPublisher extends AbstractEventPublisher {
           default:
             LOG.warn("Ignoring Entity Type {}", entityType);
         }
-      } catch (DocumentMissingException ex) {
-        LOG.error("Missing Document", ex);
-        updateElasticSearchFailureStatus(
-            contextInfo,
-            EventPublisherJob.Status.ACTIVEWITHERROR,
-            String.format(
-                "Missing Document while Updating ES. Reason[%s], Cause[%s], Stack [%s]",
-                ex.getMessage(), ex.getCause(), ExceptionUtils.getStackTrace(ex)));
       } catch (ElasticsearchException e) {
+        String contextInfo = getContextInfo(event);
         LOG.error("failed to update ES doc");
         LOG.debug(e.getMessage());
         if (e.status() == RestStatus.GATEWAY_TIMEOUT || e.status() == RestStatus.REQUEST_TIMEOUT) {
@@ -204,9 +227,18 @@ public class ElasticSearchEventPublisher extends AbstractEventPublisher {
                   e.getMessage(), e.getCause(), ExceptionUtils.getStackTrace(e)));
           LOG.error(e.getMessage(), e);
         }
+      } catch (RuntimeException e) {
+        // An event that can't be translated is skipped without dropping the other events of the batch
+        LOG.error("Failed to translate the change event of {} {} into ES requests", entityType, event.getEntityId(), e);
+        updateElasticSearchFailureStatus(
+            getContextInfo(event),
+            EventPublisherJob.Status.ACTIVEWITHERROR,
+            String.format(
+                "Failed to translate the change event into ES requests. Reason[%s], Cause[%s], Stack [%s]",
+                e.getMessage(), e.getCause(), ExceptionUtils.getStackTrace(e)));
       } catch (IOException ie) {
         updateElasticSearchFailureStatus(
-            contextInfo,
+            getContextInfo(event),
             EventPublisherJob.Status.ACTIVEWITHERROR,
             String.format(
                 "Issue in updating ES request. Reason[%s], Cause[%s], Stack [%s]",
@@ -214,6 +246,30 @@ public class ElasticSearchEventPublisher extends AbstractEventPublisher {
         throw new EventPublisherException(ie.getMessage());
       }
     }
+
+    // Finally, send the write requests of all the events in the batch with a single bulk request
+    try {
+      flush();
+    } catch (ElasticsearchException e) {
+      LOG.error("failed to update ES docs", e);
+      updateElasticSearchFailureStatus(
+          null,
+          EventPublisherJob.Status.ACTIVEWITHERROR,
+          String.format(
+              "Failed while sending bulk request to ES. Reason[%s], Cause[%s], Stack [%s]",
+              e.getMessage(), e.getCause(), ExceptionUtils.getStackTrace(e)));
+      if (RETRIABLE_STATUS.contains(e.status())) {
+        throw new ElasticSearchRetriableException(e.getMessage());
+      }
+    } catch (IOException ie) {
+      updateElasticSearchFailureStatus(
+          null,
+          EventPublisherJob.Status.ACTIVEWITHERROR,
+          String.format(
+              "Issue in sending bulk request to ES. Reason[%s], Cause[%s], Stack [%s]",
+              ie.getMessage(), ie.getCause(), ExceptionUtils.getStackTrace(ie)));
+      throw new ElasticSearchRetriableException(ie.getMessage(), ie);
+    }
   }
 
   @Override
@@ -235,8 +291,7 @@ public class ElasticSearchEventPublisher extends AbstractEventPublisher {
     scriptTxt.append("ctx._source.updatedAt=params.updatedAt;");
     for (FieldChange fieldChange : fieldsAdded) {
       if (fieldChange.getName().equalsIgnoreCase(FIELD_FOLLOWERS)) {
-        @SuppressWarnings("unchecked")
-        List<EntityReference> entityReferences = (List<EntityReference>) fieldChange.getNewValue();
+        List<EntityReference> entityReferences = toEntityReferences(fieldChange.getNewValue());
         List<String> newFollowers = new ArrayList<>();
         for (EntityReference follower : entityReferences) {
           newFollowers.add(follower.getId().toString());
@@ -248,8 +303,7 @@ public class ElasticSearchEventPublisher extends AbstractEventPublisher {
 
     for (FieldChange fieldChange : changeDescription.getFieldsDeleted()) {
       if (fieldChange.getName().equalsIgnoreCase(FIELD_FOLLOWERS)) {
-        @SuppressWarnings("unchecked")
-        List<EntityReference> entityReferences = (List<EntityReference>) fieldChange.getOldValue();
+        List<EntityReference> entityReferences = toEntityReferences(fieldChange.getOldValue());
         for (EntityReference follower : entityReferences) {
           fieldAddParams.put(fieldChange.getName(), follower.getId().toString());
         }
@@ -259,7 +313,7 @@ public class ElasticSearchEventPublisher extends AbstractEventPublisher {
 
     for (FieldChange fieldChange : changeDescription.getFieldsUpdated()) {
       if (fieldChange.getName().equalsIgnoreCase(FIELD_USAGE_SUMMARY)) {
-        UsageDetails usageSummary = (UsageDetails) fieldChange.getNewValue();
+        UsageDetails usageSummary = JsonUtils.convertValue(fieldChange.getNewValue(), UsageDetails.class);
         fieldAddParams.put(fieldChange.getName(), JsonUtils.getMap(usageSummary));
         scriptTxt.append("ctx._source.usageSummary = params.usageSummary;");
       }
@@ -275,6 +329,14 @@ public class ElasticSearchEventPublisher extends AbstractEventPublisher {
     }
   }
 
+  /**
+   * Field values of the events read back from the change event log are maps and lists of maps, and those of the events
+   * created on this server are POJOs
+   */
+  private static List<EntityReference> toEntityReferences(Object value) {
+    return JsonUtils.convertValue(value, new TypeReference<>() {});
+  }
+
   private void updateTable(ChangeEvent event) throws IOException {
     UpdateRequest updateRequest =
         new UpdateRequest(ElasticSearchIndexType.TABLE_SEARCH_INDEX.indexName, event.getEntityId().toString());
@@ -678,29 +740,134 @@ public class ElasticSearchEventPublisher extends AbstractEventPublisher {
     updateRequest.script(script);
   }
 
-  private void updateElasticSearch(UpdateRequest updateRequest) throws IOException {
+  private void updateElasticSearch(UpdateRequest updateRequest) {
     if (updateRequest != null) {
-      LOG.debug("Sending request to ElasticSearch {}", updateRequest);
-      client.update(updateRequest, RequestOptions.DEFAULT);
+      bulkBatch.add(currentEvent, updateRequest);
     }
   }
 
-  private void deleteEntityFromElasticSearch(DeleteRequest deleteRequest) throws IOException {
+  private void deleteEntityFromElasticSearch(DeleteRequest deleteRequest) {
     if (deleteRequest != null) {
-      LOG.debug("Sending request to ElasticSearch {}", deleteRequest);
       deleteRequest.setRefreshPolicy(WriteRequest.RefreshPolicy.WAIT_UNTIL);
-      client.delete(deleteRequest, RequestOptions.DEFAULT);
+      bulkBatch.add(currentEvent, deleteRequest);
     }
   }
 
   private void deleteEntityFromElasticSearchByQuery(DeleteByQueryRequest deleteRequest) throws IOException {
     if (deleteRequest != null) {
+      // Delete by query can't be part of a bulk request. Send the pending requests first to keep the order of events.
+      flush();
+      List<String> indexes = new ArrayList<>(List.of(deleteRequest.indices()));
+      for (String index : deleteRequest.indices()) {
+        String shadowIndex = ElasticSearchIndexDefinition.getShadowIndex(index);
+        if (shadowIndex != null) {
+          indexes.add(shadowIndex);
+        }
+      }
+      deleteRequest.indices(indexes.toArray(new String[0]));
       LOG.debug("Sending request to ElasticSearch {}", deleteRequest);
       deleteRequest.setRefresh(true);
       client.deleteByQuery(deleteRequest, RequestOptions.DEFAULT);
     }
   }
 
+  /**
+   * Send the pending write requests with a single bulk request. Items that fail with a retriable status are retried
+   * with exponential backoff. Items that fail otherwise or that fail after all the retries are recorded in the failure
+   * details of the ElasticSearch stream job.
+   */
+  private void flush() throws IOException {
+    if (bulkBatch.isEmpty()) {
+      return;
+    }
+    BulkRequest bulkRequest = bulkBatch.toBulkRequest();
+    Map<String, ChangeEvent> events = new HashMap<>(bulkBatch.events);
+    bulkBatch.clear();
+
+    List<Pair<DocWriteRequest<?>, BulkItemResponse>> failures = new ArrayList<>();
+    long backoff = BULK_INITIAL_BACKOFF;
+    for (int attempt = 0; bulkRequest.numberOfActions() > 0; attempt++) {
+      LOG.debug("Sending bulk request with {} items to ElasticSearch", bulkRequest.numberOfActions());
+      BulkResponse response = client.bulk(bulkRequest, RequestOptions.DEFAULT);
+      if (!response.hasFailures()) {
+        break;
+      }
+      BulkRequest retryRequest = new BulkRequest().setRefreshPolicy(bulkRequest.getRefreshPolicy());
+      BulkItemResponse[] items = response.getItems();
+      for (int i = 0; i < items.length; i++) {
+        if (!items[i].isFailed()) {
+          continue;
+        }
+        DocWriteRequest<?> request = bulkRequest.requests().get(i);
+        if (ElasticSearchIndexDefinition.isShadowIndex(request.index())) {
+          // Document may not be loaded yet into the index being rebuilt. Reindex catches up with the change later.
+          LOG.debug("Failed to update shadow index {} {}", request.index(), items[i].getFailureMessage());
+          continue;
+        }
+        if (attempt < BULK_MAX_RETRIES && RETRIABLE_STATUS.contains(items[i].status())) {
+          retryRequest.add(request);
+        } else {
+          failures.add(Pair.of(request, items[i]));
+        }
+      }
+      if (retryRequest.numberOfActions() > 0) {
+        LOG.warn("Retrying {} failed ES requests in {} ms", retryRequest.numberOfActions(), backoff);
+        if (!sleep(backoff)) {
+          retryRequest.requests().forEach(request -> failures.add(Pair.of(request, null)));
+          break;
+        }
+        backoff = backoff * 2;
+      }
+      bulkRequest = retryRequest;
+    }
+    if (!failures.isEmpty()) {
+      recordFailures(failures, events);
+    }
+  }
+
+  private void recordFailures(
+      List<Pair<DocWriteRequest<?>, BulkItemResponse>> failures, Map<String, ChangeEvent> events)
+      throws JsonProcessingException {
+    List<Map<String, String>> failedEntities = new ArrayList<>();
+    for (Pair<DocWriteRequest<?>, BulkItemResponse> failure : failures) {
+      DocWriteRequest<?> request = failure.getLeft();
+      ChangeEvent event = events.get(docKey(request.index(), request.id()));
+      Map<String, String> failedEntity = new LinkedHashMap<>();
+      failedEntity.put("entityType", event != null ? event.getEntityType() : null);
+      failedEntity.put("entityId", request.id());
+      failedEntity.put("eventType", event != null ? event.getEventType().value() : null);
+      failedEntity.put("reason", failure.getRight() != null ? failure.getRight().getFailureMessage() : "Interrupted");
+      failedEntities.add(failedEntity);
+    }
+    LOG.error("Failed to update {} ES docs {}", failures.size(), failedEntities);
+    updateElasticSearchFailureStatus(
+        String.format("Failed Entities : %s", JsonUtils.pojoToJson(failedEntities)),
+        EventPublisherJob.Status.ACTIVEWITHERROR,
+        String.format(
+            "Failed to update %d docs while updating ES. Reason[%s]",
+            failures.size(), failedEntities.get(0).get("reason")));
+  }
+
+  private static boolean sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private static String getContextInfo(ChangeEvent event) throws JsonProcessingException {
+    return event.getEntity() != null
+        ? String.format("Entity Info : %s", JsonUtils.pojoToJson(event.getEntity()))
+        : null;
+  }
+
+  private static String docKey(String index, String id) {
+    return index + "/" + id;
+  }
+
   public void registerElasticSearchJobs() {
     try {
       dao.entityExtensionTimeSeriesDao()
@@ -778,4 +945,77 @@ public class ElasticSearchEventPublisher extends AbstractEventPublisher {
       LOG.error("Failed to close elastic search", e);
     }
   }
+
+  /** Write requests for the change events in a batch, coalesced by document */
+  private static class BulkBatch {
+    private final Map<String, List<DocWriteRequest<?>>> requests = new LinkedHashMap<>();
+    private final Map<String, ChangeEvent> events = new HashMap<>();
+    private boolean refresh = false;
+
+    /**
+     * Add a write request. A request that writes the entire document, such as an upsert of the full document or a
+     * delete, replaces the earlier requests for the same document, so the last writer wins. A partial update is applied
+     * after the earlier requests for the document.
+     */
+    void add(ChangeEvent event, DocWriteRequest<?> request) {
+      // Refresh policy is not allowed for the items in a bulk request and is set on the bulk request instead
+      WriteRequest<?> writeRequest = (WriteRequest<?>) request;
+      refresh = refresh || writeRequest.getRefreshPolicy() != WriteRequest.RefreshPolicy.NONE;
+      writeRequest.setRefreshPolicy(WriteRequest.RefreshPolicy.NONE);
+
+      String key = docKey(request.index(), request.id());
+      List<DocWriteRequest<?>> docRequests = requests.computeIfAbsent(key, k -> new ArrayList<>());
+      if (isFullDocument(request)) {
+        docRequests.clear();
+      }
+      docRequests.add(request);
+      events.put(key, event);
+    }
+
+    /** Bulk request with the write requests. Requests to an index being rebuilt are also sent to its shadow index. */
+    BulkRequest toBulkRequest() throws IOException {
+      BulkRequest bulkRequest = new BulkRequest();
+      for (List<DocWriteRequest<?>> docRequests : requests.values()) {
+        for (DocWriteRequest<?> request : docRequests) {
+          bulkRequest.add(request);
+          String shadowIndex = ElasticSearchIndexDefinition.getShadowIndex(request.index());
+          if (shadowIndex != null) {
+            bulkRequest.add(copyTo(request, shadowIndex));
+          }
+        }
+      }
+      if (refresh) {
+        bulkRequest.setRefreshPolicy(WriteRequest.RefreshPolicy.WAIT_UNTIL);
+      }
+      return bulkRequest;
+    }
+
+    boolean isEmpty() {
+      return requests.isEmpty();
+    }
+
+    void clear() {
+      requests.clear();
+      events.clear();
+      refresh = false;
+    }
+
+    private static DocWriteRequest<?> copyTo(DocWriteRequest<?> request, String index) throws IOException {
+      try (BytesStreamOutput out = new BytesStreamOutput()) {
+        ((ActionRequest) request).writeTo(out);
+        StreamInput in = out.bytes().streamInput();
+        DocWriteRequest<?> copy = request instanceof DeleteRequest ? new DeleteRequest(in) : new UpdateRequest(in);
+        copy.index(index);
+        return copy;
+      }
+    }
+
+    private static boolean isFullDocument(DocWriteRequest<?> request) {
+      if (request instanceof DeleteRequest) {
+        return true;
+      }
+      UpdateRequest updateRequest = (UpdateRequest) request;
+      return updateRequest.docAsUpsert() || updateRequest.scriptedUpsert();
+    }
+  }
 }
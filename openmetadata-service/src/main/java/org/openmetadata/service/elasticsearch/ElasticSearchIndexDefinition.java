@@ -12,12 +12,20 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.extern.jackson.Jacksonized;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang.exception.ExceptionUtils;
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest;
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest.AliasActions;
+import org.elasticsearch.action.admin.indices.alias.get.GetAliasesRequest;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
+import org.elasticsearch.action.admin.indices.refresh.RefreshRequest;
+import org.elasticsearch.action.admin.indices.settings.get.GetSettingsRequest;
+import org.elasticsearch.action.admin.indices.settings.put.UpdateSettingsRequest;
 import org.elasticsearch.action.support.master.AcknowledgedResponse;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
@@ -25,6 +33,7 @@ import org.elasticsearch.client.indices.CreateIndexRequest;
 import org.elasticsearch.client.indices.CreateIndexResponse;
 import org.elasticsearch.client.indices.GetIndexRequest;
 import org.elasticsearch.client.indices.PutMappingRequest;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.openmetadata.schema.settings.EventPublisherJob;
 import org.openmetadata.schema.settings.FailureDetails;
@@ -35,6 +44,11 @@ import org.openmetadata.service.util.JsonUtils;
 
 @Slf4j
 public class ElasticSearchIndexDefinition {
+  private static final String REFRESH_INTERVAL = "index.refresh_interval";
+  private static final String NUMBER_OF_REPLICAS = "index.number_of_replicas";
+  /** Shadow indexes being loaded by reindexing keyed by the name of the index they replace */
+  private static final Map<String, String> SHADOW_INDEXES = new ConcurrentHashMap<>();
+
   private final CollectionDAO dao;
   final EnumMap<ElasticSearchIndexType, ElasticSearchIndexStatus> elasticSearchIndexes =
       new EnumMap<>(ElasticSearchIndexType.class);
@@ -161,7 +175,8 @@ public class ElasticSearchIndexDefinition {
       gRequest.local(false);
       boolean exists = client.indices().exists(gRequest, RequestOptions.DEFAULT);
       if (exists) {
-        DeleteIndexRequest request = new DeleteIndexRequest(elasticSearchIndexType.indexName);
+        // Index name is an alias of the index built by the last reindex. Indexes can't be deleted by alias.
+        DeleteIndexRequest request = new DeleteIndexRequest(getConcreteIndexes(elasticSearchIndexType.indexName));
         AcknowledgedResponse deleteIndexResponse = client.indices().delete(request, RequestOptions.DEFAULT);
         LOG.info("{} Deleted {}", elasticSearchIndexType.indexName, deleteIndexResponse.isAcknowledged());
       }
@@ -173,6 +188,92 @@ public class ElasticSearchIndexDefinition {
     }
   }
 
+  /**
+   * Create a new index with the mapping of the index type, to be loaded by reindexing while the current index keeps
+   * serving queries. Refresh is disabled and there are no replicas while the index is loaded. Until the index is
+   * promoted or discarded, the change events published by this server are written both to the current index and to
+   * this index.
+   */
+  public String createShadowIndex(ElasticSearchIndexType indexType) throws IOException {
+    String shadowIndex = String.format("%s_%d", indexType.indexName, System.currentTimeMillis());
+    CreateIndexRequest request = new CreateIndexRequest(shadowIndex);
+    request.source(getIndexMapping(indexType), XContentType.JSON);
+    client.indices().create(request, RequestOptions.DEFAULT);
+    Settings loadSettings = Settings.builder().put(REFRESH_INTERVAL, "-1").put(NUMBER_OF_REPLICAS, 0).build();
+    client.indices().putSettings(new UpdateSettingsRequest(shadowIndex).settings(loadSettings), RequestOptions.DEFAULT);
+    SHADOW_INDEXES.put(indexType.indexName, shadowIndex);
+    LOG.info("{} Created shadow index {}", indexType.indexName, shadowIndex);
+    return shadowIndex;
+  }
+
+  /**
+   * Make the shadow index the index that serves queries. Settings of the current index are restored on the shadow index
+   * and the alias with the index name is moved to the shadow index atomically. The indexes previously behind the alias
+   * are deleted. An index created before reindexing used aliases has the index name and is replaced by the alias.
+   */
+  public void promoteShadowIndex(ElasticSearchIndexType indexType, String shadowIndex) throws IOException {
+    String alias = indexType.indexName;
+    try {
+      String[] currentIndexes = new String[0];
+      boolean isAlias = client.indices().existsAlias(new GetAliasesRequest(alias), RequestOptions.DEFAULT);
+      boolean exists = client.indices().exists(new GetIndexRequest(alias), RequestOptions.DEFAULT);
+      if (exists) {
+        currentIndexes = getConcreteIndexes(alias);
+      }
+
+      Settings.Builder settings = Settings.builder().putNull(REFRESH_INTERVAL);
+      String replicas = exists ? getSetting(currentIndexes[0], NUMBER_OF_REPLICAS) : null;
+      settings = replicas != null ? settings.put(NUMBER_OF_REPLICAS, replicas) : settings.putNull(NUMBER_OF_REPLICAS);
+      client.indices().putSettings(new UpdateSettingsRequest(shadowIndex).settings(settings), RequestOptions.DEFAULT);
+      client.indices().refresh(new RefreshRequest(shadowIndex), RequestOptions.DEFAULT);
+
+      IndicesAliasesRequest request = new IndicesAliasesRequest();
+      if (isAlias) {
+        request.addAliasAction(AliasActions.remove().indices(currentIndexes).alias(alias));
+      } else if (exists) {
+        request.addAliasAction(AliasActions.removeIndex().index(alias));
+      }
+      request.addAliasAction(AliasActions.add().index(shadowIndex).alias(alias));
+      client.indices().updateAliases(request, RequestOptions.DEFAULT);
+      LOG.info("{} Alias moved to {} from [{}]", alias, shadowIndex, String.join(",", currentIndexes));
+      if (isAlias) {
+        client.indices().delete(new DeleteIndexRequest(currentIndexes), RequestOptions.DEFAULT);
+      }
+      setIndexStatus(indexType, ElasticSearchIndexStatus.CREATED);
+    } finally {
+      SHADOW_INDEXES.remove(alias, shadowIndex);
+    }
+  }
+
+  /** Delete a shadow index that could not be fully loaded. The current index is left as is. */
+  public void discardShadowIndex(ElasticSearchIndexType indexType, String shadowIndex) {
+    SHADOW_INDEXES.remove(indexType.indexName, shadowIndex);
+    try {
+      client.indices().delete(new DeleteIndexRequest(shadowIndex), RequestOptions.DEFAULT);
+      LOG.info("{} Discarded shadow index {}", indexType.indexName, shadowIndex);
+    } catch (Exception e) {
+      LOG.error("Failed to delete shadow index {}", shadowIndex, e);
+    }
+  }
+
+  /** Returns the shadow index being loaded for the given index name, or null when the index is not being rebuilt */
+  public static String getShadowIndex(String indexName) {
+    return SHADOW_INDEXES.get(indexName);
+  }
+
+  public static boolean isShadowIndex(String indexName) {
+    return SHADOW_INDEXES.containsValue(indexName);
+  }
+
+  private String[] getConcreteIndexes(String indexName) throws IOException {
+    return client.indices().get(new GetIndexRequest(indexName), RequestOptions.DEFAULT).getIndices();
+  }
+
+  private String getSetting(String index, String setting) throws IOException {
+    GetSettingsRequest request = new GetSettingsRequest().indices(index).names(setting);
+    return client.indices().getSettings(request, RequestOptions.DEFAULT).getSetting(index, setting);
+  }
+
   private void setIndexStatus(ElasticSearchIndexType indexType, ElasticSearchIndexStatus elasticSearchIndexStatus) {
     elasticSearchIndexes.put(indexType, elasticSearchIndexStatus);
   }
@@ -42,4 +42,31 @@ public class ElasticSearchIndexFactory {
     }
     return null;
   }
+
+  /**
+   * Fields of an entity, beyond the ones stored in the entity JSON, that are part of the document built by the index of
+   * the entity type. Reindexing reads entities only with these fields.
+   */
+  public static String getIndexFields(String entityType) {
+    switch (entityType) {
+      case Entity.TABLE:
+        return "owner,followers,tags,usageSummary,location";
+      case Entity.DASHBOARD:
+        return "owner,charts,followers,tags,usageSummary";
+      case Entity.TOPIC:
+        return "owner,followers,tags";
+      case Entity.PIPELINE:
+        return "owner,tasks,followers,tags";
+      case Entity.USER:
+        return "teams,roles";
+      case Entity.GLOSSARY_TERM:
+        return "children,relatedTerms,reviewers,tags,usageCount";
+      case Entity.MLMODEL:
+        return "owner,dashboard,followers,tags,usageSummary";
+      case Entity.TEAM: // Only name and display name are indexed for teams
+      case Entity.TAG:
+      default:
+        return "";
+    }
+  }
 }
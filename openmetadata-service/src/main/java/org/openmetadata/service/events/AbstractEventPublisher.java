@@ -4,7 +4,10 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import lombok.extern.slf4j.Slf4j;
 import org.openmetadata.schema.filter.EventFilter;
 import org.openmetadata.schema.filter.Filters;
@@ -16,17 +19,16 @@ import org.openmetadata.service.util.FilterUtil;
 
 @Slf4j
 public abstract class AbstractEventPublisher implements EventPublisher {
-  // Backoff timeout in seconds. Delivering events is retried 5 times.
-  protected static final int BACKOFF_NORMAL = 0;
-  protected static final int BACKOFF_3_SECONDS = 3 * 1000;
-  protected static final int BACKOFF_30_SECONDS = 30 * 1000;
-  protected static final int BACKOFF_5_MINUTES = 5 * 60 * 1000;
-  protected static final int BACKOFF_1_HOUR = 60 * 60 * 1000;
-  protected static final int BACKOFF_24_HOUR = 24 * 60 * 60 * 1000;
-  protected int currentBackoffTime = BACKOFF_NORMAL;
-  protected final List<ChangeEvent> batch = new ArrayList<>();
+  // Delivering events is retried with exponential backoff, 3 seconds, 30 seconds, 5 minutes, 1 hour, and then every
+  // 24 hours. Each backoff is varied by up to 20% so that subscribers that failed together do not retry together.
+  private static final long[] BACKOFF_MILLIS = {
+    3 * 1000, 30 * 1000, 5 * 60 * 1000, 60 * 60 * 1000, 24 * 60 * 60 * 1000
+  };
+  static final double BACKOFF_JITTER = 0.2;
   protected final ConcurrentHashMap<String, Map<EventType, Filters>> filter = new ConcurrentHashMap<>();
   private final int batchSize;
+  private int failedAttempts; // Failed attempts to deliver the current batch, guarded by this
+  private volatile long nextAttemptAt;
 
   protected AbstractEventPublisher(int batchSize, List<EventFilter> filters) {
     if (filters != null) updateFilter(filters);
@@ -46,46 +48,102 @@ public abstract class AbstractEventPublisher implements EventPublisher {
   }
 
   @Override
-  public void onEvent(EventPubSub.ChangeEventHolder changeEventHolder, long sequence, boolean endOfBatch)
-      throws Exception {
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  @Override
+  public long getNextAttemptAt() {
+    return nextAttemptAt;
+  }
+
+  @Override
+  public CompletableFuture<Boolean> process(List<ChangeEvent> events) {
     // Ignore events that don't match the webhook event filters
-    ChangeEvent changeEvent = changeEventHolder.get();
-    if (!filter.isEmpty() && !FilterUtil.shouldProcessRequest(changeEvent, filter)) {
-      return;
+    List<ChangeEvent> batch = new ArrayList<>();
+    for (ChangeEvent changeEvent : events) {
+      if (filter.isEmpty() || FilterUtil.shouldProcessRequest(changeEvent, filter)) {
+        batch.add(changeEvent);
+      }
     }
-
-    // Batch until either the batch has ended or batch size has reached the max size
-    batch.add(changeEventHolder.get());
-    if (!endOfBatch && batch.size() < batchSize) {
-      return;
+    if (batch.isEmpty()) {
+      return CompletableFuture.completedFuture(true);
     }
 
     ChangeEventList list = new ChangeEventList(batch, null, null, batch.size());
+    CompletableFuture<Void> published;
     try {
-      publish(list);
-      batch.clear();
-    } catch (RetriableException ex) {
-      setNextBackOff();
-      LOG.error("Failed to publish event {} due to {}, will try again in {} ms", changeEvent, ex, currentBackoffTime);
-      Thread.sleep(currentBackoffTime);
+      published = publishAsync(list);
     } catch (Exception e) {
-      LOG.error(
-          "Failed to publish event type {} for entity {}", changeEvent.getEventType(), changeEvent.getEntityType());
-      LOG.error(e.getMessage(), e);
+      published = CompletableFuture.failedFuture(e);
     }
+    return published.handle((ignored, ex) -> onPublished(batch, ex));
+  }
+
+  /**
+   * Publish events without blocking. The events are published synchronously unless the publisher calls a remote
+   * service asynchronously.
+   */
+  protected CompletableFuture<Void> publishAsync(ChangeEventList list) throws Exception {
+    publish(list);
+    return CompletableFuture.completedFuture(null);
   }
 
-  protected void setNextBackOff() {
-    if (currentBackoffTime == BACKOFF_NORMAL) {
-      currentBackoffTime = BACKOFF_3_SECONDS;
-    } else if (currentBackoffTime == BACKOFF_3_SECONDS) {
-      currentBackoffTime = BACKOFF_30_SECONDS;
-    } else if (currentBackoffTime == BACKOFF_30_SECONDS) {
-      currentBackoffTime = BACKOFF_5_MINUTES;
-    } else if (currentBackoffTime == BACKOFF_5_MINUTES) {
-      currentBackoffTime = BACKOFF_1_HOUR;
-    } else if (currentBackoffTime == BACKOFF_1_HOUR) {
-      currentBackoffTime = BACKOFF_24_HOUR;
+  private boolean onPublished(List<ChangeEvent> batch, Throwable ex) {
+    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    if (cause == null) {
+      resetRetries();
+      return true;
+    } else if (cause instanceof RetriableException) {
+      long retryAt = scheduleRetry();
+      onRetry((RetriableException) cause, retryAt);
+      if (retryAt == NEVER) {
+        LOG.error("Failed to publish {} events due to {}, retry limit reached", batch.size(), cause.getMessage());
+      } else {
+        LOG.error(
+            "Failed to publish {} events due to {}, will try again in {} ms",
+            batch.size(),
+            cause.getMessage(),
+            retryAt - System.currentTimeMillis());
+      }
+      return false;
     }
+    ChangeEvent changeEvent = batch.get(0);
+    LOG.error("Failed to publish event type {} for entity {}", changeEvent.getEventType(), changeEvent.getEntityType());
+    LOG.error(cause.getMessage(), cause);
+    return true;
+  }
+
+  /** Called after a retriable failure with the time of the next attempt, or {@link #NEVER} */
+  protected void onRetry(RetriableException failure, long retryAt) {
+    // Nothing to record by default
+  }
+
+  /** Schedule the next attempt after a failure, unless the attempts are over the retry limit */
+  private synchronized long scheduleRetry() {
+    failedAttempts++;
+    nextAttemptAt =
+        failedAttempts > getRetryLimit() ? NEVER : System.currentTimeMillis() + withJitter(getBackOff(failedAttempts));
+    return nextAttemptAt;
+  }
+
+  /** Number of retries after which the events are not delivered again */
+  protected int getRetryLimit() {
+    return Integer.MAX_VALUE;
+  }
+
+  /** Deliver the events again right away, for example after the subscriber has been updated */
+  protected synchronized void resetRetries() {
+    failedAttempts = 0;
+    nextAttemptAt = 0;
+  }
+
+  protected static long getBackOff(int failedAttempts) {
+    return BACKOFF_MILLIS[Math.min(failedAttempts, BACKOFF_MILLIS.length) - 1];
+  }
+
+  static long withJitter(long backoff) {
+    double jitter = BACKOFF_JITTER * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+    return backoff + (long) (backoff * jitter);
   }
 }
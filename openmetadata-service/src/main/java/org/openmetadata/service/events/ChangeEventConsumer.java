@@ -0,0 +1,370 @@
+/*
+ *  Copyright 2021 Collate
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openmetadata.service.events;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.openmetadata.schema.EntityInterface;
+import org.openmetadata.schema.type.ChangeEvent;
+import org.openmetadata.service.Entity;
+import org.openmetadata.service.jdbi3.CollectionDAO.ChangeEventDAO;
+import org.openmetadata.service.jdbi3.CollectionDAO.ChangeEventRecord;
+import org.openmetadata.service.util.JsonUtils;
+
+/**
+ * Reads the change event log in batches from the committed offset of an {@link EventPublisher} and commits the offset
+ * after the publisher has processed the events. There is one consumer per publisher. Consumers run as tasks scheduled
+ * on the threads shared by all the consumers, and no thread waits for a publisher while the events are delivered or
+ * while a failed delivery waits for its next attempt. At most one batch of a consumer is in flight at a time, so the
+ * events are delivered in order.
+ *
+ * <p>Offsets are assigned when an event is inserted and become visible when the insert commits, so an offset can
+ * become visible after a larger one. A consumer stops at a missing offset until the transaction that took the offset
+ * can no longer be open, that is until no transaction that started before the gap was seen is still open. Only then
+ * is the offset skipped, as its insert was rolled back. When the open transactions can't be read from the database,
+ * the offset is skipped after {@link #GAP_TIMEOUT_MS}.
+ *
+ * <p>Every server runs a consumer for each publisher, and only the server holding the lease of a consumer reads and
+ * delivers its events. The lease is kept in the row of the committed offset, renewed while the consumer runs, and
+ * taken over by another server when it expires, for example when the server holding it stops.
+ */
+@Slf4j
+public class ChangeEventConsumer implements Runnable {
+  private static final int READ_BATCH_SIZE = 1000;
+  private static final long POLL_INTERVAL_MS = 1000;
+  private static final long GAP_MIN_WAIT_MS = 1000; // Before looking for the transaction that took the offset
+  private static final long GAP_TIMEOUT_MS = 10 * 60 * 1000L;
+  private static final long GAP_WAIT_MS = 50;
+  private static final long LEASE_MS = 2 * 60 * 1000L;
+  private static final long LEASE_RENEW_MS = 30 * 1000L;
+  private static final long LEASE_RETRY_MS = 5 * 1000L;
+
+  private final EventPublisher publisher;
+  private final ChangeEventDAO dao;
+  private final ScheduledExecutorService scheduler;
+  private final String serverId;
+  @Getter private final String name;
+  private volatile boolean running = true;
+  private boolean busy; // A poll or a delivery is in progress, guarded by this
+  private boolean idle; // Waiting for new events, guarded by this
+  private boolean stopped; // Guarded by this
+  private ScheduledFuture<?> next; // Guarded by this
+  private long leaseRenewedAt; // 0 when the server does not hold the lease
+  private volatile long waitUntil; // Time of the next attempt to deliver the events that failed
+  private long offset;
+  private long processedOffset;
+  private long gapOffset = -1;
+  private long gapSeenAt;
+
+  ChangeEventConsumer(
+      EventPublisher publisher, ChangeEventDAO dao, ScheduledExecutorService scheduler, String serverId) {
+    this.publisher = publisher;
+    this.dao = dao;
+    this.scheduler = scheduler;
+    this.serverId = serverId;
+    this.name = publisher.getName();
+  }
+
+  void start() {
+    publisher.onStart();
+    schedule(0);
+  }
+
+  public boolean isRunning() {
+    return running;
+  }
+
+  /** Stop the consumer. Events after the committed offset are consumed when the consumer is added again. */
+  public void halt() {
+    synchronized (this) {
+      running = false;
+      if (next != null) {
+        next.cancel(false);
+      }
+      if (busy) {
+        return; // The consumer stops when the poll or the delivery in progress completes
+      }
+    }
+    stop();
+  }
+
+  /** Read the log right away when the consumer is waiting for new events, called when an event is published */
+  synchronized void wake() {
+    if (idle) {
+      schedule(0);
+    }
+  }
+
+  /** Deliver the events again right away when the consumer is waiting for the next attempt */
+  public synchronized void retryNow() {
+    waitUntil = 0;
+    if (!busy) {
+      schedule(0);
+    }
+  }
+
+  @Override
+  public void run() {
+    boolean halted;
+    synchronized (this) {
+      if (busy) {
+        return;
+      }
+      halted = !running;
+      busy = !halted;
+      idle = false;
+    }
+    if (halted) {
+      stop();
+      return;
+    }
+    try {
+      if (!holdLease()) {
+        finish(LEASE_RETRY_MS, false);
+        return;
+      }
+      long now = System.currentTimeMillis();
+      if (now < waitUntil) {
+        finish(Math.min(waitUntil - now, LEASE_RENEW_MS), false); // Keep the lease while waiting for the next attempt
+        return;
+      }
+      // Transactions are looked up before reading, so that a transaction that commits in between is read
+      long transactionAge = gapOffset > offset && now - gapSeenAt >= GAP_MIN_WAIT_MS ? getOldestTransactionAge() : -1;
+      long seen = EventPubSub.getPublishedCount();
+      List<ChangeEventRecord> read = dao.listAfterOffset(offset, READ_BATCH_SIZE);
+      List<ChangeEventRecord> records = truncateAtGap(read, now, transactionAge);
+      if (!records.isEmpty()) {
+        processedOffset = offset;
+        deliver(records, 0); // Completes asynchronously
+      } else if (read.isEmpty()) {
+        offset = loadOffset(); // Pick up a rewind of the offset
+        boolean published = seen != EventPubSub.getPublishedCount();
+        finish(published ? 0 : POLL_INTERVAL_MS, !published);
+      } else {
+        finish(GAP_WAIT_MS, false);
+      }
+    } catch (Exception e) {
+      LOG.error("Consumer {} failed at offset {}, retrying in {} ms", name, offset, POLL_INTERVAL_MS, e);
+      finish(POLL_INTERVAL_MS, false);
+    }
+  }
+
+  /** Deliver the records from {@code start} one batch at a time, each batch after the previous one is processed */
+  private void deliver(List<ChangeEventRecord> records, int start) throws IOException {
+    if (start >= records.size() || !running) {
+      commit();
+      finish(0, false);
+      return;
+    }
+    if (!holdLease()) {
+      finish(LEASE_RETRY_MS, false); // The server that took the lease delivers the events from the committed offset
+      return;
+    }
+    int end = Math.min(start + Math.max(1, publisher.getBatchSize()), records.size());
+    List<ChangeEvent> events = new ArrayList<>(end - start);
+    for (ChangeEventRecord rec : records.subList(start, end)) {
+      events.add(readChangeEvent(rec.getJson()));
+    }
+    publisher
+        .process(events)
+        .whenCompleteAsync((processed, ex) -> onProcessed(records, end, processed, ex), scheduler);
+  }
+
+  private void onProcessed(List<ChangeEventRecord> records, int end, Boolean processed, Throwable ex) {
+    try {
+      if (ex == null && Boolean.TRUE.equals(processed)) {
+        processedOffset = records.get(end - 1).getOffset();
+        deliver(records, end);
+        return;
+      }
+      commit();
+      long now = System.currentTimeMillis();
+      long nextAttemptAt = publisher.getNextAttemptAt();
+      if (ex != null) {
+        LOG.error("Consumer {} failed at offset {}, retrying in {} ms", name, offset, POLL_INTERVAL_MS, ex);
+        finish(POLL_INTERVAL_MS, false);
+      } else if (nextAttemptAt == EventPublisher.NEVER) {
+        LOG.warn("Consumer {} stopped at offset {} after the retry limit was reached", name, offset);
+        running = false;
+        finish(0, false);
+      } else {
+        // Events are delivered again from the last processed offset
+        waitUntil = nextAttemptAt;
+        finish(Math.min(Math.max(0, nextAttemptAt - now), LEASE_RENEW_MS), false);
+      }
+    } catch (Exception e) {
+      LOG.error("Consumer {} failed at offset {}, retrying in {} ms", name, offset, POLL_INTERVAL_MS, e);
+      finish(POLL_INTERVAL_MS, false);
+    }
+  }
+
+  private void finish(long delayMs, boolean waitingForEvents) {
+    synchronized (this) {
+      busy = false;
+      if (running) {
+        idle = waitingForEvents;
+        schedule(delayMs);
+        return;
+      }
+    }
+    stop();
+  }
+
+  private synchronized void schedule(long delayMs) {
+    if (!running) {
+      return;
+    }
+    if (next != null) {
+      next.cancel(false);
+    }
+    next = scheduler.schedule(this, delayMs, TimeUnit.MILLISECONDS);
+  }
+
+  private void stop() {
+    synchronized (this) {
+      if (stopped) {
+        return;
+      }
+      stopped = true;
+    }
+    if (leaseRenewedAt > 0) {
+      try {
+        dao.releaseConsumerLease(name, serverId);
+      } catch (Exception e) {
+        LOG.warn("Consumer {} failed to release its lease, which is taken over when it expires", name, e);
+      }
+    }
+    EventPubSub.onStopped(this);
+    publisher.onShutdown();
+  }
+
+  /** Read a change event from the log. The entity in the event is stored as masked json and is read as an entity. */
+  static ChangeEvent readChangeEvent(String json) throws IOException {
+    ChangeEvent changeEvent = JsonUtils.readValue(json, ChangeEvent.class);
+    if (changeEvent.getEntity() instanceof String) {
+      Class<? extends EntityInterface> entityClass = Entity.getEntityClassFromType(changeEvent.getEntityType());
+      if (entityClass != null) {
+        changeEvent.setEntity(JsonUtils.readValue((String) changeEvent.getEntity(), entityClass));
+      }
+    }
+    return changeEvent;
+  }
+
+  private void commit() {
+    if (processedOffset == offset) {
+      return;
+    }
+    if (dao.commitConsumerOffset(name, serverId, offset, processedOffset, System.currentTimeMillis()) > 0) {
+      offset = processedOffset;
+    } else {
+      // The offset was rewound, or the lease was taken by another server after it expired
+      leaseRenewedAt = 0;
+      offset = loadOffset();
+      LOG.info("Consumer {} offset changed outside of the consumer, continuing from {}", name, offset);
+    }
+  }
+
+  /** Take or renew the lease of the consumer. Returns false when another server is consuming the events. */
+  private boolean holdLease() {
+    long now = System.currentTimeMillis();
+    if (leaseRenewedAt > 0 && now - leaseRenewedAt < LEASE_RENEW_MS) {
+      return true;
+    }
+    boolean taking = leaseRenewedAt == 0;
+    if (taking) {
+      loadOffset(); // Create the row of a new consumer, which holds the lease
+    }
+    if (dao.acquireConsumerLease(name, serverId, now, now + LEASE_MS) == 0) {
+      if (!taking) {
+        LOG.warn("Consumer {} lost its lease to another server", name);
+      }
+      leaseRenewedAt = 0;
+      return false;
+    }
+    if (taking) {
+      offset = loadOffset(); // Read after taking the lease, as the previous holder can commit until then
+      LOG.info("Consumer {} took the lease at offset {}", name, offset);
+    }
+    leaseRenewedAt = now;
+    return true;
+  }
+
+  /** Load the committed offset. A new consumer starts from the end of the log. */
+  private long loadOffset() {
+    Long committed = dao.getConsumerOffset(name);
+    if (committed == null) {
+      dao.insertConsumerOffset(name, dao.getMaxOffset(), System.currentTimeMillis());
+      committed = dao.getConsumerOffset(name);
+    }
+    return committed;
+  }
+
+  /**
+   * Return the records up to the first missing offset, unless the transaction that took the offset can no longer be
+   * open. {@code transactionAge} is the age of the oldest open transaction when the records were read at {@code
+   * readAt}, or -1 when it is not known.
+   */
+  private List<ChangeEventRecord> truncateAtGap(List<ChangeEventRecord> records, long readAt, long transactionAge) {
+    long expected = offset + 1;
+    for (int i = 0; i < records.size(); i++) {
+      long recordOffset = records.get(i).getOffset();
+      if (recordOffset != expected) {
+        if (gapOffset != expected) {
+          gapOffset = expected;
+          gapSeenAt = readAt;
+          return records.subList(0, i);
+        }
+        if (!canSkipGap(readAt, transactionAge)) {
+          return records.subList(0, i);
+        }
+        LOG.warn(
+            "Consumer {} skipping missing offsets {} to {} after waiting {} ms",
+            name,
+            expected,
+            recordOffset - 1,
+            readAt - gapSeenAt);
+      }
+      expected = recordOffset + 1;
+    }
+    return records;
+  }
+
+  /**
+   * The offset was taken before the gap was seen, by a transaction that is closed when all the open transactions
+   * started after that. The age of transactions is precise to the second on MySQL.
+   */
+  private boolean canSkipGap(long readAt, long transactionAge) {
+    long waited = readAt - gapSeenAt;
+    if (transactionAge < 0) {
+      return waited >= GAP_TIMEOUT_MS;
+    }
+    return waited >= GAP_MIN_WAIT_MS && transactionAge + 1000 < waited;
+  }
+
+  /** Age in milliseconds of the oldest transaction open in the database, or -1 when it can't be read */
+  private long getOldestTransactionAge() {
+    try {
+      return dao.getOldestTransactionAge();
+    } catch (Exception e) {
+      LOG.debug("Consumer {} could not read the open transactions", name, e);
+      return -1;
+    }
+  }
+}
@@ -13,7 +13,6 @@
 
 package org.openmetadata.service.events;
 
-import static org.openmetadata.common.utils.CommonUtil.listOrEmpty;
 import static org.openmetadata.schema.type.EventType.ENTITY_DELETED;
 import static org.openmetadata.schema.type.EventType.ENTITY_SOFT_DELETED;
 import static org.openmetadata.schema.type.EventType.ENTITY_UPDATED;
@@ -25,8 +24,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.container.ContainerResponseContext;
@@ -47,16 +48,15 @@ import org.openmetadata.schema.type.Post;
 import org.openmetadata.schema.type.Relationship;
 import org.openmetadata.service.Entity;
 import org.openmetadata.service.OpenMetadataApplicationConfig;
+import org.openmetadata.service.events.ChangeEventPipeline.PendingEvent;
 import org.openmetadata.service.filter.FilterRegistry;
 import org.openmetadata.service.jdbi3.CollectionDAO;
-import org.openmetadata.service.jdbi3.CollectionDAO.EntityRelationshipRecord;
 import org.openmetadata.service.jdbi3.FeedRepository;
 import org.openmetadata.service.resources.feeds.MessageParser;
 import org.openmetadata.service.resources.feeds.MessageParser.EntityLink;
 import org.openmetadata.service.socket.WebSocketManager;
 import org.openmetadata.service.util.ChangeEventParser;
 import org.openmetadata.service.util.FilterUtil;
-import org.openmetadata.service.util.JsonUtils;
 import org.openmetadata.service.util.RestUtil;
 
 @Slf4j
@@ -64,145 +64,204 @@ public class ChangeEventHandler implements EventHandler {
   private CollectionDAO dao;
   private FeedRepository feedDao;
   private ObjectMapper mapper;
+  private ChangeEventPipeline pipeline;
 
   public void init(OpenMetadataApplicationConfig config, Jdbi jdbi) {
     this.dao = jdbi.onDemand(CollectionDAO.class);
     this.feedDao = new FeedRepository(dao);
     this.mapper = new ObjectMapper();
+    this.pipeline = new ChangeEventPipeline(config.getEventHandlerConfiguration(), dao.changeEventDAO(), this::addFeed);
   }
 
+  /**
+   * Capture the change event on the request thread and hand it over to the {@link ChangeEventPipeline}, which records
+   * the change event, creates the activity feed threads, and sends the notifications.
+   */
   public Void process(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
     String method = requestContext.getMethod();
     SecurityContext securityContext = requestContext.getSecurityContext();
     String loggedInUserName = securityContext.getUserPrincipal().getName();
     try {
-      handleWebSocket(responseContext);
+      Runnable notification = getNotification(responseContext);
       ChangeEvent changeEvent = getChangeEvent(method, responseContext);
-      if (changeEvent == null) {
+      if (changeEvent == null && notification == null) {
         return null;
       }
-      LOG.info(
-          "Recording change event {}:{}:{}:{}",
-          changeEvent.getTimestamp(),
-          changeEvent.getEntityId(),
-          changeEvent.getEventType(),
-          changeEvent.getEntityType());
-      EventPubSub.publish(changeEvent);
-      if (changeEvent.getEntity() != null) {
-        Object entity = changeEvent.getEntity();
-        changeEvent = copyChangeEvent(changeEvent);
-        changeEvent.setEntity(JsonUtils.pojoToMaskedJson(entity));
+      if (changeEvent != null) {
+        LOG.info(
+            "Recording change event {}:{}:{}:{}",
+            changeEvent.getTimestamp(),
+            changeEvent.getEntityId(),
+            changeEvent.getEventType(),
+            changeEvent.getEntityType());
       }
-      dao.changeEventDAO().insert(JsonUtils.pojoToJson(changeEvent));
-
-      // Add a new thread to the entity for every change event
-      // for the event to appear in activity feeds
-      if (Entity.shouldDisplayEntityChangeOnFeed(changeEvent.getEntityType())) {
-        // ignore usageSummary updates in the feed
-        boolean filterEnabled;
-        filterEnabled = FilterUtil.shouldProcessRequest(changeEvent, FilterRegistry.getAllFilters());
-        if (filterEnabled) {
-          for (var thread : listOrEmpty(getThreads(responseContext, loggedInUserName))) {
-            // Don't create a thread if there is no message
-            if (thread.getMessage() != null && !thread.getMessage().isEmpty()) {
-              EntityInterface entity;
-              // In case of ENTITY_FIELDS_CHANGED entity from responseContext will be a ChangeEvent
-              if (responseContext.getEntity() instanceof ChangeEvent) {
-                ChangeEvent change = (ChangeEvent) responseContext.getEntity();
-                entity = (EntityInterface) change.getEntity();
-              } else {
-                entity = (EntityInterface) responseContext.getEntity();
-              }
-              EntityReference entityReference = entity.getEntityReference();
-              EntityReference owner;
-              try {
-                owner = Entity.getOwner(entityReference);
-              } catch (Exception exception) {
-                owner = null;
-              }
-              EntityLink about = EntityLink.parse(thread.getAbout());
-              feedDao.create(thread, entity.getId(), owner, about);
-              String jsonThread = mapper.writeValueAsString(thread);
-              WebSocketManager.getInstance().broadCastMessageToAll(WebSocketManager.FEED_BROADCAST_CHANNEL, jsonThread);
-            }
+      pipeline.submit(new PendingEvent(changeEvent, loggedInUserName, System.currentTimeMillis(), notification));
+    } catch (InterruptedException e) {
+      java.lang.Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      LOG.error("Failed to capture change event for method {} due to ", method, e);
+    }
+    return null;
+  }
+
+  /** Send the notifications and add a new thread to the entity for every change event to appear in activity feeds */
+  private void addFeed(PendingEvent event) {
+    if (event.getNotification() != null) {
+      event.getNotification().run();
+    }
+    ChangeEvent changeEvent = event.getChangeEvent();
+    if (changeEvent == null || !Entity.shouldDisplayEntityChangeOnFeed(changeEvent.getEntityType())) {
+      return;
+    }
+    // ignore usageSummary updates in the feed
+    if (!FilterUtil.shouldProcessRequest(changeEvent, FilterRegistry.getAllFilters())) {
+      return;
+    }
+    try {
+      for (var thread : getThreads(changeEvent, event.getUserName())) {
+        // Don't create a thread if there is no message
+        if (thread.getMessage() != null && !thread.getMessage().isEmpty()) {
+          EntityInterface entity = (EntityInterface) changeEvent.getEntity();
+          EntityReference entityReference = entity.getEntityReference();
+          EntityReference owner;
+          try {
+            owner = Entity.getOwner(entityReference);
+          } catch (Exception exception) {
+            owner = null;
+          }
+          EntityLink about = EntityLink.parse(thread.getAbout());
+          feedDao.create(thread, entity.getId(), owner, about);
+          if (!WebSocketManager.getInstance().getConnectedUsers().isEmpty()) { // Else no recipient to look up
+            String jsonThread = mapper.writeValueAsString(thread);
+            WebSocketManager.getInstance()
+                .sendToMany(getFeedRecipients(thread), WebSocketManager.FEED_BROADCAST_CHANNEL, jsonThread);
           }
         }
       }
     } catch (Exception e) {
-      LOG.error("Failed to capture change event for method {} due to ", method, e);
+      LOG.error("Failed to create activity feed for change event {}", changeEvent, e);
     }
-    return null;
   }
 
-  private void handleWebSocket(ContainerResponseContext responseContext) {
+  /** Notifications to send when the request created a thread or null */
+  private Runnable getNotification(ContainerResponseContext responseContext) {
     int responseCode = responseContext.getStatus();
     if (responseCode == Status.CREATED.getStatusCode()
         && responseContext.getEntity() != null
         && responseContext.getEntity().getClass().equals(Thread.class)) {
       Thread thread = (Thread) responseContext.getEntity();
-      try {
-        String jsonThread = mapper.writeValueAsString(thread);
-        switch (thread.getType()) {
-          case Task:
-            if (thread.getPostsCount() == 0) {
-              List<EntityReference> assignees = thread.getTask().getAssignees();
-              assignees.forEach(
-                  e -> {
-                    if (Entity.USER.equals(e.getType())) {
-                      WebSocketManager.getInstance()
-                          .sendToOne(e.getId(), WebSocketManager.TASK_BROADCAST_CHANNEL, jsonThread);
-                    } else if (Entity.TEAM.equals(e.getType())) {
-                      // fetch all that are there in the team
-                      List<EntityRelationshipRecord> records =
-                          dao.relationshipDAO()
-                              .findTo(e.getId().toString(), TEAM, Relationship.HAS.ordinal(), Entity.USER);
-                      WebSocketManager.getInstance()
-                          .sendToManyWithString(records, WebSocketManager.TASK_BROADCAST_CHANNEL, jsonThread);
-                    }
-                  });
-            }
-            break;
-          case Conversation:
-            WebSocketManager.getInstance().broadCastMessageToAll(WebSocketManager.FEED_BROADCAST_CHANNEL, jsonThread);
-            List<EntityLink> mentions;
-            if (thread.getPostsCount() == 0) {
-              mentions = MessageParser.getEntityLinks(thread.getMessage());
-            } else {
-              Post latestPost = thread.getPosts().get(thread.getPostsCount() - 1);
-              mentions = MessageParser.getEntityLinks(latestPost.getMessage());
-            }
-            mentions.forEach(
-                entityLink -> {
-                  String fqn = entityLink.getEntityFQN();
-                  if (USER.equals(entityLink.getEntityType())) {
-                    User user = dao.userDAO().findEntityByName(fqn);
-                    WebSocketManager.getInstance()
-                        .sendToOne(user.getId(), WebSocketManager.MENTION_CHANNEL, jsonThread);
-                  } else if (TEAM.equals(entityLink.getEntityType())) {
-                    Team team = dao.teamDAO().findEntityByName(fqn);
-                    // fetch all that are there in the team
-                    List<EntityRelationshipRecord> records =
-                        dao.relationshipDAO().findTo(team.getId().toString(), TEAM, Relationship.HAS.ordinal(), USER);
-                    WebSocketManager.getInstance()
-                        .sendToManyWithString(records, WebSocketManager.MENTION_CHANNEL, jsonThread);
-                  }
-                });
-            break;
-          case Announcement:
-            AnnouncementDetails announcementDetails = thread.getAnnouncement();
-            Long currentTimestamp = Instant.now().getEpochSecond();
-            if (announcementDetails.getStartTime() <= currentTimestamp
-                && currentTimestamp <= announcementDetails.getEndTime()) {
-              WebSocketManager.getInstance().broadCastMessageToAll(WebSocketManager.ANNOUNCEMENT_CHANNEL, jsonThread);
-            }
-            break;
+      return () -> sendNotifications(thread);
+    }
+    return null;
+  }
+
+  private void sendNotifications(Thread thread) {
+    if (WebSocketManager.getInstance().getConnectedUsers().isEmpty()) {
+      return; // No one to notify, and no recipient to look up
+    }
+    try {
+      String jsonThread = mapper.writeValueAsString(thread);
+      switch (thread.getType()) {
+        case Task:
+          if (thread.getPostsCount() == 0) {
+            Set<UUID> assignees = new HashSet<>();
+            thread.getTask().getAssignees().forEach(e -> addUsers(assignees, e.getType(), e.getId()));
+            WebSocketManager.getInstance().sendToMany(assignees, WebSocketManager.TASK_BROADCAST_CHANNEL, jsonThread);
+          }
+          break;
+        case Conversation:
+          WebSocketManager.getInstance()
+              .sendToMany(getFeedRecipients(thread), WebSocketManager.FEED_BROADCAST_CHANNEL, jsonThread);
+          Set<UUID> mentioned = new HashSet<>();
+          addMentionedUsers(mentioned, getLatestMessage(thread));
+          WebSocketManager.getInstance().sendToMany(mentioned, WebSocketManager.MENTION_CHANNEL, jsonThread);
+          break;
+        case Announcement:
+          AnnouncementDetails announcementDetails = thread.getAnnouncement();
+          Long currentTimestamp = Instant.now().getEpochSecond();
+          if (announcementDetails.getStartTime() <= currentTimestamp
+              && currentTimestamp <= announcementDetails.getEndTime()) {
+            WebSocketManager.getInstance().broadCastMessageToAll(WebSocketManager.ANNOUNCEMENT_CHANNEL, jsonThread);
+          }
+          break;
+      }
+    } catch (JsonProcessingException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Users to send a thread to on the activity feed channel: the followers and the owners of the entity the thread is
+   * about, the users who wrote the thread and its latest post, and the users mentioned in it. Teams are expanded to
+   * their members.
+   */
+  private Set<UUID> getFeedRecipients(Thread thread) {
+    Set<UUID> recipients = new HashSet<>();
+    if (thread.getEntityId() != null) {
+      String entityId = thread.getEntityId().toString();
+      String entityType = EntityLink.parse(thread.getAbout()).getEntityType();
+      dao.relationshipDAO()
+          .findFrom(entityId, entityType, Relationship.FOLLOWS.ordinal(), USER)
+          .forEach(record -> recipients.add(record.getId()));
+      dao.relationshipDAO()
+          .findFrom(entityId, entityType, Relationship.OWNS.ordinal())
+          .forEach(record -> addUsers(recipients, record.getType(), record.getId()));
+    }
+    addUserByName(recipients, thread.getCreatedBy());
+    if (thread.getPostsCount() != null && thread.getPostsCount() > 0 && !thread.getPosts().isEmpty()) {
+      addUserByName(recipients, thread.getPosts().get(thread.getPosts().size() - 1).getFrom());
+    }
+    addMentionedUsers(recipients, getLatestMessage(thread));
+    return recipients;
+  }
+
+  private static String getLatestMessage(Thread thread) {
+    if (thread.getPostsCount() == null || thread.getPostsCount() == 0 || thread.getPosts().isEmpty()) {
+      return thread.getMessage();
+    }
+    Post latestPost = thread.getPosts().get(thread.getPosts().size() - 1);
+    return latestPost.getMessage();
+  }
+
+  private void addMentionedUsers(Set<UUID> users, String message) {
+    for (EntityLink entityLink : MessageParser.getEntityLinks(message)) {
+      String fqn = entityLink.getEntityFQN();
+      if (USER.equals(entityLink.getEntityType())) {
+        addUserByName(users, fqn);
+      } else if (TEAM.equals(entityLink.getEntityType())) {
+        try {
+          Team team = dao.teamDAO().findEntityByName(fqn);
+          addUsers(users, TEAM, team.getId());
+        } catch (Exception e) {
+          LOG.debug("Not notifying the mentioned team {} that is not found", fqn);
         }
-      } catch (JsonProcessingException e) {
-        throw new RuntimeException(e);
       }
     }
   }
 
+  private void addUserByName(Set<UUID> users, String userName) {
+    if (userName == null) {
+      return;
+    }
+    try {
+      User user = dao.userDAO().findEntityByName(userName);
+      users.add(user.getId());
+    } catch (Exception e) {
+      LOG.debug("Not notifying the user {} that is not found", userName);
+    }
+  }
+
+  /** Add a user, or the members of a team */
+  private void addUsers(Set<UUID> users, String type, UUID id) {
+    if (USER.equals(type)) {
+      users.add(id);
+    } else if (TEAM.equals(type)) {
+      dao.relationshipDAO()
+          .findTo(id.toString(), TEAM, Relationship.HAS.ordinal(), USER)
+          .forEach(record -> users.add(record.getId()));
+    }
+  }
+
   public ChangeEvent getChangeEvent(String method, ContainerResponseContext responseContext) {
     // GET operations don't produce change events
     if (method.equals("GET")) {
@@ -284,39 +343,14 @@ public class ChangeEventHandler implements EventHandler {
         .withCurrentVersion(entityInterface.getVersion());
   }
 
-  private static ChangeEvent copyChangeEvent(ChangeEvent changeEvent) {
-    return new ChangeEvent()
-        .withEventType(changeEvent.getEventType())
-        .withEntityId(changeEvent.getEntityId())
-        .withEntityType(changeEvent.getEntityType())
-        .withUserName(changeEvent.getUserName())
-        .withTimestamp(changeEvent.getTimestamp())
-        .withChangeDescription(changeEvent.getChangeDescription())
-        .withCurrentVersion(changeEvent.getCurrentVersion());
-  }
-
-  private List<Thread> getThreads(ContainerResponseContext responseContext, String loggedInUserName) {
-    Object entity = responseContext.getEntity();
-    String changeType = responseContext.getHeaderString(RestUtil.CHANGE_CUSTOM_HEADER);
-
-    if (entity == null) {
-      return Collections.emptyList(); // Response has no entity to produce change event from
-    }
-
-    // In case of ENTITY_FIELDS_CHANGED entity from responseContext will be a ChangeEvent
-    // Get the actual entity from ChangeEvent in those cases.
-    if (entity instanceof ChangeEvent) {
-      ChangeEvent changeEvent = (ChangeEvent) entity;
-      EntityInterface realEntity = (EntityInterface) changeEvent.getEntity();
-      if (realEntity != null) {
-        return getThreads(realEntity, changeEvent.getChangeDescription(), loggedInUserName);
-      }
+  private List<Thread> getThreads(ChangeEvent changeEvent, String loggedInUserName) {
+    if (!(changeEvent.getEntity() instanceof EntityInterface)) {
       return Collections.emptyList(); // Cannot create a thread without entity
     }
 
-    var entityInterface = (EntityInterface) entity;
-    if (RestUtil.ENTITY_DELETED.equals(changeType)) {
-      String entityType = Entity.getEntityTypeFromClass(entity.getClass());
+    var entityInterface = (EntityInterface) changeEvent.getEntity();
+    if (changeEvent.getEventType() == ENTITY_DELETED) {
+      String entityType = changeEvent.getEntityType();
       // In this case, the entity itself got deleted
       // for which there will be no change description.
       String message = String.format("Deleted **%s**: `%s`", entityType, entityInterface.getFullyQualifiedName());
@@ -334,11 +368,11 @@ public class ChangeEventHandler implements EventHandler {
       return List.of(thread);
     }
 
-    if (entityInterface.getChangeDescription() == null) {
+    if (changeEvent.getChangeDescription() == null) {
       return Collections.emptyList();
     }
 
-    return getThreads(entityInterface, entityInterface.getChangeDescription(), loggedInUserName);
+    return getThreads(entityInterface, changeEvent.getChangeDescription(), loggedInUserName);
   }
 
   private List<Thread> getThreads(
@@ -368,6 +402,10 @@ public class ChangeEventHandler implements EventHandler {
   }
 
   public void close() {
-    /* Nothing to do */
+    try {
+      pipeline.close();
+    } catch (InterruptedException e) {
+      java.lang.Thread.currentThread().interrupt();
+    }
   }
 }
@@ -0,0 +1,322 @@
+/*
+ *  Copyright 2021 Collate
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openmetadata.service.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.github.maksymdolgykh.dropwizard.micrometer.MicrometerBundle;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.openmetadata.schema.api.configuration.events.EventHandlerConfiguration;
+import org.openmetadata.schema.api.configuration.events.EventHandlerConfiguration.OverloadPolicy;
+import org.openmetadata.schema.type.ChangeEvent;
+import org.openmetadata.service.jdbi3.CollectionDAO.ChangeEventDAO;
+import org.openmetadata.service.jdbi3.CollectionDAO.ChangeEventRecord;
+import org.openmetadata.service.jdbi3.CollectionDAO.SpilledChangeEvent;
+import org.openmetadata.service.util.JsonUtils;
+
+/**
+ * Bounded pipeline for the work done after a change is committed. Request threads write the change event to {@code
+ * change_event}, so that a recorded change is never lost, and add a {@link PendingEvent} to a bounded queue. Worker
+ * threads take the pending events in batches, and create the activity feed threads and send notifications for each
+ * event. Pending events left in the queue when the pipeline is closed are processed by the closing thread.
+ *
+ * <p>Change events of concurrent requests are written with a single insert. The first request of a group waits up to
+ * the commit window for other requests to join the group, inserts the group, and releases the requests of the group
+ * once their change events are committed.
+ *
+ * <p>When the queue is full the {@link OverloadPolicy} decides what happens to a new event:
+ *
+ * <ul>
+ *   <li>{@code block} - the request thread waits for space in the queue, which slows down the clients
+ *   <li>{@code shedFeed} - no feed threads or notifications are created for the change event
+ *   <li>{@code spillToDatabase} - the request thread stores the offset of the change event in {@code
+ *       change_event_spill}. Idle workers take the spilled events and create their feed threads. Notifications are not
+ *       spilled.
+ * </ul>
+ */
+@Slf4j
+public class ChangeEventPipeline {
+  private static final long POLL_INTERVAL_MS = 1000;
+
+  private final BlockingQueue<PendingEvent> queue;
+  private final int queueSize;
+  private final ChangeEventDAO dao;
+  private final Consumer<PendingEvent> feedProcessor;
+  private final OverloadPolicy overloadPolicy;
+  private final int batchSize;
+  private final long commitWindowMs;
+  private final Object commitLock = new Object();
+  private List<GroupedEvent> commitGroup = new ArrayList<>(); // Change events waiting to be inserted, under commitLock
+  private final ExecutorService workers;
+  private final AtomicLong lagMs = new AtomicLong();
+  private final Gauge queueDepthGauge;
+  private final Gauge lagGauge;
+  private final Counter overloadCounter;
+  private volatile boolean running = true;
+  private volatile boolean spillPending = false; // Events spilled by this server may be waiting
+
+  public ChangeEventPipeline(
+      EventHandlerConfiguration config, ChangeEventDAO dao, Consumer<PendingEvent> feedProcessor) {
+    this.queueSize = config.getQueueSize();
+    this.queue = new ArrayBlockingQueue<>(queueSize);
+    this.dao = dao;
+    this.feedProcessor = feedProcessor;
+    this.overloadPolicy = config.getOverloadPolicy();
+    this.batchSize = config.getBatchSize();
+    this.commitWindowMs = config.getCommitWindowMs();
+    this.workers =
+        Executors.newFixedThreadPool(
+            config.getThreads(),
+            runnable -> {
+              Thread thread = new Thread(runnable, "change-event-pipeline");
+              thread.setDaemon(true);
+              return thread;
+            });
+    for (int i = 0; i < config.getThreads(); i++) {
+      workers.execute(this::run);
+    }
+
+    queueDepthGauge =
+        Gauge.builder("change_event_queue_depth", queue, BlockingQueue::size)
+            .description("Number of change events waiting to be processed")
+            .register(MicrometerBundle.prometheusRegistry);
+    lagGauge =
+        Gauge.builder("change_event_lag_ms", lagMs, AtomicLong::get)
+            .description("Time the last processed change event waited in the queue")
+            .register(MicrometerBundle.prometheusRegistry);
+    overloadCounter =
+        Counter.builder("change_event_overload")
+            .description("Number of change events that did not fit in the queue")
+            .tag("policy", overloadPolicy.value())
+            .register(MicrometerBundle.prometheusRegistry);
+    LOG.info(
+        "Change event pipeline started with {} threads, queue size {}, and overload policy {}",
+        config.getThreads(),
+        config.getQueueSize(),
+        overloadPolicy);
+  }
+
+  /** Record the change event of an event and add the event to the pipeline. Called from request threads. */
+  public void submit(PendingEvent event) throws InterruptedException, JsonProcessingException {
+    long eventOffset = 0;
+    if (event.getChangeEvent() != null) {
+      eventOffset = record(toMaskedJson(event.getChangeEvent()));
+    }
+    if (queue.offer(event)) {
+      return;
+    }
+    overloadCounter.increment();
+    LOG.debug("Change event queue is full, applying overload policy {}", overloadPolicy);
+    if (overloadPolicy == OverloadPolicy.BLOCK) {
+      queue.put(event);
+    } else if (event.getChangeEvent() == null || overloadPolicy == OverloadPolicy.SHED_FEED) {
+      LOG.debug("Dropped the activity feed and notification as the change event queue is full");
+    } else {
+      dao.insertSpilled(event.getUserName(), eventOffset);
+      spillPending = true;
+    }
+  }
+
+  /**
+   * Write a change event together with the change events of concurrent requests, and return its offset once it is
+   * committed. The request that starts a group waits for the commit window to end or the group to be full, and inserts
+   * the group. Failure of the insert is thrown to every request of the group.
+   */
+  private long record(String json) {
+    GroupedEvent grouped = new GroupedEvent(new ChangeEventRecord(0, json));
+    List<GroupedEvent> group = null;
+    boolean interrupted = false;
+    synchronized (commitLock) {
+      commitGroup.add(grouped);
+      if (commitGroup.size() == 1) {
+        group = commitGroup;
+        long deadline = System.currentTimeMillis() + commitWindowMs;
+        long remaining = commitWindowMs;
+        while (commitGroup == group && group.size() < batchSize && remaining > 0) {
+          try {
+            commitLock.wait(remaining);
+          } catch (InterruptedException e) {
+            interrupted = true; // The group is inserted anyway as other requests wait for it
+            break;
+          }
+          remaining = deadline - System.currentTimeMillis();
+        }
+        if (commitGroup == group) {
+          commitGroup = new ArrayList<>();
+        }
+      } else if (commitGroup.size() >= batchSize) {
+        // Close the full group and wake up the request inserting it
+        commitGroup = new ArrayList<>();
+        commitLock.notifyAll();
+      }
+    }
+    if (group != null) {
+      insert(group);
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    try {
+      return grouped.getOffset().join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private void insert(List<GroupedEvent> group) {
+    try {
+      List<Long> offsets = dao.insertAll(group.stream().map(GroupedEvent::getRecord).collect(Collectors.toList()));
+      for (int i = 0; i < group.size(); i++) {
+        group.get(i).getOffset().complete(offsets.get(i));
+      }
+      EventPubSub.publish();
+    } catch (RuntimeException e) {
+      LOG.error("Failed to record {} change events", group.size(), e);
+      group.forEach(grouped -> grouped.getOffset().completeExceptionally(e));
+    }
+  }
+
+  public void close() throws InterruptedException {
+    running = false;
+    workers.shutdown();
+    if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+      LOG.warn("Change event pipeline workers stopped with {} events in the queue", queue.size());
+      workers.shutdownNow();
+    }
+    // Process the events the workers did not take
+    List<PendingEvent> remaining = new ArrayList<>();
+    queue.drainTo(remaining);
+    if (!remaining.isEmpty()) {
+      LOG.info("Processing the {} events left in the change event queue", remaining.size());
+      process(remaining);
+    }
+    // Meters of the pipeline hold on to its queue
+    MicrometerBundle.prometheusRegistry.remove(queueDepthGauge);
+    MicrometerBundle.prometheusRegistry.remove(lagGauge);
+    MicrometerBundle.prometheusRegistry.remove(overloadCounter);
+  }
+
+  private void run() {
+    List<PendingEvent> batch = new ArrayList<>(batchSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        PendingEvent first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        if (first != null) {
+          batch.add(first);
+          queue.drainTo(batch, batchSize - 1);
+        }
+        // Take spilled events when idle, or when the queue is below half full after this server spilled events
+        boolean takeSpilled = first == null || (spillPending && queue.size() < queueSize / 2);
+        if (running && takeSpilled && overloadPolicy == OverloadPolicy.SPILL_TO_DATABASE) {
+          takeSpilled(batch);
+        }
+        if (!batch.isEmpty()) {
+          process(batch);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (Exception e) {
+        LOG.error("Failed to process {} change events", batch.size(), e);
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private void process(List<PendingEvent> batch) {
+    for (PendingEvent event : batch) {
+      lagMs.set(System.currentTimeMillis() - event.getCreatedAt());
+      try {
+        feedProcessor.accept(event);
+      } catch (Exception e) {
+        LOG.error("Failed to create activity feed for change event {}", event.getChangeEvent(), e);
+      }
+    }
+  }
+
+  /** Take the spilled events that are not taken by workers of this or other servers */
+  private void takeSpilled(List<PendingEvent> batch) throws IOException {
+    List<SpilledChangeEvent> spilledEvents = dao.listSpilled(batchSize);
+    if (spilledEvents.size() < batchSize) {
+      spillPending = false;
+    }
+    for (SpilledChangeEvent spilled : spilledEvents) {
+      // The change event is gone when it was deleted after being spilled
+      if (dao.deleteSpilled(spilled.getId()) > 0 && spilled.getJson() != null) {
+        ChangeEvent changeEvent = ChangeEventConsumer.readChangeEvent(spilled.getJson());
+        batch.add(new PendingEvent(changeEvent, spilled.getUserName(), changeEvent.getTimestamp(), null));
+      }
+    }
+  }
+
+  /** Json of a copy of the change event where the entity is masked json */
+  private static String toMaskedJson(ChangeEvent changeEvent) throws JsonProcessingException {
+    if (changeEvent.getEntity() == null || changeEvent.getEntity() instanceof String) {
+      return JsonUtils.pojoToJson(changeEvent);
+    }
+    ChangeEvent copy =
+        new ChangeEvent()
+            .withEventType(changeEvent.getEventType())
+            .withEntityId(changeEvent.getEntityId())
+            .withEntityType(changeEvent.getEntityType())
+            .withUserName(changeEvent.getUserName())
+            .withTimestamp(changeEvent.getTimestamp())
+            .withChangeDescription(changeEvent.getChangeDescription())
+            .withCurrentVersion(changeEvent.getCurrentVersion())
+            .withPreviousVersion(changeEvent.getPreviousVersion())
+            .withEntityFullyQualifiedName(changeEvent.getEntityFullyQualifiedName())
+            .withEntity(JsonUtils.pojoToMaskedJson(changeEvent.getEntity()));
+    return JsonUtils.pojoToJson(copy);
+  }
+
+  /** Change event of a request waiting for its group to be inserted */
+  @Getter
+  private static class GroupedEvent {
+    private final ChangeEventRecord record;
+    private final CompletableFuture<Long> offset = new CompletableFuture<>();
+
+    GroupedEvent(ChangeEventRecord record) {
+      this.record = record;
+    }
+  }
+
+  @Getter
+  @AllArgsConstructor
+  public static class PendingEvent {
+    private final ChangeEvent changeEvent; // Null when there is only a notification to send
+    private final String userName;
+    private final long createdAt;
+    private final Runnable notification; // Notification to send after the change event is recorded or null
+  }
+}
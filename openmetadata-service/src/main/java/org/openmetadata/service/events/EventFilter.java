@@ -14,7 +14,6 @@
 package org.openmetadata.service.events;
 
 import java.util.*;
-import java.util.concurrent.ForkJoinPool;
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.container.ContainerResponseContext;
 import javax.ws.rs.container.ContainerResponseFilter;
@@ -22,18 +21,19 @@ import javax.ws.rs.ext.Provider;
 import lombok.extern.slf4j.Slf4j;
 import org.jdbi.v3.core.Jdbi;
 import org.openmetadata.service.OpenMetadataApplicationConfig;
-import org.openmetadata.service.util.ParallelStreamUtil;
 
+/**
+ * Response filter that passes the responses of successful write requests to the event handlers. Handlers are called on
+ * the request thread and must hand over expensive work to their own bounded pipeline, such as {@link
+ * ChangeEventPipeline} used by {@link ChangeEventHandler}.
+ */
 @Slf4j
 @Provider
 public class EventFilter implements ContainerResponseFilter {
   private static final List<String> AUDITABLE_METHODS = Arrays.asList("POST", "PUT", "PATCH", "DELETE");
-  private static final int FORK_JOIN_POOL_PARALLELISM = 20;
-  private final ForkJoinPool forkJoinPool;
   private final List<EventHandler> eventHandlers;
 
   public EventFilter(OpenMetadataApplicationConfig config, Jdbi jdbi) {
-    this.forkJoinPool = new ForkJoinPool(FORK_JOIN_POOL_PARALLELISM);
     this.eventHandlers = new ArrayList<>();
     registerEventHandlers(config, jdbi);
   }
@@ -61,10 +61,12 @@ public class EventFilter implements ContainerResponseFilter {
     if ((responseCode < 200 || responseCode > 299) || (!AUDITABLE_METHODS.contains(method))) {
       return;
     }
-    eventHandlers
-        .parallelStream()
-        .forEach(
-            eventHandler ->
-                ParallelStreamUtil.runAsync(() -> eventHandler.process(requestContext, responseContext), forkJoinPool));
+    for (EventHandler eventHandler : eventHandlers) {
+      try {
+        eventHandler.process(requestContext, responseContext);
+      } catch (Exception e) {
+        LOG.error("Event handler {} failed", eventHandler.getClass().getSimpleName(), e);
+      }
+    }
   }
 }
@@ -13,112 +13,113 @@
 
 package org.openmetadata.service.events;
 
-import com.lmax.disruptor.BatchEventProcessor;
-import com.lmax.disruptor.EventFactory;
-import com.lmax.disruptor.EventHandler;
-import com.lmax.disruptor.ExceptionHandler;
-import com.lmax.disruptor.RingBuffer;
-import com.lmax.disruptor.dsl.Disruptor;
-import com.lmax.disruptor.util.DaemonThreadFactory;
-import java.util.concurrent.ExecutorService;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.extern.slf4j.Slf4j;
-import org.openmetadata.schema.type.ChangeEvent;
-
-/** Change event PubSub built based on LMAX Disruptor. */
+import org.openmetadata.service.jdbi3.CollectionDAO;
+import org.openmetadata.service.jdbi3.CollectionDAO.ChangeEventDAO;
+
+/**
+ * Change event PubSub built on the {@code change_event} table used as a log. Each change event written to the table
+ * gets a monotonically increasing offset. Every subscriber is a {@link ChangeEventConsumer} that reads the events in
+ * batches after its committed offset, and commits the offset after the events are published. Subscribers run at
+ * their own speed on a few shared threads, resume from the committed offset after restart, and can be rewound to
+ * replay the events.
+ *
+ * <p>Notifying the consumers when an event is written only reduces the latency of delivery. The consumers also poll the
+ * log, which picks up the events written by other servers. A consumer runs on every server, and delivers the events
+ * only on the server that holds its lease.
+ */
 @Slf4j
 public class EventPubSub {
-  private static Disruptor<ChangeEventHolder> disruptor;
-  private static ExecutorService executor;
-  private static RingBuffer<ChangeEventHolder> ringBuffer;
+  private static final int CONSUMER_THREADS = 4;
+  private static final Set<ChangeEventConsumer> CONSUMERS = ConcurrentHashMap.newKeySet();
+  private static final AtomicLong PUBLISHED_COUNT = new AtomicLong();
+  private static final String SERVER_ID = UUID.randomUUID().toString(); // Holder of the leases of the consumers
+  private static ChangeEventDAO dao;
+  private static ScheduledExecutorService scheduler;
   private static boolean started = false;
 
-  public static void start() {
+  public static void start(CollectionDAO collectionDAO) {
     if (!started) {
-      disruptor = new Disruptor<>(ChangeEventHolder::new, 1024, DaemonThreadFactory.INSTANCE);
-      disruptor.setDefaultExceptionHandler(new DefaultExceptionHandler());
-      executor = Executors.newCachedThreadPool(DaemonThreadFactory.INSTANCE);
-      ringBuffer = disruptor.start();
-      LOG.info("Disruptor started");
+      dao = collectionDAO.changeEventDAO();
+      scheduler =
+          Executors.newScheduledThreadPool(
+              CONSUMER_THREADS,
+              runnable -> {
+                Thread thread = new Thread(runnable, "change-event-consumer");
+                thread.setDaemon(true);
+                return thread;
+              });
+      LOG.info("Event PubSub started");
       started = true;
     }
   }
 
   public static void shutdown() throws InterruptedException {
     if (started) {
-      disruptor.shutdown();
-      disruptor.halt();
-      executor.shutdownNow();
-      executor.awaitTermination(10, TimeUnit.SECONDS);
-      disruptor = null;
-      ringBuffer = null;
+      for (ChangeEventConsumer consumer : new ArrayList<>(CONSUMERS)) {
+        consumer.halt();
+      }
+      scheduler.shutdown();
+      if (!scheduler.awaitTermination(10, TimeUnit.SECONDS)) {
+        scheduler.shutdownNow();
+      }
       started = false;
-      LOG.info("Disruptor stopped");
+      LOG.info("Event PubSub stopped");
     }
   }
 
-  public static class ChangeEventHolder {
-    private ChangeEvent value;
-
-    public void set(ChangeEvent event) {
-      this.value = event;
-    }
-
-    public ChangeEvent get() {
-      return value;
+  /** Notify the consumers that a change event has been written to the log */
+  public static void publish() {
+    PUBLISHED_COUNT.incrementAndGet();
+    for (ChangeEventConsumer consumer : CONSUMERS) {
+      consumer.wake();
     }
   }
 
-  public static class ChangeEventFactory implements EventFactory<ChangeEventHolder> {
-    public ChangeEventHolder newInstance() {
-      return new ChangeEventHolder();
-    }
+  static long getPublishedCount() {
+    return PUBLISHED_COUNT.get();
   }
 
-  public static void publish(ChangeEvent event) {
-    if (event != null) {
-      RingBuffer<ChangeEventHolder> ringBuffer = disruptor.getRingBuffer();
-      long sequence = ringBuffer.next();
-      ringBuffer.get(sequence).set(event);
-      ringBuffer.publish(sequence);
-    }
+  static void onStopped(ChangeEventConsumer consumer) {
+    CONSUMERS.remove(consumer);
   }
 
-  public static BatchEventProcessor<ChangeEventHolder> addEventHandler(EventHandler<ChangeEventHolder> eventHandler) {
-    BatchEventProcessor<ChangeEventHolder> processor =
-        new BatchEventProcessor<>(ringBuffer, ringBuffer.newBarrier(), eventHandler);
-    processor.setExceptionHandler(new DefaultExceptionHandler());
-    ringBuffer.addGatingSequences(processor.getSequence());
-    executor.execute(processor);
-    LOG.info("Processor added for {}", processor);
-    return processor;
+  public static ChangeEventConsumer addEventHandler(EventPublisher publisher) {
+    ChangeEventConsumer consumer = new ChangeEventConsumer(publisher, dao, scheduler, SERVER_ID);
+    CONSUMERS.add(consumer);
+    consumer.start();
+    LOG.info("Consumer added for {}", consumer.getName());
+    return consumer;
   }
 
-  public static void removeProcessor(BatchEventProcessor<ChangeEventHolder> processor) {
-    ringBuffer.removeGatingSequence(processor.getSequence());
-    LOG.info("Processor removed for {}", processor);
+  public static void removeConsumer(ChangeEventConsumer consumer) {
+    consumer.halt();
+    LOG.info("Consumer removed for {}", consumer.getName());
   }
 
-  public void close() {
-    /* Nothing to clean up */
+  /** Delete the committed offset of a consumer that will not be restarted */
+  public static void deleteOffset(String consumerName) {
+    dao.deleteConsumerOffset(consumerName);
   }
 
-  public static class DefaultExceptionHandler implements ExceptionHandler<ChangeEventHolder> {
-    @Override
-    public void handleEventException(Throwable throwable, long l, ChangeEventHolder changeEventHolder) {
-      LOG.warn("Disruptor error in onEvent {}", throwable.getMessage());
-      throw new RuntimeException(throwable.getMessage()); // Throw runtime exception to stop the event handler thread
-    }
-
-    @Override
-    public void handleOnStartException(Throwable throwable) {
-      LOG.warn("Disruptor error in onStart {}", throwable.getMessage());
-    }
-
-    @Override
-    public void handleOnShutdownException(Throwable throwable) {
-      LOG.warn("Disruptor error on onShutdown {}", throwable.getMessage());
+  /**
+   * Move the committed offset of a consumer to replay the events after {@code offset}. The consumer running on this or
+   * any other server picks up the new offset the next time it commits or finds no new events.
+   */
+  public static boolean rewind(String consumerName, long offset) {
+    boolean found = dao.setConsumerOffset(consumerName, offset, System.currentTimeMillis()) > 0;
+    if (found) {
+      LOG.info("Consumer {} rewound to offset {}", consumerName, offset);
+      publish();
     }
+    return found;
   }
 }
@@ -1,10 +1,33 @@
 package org.openmetadata.service.events;
 
-import com.lmax.disruptor.EventHandler;
-import com.lmax.disruptor.LifecycleAware;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.openmetadata.schema.type.ChangeEvent;
 import org.openmetadata.service.resources.events.EventResource.ChangeEventList;
 
-public interface EventPublisher extends EventHandler<EventPubSub.ChangeEventHolder>, LifecycleAware {
+public interface EventPublisher {
+  /** Returned by {@link #getNextAttemptAt()} when the events are not delivered again and the consumer stops */
+  long NEVER = Long.MAX_VALUE;
+
+  /** Name of the subscriber that is unique across subscribers, used to store its committed offset */
+  String getName();
+
+  int getBatchSize();
+
+  void onStart();
+
+  void onShutdown();
+
+  /**
+   * Publish events without blocking the consumer. Completes with false when the events must be delivered again at
+   * {@link #getNextAttemptAt()}, and with true when the offset can move past them
+   */
+  CompletableFuture<Boolean> process(List<ChangeEvent> events);
+
+  /** Time in milliseconds at which the events that were not processed are delivered again, or {@link #NEVER} */
+  default long getNextAttemptAt() {
+    return 0;
+  }
 
   void publish(ChangeEventList events) throws Exception;
 }
@@ -13,21 +13,38 @@
 
 package org.openmetadata.service.events;
 
-import com.lmax.disruptor.BatchEventProcessor;
+import io.github.maksymdolgykh.dropwizard.micrometer.MicrometerBundle;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
 import java.io.IOException;
+import java.net.URI;
 import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.channels.UnresolvedAddressException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
-import javax.ws.rs.client.Invocation;
+import java.util.function.Supplier;
 import javax.ws.rs.core.Response;
 import lombok.extern.slf4j.Slf4j;
 import org.openmetadata.common.utils.CommonUtil;
+import org.openmetadata.schema.type.ChangeEvent;
 import org.openmetadata.schema.type.FailureDetails;
 import org.openmetadata.schema.type.Webhook;
 import org.openmetadata.service.events.errors.EventPublisherException;
+import org.openmetadata.service.events.errors.RetriableException;
+import org.openmetadata.service.events.errors.WebhookRetriableException;
 import org.openmetadata.service.jdbi3.CollectionDAO;
 import org.openmetadata.service.jdbi3.EntityRepository;
 import org.openmetadata.service.jdbi3.WebhookRepository;
@@ -39,49 +56,78 @@ import org.openmetadata.service.util.RestUtil;
 
 /**
  * WebhookPublisher publishes events to the webhook endpoint using POST http requests. There is one instance of
- * WebhookPublisher per webhook subscription. Each WebhookPublish is an EventHandler that runs in a separate thread and
- * receives events from LMAX Disruptor {@link EventPubSub} through {@link BatchEventProcessor}.
+ * WebhookPublisher per webhook subscription. Each WebhookPublisher is fed by a {@link ChangeEventConsumer} that reads
+ * events from the change event log in {@link EventPubSub} after its committed offset.
+ *
+ * <p>Requests are sent with an asynchronous http client, so that no thread waits for a slow endpoint. Many webhooks
+ * can share an endpoint, such as the Slack and MS Teams webhooks, and at most {@link #MAX_IN_FLIGHT_PER_ENDPOINT}
+ * requests are in flight to an endpoint at a time. The latency of the callbacks and the failures are recorded in the
+ * {@code webhook_delivery_latency} and {@code webhook_delivery_failures} metrics of each webhook.
  *
  * <p>The failures during callback to Webhook endpoints are handled in this class as follows:
  *
  * <ul>
  *   <li>Webhook with unresolvable URLs are marked as "failed" and no further attempt is made to deliver the events
  *   <li>Webhook callbacks that return 3xx are marked as "failed" and no further attempt is made to deliver the events
- *   <li>Webhook callbacks that return 4xx, 5xx, or timeout are marked as "awaitingRetry" and 5 retry attempts are made
- *       to deliver the events with the following backoff - 3 seconds, 30 seconds, 5 minutes, 1 hours, and 24 hour. When
- *       all the 5 delivery attempts fail, the webhook state is marked as "retryLimitReached" and no further attempt is
- *       made to deliver the events.
+ *   <li>Webhook callbacks that return 4xx, 5xx, fail to connect, or timeout are marked as "awaitingRetry" and 5 retry
+ *       attempts are made to deliver the events with the following backoff - 3 seconds, 30 seconds, 5 minutes, 1
+ *       hours, and 24 hour, each varied by up to 20%. The consumer is scheduled to run again at the next attempt
+ *       instead of waiting for it. When all the 5 delivery attempts fail, the webhook state is marked as
+ *       "retryLimitReached" and the consumer stops until the webhook is updated.
  * </ul>
  */
 @Slf4j
 public class WebhookPublisher extends AbstractEventPublisher {
+  static final int MAX_IN_FLIGHT_PER_ENDPOINT = 4;
+  static final int RETRY_LIMIT = 5;
+  private static final Map<String, EndpointLimiter> ENDPOINT_LIMITERS = new ConcurrentHashMap<>();
   private final CountDownLatch shutdownLatch = new CountDownLatch(1);
   private final Webhook webhook;
-  private BatchEventProcessor<EventPubSub.ChangeEventHolder> processor;
-  private Client client;
+  private ChangeEventConsumer processor;
+  private volatile HttpClient client;
+  private volatile EndpointLimiter limiter; // Held from start to shutdown
   private final CollectionDAO daoCollection;
-
-  private final WebhookRepository webhookRepository;
+  private final Timer deliveryLatency;
+  private final Counter deliveryFailures;
+  private WebhookRepository webhookRepository; // Created when the status is first updated
 
   public WebhookPublisher(Webhook webhook, CollectionDAO dao) {
     super(webhook.getBatchSize(), webhook.getEventFilters());
     this.webhook = webhook;
     this.daoCollection = dao;
-    this.webhookRepository = new WebhookRepository(dao);
+    this.deliveryLatency =
+        Timer.builder("webhook_delivery_latency")
+            .description("Time taken by the webhook endpoint to respond to a callback")
+            .tag("webhook", webhook.getName())
+            .register(MicrometerBundle.prometheusRegistry);
+    this.deliveryFailures =
+        Counter.builder("webhook_delivery_failures")
+            .description("Number of callbacks that failed or did not receive a 2xx response")
+            .tag("webhook", webhook.getName())
+            .register(MicrometerBundle.prometheusRegistry);
+    createClient();
   }
 
   @Override
   public void onStart() {
-    createClient();
     webhook.withFailureDetails(new FailureDetails());
+    synchronized (this) {
+      if (limiter == null) {
+        limiter = acquireLimiter(webhook.getEndpoint());
+      }
+    }
     LOG.info("Webhook-lifecycle-onStart {}", webhook.getName());
   }
 
   @Override
   public void onShutdown() {
-    currentBackoffTime = BACKOFF_NORMAL;
-    client.close();
-    client = null;
+    resetRetries();
+    synchronized (this) {
+      if (limiter != null) {
+        releaseLimiter(webhook.getEndpoint());
+        limiter = null;
+      }
+    }
     shutdownLatch.countDown();
     LOG.info("Webhook-lifecycle-onShutdown {}", webhook.getName());
   }
@@ -91,14 +137,23 @@ public class WebhookPublisher extends AbstractEventPublisher {
   }
 
   public synchronized void updateWebhook(Webhook updatedWebhook) {
-    currentBackoffTime = BACKOFF_NORMAL;
     webhook.setDescription(updatedWebhook.getDescription());
     webhook.setTimeout(updatedWebhook.getTimeout());
+    webhook.setReadTimeout(updatedWebhook.getReadTimeout());
     webhook.setBatchSize(updatedWebhook.getBatchSize());
+    URI previousEndpoint = webhook.getEndpoint();
     webhook.setEndpoint(updatedWebhook.getEndpoint());
+    if (limiter != null) { // Acquired before the previous one is released, which is kept when the endpoint is the same
+      limiter = acquireLimiter(webhook.getEndpoint());
+      releaseLimiter(previousEndpoint);
+    }
     webhook.setEventFilters(updatedWebhook.getEventFilters());
     updateFilter();
     createClient();
+    resetRetries();
+    if (processor != null) {
+      processor.retryNow(); // Deliver the events awaiting retry to the updated webhook right away
+    }
   }
 
   private void updateFilter() {
@@ -107,19 +162,43 @@ public class WebhookPublisher extends AbstractEventPublisher {
   }
 
   private void setErrorStatus(Long attemptTime, Integer statusCode, String reason) throws IOException {
-    if (!attemptTime.equals(webhook.getFailureDetails().getLastFailedAt())) {
-      setStatus(Webhook.Status.FAILED, attemptTime, statusCode, reason, null);
-    }
-    throw new RuntimeException(reason);
+    setStatus(Webhook.Status.FAILED, attemptTime, statusCode, reason, null);
+    throw new EventPublisherException(reason);
   }
 
-  private void setAwaitingRetry(Long attemptTime, int statusCode, String reason) throws IOException {
-    if (!attemptTime.equals(webhook.getFailureDetails().getLastFailedAt())) {
-      setStatus(Webhook.Status.AWAITING_RETRY, attemptTime, statusCode, reason, attemptTime + currentBackoffTime);
+  @Override
+  protected void onRetry(RetriableException failure, long retryAt) {
+    if (!(failure instanceof WebhookRetriableException)) {
+      return;
+    }
+    WebhookRetriableException webhookFailure = (WebhookRetriableException) failure;
+    try {
+      if (retryAt == NEVER) {
+        setStatus(
+            Webhook.Status.RETRY_LIMIT_REACHED,
+            webhookFailure.getAttemptTime(),
+            webhookFailure.getStatusCode(),
+            webhookFailure.getMessage(),
+            null);
+      } else {
+        setStatus(
+            Webhook.Status.AWAITING_RETRY,
+            webhookFailure.getAttemptTime(),
+            webhookFailure.getStatusCode(),
+            webhookFailure.getMessage(),
+            retryAt);
+      }
+    } catch (Exception e) {
+      LOG.error("Failed to update the status of webhook {}", webhook.getName(), e);
     }
   }
 
-  private void setStatus(Webhook.Status status, Long attemptTime, Integer statusCode, String reason, Long timestamp)
+  @Override
+  protected int getRetryLimit() {
+    return RETRY_LIMIT;
+  }
+
+  void setStatus(Webhook.Status status, Long attemptTime, Integer statusCode, String reason, Long timestamp)
       throws IOException {
     Webhook stored = daoCollection.webhookDAO().findEntityById(webhook.getId());
     webhook.setStatus(status);
@@ -131,19 +210,20 @@ public class WebhookPublisher extends AbstractEventPublisher {
         .withNextAttempt(timestamp);
 
     // TODO: Fix this
+    if (webhookRepository == null) {
+      webhookRepository = new WebhookRepository(daoCollection);
+    }
     WebhookUpdater updater = webhookRepository.getUpdater(stored, webhook, EntityRepository.Operation.PUT);
     updater.update();
   }
 
   private synchronized void createClient() {
-    if (client != null) {
-      client.close();
-      client = null;
-    }
-    ClientBuilder clientBuilder = ClientBuilder.newBuilder();
-    clientBuilder.connectTimeout(10, TimeUnit.SECONDS);
-    clientBuilder.readTimeout(12, TimeUnit.SECONDS);
-    client = clientBuilder.build();
+    int connectTimeout = webhook.getTimeout() == null ? 10 : webhook.getTimeout();
+    client =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(connectTimeout))
+            .build();
   }
 
   public void awaitShutdown() throws InterruptedException {
@@ -151,61 +231,209 @@ public class WebhookPublisher extends AbstractEventPublisher {
     shutdownLatch.await(5, TimeUnit.SECONDS);
   }
 
-  public void setProcessor(BatchEventProcessor<EventPubSub.ChangeEventHolder> processor) {
+  public void setProcessor(ChangeEventConsumer processor) {
     this.processor = processor;
   }
 
-  public BatchEventProcessor<EventPubSub.ChangeEventHolder> getProcessor() {
+  public ChangeEventConsumer getProcessor() {
     return processor;
   }
 
-  private Invocation.Builder getTarget() {
-    Map<String, String> authHeaders = SecurityUtil.authHeaders("admin@open-metadata.org");
-    return SecurityUtil.addHeaders(client.target(webhook.getEndpoint()), authHeaders);
+  @Override
+  public String getName() {
+    return getConsumerName(webhook.getId());
+  }
+
+  public static String getConsumerName(UUID webhookId) {
+    return "webhook-" + webhookId;
+  }
+
+  /**
+   * Post a json payload to the webhook endpoint without blocking. The request is sent once fewer than {@link
+   * #MAX_IN_FLIGHT_PER_ENDPOINT} requests to the endpoint are in flight.
+   */
+  protected CompletableFuture<HttpResponse<Void>> post(String json, Map<String, String> headers) {
+    int readTimeout = webhook.getReadTimeout() == null ? 12 : webhook.getReadTimeout();
+    HttpRequest.Builder request =
+        HttpRequest.newBuilder(webhook.getEndpoint())
+            .timeout(Duration.ofSeconds(readTimeout))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json));
+    headers.forEach(request::header);
+    HttpClient current = client;
+    EndpointLimiter endpointLimiter = limiter;
+    if (endpointLimiter == null) {
+      return CompletableFuture.failedFuture(new IllegalStateException("Webhook " + webhook.getName() + " is stopped"));
+    }
+    return endpointLimiter.submit(
+            () -> {
+              long start = System.nanoTime();
+              return current
+                  .sendAsync(request.build(), HttpResponse.BodyHandlers.discarding())
+                  .whenComplete(
+                      (response, ex) -> {
+                        deliveryLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        if (ex != null || response.statusCode() < 200 || response.statusCode() >= 300) {
+                          deliveryFailures.increment();
+                        }
+                      });
+            });
+  }
+
+  @Override
+  public void publish(EventResource.ChangeEventList list) throws Exception {
+    try {
+      publishAsync(list).join();
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+    }
   }
 
   @Override
-  public void publish(EventResource.ChangeEventList list) throws EventPublisherException, IOException {
+  protected CompletableFuture<Void> publishAsync(EventResource.ChangeEventList list) throws IOException {
     long attemptTime = System.currentTimeMillis();
+    String json = JsonUtils.pojoToJson(list);
+    Map<String, String> headers = new HashMap<>(SecurityUtil.authHeaders("admin@open-metadata.org"));
+    if (webhook.getSecretKey() != null && !webhook.getSecretKey().isEmpty()) {
+      headers.put(RestUtil.SIGNATURE_HEADER, "sha256=" + CommonUtil.calculateHMAC(webhook.getSecretKey(), json));
+    }
+    return post(json, headers).handle((response, ex) -> onResponse(list.getData(), attemptTime, response, ex));
+  }
+
+  private Void onResponse(List<ChangeEvent> events, long attemptTime, HttpResponse<Void> response, Throwable ex) {
     try {
-      String json = JsonUtils.pojoToJson(list);
-      Response response;
-      if (webhook.getSecretKey() != null && !webhook.getSecretKey().isEmpty()) {
-        String hmac = "sha256=" + CommonUtil.calculateHMAC(webhook.getSecretKey(), json);
-        response = getTarget().header(RestUtil.SIGNATURE_HEADER, hmac).post(javax.ws.rs.client.Entity.json(json));
-      } else {
-        response = getTarget().post(javax.ws.rs.client.Entity.json(json));
+      if (ex != null) {
+        onFailure(attemptTime, ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+        return null;
       }
+      int statusCode = response.statusCode();
+      String reason = getReasonPhrase(statusCode);
       LOG.info(
-          "Webhook {}:{}:{} received response {}",
-          webhook.getName(),
-          webhook.getStatus(),
-          batch.size(),
-          response.getStatusInfo());
+          "Webhook {}:{}:{} received response {}", webhook.getName(), webhook.getStatus(), events.size(), statusCode);
       // 2xx response means call back is successful
-      if (response.getStatus() >= 200 && response.getStatus() < 300) { // All 2xx responses
-        webhook.getFailureDetails().setLastSuccessfulAt(batch.get(batch.size() - 1).getTimestamp());
-        batch.clear();
+      if (statusCode >= 200 && statusCode < 300) { // All 2xx responses
+        webhook.getFailureDetails().setLastSuccessfulAt(events.get(events.size() - 1).getTimestamp());
         if (webhook.getStatus() != Webhook.Status.ACTIVE) {
           setStatus(Webhook.Status.ACTIVE, null, null, null, null);
         }
         // 3xx response/redirection is not allowed for callback. Set the webhook state as in error
-      } else if (response.getStatus() >= 300 && response.getStatus() < 400) {
-        setErrorStatus(attemptTime, response.getStatus(), response.getStatusInfo().getReasonPhrase());
+      } else if (statusCode >= 300 && statusCode < 400) {
+        setErrorStatus(attemptTime, statusCode, reason);
+      } else {
         // 4xx, 5xx response retry delivering events after timeout
-      } else if (response.getStatus() >= 300 && response.getStatus() < 600) {
-        setNextBackOff();
-        setAwaitingRetry(attemptTime, response.getStatus(), response.getStatusInfo().getReasonPhrase());
-        Thread.sleep(currentBackoffTime);
+        throw new WebhookRetriableException(reason, attemptTime, statusCode);
       }
-    } catch (Exception ex) {
-      Throwable cause = ex.getCause();
-      if (cause != null && cause.getClass() == UnknownHostException.class) {
+      return null;
+    } catch (IOException e) {
+      throw new EventPublisherException(e);
+    }
+  }
+
+  private void onFailure(long attemptTime, Throwable cause) throws IOException {
+    for (Throwable t = cause; t != null; t = t.getCause()) {
+      if (t instanceof UnknownHostException || t instanceof UnresolvedAddressException) {
         LOG.warn("Invalid webhook {} endpoint {}", webhook.getName(), webhook.getEndpoint());
         setErrorStatus(attemptTime, null, "UnknownHostException");
-      } else {
-        LOG.debug("Exception occurred while publishing webhook", ex);
       }
     }
+    if (cause instanceof IOException) { // Connection failures and timeouts
+      throw new WebhookRetriableException(cause.getClass().getSimpleName(), attemptTime, null);
+    }
+    throw new EventPublisherException(cause);
+  }
+
+  private static String getReasonPhrase(int statusCode) {
+    Response.Status status = Response.Status.fromStatusCode(statusCode);
+    return status != null ? status.getReasonPhrase() : "HTTP " + statusCode;
+  }
+
+  /**
+   * Returns the limiter of the endpoint, which is shared by the started publishers posting to the same scheme and
+   * authority. The limiter is removed once the last of them releases it.
+   */
+  static EndpointLimiter acquireLimiter(URI endpoint) {
+    return ENDPOINT_LIMITERS.compute(
+        getLimiterKey(endpoint),
+        (key, limiter) -> {
+          EndpointLimiter acquired = limiter != null ? limiter : new EndpointLimiter(MAX_IN_FLIGHT_PER_ENDPOINT);
+          acquired.publishers++;
+          return acquired;
+        });
+  }
+
+  static void releaseLimiter(URI endpoint) {
+    ENDPOINT_LIMITERS.computeIfPresent(
+        getLimiterKey(endpoint), (key, limiter) -> --limiter.publishers == 0 ? null : limiter);
+  }
+
+  /** Returns the limiter of the endpoint, or null when no started publisher posts to the endpoint */
+  static EndpointLimiter getLimiter(URI endpoint) {
+    return ENDPOINT_LIMITERS.get(getLimiterKey(endpoint));
+  }
+
+  private static String getLimiterKey(URI endpoint) {
+    return endpoint.getScheme() + "://" + endpoint.getAuthority();
+  }
+
+  /**
+   * Bounds the requests in flight to an endpoint. Requests over the bound wait in a queue, without a thread, and are
+   * sent in order as the requests in flight complete.
+   */
+  static class EndpointLimiter {
+    private final int maxInFlight;
+    private final Queue<Runnable> waiting = new ArrayDeque<>(); // Guarded by this
+    private int inFlight; // Guarded by this
+    private int publishers; // Updated only in the ENDPOINT_LIMITERS compute functions
+
+    EndpointLimiter(int maxInFlight) {
+      this.maxInFlight = maxInFlight;
+    }
+
+    <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> request) {
+      CompletableFuture<T> result = new CompletableFuture<>();
+      Runnable send =
+          () -> {
+            CompletableFuture<T> sent;
+            try {
+              sent = request.get();
+            } catch (Exception e) {
+              sent = CompletableFuture.failedFuture(e);
+            }
+            sent.whenComplete(
+                (response, ex) -> {
+                  release();
+                  if (ex != null) {
+                    result.completeExceptionally(ex);
+                  } else {
+                    result.complete(response);
+                  }
+                });
+          };
+      synchronized (this) {
+        if (inFlight >= maxInFlight) {
+          waiting.add(send);
+          return result;
+        }
+        inFlight++;
+      }
+      send.run();
+      return result;
+    }
+
+    synchronized int getInFlight() {
+      return inFlight;
+    }
+
+    private void release() {
+      Runnable next;
+      synchronized (this) {
+        next = waiting.poll();
+        if (next == null) {
+          inFlight--;
+          return;
+        }
+      }
+      next.run(); // The request in flight is replaced by the next one waiting
+    }
   }
 }
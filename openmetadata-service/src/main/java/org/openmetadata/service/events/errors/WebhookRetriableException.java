@@ -0,0 +1,19 @@
+package org.openmetadata.service.events.errors;
+
+import lombok.Getter;
+
+public class WebhookRetriableException extends RetriableException {
+  private static final long serialVersionUID = 1L;
+  @Getter private final Long attemptTime;
+  @Getter private final Integer statusCode; // Null when no response was received
+
+  public WebhookRetriableException(String message) {
+    this(message, null, null);
+  }
+
+  public WebhookRetriableException(String message, Long attemptTime, Integer statusCode) {
+    super(message);
+    this.attemptTime = attemptTime;
+    this.statusCode = statusCode;
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ *  Copyright 2021 Collate
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openmetadata.service.jdbi3;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.ext.Provider;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs actions once the writes of the current request are committed, such as evicting cache entries and sharing the
+ * evicted keys with the other servers. The writes of a request are committed one statement at a time, so they are all
+ * committed only when the request completes. An entry evicted before that may be loaded again, on this server or on
+ * another one, from the rows written so far, and kept until it expires.
+ *
+ * <p>Actions added during a request run when its response is filtered, before the change events of the request are
+ * handed over by {@link org.openmetadata.service.events.EventFilter}. Actions added outside a request run right away.
+ */
+@Slf4j
+@Provider
+@Priority(Priorities.USER + 100)
+public class AfterCommit implements ContainerRequestFilter, ContainerResponseFilter {
+  private static final ThreadLocal<List<Runnable>> ACTIONS = new ThreadLocal<>();
+
+  /** Run an action once the writes of the current request are committed */
+  public static void run(Runnable action) {
+    List<Runnable> actions = ACTIONS.get();
+    if (actions == null) {
+      runAction(action);
+    } else {
+      actions.add(action);
+    }
+  }
+
+  @Override
+  public void filter(ContainerRequestContext requestContext) {
+    runActions(); // Left by a request that did not complete on this thread
+    ACTIONS.set(new ArrayList<>());
+  }
+
+  @Override
+  public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+    runActions();
+  }
+
+  private static void runActions() {
+    List<Runnable> actions = ACTIONS.get();
+    ACTIONS.remove();
+    if (actions != null) {
+      actions.forEach(AfterCommit::runAction);
+    }
+  }
+
+  private static void runAction(Runnable action) {
+    try {
+      action.run();
+    } catch (Exception e) {
+      LOG.error("Failed to run an action after the writes of the request", e);
+    }
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ *  Copyright 2021 Collate
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openmetadata.service.jdbi3;
+
+import static org.openmetadata.schema.type.Include.ALL;
+
+import com.google.common.collect.Lists;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.Pair;
+import org.openmetadata.schema.type.EntityReference;
+import org.openmetadata.schema.type.Relationship;
+import org.openmetadata.schema.type.TagLabel;
+import org.openmetadata.schema.type.UsageDetails;
+import org.openmetadata.service.Entity;
+import org.openmetadata.service.jdbi3.CollectionDAO.EntityRelationshipObject;
+
+/**
+ * Relationship fields of a page of entities loaded with one query per field instead of one query per entity. This is
+ * used by {@link EntityRepository} list operations. While a page is being hydrated, {@code getOwner}, {@code getTags},
+ * {@code getFollowers} and {@code getUsageSummary} in the repository are served from the maps in this class.
+ *
+ * <p>Only the entities (or tag targets) that were part of the page have entries in the maps. Lookups for any other
+ * entity return {@code false} from the {@code has*} methods and must fall back to the database.
+ */
+@Slf4j
+class BulkFieldLoader {
+  /** Maximum number of values bound to a single {@code IN (...)} clause */
+  static final int BATCH_SIZE = 1000;
+
+  private final CollectionDAO daoCollection;
+  private final String entityType;
+  private final Map<UUID, EntityReference> owners = new HashMap<>();
+  private final Map<UUID, List<EntityReference>> followers = new HashMap<>();
+  private final Map<String, List<TagLabel>> tags = new HashMap<>();
+  private final Map<UUID, UsageDetails> usageSummaries = new HashMap<>();
+
+  BulkFieldLoader(CollectionDAO daoCollection, String entityType) {
+    this.daoCollection = daoCollection;
+    this.entityType = entityType;
+  }
+
+  /** Load owner for each of the entities. Entities without owner are mapped to {@code null}. */
+  void loadOwners(List<UUID> ids) throws IOException {
+    ids.forEach(id -> owners.put(id, null));
+    List<EntityRelationshipObject> records = new ArrayList<>();
+    for (List<String> batch : partition(ids)) {
+      records.addAll(daoCollection.relationshipDAO().findFromBatch(batch, entityType, Relationship.OWNS.ordinal()));
+    }
+    Map<String, Map<UUID, EntityReference>> references = getReferences(records);
+    for (EntityRelationshipObject rec : records) {
+      UUID ownedId = UUID.fromString(rec.getToId());
+      if (owners.get(ownedId) != null) {
+        LOG.warn("Possible database issues - multiple owners for entity {}:{}", entityType, ownedId);
+        continue;
+      }
+      owners.put(ownedId, references.get(rec.getFromEntity()).get(UUID.fromString(rec.getFromId())));
+    }
+  }
+
+  /** Load followers for each of the entities. Entities without followers are mapped to an empty list. */
+  void loadFollowers(List<UUID> ids) throws IOException {
+    ids.forEach(id -> followers.put(id, new ArrayList<>()));
+    List<EntityRelationshipObject> records = new ArrayList<>();
+    for (List<String> batch : partition(ids)) {
+      records.addAll(
+          daoCollection
+              .relationshipDAO()
+              .findFromBatch(batch, entityType, Relationship.FOLLOWS.ordinal(), Entity.USER));
+    }
+    Map<String, Map<UUID, EntityReference>> references = getReferences(records);
+    for (EntityRelationshipObject rec : records) {
+      EntityReference follower = references.get(rec.getFromEntity()).get(UUID.fromString(rec.getFromId()));
+      if (follower != null) {
+        followers.get(UUID.fromString(rec.getToId())).add(follower);
+      }
+    }
+  }
+
+  /** Load tags applied to each of the target FQNs. Targets without tags are mapped to an empty list. */
+  void loadTags(Collection<String> targetFQNs) {
+    targetFQNs.forEach(fqn -> tags.put(fqn, new ArrayList<>()));
+    for (List<String> batch : Lists.partition(new ArrayList<>(targetFQNs), BATCH_SIZE)) {
+      for (Pair<String, TagLabel> tagLabel : daoCollection.tagUsageDAO().getTagsByTargets(batch)) {
+        tags.get(tagLabel.getLeft()).add(tagLabel.getRight());
+      }
+    }
+  }
+
+  /** Load the latest usage for each of the entities. Entities without usage are mapped to {@code null}. */
+  void loadUsageSummaries(List<UUID> ids) {
+    ids.forEach(id -> usageSummaries.put(id, null));
+    for (List<String> batch : partition(ids)) {
+      for (Pair<String, UsageDetails> usage : daoCollection.usageDAO().getLatestUsageBatch(batch)) {
+        usageSummaries.put(UUID.fromString(usage.getLeft()), usage.getRight());
+      }
+    }
+  }
+
+  boolean hasOwner(UUID id) {
+    return owners.containsKey(id);
+  }
+
+  EntityReference getOwner(UUID id) {
+    return owners.get(id);
+  }
+
+  boolean hasFollowers(UUID id) {
+    return followers.containsKey(id);
+  }
+
+  List<EntityReference> getFollowers(UUID id) {
+    return new ArrayList<>(followers.get(id));
+  }
+
+  boolean hasTags(String targetFQN) {
+    return tags.containsKey(targetFQN);
+  }
+
+  List<TagLabel> getTags(String targetFQN) {
+    return new ArrayList<>(tags.get(targetFQN));
+  }
+
+  boolean hasUsageSummary(UUID id) {
+    return usageSummaries.containsKey(id);
+  }
+
+  UsageDetails getUsageSummary(UUID id) {
+    return usageSummaries.get(id);
+  }
+
+  /** Resolve the from side of the relationship records to entity references with one query per entity type */
+  private static Map<String, Map<UUID, EntityReference>> getReferences(List<EntityRelationshipObject> records)
+      throws IOException {
+    Map<String, List<UUID>> idsByType =
+        records.stream()
+            .collect(
+                Collectors.groupingBy(
+                    EntityRelationshipObject::getFromEntity,
+                    Collectors.mapping(r -> UUID.fromString(r.getFromId()), Collectors.toList())));
+    Map<String, Map<UUID, EntityReference>> references = new HashMap<>();
+    for (Map.Entry<String, List<UUID>> entry : idsByType.entrySet()) {
+      Map<UUID, EntityReference> refs = new HashMap<>();
+      List<UUID> ids = entry.getValue().stream().distinct().collect(Collectors.toList());
+      for (List<UUID> batch : Lists.partition(ids, BATCH_SIZE)) {
+        refs.putAll(Entity.getEntityReferencesByIds(entry.getKey(), batch, ALL));
+      }
+      references.put(entry.getKey(), refs);
+    }
+    return references;
+  }
+
+  private static List<List<String>> partition(List<UUID> ids) {
+    return Lists.partition(ids.stream().map(UUID::toString).collect(Collectors.toList()), BATCH_SIZE);
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ *  Copyright 2021 Collate
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openmetadata.service.jdbi3;
+
+import com.google.common.collect.Lists;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.Pair;
+import org.openmetadata.schema.type.TagLabel;
+import org.openmetadata.service.jdbi3.CollectionDAO.EntityRelationshipObject;
+import org.openmetadata.service.jdbi3.CollectionDAO.TagUsageObject;
+import org.openmetadata.service.jdbi3.EntityDAO.JsonRecord;
+
+/**
+ * Rows of new entities buffered while a batch of entities is created, and written with one statement per table instead
+ * of one statement per row. This is used by {@link EntityRepository} bulk create. While the new entities are stored,
+ * {@code store}, {@code addRelationship} and {@code applyTags} in the repository add rows to this class instead of
+ * writing them.
+ *
+ * <p>Each row is kept with the index of the entity that added it. When a statement fails, the rows of the statement are
+ * written one at a time, so that only the entities with rows that can not be written fail.
+ */
+@Slf4j
+class BulkWriter {
+  private final CollectionDAO daoCollection;
+  private final EntityDAO<?> dao;
+  private final Map<String, Pair<Integer, JsonRecord>> entities = new LinkedHashMap<>();
+  private final Map<String, Pair<Integer, EntityRelationshipObject>> relationships = new LinkedHashMap<>();
+  private final Map<String, Pair<Integer, TagUsageObject>> tagUsages = new LinkedHashMap<>();
+  private final Map<String, String> tagDescriptions = new HashMap<>();
+
+  /** Index of the entity that rows are added for */
+  @Setter private int current;
+
+  BulkWriter(CollectionDAO daoCollection, EntityDAO<?> dao) {
+    this.daoCollection = daoCollection;
+    this.dao = dao;
+  }
+
+  void addEntity(UUID id, String fqn, String json) {
+    entities.put(fqn, Pair.of(current, new JsonRecord(id, fqn, json)));
+  }
+
+  void addRelationship(UUID fromId, UUID toId, String fromEntity, String toEntity, int relation, String json) {
+    EntityRelationshipObject relationship =
+        EntityRelationshipObject.builder()
+            .fromId(fromId.toString())
+            .toId(toId.toString())
+            .fromEntity(fromEntity)
+            .toEntity(toEntity)
+            .relation(relation)
+            .json(json)
+            .build();
+    // The last relationship added between two entities wins, as when the relationships are inserted one at a time
+    relationships.put(fromId + ":" + toId + ":" + relation, Pair.of(current, relationship));
+  }
+
+  void applyTag(TagLabel tagLabel, String targetFQN) {
+    TagUsageObject tagUsage =
+        TagUsageObject.builder()
+            .source(tagLabel.getSource().ordinal())
+            .tagFQN(tagLabel.getTagFQN())
+            .targetFQN(targetFQN)
+            .labelType(tagLabel.getLabelType().ordinal())
+            .state(tagLabel.getState().ordinal())
+            .build();
+    String key = tagLabel.getSource() + ":" + tagLabel.getTagFQN() + ":" + targetFQN;
+    tagUsages.putIfAbsent(key, Pair.of(current, tagUsage));
+  }
+
+  /** Description of a tag or glossary term. Each tag is looked up once for the whole batch. */
+  String getTagDescription(TagLabel tagLabel, Function<TagLabel, String> lookup) {
+    String key = tagLabel.getSource() + ":" + tagLabel.getTagFQN();
+    if (!tagDescriptions.containsKey(key)) {
+      tagDescriptions.put(key, lookup.apply(tagLabel));
+    }
+    return tagDescriptions.get(key);
+  }
+
+  /** Drop the rows added for an entity that failed */
+  void discard(int index) {
+    entities.values().removeIf(row -> row.getLeft() == index);
+    relationships.values().removeIf(row -> row.getLeft() == index);
+    tagUsages.values().removeIf(row -> row.getLeft() == index);
+  }
+
+  /**
+   * Write the buffered rows, the entity rows first. Returns the reason by the index of each entity with rows that could
+   * not be written. Rows of other tables are not written for an entity whose entity row could not be written.
+   */
+  Map<Integer, String> flush() {
+    Map<Integer, String> failures = new HashMap<>();
+    write(entities, dao::insertAll, failures);
+    write(relationships, rows -> daoCollection.relationshipDAO().insertAll(rows), failures);
+    write(tagUsages, rows -> daoCollection.tagUsageDAO().applyTags(rows), failures);
+    return failures;
+  }
+
+  private static <R> void write(
+      Map<String, Pair<Integer, R>> rows, Consumer<List<R>> writer, Map<Integer, String> failures) {
+    List<Pair<Integer, R>> pending =
+        rows.values().stream().filter(row -> !failures.containsKey(row.getLeft())).collect(Collectors.toList());
+    rows.clear();
+    for (List<Pair<Integer, R>> batch : Lists.partition(pending, BulkFieldLoader.BATCH_SIZE)) {
+      try {
+        writer.accept(batch.stream().map(Pair::getRight).collect(Collectors.toList()));
+      } catch (Exception e) {
+        LOG.warn("Failed to write a batch of {} rows. Writing the rows one at a time", batch.size(), e);
+        for (Pair<Integer, R> row : batch) {
+          if (failures.containsKey(row.getLeft())) {
+            continue;
+          }
+          try {
+            writer.accept(List.of(row.getRight()));
+          } catch (Exception rowException) {
+            failures.put(row.getLeft(), rowException.getMessage());
+          }
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ *  Copyright 2021 Collate
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openmetadata.service.jdbi3;
+
+import javax.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CacheInvalidationConfiguration {
+  /** Share the keys invalidated in the caches of a server with the other servers through the database */
+  private boolean enabled = false;
+
+  /** Time between reads of the keys invalidated by the other servers */
+  @Min(100)
+  private int pollIntervalMillis = 1000;
+
+  /** Expiry of cached users, teams, bot tokens and settings when invalidated keys are shared */
+  @Min(1)
+  private int cacheExpiryMinutes = 60;
+
+  /** Time invalidated keys are kept in the database */
+  @Min(1)
+  private int retentionMinutes = 60;
+}
@@ -0,0 +1,187 @@
+/*
+ *  Copyright 2021 Collate
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openmetadata.service.jdbi3;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.openmetadata.service.jdbi3.CollectionDAO.CacheInvalidation;
+import org.openmetadata.service.jdbi3.CollectionDAO.CacheInvalidationDAO;
+
+/**
+ * Shares the keys invalidated in the caches of a server with the other servers, through the {@code cache_invalidation}
+ * table. When a cache key is invalidated after a write, a row with the cache name and the key is inserted. Each server
+ * reads the rows inserted by the other servers in order of id, and invalidates the same keys in its own caches.
+ *
+ * <p>The id of a row is taken when the row is inserted, but the row is only visible once it is committed, so a row
+ * may appear after rows with larger ids were read. Rows inserted in the last {@link #WINDOW_MILLIS} are read again
+ * on each poll, and the ids already handled are skipped.
+ *
+ * <p>When the feed is not enabled, invalidated keys are not shared, and the caches expire in minutes so that changes
+ * made on other servers are seen. When it is enabled, the caches can be kept for {@link
+ * CacheInvalidationConfiguration#getCacheExpiryMinutes()}.
+ */
+@Slf4j
+public class CacheInvalidationFeed {
+  public static final String USER = "user";
+  public static final String TEAM = "team";
+  public static final String ROLE = "role";
+  public static final String POLICY = "policy";
+  public static final String BOT_TOKEN = "botToken";
+  public static final String SETTINGS = "settings";
+
+  static final long WINDOW_MILLIS = 30_000;
+  private static final int BATCH_SIZE = 1000;
+  private static final long PRUNE_INTERVAL_MINUTES = 10;
+  private static final CacheInvalidationFeed INSTANCE = new CacheInvalidationFeed(UUID.randomUUID().toString());
+
+  @Getter private final String serverId;
+  private final Map<String, Consumer<String>> caches = new ConcurrentHashMap<>();
+  private final Set<Long> handled = new HashSet<>(); // Ids read in the window, only used by the poller
+  private volatile CacheInvalidationDAO dao; // Null when the feed is not enabled
+  private volatile int cacheExpiryMinutes;
+  private long checkpoint; // All the rows up to this id have been read, only used by the poller
+  private ScheduledExecutorService poller;
+
+  CacheInvalidationFeed(String serverId) {
+    this.serverId = serverId;
+  }
+
+  public static CacheInvalidationFeed getInstance() {
+    return INSTANCE;
+  }
+
+  public static void initialize(CacheInvalidationConfiguration config, CollectionDAO collectionDAO) {
+    if (!config.isEnabled() || INSTANCE.dao != null) {
+      return;
+    }
+    INSTANCE.start(collectionDAO.cacheInvalidationDAO(), config.getCacheExpiryMinutes());
+    INSTANCE.poller =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "cache-invalidation-feed");
+              thread.setDaemon(true);
+              return thread;
+            });
+    INSTANCE.poller.scheduleWithFixedDelay(
+        INSTANCE::poll, config.getPollIntervalMillis(), config.getPollIntervalMillis(), TimeUnit.MILLISECONDS);
+    long retentionMillis = TimeUnit.MINUTES.toMillis(config.getRetentionMinutes());
+    INSTANCE.poller.scheduleWithFixedDelay(
+        () -> INSTANCE.prune(retentionMillis), 1, PRUNE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    LOG.info("Cache invalidation feed started for server {}", INSTANCE.serverId);
+  }
+
+  public static void shutdown() {
+    if (INSTANCE.poller != null) {
+      INSTANCE.poller.shutdownNow();
+      INSTANCE.poller = null;
+    }
+    INSTANCE.dao = null;
+  }
+
+  /** Start reading the rows inserted from now on */
+  void start(CacheInvalidationDAO dao, int cacheExpiryMinutes) {
+    this.checkpoint = dao.getMaxId();
+    this.cacheExpiryMinutes = cacheExpiryMinutes;
+    this.dao = dao;
+  }
+
+  /** Expiry of a cache, which is longer when the invalidated keys are shared with the other servers */
+  public int getCacheExpiryMinutes(int expiryMinutesWithoutFeed) {
+    return dao == null ? expiryMinutesWithoutFeed : cacheExpiryMinutes;
+  }
+
+  /** Register the function that invalidates a key of a cache of this server, without sharing the key again */
+  public void register(String cacheName, Consumer<String> invalidator) {
+    caches.put(cacheName, invalidator);
+  }
+
+  /** Share a key invalidated in a cache of this server with the other servers */
+  public void publish(String cacheName, String cacheKey) {
+    CacheInvalidationDAO current = dao;
+    if (current == null) {
+      return;
+    }
+    try {
+      current.insert(cacheName, cacheKey, serverId, System.currentTimeMillis());
+    } catch (Exception e) {
+      LOG.error("Failed to share the invalidation of {} {} with the other servers", cacheName, cacheKey, e);
+    }
+  }
+
+  /** Invalidate the keys shared by the other servers since the last poll */
+  void poll() {
+    CacheInvalidationDAO current = dao;
+    if (current == null) {
+      return;
+    }
+    try {
+      long windowStart = System.currentTimeMillis() - WINDOW_MILLIS;
+      boolean beforeWindow = true; // All the rows read so far in this poll were inserted before the window
+      long after = checkpoint;
+      List<CacheInvalidation> rows;
+      do {
+        rows = current.listAfter(after, BATCH_SIZE);
+        for (CacheInvalidation row : rows) {
+          after = row.getId();
+          if (beforeWindow && row.getCreatedAt() < windowStart) {
+            checkpoint = row.getId();
+          } else {
+            beforeWindow = false;
+          }
+          if (handled.add(row.getId()) && !serverId.equals(row.getServerId())) {
+            invalidate(row.getCacheName(), row.getCacheKey());
+          }
+        }
+      } while (rows.size() == BATCH_SIZE);
+      handled.removeIf(id -> id <= checkpoint);
+    } catch (Exception e) {
+      LOG.error("Failed to read the cache keys invalidated by the other servers", e);
+    }
+  }
+
+  private void invalidate(String cacheName, String cacheKey) {
+    Consumer<String> invalidator = caches.get(cacheName);
+    if (invalidator == null) {
+      return; // The cache is not used by this server
+    }
+    try {
+      LOG.debug("Invalidating {} {} changed by another server", cacheName, cacheKey);
+      invalidator.accept(cacheKey);
+    } catch (Exception e) {
+      LOG.error("Failed to invalidate {} {}", cacheName, cacheKey, e);
+    }
+  }
+
+  private void prune(long retentionMillis) {
+    CacheInvalidationDAO current = dao;
+    if (current == null) {
+      return;
+    }
+    try {
+      current.deleteBefore(System.currentTimeMillis() - retentionMillis);
+    } catch (Exception e) {
+      LOG.error("Failed to delete the old cache invalidations", e);
+    }
+  }
+}
@@ -30,6 +30,7 @@ import java.util.Map;
 import java.util.UUID;
 import lombok.Builder;
 import lombok.Getter;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
 import org.jdbi.v3.core.mapper.RowMapper;
 import org.jdbi.v3.core.statement.StatementContext;
@@ -37,11 +38,14 @@ import org.jdbi.v3.core.statement.StatementException;
 import org.jdbi.v3.sqlobject.CreateSqlObject;
 import org.jdbi.v3.sqlobject.config.RegisterRowMapper;
 import org.jdbi.v3.sqlobject.customizer.Bind;
+import org.jdbi.v3.sqlobject.customizer.BindBeanList;
 import org.jdbi.v3.sqlobject.customizer.BindList;
 import org.jdbi.v3.sqlobject.customizer.BindMap;
 import org.jdbi.v3.sqlobject.customizer.Define;
+import org.jdbi.v3.sqlobject.statement.GetGeneratedKeys;
 import org.jdbi.v3.sqlobject.statement.SqlQuery;
 import org.jdbi.v3.sqlobject.statement.SqlUpdate;
+import org.jdbi.v3.sqlobject.transaction.Transaction;
 import org.openmetadata.common.utils.CommonUtil;
 import org.openmetadata.schema.TokenInterface;
 import org.openmetadata.schema.analytics.WebAnalyticEvent;
@@ -202,12 +206,27 @@ public interface CollectionDAO {
   @CreateSqlObject
   FeedDAO feedDAO();
 
+  @CreateSqlObject
+  PostDAO postDAO();
+
+  @CreateSqlObject
+  ThreadCountDAO threadCountDAO();
+
+  @CreateSqlObject
+  ThreadAssigneeDAO threadAssigneeDAO();
+
+  @CreateSqlObject
+  ThreadMentionDAO threadMentionDAO();
+
   @CreateSqlObject
   LocationDAO locationDAO();
 
   @CreateSqlObject
   ChangeEventDAO changeEventDAO();
 
+  @CreateSqlObject
+  CacheInvalidationDAO cacheInvalidationDAO();
+
   @CreateSqlObject
   WebhookDAO webhookDAO();
 
@@ -365,6 +384,26 @@ public interface CollectionDAO {
             + "ORDER BY extension")
     List<ExtensionRecord> getExtensions(@Bind("id") String id, @Bind("extensionPrefix") String extensionPrefix);
 
+    @RegisterRowMapper(VersionRecordMapper.class)
+    @SqlQuery("SELECT extension, jsonSchema, json FROM entity_extension WHERE id = :id AND extension = :extension")
+    VersionRecord getVersionRecord(@Bind("id") String id, @Bind("extension") String extension);
+
+    @RegisterRowMapper(VersionRecordMapper.class)
+    @SqlQuery(
+        "SELECT extension, jsonSchema, json FROM entity_extension WHERE id = :id AND extension "
+            + "LIKE CONCAT (:extensionPrefix, '.%') "
+            + "ORDER BY extension")
+    List<VersionRecord> getVersionRecords(@Bind("id") String id, @Bind("extensionPrefix") String extensionPrefix);
+
+    /** List entities after the given id that have versions not stored by {@link EntityVersionStore} */
+    @SqlQuery(
+        "SELECT id, MIN(extension) AS extension FROM entity_extension WHERE id > :after "
+            + "AND extension LIKE '%.version.%' AND jsonSchema NOT IN (<formats>) "
+            + "GROUP BY id ORDER BY id LIMIT :limit")
+    @RegisterRowMapper(IdExtensionMapper.class)
+    List<Pair<String, String>> listEntitiesWithUnformattedVersions(
+        @Bind("after") String after, @BindList("formats") List<String> formats, @Bind("limit") int limit);
+
     @SqlUpdate("DELETE FROM entity_extension WHERE id = :id AND extension = :extension")
     void delete(@Bind("id") String id, @Bind("extension") String extension);
 
@@ -373,6 +412,16 @@ public interface CollectionDAO {
 
     @SqlUpdate("DELETE FROM entity_extension WHERE id = :id")
     void deleteAll(@Bind("id") String id);
+
+    @SqlUpdate("DELETE FROM entity_extension WHERE id IN (<ids>)")
+    void deleteAllByIds(@BindList("ids") List<String> ids);
+
+    class IdExtensionMapper implements RowMapper<Pair<String, String>> {
+      @Override
+      public Pair<String, String> map(ResultSet r, StatementContext ctx) throws SQLException {
+        return Pair.of(r.getString("id"), r.getString("extension"));
+      }
+    }
   }
 
   class EntityVersionPair {
@@ -395,6 +444,26 @@ public interface CollectionDAO {
     }
   }
 
+  /** Version of an entity stored in entity_extension. The json schema tells how the version is stored. */
+  class VersionRecord {
+    @Getter private final String extensionName;
+    @Getter private final String jsonSchema;
+    @Getter private final String extensionJson;
+
+    public VersionRecord(String extensionName, String jsonSchema, String extensionJson) {
+      this.extensionName = extensionName;
+      this.jsonSchema = jsonSchema;
+      this.extensionJson = extensionJson;
+    }
+  }
+
+  class VersionRecordMapper implements RowMapper<VersionRecord> {
+    @Override
+    public VersionRecord map(ResultSet rs, StatementContext ctx) throws SQLException {
+      return new VersionRecord(rs.getString("extension"), rs.getString("jsonSchema"), rs.getString("json"));
+    }
+  }
+
   class ExtensionMapper implements RowMapper<ExtensionRecord> {
     @Override
     public ExtensionRecord map(ResultSet rs, StatementContext ctx) throws SQLException {
@@ -410,6 +479,27 @@ public interface CollectionDAO {
     private String json;
   }
 
+  @Getter
+  @Builder
+  class EntityRelationshipObject {
+    private String fromId;
+    private String toId;
+    private String fromEntity;
+    private String toEntity;
+    private int relation;
+    private String json;
+  }
+
+  @Getter
+  @Builder
+  class TagUsageObject {
+    private int source;
+    private String tagFQN;
+    private String targetFQN;
+    private int labelType;
+    private int state;
+  }
+
   interface EntityRelationshipDAO {
     default void insert(UUID fromId, UUID toId, String fromEntity, String toEntity, int relation) {
       insert(fromId, toId, fromEntity, toEntity, relation, null);
@@ -439,6 +529,25 @@ public interface CollectionDAO {
         @Bind("relation") int relation,
         @Bind("json") String json);
 
+    /** Insert relationships with a single statement. The relationships must not repeat fromId, toId and relation. */
+    @ConnectionAwareSqlUpdate(
+        value =
+            "INSERT INTO entity_relationship(fromId, toId, fromEntity, toEntity, relation, json) VALUES <values> "
+                + "ON DUPLICATE KEY UPDATE json = VALUES(json)",
+        connectionType = MYSQL)
+    @ConnectionAwareSqlUpdate(
+        value =
+            "INSERT INTO entity_relationship(fromId, toId, fromEntity, toEntity, relation, json) "
+                + "SELECT v.fromId, v.toId, v.fromEntity, v.toEntity, v.relation, CAST(v.json AS jsonb) "
+                + "FROM (VALUES <values>) AS v(fromId, toId, fromEntity, toEntity, relation, json) "
+                + "ON CONFLICT (fromId, toId, relation) DO UPDATE SET json = EXCLUDED.json",
+        connectionType = POSTGRES)
+    void insertAll(
+        @BindBeanList(
+                value = "values",
+                propertyNames = {"fromId", "toId", "fromEntity", "toEntity", "relation", "json"})
+            List<EntityRelationshipObject> relationships);
+
     //
     // Find to operations
     //
@@ -505,6 +614,72 @@ public interface CollectionDAO {
     @RegisterRowMapper(FromRelationshipMapper.class)
     List<EntityRelationshipRecord> findFrom(@Bind("toId") String toId);
 
+    //
+    // Batch find operations used for loading relationships of many entities with a single query
+    //
+    @SqlQuery(
+        "SELECT fromId, toId, fromEntity, toEntity, relation, json FROM entity_relationship "
+            + "WHERE toId IN (<toIds>) AND toEntity = :toEntity AND relation = :relation "
+            + "ORDER BY fromId")
+    @RegisterRowMapper(RelationshipObjectMapper.class)
+    List<EntityRelationshipObject> findFromBatch(
+        @BindList("toIds") List<String> toIds, @Bind("toEntity") String toEntity, @Bind("relation") int relation);
+
+    @SqlQuery(
+        "SELECT fromId, toId, fromEntity, toEntity, relation, json FROM entity_relationship "
+            + "WHERE toId IN (<toIds>) AND toEntity = :toEntity AND relation = :relation AND fromEntity = :fromEntity "
+            + "ORDER BY fromId")
+    @RegisterRowMapper(RelationshipObjectMapper.class)
+    List<EntityRelationshipObject> findFromBatch(
+        @BindList("toIds") List<String> toIds,
+        @Bind("toEntity") String toEntity,
+        @Bind("relation") int relation,
+        @Bind("fromEntity") String fromEntity);
+
+    @SqlQuery(
+        "SELECT fromId, toId, fromEntity, toEntity, relation, json FROM entity_relationship "
+            + "WHERE fromId IN (<fromIds>) AND fromEntity = :fromEntity AND relation = :relation "
+            + "ORDER BY toId")
+    @RegisterRowMapper(RelationshipObjectMapper.class)
+    List<EntityRelationshipObject> findToBatch(
+        @BindList("fromIds") List<String> fromIds, @Bind("fromEntity") String fromEntity, @Bind("relation") int relation);
+
+    @SqlQuery(
+        "SELECT fromId, toId, fromEntity, toEntity, relation, json FROM entity_relationship "
+            + "WHERE toId IN (<toIds>) AND relation = :relation "
+            + "ORDER BY fromId")
+    @RegisterRowMapper(RelationshipObjectMapper.class)
+    List<EntityRelationshipObject> findFromBatch(
+        @BindList("toIds") List<String> toIds, @Bind("relation") int relation);
+
+    @SqlQuery(
+        "SELECT fromId, toId, fromEntity, toEntity, relation, json FROM entity_relationship "
+            + "WHERE fromId IN (<fromIds>) AND relation = :relation "
+            + "ORDER BY toId")
+    @RegisterRowMapper(RelationshipObjectMapper.class)
+    List<EntityRelationshipObject> findToBatch(
+        @BindList("fromIds") List<String> fromIds, @Bind("relation") int relation);
+
+    @SqlQuery(
+        "SELECT fromId, toId, fromEntity, toEntity, relation, json FROM entity_relationship "
+            + "WHERE fromId IN (<fromIds>) AND relation IN (<relation>) "
+            + "ORDER BY toId")
+    @RegisterRowMapper(RelationshipObjectMapper.class)
+    List<EntityRelationshipObject> findToBatch(
+        @BindList("fromIds") List<String> fromIds, @BindList("relation") List<Integer> relation);
+
+    /** List relationships of a type in the order of (fromId, toId) starting after the given (fromId, toId) */
+    @SqlQuery(
+        "SELECT fromId, toId, fromEntity, toEntity, relation, json FROM entity_relationship "
+            + "WHERE relation = :relation AND (fromId > :fromId OR (fromId = :fromId AND toId > :toId)) "
+            + "ORDER BY fromId, toId LIMIT :limit")
+    @RegisterRowMapper(RelationshipObjectMapper.class)
+    List<EntityRelationshipObject> listAfter(
+        @Bind("relation") int relation,
+        @Bind("fromId") String fromId,
+        @Bind("toId") String toId,
+        @Bind("limit") int limit);
+
     //
     // Delete Operations
     //
@@ -544,6 +719,9 @@ public interface CollectionDAO {
             + "(fromId = :id AND fromEntity = :entity)")
     void deleteAll(@Bind("id") String id, @Bind("entity") String entity);
 
+    @SqlUpdate("DELETE from entity_relationship WHERE toId IN (<ids>) OR fromId IN (<ids>)")
+    void deleteAllByIds(@BindList("ids") List<String> ids);
+
     class FromRelationshipMapper implements RowMapper<EntityRelationshipRecord> {
       @Override
       public EntityRelationshipRecord map(ResultSet rs, StatementContext ctx) throws SQLException {
@@ -565,6 +743,20 @@ public interface CollectionDAO {
             .build();
       }
     }
+
+    class RelationshipObjectMapper implements RowMapper<EntityRelationshipObject> {
+      @Override
+      public EntityRelationshipObject map(ResultSet rs, StatementContext ctx) throws SQLException {
+        return EntityRelationshipObject.builder()
+            .fromId(rs.getString("fromId"))
+            .toId(rs.getString("toId"))
+            .fromEntity(rs.getString("fromEntity"))
+            .toEntity(rs.getString("toEntity"))
+            .relation(rs.getInt("relation"))
+            .json(rs.getString("json"))
+            .build();
+      }
+    }
   }
 
   interface FeedDAO {
@@ -749,153 +941,111 @@ public interface CollectionDAO {
         @Bind("resolved") boolean resolved,
         @Bind("type") ThreadType type);
 
-    @ConnectionAwareSqlQuery(
-        value =
-            "SELECT json FROM thread_entity WHERE type='Task' AND updatedAt > :before AND taskStatus = :status AND "
-                + "taskAssignees @> ANY (ARRAY[<userTeamJsonPostgres>]::jsonb[]) "
-                + "ORDER BY createdAt DESC "
-                + "LIMIT :limit",
-        connectionType = POSTGRES)
-    @ConnectionAwareSqlQuery(
-        value =
-            "SELECT json FROM thread_entity WHERE type='Task' AND updatedAt > :before AND taskStatus = :status AND "
-                + "JSON_OVERLAPS(taskAssignees, :userTeamJsonMysql) "
-                + "ORDER BY createdAt DESC "
-                + "LIMIT :limit",
-        connectionType = MYSQL)
+    /** Tasks assigned to the users or teams, before the cursor in the order of the updated timestamp */
+    @SqlQuery(
+        "SELECT json FROM (SELECT json, updatedAt, id FROM thread_entity WHERE type='Task' "
+            + "AND (updatedAt > :before OR (updatedAt = :before AND id > :beforeId)) "
+            + "AND (:status IS NULL OR taskStatus = :status) "
+            + "AND id IN (SELECT threadId FROM thread_assignee WHERE assigneeId IN (<assigneeIds>)) "
+            + "ORDER BY updatedAt, id LIMIT :limit) tasks "
+            + "ORDER BY updatedAt DESC, id DESC")
     List<String> listTasksAssignedToBefore(
-        @BindList("userTeamJsonPostgres") List<String> userTeamJsonPostgres,
-        @Bind("userTeamJsonMysql") String userTeamJsonMysql,
+        @BindList("assigneeIds") List<String> assigneeIds,
         @Bind("limit") int limit,
         @Bind("before") long before,
+        @Bind("beforeId") String beforeId,
         @Bind("status") TaskStatus status);
 
-    @ConnectionAwareSqlQuery(
-        value =
-            "SELECT json FROM thread_entity WHERE type='Task' AND updatedAt < :after "
-                + "AND (:status IS NULL OR taskStatus = :status) "
-                + "AND taskAssignees @> ANY (ARRAY[<userTeamJsonPostgres>]::jsonb[]) "
-                + "ORDER BY createdAt DESC "
-                + "LIMIT :limit",
-        connectionType = POSTGRES)
-    @ConnectionAwareSqlQuery(
-        value =
-            "SELECT json FROM thread_entity WHERE type='Task' AND updatedAt < :after "
-                + "AND (:status IS NULL OR taskStatus = :status) "
-                + "AND JSON_OVERLAPS(taskAssignees, :userTeamJsonMysql) "
-                + "ORDER BY createdAt DESC "
-                + "LIMIT :limit",
-        connectionType = MYSQL)
+    @SqlQuery(
+        "SELECT json FROM thread_entity WHERE type='Task' "
+            + "AND (updatedAt < :after OR (updatedAt = :after AND id < :afterId)) "
+            + "AND (:status IS NULL OR taskStatus = :status) "
+            + "AND id IN (SELECT threadId FROM thread_assignee WHERE assigneeId IN (<assigneeIds>)) "
+            + "ORDER BY updatedAt DESC, id DESC "
+            + "LIMIT :limit")
     List<String> listTasksAssignedToAfter(
-        @BindList("userTeamJsonPostgres") List<String> userTeamJsonPostgres,
-        @Bind("userTeamJsonMysql") String userTeamJsonMysql,
+        @BindList("assigneeIds") List<String> assigneeIds,
         @Bind("limit") int limit,
         @Bind("after") long after,
+        @Bind("afterId") String afterId,
         @Bind("status") TaskStatus status);
 
-    @ConnectionAwareSqlQuery(
-        value =
-            "SELECT count(id) FROM thread_entity WHERE type='Task' AND "
-                + "(:status IS NULL OR taskStatus = :status) AND "
-                + "taskAssignees @> ANY (ARRAY[<userTeamJsonPostgres>]::jsonb[])",
-        connectionType = POSTGRES)
-    @ConnectionAwareSqlQuery(
-        value =
-            "SELECT count(id) FROM thread_entity WHERE type='Task' AND "
-                + "(:status IS NULL OR taskStatus = :status) AND "
-                + "JSON_OVERLAPS(taskAssignees, :userTeamJsonMysql) ",
-        connectionType = MYSQL)
-    int listCountTasksAssignedTo(
-        @BindList("userTeamJsonPostgres") List<String> userTeamJsonPostgres,
-        @Bind("userTeamJsonMysql") String userTeamJsonMysql,
-        @Bind("status") TaskStatus status);
+    @SqlQuery(
+        "SELECT count(id) FROM thread_entity WHERE type='Task' "
+            + "AND (:status IS NULL OR taskStatus = :status) "
+            + "AND id IN (SELECT threadId FROM thread_assignee WHERE assigneeId IN (<assigneeIds>))")
+    int listCountTasksAssignedTo(@BindList("assigneeIds") List<String> assigneeIds, @Bind("status") TaskStatus status);
 
-    @ConnectionAwareSqlQuery(
-        value =
-            "SELECT json FROM thread_entity WHERE type='Task' AND updatedAt > :before AND taskStatus = :status AND "
-                + "AND (taskAssignees @> ANY (ARRAY[<userTeamJsonPostgres>]::jsonb[]) OR createdBy = :username) "
-                + "ORDER BY createdAt DESC "
-                + "LIMIT :limit",
-        connectionType = POSTGRES)
-    @ConnectionAwareSqlQuery(
-        value =
-            "SELECT json FROM thread_entity WHERE type='Task' AND updatedAt > :before AND taskStatus = :status AND "
-                + "AND (JSON_OVERLAPS(taskAssignees, :userTeamJsonMysql) OR createdBy = :username) "
-                + "ORDER BY createdAt DESC "
-                + "LIMIT :limit",
-        connectionType = MYSQL)
+    /** Tasks assigned to the users or teams or created by the user, before the cursor */
+    @SqlQuery(
+        "SELECT json FROM (SELECT json, updatedAt, id FROM thread_entity WHERE type='Task' "
+            + "AND (updatedAt > :before OR (updatedAt = :before AND id > :beforeId)) "
+            + "AND (:status IS NULL OR taskStatus = :status) "
+            + "AND id IN (SELECT threadId FROM thread_assignee WHERE assigneeId IN (<assigneeIds>) "
+            + "UNION SELECT id FROM thread_entity WHERE createdBy = :username) "
+            + "ORDER BY updatedAt, id LIMIT :limit) tasks "
+            + "ORDER BY updatedAt DESC, id DESC")
     List<String> listTasksOfUserBefore(
-        @BindList("userTeamJsonPostgres") List<String> userTeamJsonPostgres,
-        @Bind("userTeamJsonMysql") String userTeamJsonMysql,
+        @BindList("assigneeIds") List<String> assigneeIds,
         @Bind("username") String username,
         @Bind("limit") int limit,
         @Bind("before") long before,
+        @Bind("beforeId") String beforeId,
         @Bind("status") TaskStatus status);
 
-    @ConnectionAwareSqlQuery(
-        value =
-            "SELECT json FROM thread_entity WHERE type='Task' AND updatedAt < :after "
-                + "AND (:status IS NULL OR taskStatus = :status) "
-                + "AND (taskAssignees @> ANY (ARRAY[<userTeamJsonPostgres>]::jsonb[]) OR createdBy = :username) "
-                + "ORDER BY createdAt DESC "
-                + "LIMIT :limit",
-        connectionType = POSTGRES)
-    @ConnectionAwareSqlQuery(
-        value =
-            "SELECT json FROM thread_entity WHERE type='Task' AND updatedAt < :after "
-                + "AND (:status IS NULL OR taskStatus = :status) "
-                + "AND (JSON_OVERLAPS(taskAssignees, :userTeamJsonMysql) OR createdBy = :username) "
-                + "ORDER BY createdAt DESC "
-                + "LIMIT :limit",
-        connectionType = MYSQL)
+    @SqlQuery(
+        "SELECT json FROM thread_entity WHERE type='Task' "
+            + "AND (updatedAt < :after OR (updatedAt = :after AND id < :afterId)) "
+            + "AND (:status IS NULL OR taskStatus = :status) "
+            + "AND id IN (SELECT threadId FROM thread_assignee WHERE assigneeId IN (<assigneeIds>) "
+            + "UNION SELECT id FROM thread_entity WHERE createdBy = :username) "
+            + "ORDER BY updatedAt DESC, id DESC "
+            + "LIMIT :limit")
     List<String> listTasksOfUserAfter(
-        @BindList("userTeamJsonPostgres") List<String> userTeamJsonPostgres,
-        @Bind("userTeamJsonMysql") String userTeamJsonMysql,
+        @BindList("assigneeIds") List<String> assigneeIds,
         @Bind("username") String username,
         @Bind("limit") int limit,
         @Bind("after") long after,
+        @Bind("afterId") String afterId,
         @Bind("status") TaskStatus status);
 
-    @ConnectionAwareSqlQuery(
-        value =
-            "SELECT count(id) FROM thread_entity WHERE type='Task' "
-                + "AND (:status IS NULL OR taskStatus = :status) "
-                + "AND (taskAssignees @> ANY (ARRAY[<userTeamJsonPostgres>]::jsonb[]) OR createdBy = :username) ",
-        connectionType = POSTGRES)
-    @ConnectionAwareSqlQuery(
-        value =
-            "SELECT count(id) FROM thread_entity WHERE type='Task' "
-                + "AND (:status IS NULL OR taskStatus = :status) "
-                + "AND (JSON_OVERLAPS(taskAssignees, :userTeamJsonMysql) OR createdBy = :username) ",
-        connectionType = MYSQL)
+    @SqlQuery(
+        "SELECT count(id) FROM thread_entity WHERE type='Task' "
+            + "AND (:status IS NULL OR taskStatus = :status) "
+            + "AND id IN (SELECT threadId FROM thread_assignee WHERE assigneeId IN (<assigneeIds>) "
+            + "UNION SELECT id FROM thread_entity WHERE createdBy = :username)")
     int listCountTasksOfUser(
-        @BindList("userTeamJsonPostgres") List<String> userTeamJsonPostgres,
-        @Bind("userTeamJsonMysql") String userTeamJsonMysql,
+        @BindList("assigneeIds") List<String> assigneeIds,
         @Bind("username") String username,
         @Bind("status") TaskStatus status);
 
+    /** Tasks created by the user, before the cursor in the order of the updated timestamp */
     @SqlQuery(
-        "SELECT json FROM thread_entity WHERE type='Task' AND updatedAt > :before "
+        "SELECT json FROM (SELECT json, updatedAt, id FROM thread_entity WHERE type='Task' "
+            + "AND (updatedAt > :before OR (updatedAt = :before AND id > :beforeId)) "
             + "AND (:status IS NULL OR taskStatus = :status) "
             + "AND createdBy = :username "
-            + "ORDER BY createdAt DESC "
-            + "LIMIT :limit")
+            + "ORDER BY updatedAt, id LIMIT :limit) tasks "
+            + "ORDER BY updatedAt DESC, id DESC")
     List<String> listTasksAssignedByBefore(
         @Bind("username") String username,
         @Bind("limit") int limit,
         @Bind("before") long before,
+        @Bind("beforeId") String beforeId,
         @Bind("status") TaskStatus status);
 
     @SqlQuery(
-        "SELECT json FROM thread_entity WHERE type='Task' AND updatedAt < :after "
+        "SELECT json FROM thread_entity WHERE type='Task' "
+            + "AND (updatedAt < :after OR (updatedAt = :after AND id < :afterId)) "
             + "AND (:status IS NULL OR taskStatus = :status) "
             + "AND createdBy = :username "
-            + "ORDER BY createdAt DESC "
+            + "ORDER BY updatedAt DESC, id DESC "
             + "LIMIT :limit")
     List<String> listTasksAssignedByAfter(
         @Bind("username") String username,
         @Bind("limit") int limit,
         @Bind("after") long after,
+        @Bind("afterId") String afterId,
         @Bind("status") TaskStatus status);
 
     @SqlQuery(
@@ -1201,28 +1351,37 @@ public interface CollectionDAO {
         @BindList("teamNames") List<String> teamNames,
         @Bind("filterRelation") int filterRelation);
 
-    @ConnectionAwareSqlUpdate(value = "UPDATE thread_entity SET json = :json where id = :id", connectionType = MYSQL)
+    /** Update the thread, keeping the count of posts stored in the thread as posts are added to it concurrently */
+    @ConnectionAwareSqlUpdate(
+        value =
+            "UPDATE thread_entity SET json = JSON_SET(:json, '$.postsCount', "
+                + "COALESCE(JSON_EXTRACT(json, '$.postsCount'), 0)) where id = :id",
+        connectionType = MYSQL)
     @ConnectionAwareSqlUpdate(
-        value = "UPDATE thread_entity SET json = (:json :: jsonb) where id = :id",
+        value =
+            "UPDATE thread_entity SET json = jsonb_set((:json :: jsonb), '{postsCount}', "
+                + "COALESCE(json -> 'postsCount', '0')) where id = :id",
         connectionType = POSTGRES)
     void update(@Bind("id") String id, @Bind("json") String json);
 
-    @SqlQuery(
-        "SELECT entityLink, COUNT(id) count FROM field_relationship fr INNER JOIN thread_entity te ON fr.fromFQN=te.id "
-            + "WHERE (:fqnPrefix IS NULL OR fr.toFQN LIKE CONCAT(:fqnPrefix, '.%') OR fr.toFQN=:fqnPrefix) AND "
-            + "(:toType IS NULL OR fr.toType like concat(:toType, '.%') OR fr.toType=:toType) AND fr.fromType = :fromType "
-            + "AND fr.relation = :relation AND te.resolved= :isResolved AND (:status IS NULL OR te.taskStatus = :status) "
-            + "AND (:type IS NULL OR te.type = :type) "
-            + "GROUP BY entityLink")
-    @RegisterRowMapper(CountFieldMapper.class)
-    List<List<String>> listCountByEntityLink(
-        @Bind("fqnPrefix") String fqnPrefix,
-        @Bind("fromType") String fromType,
-        @Bind("toType") String toType,
-        @Bind("relation") int relation,
-        @Bind("type") ThreadType type,
-        @Bind("status") TaskStatus status,
-        @Bind("isResolved") boolean isResolved);
+    /** Add to the count of posts of the thread and mark the thread updated, without rewriting the thread */
+    @ConnectionAwareSqlUpdate(
+        value =
+            "UPDATE thread_entity SET json = JSON_SET(json, "
+                + "'$.postsCount', COALESCE(JSON_EXTRACT(json, '$.postsCount'), 0) + :delta, "
+                + "'$.updatedAt', :updatedAt, '$.updatedBy', :updatedBy) where id = :id",
+        connectionType = MYSQL)
+    @ConnectionAwareSqlUpdate(
+        value =
+            "UPDATE thread_entity SET json = json || jsonb_build_object("
+                + "'postsCount', COALESCE((json ->> 'postsCount')::int, 0) + :delta, "
+                + "'updatedAt', :updatedAt, 'updatedBy', :updatedBy) where id = :id",
+        connectionType = POSTGRES)
+    void updatePostsCount(
+        @Bind("id") String id,
+        @Bind("delta") int delta,
+        @Bind("updatedAt") long updatedAt,
+        @Bind("updatedBy") String updatedBy);
 
     @SqlQuery(
         "SELECT entityLink, COUNT(id) count FROM thread_entity WHERE resolved = :resolved AND (:type IS NULL OR type = :type) AND "
@@ -1296,51 +1455,49 @@ public interface CollectionDAO {
         @Bind("resolved") boolean resolved,
         @Bind("relation") int relation);
 
+    /** Threads where the user or the teams were mentioned, before the cursor in the order of the updated timestamp */
     @SqlQuery(
-        "SELECT json FROM thread_entity WHERE updatedAt > :before AND resolved = :resolved AND "
-            + "(:type IS NULL OR type = :type) AND id in ("
-            + "SELECT toFQN FROM field_relationship WHERE "
-            + "((fromType='user' AND fromFQN= :userName) OR "
-            + "(fromType='team' AND fromFQN IN (<teamNames>)))  AND toType='THREAD' AND relation= :relation) "
-            + "ORDER BY createdAt DESC "
-            + "LIMIT :limit")
+        "SELECT json FROM (SELECT json, updatedAt, id FROM thread_entity "
+            + "WHERE (updatedAt > :before OR (updatedAt = :before AND id > :beforeId)) "
+            + "AND resolved = :resolved AND (:type IS NULL OR type = :type) AND id IN ("
+            + "SELECT threadId FROM thread_mention WHERE (mentionType = 'user' AND mentionFQN = :userName) OR "
+            + "(mentionType = 'team' AND mentionFQN IN (<teamNames>))) "
+            + "ORDER BY updatedAt, id LIMIT :limit) threads "
+            + "ORDER BY updatedAt DESC, id DESC")
     List<String> listThreadsByMentionsBefore(
         @Bind("userName") String userName,
         @BindList("teamNames") List<String> teamNames,
         @Bind("limit") int limit,
         @Bind("before") long before,
+        @Bind("beforeId") String beforeId,
         @Bind("type") ThreadType type,
-        @Bind("resolved") boolean resolved,
-        @Bind("relation") int relation);
+        @Bind("resolved") boolean resolved);
 
     @SqlQuery(
-        "SELECT json FROM thread_entity WHERE updatedAt < :after AND resolved = :resolved AND "
-            + "(:type IS NULL OR type = :type) AND id in ("
-            + "SELECT toFQN FROM field_relationship WHERE "
-            + "((fromType='user' AND fromFQN= :userName) OR "
-            + "(fromType='team' AND fromFQN IN (<teamNames>)))  AND toType='THREAD' AND relation= :relation) "
-            + "ORDER BY createdAt DESC "
+        "SELECT json FROM thread_entity WHERE (updatedAt < :after OR (updatedAt = :after AND id < :afterId)) "
+            + "AND resolved = :resolved AND (:type IS NULL OR type = :type) AND id IN ("
+            + "SELECT threadId FROM thread_mention WHERE (mentionType = 'user' AND mentionFQN = :userName) OR "
+            + "(mentionType = 'team' AND mentionFQN IN (<teamNames>))) "
+            + "ORDER BY updatedAt DESC, id DESC "
             + "LIMIT :limit")
     List<String> listThreadsByMentionsAfter(
         @Bind("userName") String userName,
         @BindList("teamNames") List<String> teamNames,
         @Bind("limit") int limit,
         @Bind("after") long after,
+        @Bind("afterId") String afterId,
         @Bind("type") ThreadType type,
-        @Bind("resolved") boolean resolved,
-        @Bind("relation") int relation);
+        @Bind("resolved") boolean resolved);
 
     @SqlQuery(
-        "SELECT count(id) FROM thread_entity WHERE resolved = :resolved AND (:type IS NULL OR type = :type) AND id in ("
-            + "SELECT toFQN FROM field_relationship WHERE "
-            + "((fromType='user' AND fromFQN= :userName) OR "
-            + "(fromType='team' AND fromFQN IN (<teamNames>)))  AND toType='THREAD' AND relation= :relation) ")
+        "SELECT count(id) FROM thread_entity WHERE resolved = :resolved AND (:type IS NULL OR type = :type) AND id IN ("
+            + "SELECT threadId FROM thread_mention WHERE (mentionType = 'user' AND mentionFQN = :userName) OR "
+            + "(mentionType = 'team' AND mentionFQN IN (<teamNames>)))")
     int listCountThreadsByMentions(
         @Bind("userName") String userName,
         @BindList("teamNames") List<String> teamNames,
         @Bind("type") ThreadType type,
-        @Bind("resolved") boolean resolved,
-        @Bind("relation") int relation);
+        @Bind("resolved") boolean resolved);
 
     class CountFieldMapper implements RowMapper<List<String>> {
       @Override
@@ -1350,6 +1507,188 @@ public interface CollectionDAO {
     }
   }
 
+  /**
+   * Posts of the feed threads, stored one row per post so that a post is added without reading or rewriting the thread
+   * and its other posts. Posts are ordered by their timestamp, and by their id for posts with the same timestamp.
+   */
+  interface PostDAO {
+    @ConnectionAwareSqlUpdate(
+        value = "INSERT INTO thread_post(threadId, id, postTs, json) VALUES (:threadId, :id, :postTs, :json)",
+        connectionType = MYSQL)
+    @ConnectionAwareSqlUpdate(
+        value =
+            "INSERT INTO thread_post(threadId, id, postTs, json) "
+                + "VALUES (:threadId, :id, :postTs, (:json :: jsonb))",
+        connectionType = POSTGRES)
+    void insert(
+        @Bind("threadId") String threadId,
+        @Bind("id") String id,
+        @Bind("postTs") long postTs,
+        @Bind("json") String json);
+
+    @ConnectionAwareSqlUpdate(
+        value = "UPDATE thread_post SET json = :json WHERE threadId = :threadId AND id = :id",
+        connectionType = MYSQL)
+    @ConnectionAwareSqlUpdate(
+        value = "UPDATE thread_post SET json = (:json :: jsonb) WHERE threadId = :threadId AND id = :id",
+        connectionType = POSTGRES)
+    void update(@Bind("threadId") String threadId, @Bind("id") String id, @Bind("json") String json);
+
+    @SqlUpdate("DELETE FROM thread_post WHERE threadId = :threadId AND id = :id")
+    int delete(@Bind("threadId") String threadId, @Bind("id") String id);
+
+    @SqlUpdate("DELETE FROM thread_post WHERE threadId = :threadId")
+    void deleteAll(@Bind("threadId") String threadId);
+
+    @SqlQuery("SELECT json FROM thread_post WHERE threadId = :threadId AND id = :id")
+    String findById(@Bind("threadId") String threadId, @Bind("id") String id);
+
+    @SqlQuery("SELECT json FROM thread_post WHERE threadId = :threadId ORDER BY postTs, id")
+    List<String> list(@Bind("threadId") String threadId);
+
+    /** Posts after the post with the given timestamp and id, oldest first */
+    @SqlQuery(
+        "SELECT json FROM thread_post WHERE threadId = :threadId AND "
+            + "(postTs > :postTs OR (postTs = :postTs AND id > :id)) ORDER BY postTs, id LIMIT :limit")
+    List<String> listAfter(
+        @Bind("threadId") String threadId,
+        @Bind("postTs") long postTs,
+        @Bind("id") String id,
+        @Bind("limit") int limit);
+
+    /** Posts before the post with the given timestamp and id, latest first */
+    @SqlQuery(
+        "SELECT json FROM thread_post WHERE threadId = :threadId AND "
+            + "(postTs < :postTs OR (postTs = :postTs AND id < :id)) ORDER BY postTs DESC, id DESC LIMIT :limit")
+    List<String> listBefore(
+        @Bind("threadId") String threadId,
+        @Bind("postTs") long postTs,
+        @Bind("id") String id,
+        @Bind("limit") int limit);
+
+    /** Latest posts of each of the threads, oldest first within a thread */
+    @SqlQuery(
+        "SELECT threadId, json FROM (SELECT threadId, postTs, id, json, ROW_NUMBER() OVER "
+            + "(PARTITION BY threadId ORDER BY postTs DESC, id DESC) AS postNumber "
+            + "FROM thread_post WHERE threadId IN (<threadIds>)) latest_post "
+            + "WHERE postNumber <= :limit ORDER BY threadId, postTs, id")
+    @RegisterRowMapper(ThreadPostMapper.class)
+    List<Pair<String, String>> listLatest(@BindList("threadIds") List<String> threadIds, @Bind("limit") int limit);
+
+    class ThreadPostMapper implements RowMapper<Pair<String, String>> {
+      @Override
+      public Pair<String, String> map(ResultSet r, StatementContext ctx) throws SQLException {
+        return Pair.of(r.getString("threadId"), r.getString("json"));
+      }
+    }
+  }
+
+  /** Users and teams that the tasks are assigned to, indexed by the assignee to list the tasks of a user */
+  interface ThreadAssigneeDAO {
+    @ConnectionAwareSqlUpdate(
+        value =
+            "INSERT IGNORE INTO thread_assignee(threadId, assigneeId, assigneeType) "
+                + "VALUES (:threadId, :assigneeId, :assigneeType)",
+        connectionType = MYSQL)
+    @ConnectionAwareSqlUpdate(
+        value =
+            "INSERT INTO thread_assignee(threadId, assigneeId, assigneeType) "
+                + "VALUES (:threadId, :assigneeId, :assigneeType) ON CONFLICT DO NOTHING",
+        connectionType = POSTGRES)
+    void insert(
+        @Bind("threadId") String threadId,
+        @Bind("assigneeId") String assigneeId,
+        @Bind("assigneeType") String assigneeType);
+
+    @SqlUpdate("DELETE FROM thread_assignee WHERE threadId = :threadId")
+    void deleteAll(@Bind("threadId") String threadId);
+  }
+
+  /** Users and teams mentioned in the threads and their posts, indexed by the name of the user or team */
+  interface ThreadMentionDAO {
+    @ConnectionAwareSqlUpdate(
+        value =
+            "INSERT IGNORE INTO thread_mention(threadId, mentionFQN, mentionType) "
+                + "VALUES (:threadId, :mentionFQN, :mentionType)",
+        connectionType = MYSQL)
+    @ConnectionAwareSqlUpdate(
+        value =
+            "INSERT INTO thread_mention(threadId, mentionFQN, mentionType) "
+                + "VALUES (:threadId, :mentionFQN, :mentionType) ON CONFLICT DO NOTHING",
+        connectionType = POSTGRES)
+    void insert(
+        @Bind("threadId") String threadId,
+        @Bind("mentionFQN") String mentionFQN,
+        @Bind("mentionType") String mentionType);
+
+    @SqlUpdate("DELETE FROM thread_mention WHERE threadId = :threadId")
+    void deleteAll(@Bind("threadId") String threadId);
+  }
+
+  /**
+   * Number of threads about each entity link, by thread type, task status and resolved state. The counts are updated
+   * with the threads, so that the thread counts of an entity are read without joining the threads and their
+   * relationships. Threads without a task are counted with an empty task status.
+   */
+  interface ThreadCountDAO {
+    @ConnectionAwareSqlUpdate(
+        value =
+            "INSERT INTO thread_count(entityLink, aboutFQN, aboutType, type, taskStatus, resolved, count) "
+                + "VALUES (:entityLink, :aboutFQN, :aboutType, :type, :taskStatus, :resolved, :delta) "
+                + "ON DUPLICATE KEY UPDATE count = count + :delta",
+        connectionType = MYSQL)
+    @ConnectionAwareSqlUpdate(
+        value =
+            "INSERT INTO thread_count(entityLink, aboutFQN, aboutType, type, taskStatus, resolved, count) "
+                + "VALUES (:entityLink, :aboutFQN, :aboutType, :type, :taskStatus, :resolved, :delta) "
+                + "ON CONFLICT (entityLink, type, taskStatus, resolved) "
+                + "DO UPDATE SET count = thread_count.count + EXCLUDED.count",
+        connectionType = POSTGRES)
+    void update(
+        @Bind("entityLink") String entityLink,
+        @Bind("aboutFQN") String aboutFQN,
+        @Bind("aboutType") String aboutType,
+        @Bind("type") String type,
+        @Bind("taskStatus") String taskStatus,
+        @Bind("resolved") boolean resolved,
+        @Bind("delta") int delta);
+
+    @SqlQuery(
+        "SELECT entityLink, SUM(count) count FROM thread_count "
+            + "WHERE (:fqnPrefix IS NULL OR aboutFQN LIKE CONCAT(:fqnPrefix, '.%') OR aboutFQN = :fqnPrefix) AND "
+            + "(:toType IS NULL OR aboutType LIKE CONCAT(:toType, '.%') OR aboutType = :toType) AND "
+            + "resolved = :isResolved AND (:status IS NULL OR taskStatus = :status) AND "
+            + "(:type IS NULL OR type = :type) "
+            + "GROUP BY entityLink HAVING SUM(count) > 0")
+    @RegisterRowMapper(FeedDAO.CountFieldMapper.class)
+    List<List<String>> listCountByEntityLink(
+        @Bind("fqnPrefix") String fqnPrefix,
+        @Bind("toType") String toType,
+        @Bind("type") ThreadType type,
+        @Bind("status") TaskStatus status,
+        @Bind("isResolved") boolean isResolved);
+
+    @SqlUpdate("DELETE FROM thread_count")
+    void deleteAll();
+
+    @SqlUpdate(
+        "INSERT INTO thread_count(entityLink, aboutFQN, aboutType, type, taskStatus, resolved, count) "
+            + "SELECT te.entityLink, fr.toFQN, fr.toType, te.type, COALESCE(te.taskStatus, ''), "
+            + "COALESCE(te.resolved, false), COUNT(te.id) "
+            + "FROM thread_entity te INNER JOIN field_relationship fr ON fr.fromFQN = te.id "
+            + "WHERE fr.fromType = :fromType AND fr.relation = :relation "
+            + "GROUP BY te.entityLink, fr.toFQN, fr.toType, te.type, COALESCE(te.taskStatus, ''), "
+            + "COALESCE(te.resolved, false)")
+    void insertAll(@Bind("fromType") String fromType, @Bind("relation") int relation);
+
+    /** Recompute all the counts from the threads */
+    @Transaction
+    default void rebuild() {
+      deleteAll();
+      insertAll(Entity.THREAD, Relationship.IS_ABOUT.ordinal());
+    }
+  }
+
   interface FieldRelationshipDAO {
     @ConnectionAwareSqlUpdate(
         value =
@@ -1889,6 +2228,21 @@ public interface CollectionDAO {
         @Bind("labelType") int labelType,
         @Bind("state") int state);
 
+    /** Apply tags with a single statement */
+    @ConnectionAwareSqlUpdate(
+        value = "INSERT IGNORE INTO tag_usage (source, tagFQN, targetFQN, labelType, state) VALUES <values>",
+        connectionType = MYSQL)
+    @ConnectionAwareSqlUpdate(
+        value =
+            "INSERT INTO tag_usage (source, tagFQN, targetFQN, labelType, state) VALUES <values> "
+                + "ON CONFLICT (source, tagFQN, targetFQN) DO NOTHING",
+        connectionType = POSTGRES)
+    void applyTags(
+        @BindBeanList(
+                value = "values",
+                propertyNames = {"source", "tagFQN", "targetFQN", "labelType", "state"})
+            List<TagUsageObject> tagUsages);
+
     @SqlQuery("SELECT targetFQN FROM tag_usage WHERE tagFQN = :tagFQN")
     List<String> tagTargetFQN(@Bind("tagFQN") String tagFQN);
 
@@ -1914,6 +2268,29 @@ public interface CollectionDAO {
         connectionType = POSTGRES)
     List<TagLabel> getTags(@Bind("targetFQN") String targetFQN);
 
+    @ConnectionAwareSqlQuery(
+        value =
+            "SELECT tu.source, tu.tagFQN, tu.targetFQN, tu.labelType, tu.state, "
+                + "t.json ->> '$.description' AS description1, "
+                + "g.json ->> '$.description' AS description2 "
+                + "FROM tag_usage tu "
+                + "LEFT JOIN tag t ON tu.tagFQN = t.fullyQualifiedName AND tu.source = 0 "
+                + "LEFT JOIN glossary_term_entity g ON tu.tagFQN = g.fullyQualifiedName AND tu.source = 1 "
+                + "WHERE tu.targetFQN IN (<targetFQNs>) ORDER BY tu.tagFQN",
+        connectionType = MYSQL)
+    @ConnectionAwareSqlQuery(
+        value =
+            "SELECT tu.source, tu.tagFQN, tu.targetFQN, tu.labelType, tu.state, "
+                + "t.json ->> 'description' AS description1, "
+                + "g.json ->> 'description' AS description2 "
+                + "FROM tag_usage tu "
+                + "LEFT JOIN tag t ON tu.tagFQN = t.fullyQualifiedName AND tu.source = 0 "
+                + "LEFT JOIN glossary_term_entity g ON tu.tagFQN = g.fullyQualifiedName AND tu.source = 1 "
+                + "WHERE tu.targetFQN IN (<targetFQNs>) ORDER BY tu.tagFQN",
+        connectionType = POSTGRES)
+    @RegisterRowMapper(TargetTagLabelMapper.class)
+    List<Pair<String, TagLabel>> getTagsByTargets(@BindList("targetFQNs") List<String> targetFQNs);
+
     @SqlQuery("SELECT COUNT(*) FROM tag_usage WHERE tagFQN LIKE CONCAT(:fqnPrefix, '%') AND source = :source")
     int getTagCount(@Bind("source") int source, @Bind("fqnPrefix") String fqnPrefix);
 
@@ -1926,6 +2303,33 @@ public interface CollectionDAO {
     @SqlUpdate("DELETE FROM tag_usage where tagFQN LIKE CONCAT(:tagFQN, '.%') AND source = :source")
     void deleteTagLabelsByPrefix(@Bind("source") int source, @Bind("tagFQN") String tagFQN);
 
+    /**
+     * Tags of all the targets under the given FQN, such as the columns of a table. The names of other targets may match
+     * the pattern, as {@code _} in the FQN matches any character.
+     */
+    @ConnectionAwareSqlQuery(
+        value =
+            "SELECT tu.source, tu.tagFQN, tu.targetFQN, tu.labelType, tu.state, "
+                + "t.json ->> '$.description' AS description1, "
+                + "g.json ->> '$.description' AS description2 "
+                + "FROM tag_usage tu "
+                + "LEFT JOIN tag t ON tu.tagFQN = t.fullyQualifiedName AND tu.source = 0 "
+                + "LEFT JOIN glossary_term_entity g ON tu.tagFQN = g.fullyQualifiedName AND tu.source = 1 "
+                + "WHERE tu.targetFQN LIKE CONCAT(:targetFQNPrefix, '.%') ORDER BY tu.tagFQN",
+        connectionType = MYSQL)
+    @ConnectionAwareSqlQuery(
+        value =
+            "SELECT tu.source, tu.tagFQN, tu.targetFQN, tu.labelType, tu.state, "
+                + "t.json ->> 'description' AS description1, "
+                + "g.json ->> 'description' AS description2 "
+                + "FROM tag_usage tu "
+                + "LEFT JOIN tag t ON tu.tagFQN = t.fullyQualifiedName AND tu.source = 0 "
+                + "LEFT JOIN glossary_term_entity g ON tu.tagFQN = g.fullyQualifiedName AND tu.source = 1 "
+                + "WHERE tu.targetFQN LIKE CONCAT(:targetFQNPrefix, '.%') ORDER BY tu.tagFQN",
+        connectionType = POSTGRES)
+    @RegisterRowMapper(TargetTagLabelMapper.class)
+    List<Pair<String, TagLabel>> getTagsByTargetPrefix(@Bind("targetFQNPrefix") String targetFQNPrefix);
+
     @SqlUpdate("DELETE FROM tag_usage where targetFQN LIKE CONCAT(:targetFQN, '%')")
     void deleteTagLabelsByTargetPrefix(@Bind("targetFQN") String targetFQN);
 
@@ -1942,6 +2346,16 @@ public interface CollectionDAO {
             .withDescription(description1 == null ? description2 : description1);
       }
     }
+
+    /** Maps a tag usage row to the pair of targetFQN and the tag label applied to it */
+    class TargetTagLabelMapper implements RowMapper<Pair<String, TagLabel>> {
+      private final TagLabelMapper tagLabelMapper = new TagLabelMapper();
+
+      @Override
+      public Pair<String, TagLabel> map(ResultSet r, StatementContext ctx) throws SQLException {
+        return Pair.of(r.getString("targetFQN"), tagLabelMapper.map(r, ctx));
+      }
+    }
   }
 
   interface RoleDAO extends EntityDAO<Role> {
@@ -2248,47 +2662,112 @@ public interface CollectionDAO {
             + "WHERE usageDate IN (SELECT MAX(usageDate) FROM entity_usage WHERE id = :id) AND id = :id")
     UsageDetails getLatestUsage(@Bind("id") String id);
 
+    /** Get latest usage record for each of the given entities */
+    @SqlQuery(
+        "SELECT u.id, u.usageDate, u.entityType, u.count1, u.count7, u.count30, "
+            + "u.percentile1, u.percentile7, u.percentile30 FROM entity_usage u "
+            + "WHERE u.id IN (<ids>) AND u.usageDate = (SELECT MAX(usageDate) FROM entity_usage WHERE id = u.id)")
+    @RegisterRowMapper(EntityUsageDetailsMapper.class)
+    List<Pair<String, UsageDetails>> getLatestUsageBatch(@BindList("ids") List<String> ids);
+
     @SqlUpdate("DELETE FROM entity_usage WHERE id = :id")
     void delete(@Bind("id") String id);
 
+    @SqlUpdate("DELETE FROM entity_usage WHERE id IN (<ids>)")
+    void deleteByIds(@BindList("ids") List<String> ids);
+
     /**
-     * TODO: Not sure I get what the next comment means, but tests now use mysql 8 so maybe tests can be improved here
-     * Note not using in following percentile computation PERCENT_RANK function as unit tests use mysql5.7, and it does
-     * not have window function
+     * Sum of the daily counts of each of the entities in the 6 days and in the 29 days before the given date. Adding
+     * the count of the date gives the rolling counts of the last 7 days and the last 30 days.
+     */
+    @ConnectionAwareSqlQuery(
+        value =
+            "SELECT id, SUM(CASE WHEN usageDate >= :date - INTERVAL 6 DAY THEN count1 ELSE 0 END) AS sum7, "
+                + "SUM(count1) AS sum30 FROM entity_usage WHERE id IN (<ids>) "
+                + "AND usageDate >= :date - INTERVAL 29 DAY AND usageDate < :date GROUP BY id",
+        connectionType = MYSQL)
+    @ConnectionAwareSqlQuery(
+        value =
+            "SELECT id, "
+                + "SUM(CASE WHEN usageDate >= (:date :: date) - INTERVAL '6 days' THEN count1 ELSE 0 END) AS sum7, "
+                + "SUM(count1) AS sum30 FROM entity_usage WHERE id IN (<ids>) "
+                + "AND usageDate >= (:date :: date) - INTERVAL '29 days' AND usageDate < (:date :: date) GROUP BY id",
+        connectionType = POSTGRES)
+    @RegisterRowMapper(UsageWindowMapper.class)
+    List<Triple<String, Integer, Integer>> getPreviousCounts(
+        @BindList("ids") List<String> ids, @Bind("date") String date);
+
+    /**
+     * Insert the usage of many entities with a single statement. When there is already usage of an entity on the date,
+     * {@code count1} of the record is added to the daily and rolling counts, the same as {@link #insertOrUpdateCount}.
      */
     @ConnectionAwareSqlUpdate(
         value =
-            "UPDATE entity_usage u JOIN ( "
-                + "SELECT u1.id, "
-                + "(SELECT COUNT(*) FROM entity_usage as u2 WHERE u2.count1 <  u1.count1 AND u2.entityType = :entityType "
-                + "AND u2.usageDate = :date) as p1, "
-                + "(SELECT COUNT(*) FROM entity_usage as u3 WHERE u3.count7 <  u1.count7 AND u3.entityType = :entityType "
-                + "AND u3.usageDate = :date) as p7, "
-                + "(SELECT COUNT(*) FROM entity_usage as u4 WHERE u4.count30 <  u1.count30 AND u4.entityType = :entityType "
-                + "AND u4.usageDate = :date) as p30, "
-                + "(SELECT COUNT(*) FROM entity_usage WHERE entityType = :entityType AND usageDate = :date) as total "
-                + "FROM entity_usage u1 WHERE u1.entityType = :entityType AND u1.usageDate = :date"
-                + ") vals ON u.id = vals.id AND usageDate = :date "
-                + "SET u.percentile1 = ROUND(100 * p1/total, 2), u.percentile7 = ROUND(p7 * 100/total, 2), u.percentile30 ="
-                + " ROUND(p30*100/total, 2)",
+            "INSERT INTO entity_usage (usageDate, id, entityType, count1, count7, count30) VALUES <values> "
+                + "ON DUPLICATE KEY UPDATE count1 = count1 + VALUES(count1), count7 = count7 + VALUES(count1), "
+                + "count30 = count30 + VALUES(count1)",
+        connectionType = MYSQL)
+    @ConnectionAwareSqlUpdate(
+        value =
+            "INSERT INTO entity_usage (usageDate, id, entityType, count1, count7, count30) "
+                + "SELECT CAST(v.usageDate AS date), v.id, v.entityType, v.count1, v.count7, v.count30 "
+                + "FROM (VALUES <values>) AS v(usageDate, id, entityType, count1, count7, count30) "
+                + "ON CONFLICT (usageDate, id) DO UPDATE SET count1 = entity_usage.count1 + EXCLUDED.count1, "
+                + "count7 = entity_usage.count7 + EXCLUDED.count1, count30 = entity_usage.count30 + EXCLUDED.count1",
+        connectionType = POSTGRES)
+    void insertOrUpdateCounts(
+        @BindBeanList(
+                value = "values",
+                propertyNames = {"usageDate", "id", "entityType", "count1", "count7", "count30"})
+            List<UsageCountRecord> records);
+
+    /**
+     * Compute the percentile rank of the daily, weekly and monthly counts of all the entities of a type on a date. The
+     * rank of a count is the percentage of the counts of the other entities that are smaller. {@code RANK() - 1} is
+     * used instead of {@code PERCENT_RANK()}, which divides by the number of entities minus one and would change the
+     * ranks computed before. Requires window functions, which are available from MySQL 8.
+     */
+    @ConnectionAwareSqlUpdate(
+        value =
+            "UPDATE entity_usage u JOIN ("
+                + "SELECT id, RANK() OVER (ORDER BY count1) - 1 AS p1, RANK() OVER (ORDER BY count7) - 1 AS p7, "
+                + "RANK() OVER (ORDER BY count30) - 1 AS p30, COUNT(*) OVER () AS total "
+                + "FROM entity_usage WHERE entityType = :entityType AND usageDate = :date"
+                + ") vals ON u.id = vals.id AND u.usageDate = :date "
+                + "SET u.percentile1 = ROUND(100 * p1 / total, 2), u.percentile7 = ROUND(100 * p7 / total, 2), "
+                + "u.percentile30 = ROUND(100 * p30 / total, 2)",
         connectionType = MYSQL)
     @ConnectionAwareSqlUpdate(
         value =
             "UPDATE entity_usage u "
-                + "SET percentile1 = ROUND(100 * p1 / total, 2), percentile7 = ROUND(p7 * 100 / total, 2), percentile30 = ROUND(p30 * 100 / total, 2) "
-                + "FROM ("
-                + "   SELECT u1.id, "
-                + "       (SELECT COUNT(*) FROM entity_usage as u2 WHERE u2.count1 < u1.count1 AND u2.entityType = :entityType AND u2.usageDate = (:date :: date)) as p1, "
-                + "       (SELECT COUNT(*) FROM entity_usage as u3 WHERE u3.count7 < u1.count7 AND u3.entityType = :entityType AND u3.usageDate = (:date :: date)) as p7, "
-                + "       (SELECT COUNT(*) FROM entity_usage as u4 WHERE u4.count30 < u1.count30 AND u4.entityType = :entityType AND u4.usageDate = (:date :: date)) as p30, "
-                + "       (SELECT COUNT(*) FROM entity_usage WHERE entityType = :entityType AND usageDate = (:date :: date)"
-                + "   ) as total FROM entity_usage u1 "
-                + "   WHERE u1.entityType = :entityType AND u1.usageDate = (:date :: date)"
-                + ") vals "
-                + "WHERE u.id = vals.id AND usageDate = (:date :: date);",
+                + "SET percentile1 = ROUND(100 * p1 / total, 2), percentile7 = ROUND(100 * p7 / total, 2), "
+                + "percentile30 = ROUND(100 * p30 / total, 2) FROM ("
+                + "SELECT id, RANK() OVER (ORDER BY count1) - 1 AS p1, RANK() OVER (ORDER BY count7) - 1 AS p7, "
+                + "RANK() OVER (ORDER BY count30) - 1 AS p30, COUNT(*) OVER () AS total "
+                + "FROM entity_usage WHERE entityType = :entityType AND usageDate = (:date :: date)"
+                + ") vals WHERE u.id = vals.id AND u.usageDate = (:date :: date)",
         connectionType = POSTGRES)
     void computePercentile(@Bind("entityType") String entityType, @Bind("date") String date);
 
+    @Getter
+    @Builder
+    class UsageCountRecord {
+      private String usageDate;
+      private String id;
+      private String entityType;
+      private int count1;
+      private int count7;
+      private int count30;
+    }
+
+    /** Maps a row to the entity id and the sums of the daily counts of the previous 6 days and 29 days */
+    class UsageWindowMapper implements RowMapper<Triple<String, Integer, Integer>> {
+      @Override
+      public Triple<String, Integer, Integer> map(ResultSet r, StatementContext ctx) throws SQLException {
+        return Triple.of(r.getString("id"), r.getInt("sum7"), r.getInt("sum30"));
+      }
+    }
+
     class UsageDetailsMapper implements RowMapper<UsageDetails> {
       @Override
       public UsageDetails map(ResultSet r, StatementContext ctx) throws SQLException {
@@ -2305,6 +2784,16 @@ public interface CollectionDAO {
             .withMonthlyStats(monthlyStats);
       }
     }
+
+    /** Maps a usage row to the pair of entity id and the usage details of the entity */
+    class EntityUsageDetailsMapper implements RowMapper<Pair<String, UsageDetails>> {
+      private final UsageDetailsMapper usageDetailsMapper = new UsageDetailsMapper();
+
+      @Override
+      public Pair<String, UsageDetails> map(ResultSet r, StatementContext ctx) throws SQLException {
+        return Pair.of(r.getString("id"), usageDetailsMapper.map(r, ctx));
+      }
+    }
   }
 
   interface UserDAO extends EntityDAO<User> {
@@ -2593,6 +3082,31 @@ public interface CollectionDAO {
         connectionType = POSTGRES)
     void insert(@Bind("json") String json);
 
+    /**
+     * Insert change events with a single statement and return the offsets assigned by the database, in the order of
+     * the records. Offset of the records is ignored. The key column is lower case as Postgres quotes it.
+     */
+    @ConnectionAwareSqlUpdate(value = "INSERT INTO change_event (json) VALUES <values>", connectionType = MYSQL)
+    @ConnectionAwareSqlUpdate(
+        value = "INSERT INTO change_event (json) SELECT CAST(v.json AS jsonb) FROM (VALUES <values>) AS v(json)",
+        connectionType = POSTGRES)
+    @GetGeneratedKeys("eventoffset")
+    List<Long> insertAll(@BindBeanList(value = "values", propertyNames = "json") List<ChangeEventRecord> records);
+
+    @SqlUpdate("INSERT INTO change_event_spill (userName, eventOffset) VALUES (:userName, :eventOffset)")
+    void insertSpilled(@Bind("userName") String userName, @Bind("eventOffset") long eventOffset);
+
+    /** Spilled change events with their json, which is null when the change event has been deleted */
+    @RegisterRowMapper(SpilledChangeEventMapper.class)
+    @SqlQuery(
+        "SELECT s.id, s.userName, c.json FROM change_event_spill s "
+            + "LEFT JOIN change_event c ON c.eventOffset = s.eventOffset ORDER BY s.id LIMIT :limit")
+    List<SpilledChangeEvent> listSpilled(@Bind("limit") int limit);
+
+    /** Returns 0 when the spilled change event has already been taken by another server */
+    @SqlUpdate("DELETE FROM change_event_spill WHERE id = :id")
+    int deleteSpilled(@Bind("id") long id);
+
     @SqlUpdate("DELETE FROM change_event WHERE entityType = :entityType")
     void deleteAll(@Bind("entityType") String entityType);
 
@@ -2620,6 +3134,182 @@ public interface CollectionDAO {
             + "eventType = :eventType AND eventTime >= :timestamp "
             + "ORDER BY eventTime ASC")
     List<String> listWithoutEntityFilter(@Bind("eventType") String eventType, @Bind("timestamp") long timestamp);
+
+    @ConnectionAwareSqlQuery(
+        value =
+            "SELECT DISTINCT json ->> '$.entityId' FROM change_event "
+                + "WHERE entityType = :entityType AND eventOffset > :offset",
+        connectionType = MYSQL)
+    @ConnectionAwareSqlQuery(
+        value =
+            "SELECT DISTINCT json ->> 'entityId' FROM change_event "
+                + "WHERE entityType = :entityType AND eventOffset > :offset",
+        connectionType = POSTGRES)
+    List<String> listEntityIds(@Bind("entityType") String entityType, @Bind("offset") long offset);
+
+    @RegisterRowMapper(ChangeEventRecordMapper.class)
+    @SqlQuery(
+        "SELECT eventOffset, json FROM change_event WHERE eventOffset > :offset ORDER BY eventOffset LIMIT :limit")
+    List<ChangeEventRecord> listAfterOffset(@Bind("offset") long offset, @Bind("limit") int limit);
+
+    @SqlQuery("SELECT COALESCE(MAX(eventOffset), 0) FROM change_event")
+    long getMaxOffset();
+
+    /** Age in milliseconds of the oldest transaction open in the database, used to tell rolled back offsets */
+    @ConnectionAwareSqlQuery(
+        value =
+            "SELECT COALESCE(MAX(TIMESTAMPDIFF(MICROSECOND, trx_started, NOW(6))) DIV 1000, 0) "
+                + "FROM information_schema.innodb_trx",
+        connectionType = MYSQL)
+    @ConnectionAwareSqlQuery(
+        value =
+            "SELECT COALESCE(CAST(EXTRACT(EPOCH FROM MAX(clock_timestamp() - xact_start)) * 1000 AS BIGINT), 0) "
+                + "FROM pg_stat_activity "
+                + "WHERE datname = current_database() AND pid <> pg_backend_pid() AND xact_start IS NOT NULL",
+        connectionType = POSTGRES)
+    long getOldestTransactionAge();
+
+    @SqlQuery("SELECT eventOffset FROM change_event_consumers WHERE id = :id")
+    Long getConsumerOffset(@Bind("id") String id);
+
+    @ConnectionAwareSqlUpdate(
+        value =
+            "INSERT IGNORE INTO change_event_consumers (id, eventOffset, updatedAt) "
+                + "VALUES (:id, :offset, :updatedAt)",
+        connectionType = MYSQL)
+    @ConnectionAwareSqlUpdate(
+        value =
+            "INSERT INTO change_event_consumers (id, eventOffset, updatedAt) VALUES (:id, :offset, :updatedAt) "
+                + "ON CONFLICT (id) DO NOTHING",
+        connectionType = POSTGRES)
+    void insertConsumerOffset(
+        @Bind("id") String id, @Bind("offset") long offset, @Bind("updatedAt") long updatedAt);
+
+    /**
+     * Commit the offset of a consumer only when the committed offset is still {@code expected} and the server still
+     * holds the lease of the consumer. Returns 0 when the offset was rewound or the lease was taken by another server.
+     */
+    @SqlUpdate(
+        "UPDATE change_event_consumers SET eventOffset = :offset, updatedAt = :updatedAt "
+            + "WHERE id = :id AND eventOffset = :expected AND leaseOwner = :owner")
+    int commitConsumerOffset(
+        @Bind("id") String id,
+        @Bind("owner") String owner,
+        @Bind("expected") long expected,
+        @Bind("offset") long offset,
+        @Bind("updatedAt") long updatedAt);
+
+    /**
+     * Take or renew the lease of a consumer, so that only one server consumes the events of a consumer at a time.
+     * Returns 0 when another server holds a lease that has not expired.
+     */
+    @SqlUpdate(
+        "UPDATE change_event_consumers SET leaseOwner = :owner, leaseExpiresAt = :expiresAt "
+            + "WHERE id = :id AND (leaseOwner IS NULL OR leaseOwner = :owner OR leaseExpiresAt < :now)")
+    int acquireConsumerLease(
+        @Bind("id") String id,
+        @Bind("owner") String owner,
+        @Bind("now") long now,
+        @Bind("expiresAt") long expiresAt);
+
+    @SqlUpdate(
+        "UPDATE change_event_consumers SET leaseOwner = NULL, leaseExpiresAt = 0 "
+            + "WHERE id = :id AND leaseOwner = :owner")
+    void releaseConsumerLease(@Bind("id") String id, @Bind("owner") String owner);
+
+    @SqlUpdate("UPDATE change_event_consumers SET eventOffset = :offset, updatedAt = :updatedAt WHERE id = :id")
+    int setConsumerOffset(@Bind("id") String id, @Bind("offset") long offset, @Bind("updatedAt") long updatedAt);
+
+    @SqlUpdate("DELETE FROM change_event_consumers WHERE id = :id")
+    void deleteConsumerOffset(@Bind("id") String id);
+  }
+
+  class ChangeEventRecord {
+    @Getter private final long offset;
+    @Getter private final String json;
+
+    public ChangeEventRecord(long offset, String json) {
+      this.offset = offset;
+      this.json = json;
+    }
+  }
+
+  class ChangeEventRecordMapper implements RowMapper<ChangeEventRecord> {
+    @Override
+    public ChangeEventRecord map(ResultSet rs, StatementContext ctx) throws SQLException {
+      return new ChangeEventRecord(rs.getLong("eventOffset"), rs.getString("json"));
+    }
+  }
+
+  class SpilledChangeEvent {
+    @Getter private final long id;
+    @Getter private final String userName;
+    @Getter private final String json;
+
+    public SpilledChangeEvent(long id, String userName, String json) {
+      this.id = id;
+      this.userName = userName;
+      this.json = json;
+    }
+  }
+
+  class SpilledChangeEventMapper implements RowMapper<SpilledChangeEvent> {
+    @Override
+    public SpilledChangeEvent map(ResultSet rs, StatementContext ctx) throws SQLException {
+      return new SpilledChangeEvent(rs.getLong("id"), rs.getString("userName"), rs.getString("json"));
+    }
+  }
+
+  interface CacheInvalidationDAO {
+    @SqlUpdate(
+        "INSERT INTO cache_invalidation (cacheName, cacheKey, serverId, createdAt) "
+            + "VALUES (:cacheName, :cacheKey, :serverId, :createdAt)")
+    void insert(
+        @Bind("cacheName") String cacheName,
+        @Bind("cacheKey") String cacheKey,
+        @Bind("serverId") String serverId,
+        @Bind("createdAt") long createdAt);
+
+    @RegisterRowMapper(CacheInvalidationMapper.class)
+    @SqlQuery(
+        "SELECT id, cacheName, cacheKey, serverId, createdAt FROM cache_invalidation "
+            + "WHERE id > :after ORDER BY id LIMIT :limit")
+    List<CacheInvalidation> listAfter(@Bind("after") long after, @Bind("limit") int limit);
+
+    @SqlQuery("SELECT COALESCE(MAX(id), 0) FROM cache_invalidation")
+    long getMaxId();
+
+    @SqlUpdate("DELETE FROM cache_invalidation WHERE createdAt < :before")
+    int deleteBefore(@Bind("before") long before);
+  }
+
+  @Getter
+  class CacheInvalidation {
+    private final long id;
+    private final String cacheName;
+    private final String cacheKey;
+    private final String serverId;
+    private final long createdAt;
+
+    public CacheInvalidation(long id, String cacheName, String cacheKey, String serverId, long createdAt) {
+      this.id = id;
+      this.cacheName = cacheName;
+      this.cacheKey = cacheKey;
+      this.serverId = serverId;
+      this.createdAt = createdAt;
+    }
+  }
+
+  class CacheInvalidationMapper implements RowMapper<CacheInvalidation> {
+    @Override
+    public CacheInvalidation map(ResultSet rs, StatementContext ctx) throws SQLException {
+      return new CacheInvalidation(
+          rs.getLong("id"),
+          rs.getString("cacheName"),
+          rs.getString("cacheKey"),
+          rs.getString("serverId"),
+          rs.getLong("createdAt"));
+    }
   }
 
   interface TypeEntityDAO extends EntityDAO<Type> {
@@ -2984,7 +3674,7 @@ public interface CollectionDAO {
         value =
             "UPDATE entity_extension_time_series set json = (:json :: jsonb) where entityFQN=:entityFQN and extension=:extension and timestamp=:timestamp",
         connectionType = POSTGRES)
-    void update(
+    int update(
         @Bind("entityFQN") String entityFQN,
         @Bind("extension") String extension,
         @Bind("json") String json,
@@ -3003,6 +3693,16 @@ public interface CollectionDAO {
             + "ORDER BY timestamp DESC LIMIT 1")
     String getLatestExtension(@Bind("entityFQN") String entityFQN, @Bind("extension") String extension);
 
+    /** Latest entry of the extension of each of the entities, mapped to the pair of entityFQN and json */
+    @SqlQuery(
+        "SELECT entityFQN, json FROM ("
+            + "SELECT entityFQN, json, ROW_NUMBER() OVER (PARTITION BY entityFQN ORDER BY timestamp DESC) AS rowNumber "
+            + "FROM entity_extension_time_series WHERE entityFQN IN (<entityFQNs>) AND extension = :extension"
+            + ") latest WHERE rowNumber = 1")
+    @RegisterRowMapper(EntityJsonMapper.class)
+    List<Pair<String, String>> getLatestExtensionBatch(
+        @BindList("entityFQNs") List<String> entityFQNs, @Bind("extension") String extension);
+
     @SqlQuery(
         "SELECT json FROM entity_extension_time_series WHERE entityFQN = :entityFQN AND extension = :extension "
             + "ORDER BY timestamp DESC LIMIT :limit")
@@ -3035,6 +3735,123 @@ public interface CollectionDAO {
         @Bind("extension") String extension,
         @Bind("startTs") Long startTs,
         @Bind("endTs") long endTs);
+
+    @SqlQuery(
+        "SELECT MAX(timestamp) FROM entity_extension_time_series WHERE entityFQN = :entityFQN AND extension = :extension")
+    Long getLatestTimestamp(@Bind("entityFQN") String entityFQN, @Bind("extension") String extension);
+
+    @SqlQuery(
+        "SELECT DISTINCT entityFQN FROM entity_extension_time_series WHERE extension = :extension "
+            + "AND timestamp < :before AND entityFQN > :after ORDER BY entityFQN LIMIT :limit")
+    List<String> listEntitiesBefore(
+        @Bind("extension") String extension,
+        @Bind("before") long before,
+        @Bind("after") String after,
+        @Bind("limit") int limit);
+
+    @SqlUpdate(
+        "DELETE FROM entity_extension_time_series WHERE entityFQN = :entityFQN AND extension = :extension "
+            + "AND timestamp IN (<timestamps>)")
+    void deleteAtTimestamps(
+        @Bind("entityFQN") String entityFQN,
+        @Bind("extension") String extension,
+        @BindList("timestamps") List<Long> timestamps);
+
+    @SqlUpdate(
+        "INSERT INTO entity_extension_time_series_chunk(entityFQN, extension, bucketStart, startTs, endTs, "
+            + "compactedAt, chunk) VALUES (:entityFQN, :extension, :bucketStart, :startTs, :endTs, :compactedAt, :chunk)")
+    void insertChunk(
+        @Bind("entityFQN") String entityFQN,
+        @Bind("extension") String extension,
+        @Bind("bucketStart") long bucketStart,
+        @Bind("startTs") long startTs,
+        @Bind("endTs") long endTs,
+        @Bind("compactedAt") long compactedAt,
+        @Bind("chunk") byte[] chunk);
+
+    /** List the chunks that have entries between the timestamps, the most recently compacted last */
+    @RegisterRowMapper(TimeSeriesChunkRecordMapper.class)
+    @SqlQuery(
+        "SELECT bucketStart, compactedAt, chunk FROM entity_extension_time_series_chunk "
+            + "WHERE entityFQN = :entityFQN AND extension = :extension AND endTs >= :startTs AND startTs <= :endTs "
+            + "ORDER BY compactedAt")
+    List<TimeSeriesChunkRecord> listChunks(
+        @Bind("entityFQN") String entityFQN,
+        @Bind("extension") String extension,
+        @Bind("startTs") long startTs,
+        @Bind("endTs") long endTs);
+
+    /** Lock the chunk of a bucket until the end of the transaction. Returns null when the bucket has no chunk. */
+    @RegisterRowMapper(TimeSeriesChunkRecordMapper.class)
+    @SqlQuery(
+        "SELECT bucketStart, compactedAt, chunk FROM entity_extension_time_series_chunk "
+            + "WHERE entityFQN = :entityFQN AND extension = :extension AND bucketStart = :bucketStart FOR UPDATE")
+    TimeSeriesChunkRecord getChunkForUpdate(
+        @Bind("entityFQN") String entityFQN, @Bind("extension") String extension, @Bind("bucketStart") long bucketStart);
+
+    /** Lock the rows at the timestamps until the end of the transaction */
+    @SqlQuery(
+        "SELECT json FROM entity_extension_time_series WHERE entityFQN = :entityFQN AND extension = :extension "
+            + "AND timestamp IN (<timestamps>) FOR UPDATE")
+    List<String> listAtTimestampsForUpdate(
+        @Bind("entityFQN") String entityFQN,
+        @Bind("extension") String extension,
+        @BindList("timestamps") List<Long> timestamps);
+
+    /**
+     * Rewrite the chunk of a bucket, and the rows moved in or out of it, in one transaction holding the lock on the
+     * chunk. Writes of the same bucket by other requests or by the compaction of other servers wait for the rewrite.
+     */
+    @Transaction
+    default void rewriteBucket(String entityFQN, String extension, long bucketStart, BucketRewrite rewrite)
+        throws IOException {
+      rewrite.apply(getChunkForUpdate(entityFQN, extension, bucketStart));
+    }
+
+    @SqlQuery(
+        "SELECT MAX(endTs) FROM entity_extension_time_series_chunk "
+            + "WHERE entityFQN = :entityFQN AND extension = :extension")
+    Long getLatestChunkTimestamp(@Bind("entityFQN") String entityFQN, @Bind("extension") String extension);
+
+    @SqlUpdate(
+        "DELETE FROM entity_extension_time_series_chunk WHERE entityFQN = :entityFQN AND extension = :extension "
+            + "AND bucketStart = :bucketStart AND compactedAt = :compactedAt")
+    void deleteChunk(
+        @Bind("entityFQN") String entityFQN,
+        @Bind("extension") String extension,
+        @Bind("bucketStart") long bucketStart,
+        @Bind("compactedAt") long compactedAt);
+
+    class EntityJsonMapper implements RowMapper<Pair<String, String>> {
+      @Override
+      public Pair<String, String> map(ResultSet rs, StatementContext ctx) throws SQLException {
+        return Pair.of(rs.getString("entityFQN"), rs.getString("json"));
+      }
+    }
+
+    interface BucketRewrite {
+      /** Rewrite the chunk of the bucket, which is null when the bucket has no chunk */
+      void apply(TimeSeriesChunkRecord chunk) throws IOException;
+    }
+  }
+
+  class TimeSeriesChunkRecord {
+    @Getter private final long bucketStart;
+    @Getter private final long compactedAt;
+    @Getter private final byte[] chunk;
+
+    public TimeSeriesChunkRecord(long bucketStart, long compactedAt, byte[] chunk) {
+      this.bucketStart = bucketStart;
+      this.compactedAt = compactedAt;
+      this.chunk = chunk;
+    }
+  }
+
+  class TimeSeriesChunkRecordMapper implements RowMapper<TimeSeriesChunkRecord> {
+    @Override
+    public TimeSeriesChunkRecord map(ResultSet rs, StatementContext ctx) throws SQLException {
+      return new TimeSeriesChunkRecord(rs.getLong("bucketStart"), rs.getLong("compactedAt"), rs.getBytes("chunk"));
+    }
   }
 
   class EntitiesCountRowMapper implements RowMapper<EntitiesCount> {
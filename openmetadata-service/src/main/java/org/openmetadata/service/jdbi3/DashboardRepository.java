@@ -60,10 +60,7 @@ public class DashboardRepository extends EntityRepository<Dashboard> {
     dashboard.setService(getContainer(dashboard.getId()));
     dashboard.setFollowers(fields.contains(FIELD_FOLLOWERS) ? getFollowers(dashboard) : null);
     dashboard.setCharts(fields.contains("charts") ? getCharts(dashboard) : null);
-    dashboard.setUsageSummary(
-        fields.contains("usageSummary")
-            ? EntityUtil.getLatestUsage(daoCollection.usageDAO(), dashboard.getId())
-            : null);
+    dashboard.setUsageSummary(fields.contains("usageSummary") ? getUsageSummary(dashboard) : null);
     return dashboard;
   }
 
@@ -100,8 +100,7 @@ public class DatabaseRepository extends EntityRepository<Database> {
     database.setService(getContainer(database.getId()));
     database.setOwner(fields.contains(FIELD_OWNER) ? getOwner(database) : null);
     database.setDatabaseSchemas(fields.contains("databaseSchemas") ? getSchemas(database) : null);
-    database.setUsageSummary(
-        fields.contains("usageSummary") ? EntityUtil.getLatestUsage(daoCollection.usageDAO(), database.getId()) : null);
+    database.setUsageSummary(fields.contains("usageSummary") ? getUsageSummary(database) : null);
     database.setLocation(fields.contains("location") ? getLocation(database) : null);
     return database;
   }
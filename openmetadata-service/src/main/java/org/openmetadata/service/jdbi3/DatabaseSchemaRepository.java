@@ -99,8 +99,7 @@ public class DatabaseSchemaRepository extends EntityRepository<DatabaseSchema> {
     setDefaultFields(schema);
     schema.setOwner(fields.contains(FIELD_OWNER) ? getOwner(schema) : null);
     schema.setTables(fields.contains("tables") ? getTables(schema) : null);
-    schema.setUsageSummary(
-        fields.contains("usageSummary") ? EntityUtil.getLatestUsage(daoCollection.usageDAO(), schema.getId()) : null);
+    schema.setUsageSummary(fields.contains("usageSummary") ? getUsageSummary(schema) : null);
     return schema;
   }
 
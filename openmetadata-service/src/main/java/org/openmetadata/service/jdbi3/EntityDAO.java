@@ -18,11 +18,25 @@ import static org.openmetadata.service.jdbi3.locator.ConnectionType.MYSQL;
 import static org.openmetadata.service.jdbi3.locator.ConnectionType.POSTGRES;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.collect.Lists;
 import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import lombok.Getter;
 import lombok.SneakyThrows;
+import org.jdbi.v3.core.mapper.RowMapper;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.jdbi.v3.sqlobject.config.RegisterRowMapper;
 import org.jdbi.v3.sqlobject.customizer.Bind;
+import org.jdbi.v3.sqlobject.customizer.BindBeanList;
+import org.jdbi.v3.sqlobject.customizer.BindList;
 import org.jdbi.v3.sqlobject.customizer.Define;
 import org.jdbi.v3.sqlobject.statement.SqlQuery;
 import org.jdbi.v3.sqlobject.statement.SqlUpdate;
@@ -32,6 +46,7 @@ import org.openmetadata.schema.type.Include;
 import org.openmetadata.service.Entity;
 import org.openmetadata.service.exception.CatalogExceptionMessage;
 import org.openmetadata.service.exception.EntityNotFoundException;
+import org.openmetadata.service.jdbi3.locator.ConnectionAwareSqlQuery;
 import org.openmetadata.service.jdbi3.locator.ConnectionAwareSqlUpdate;
 import org.openmetadata.service.util.FullyQualifiedName;
 import org.openmetadata.service.util.JsonUtils;
@@ -53,6 +68,13 @@ public interface EntityDAO<T extends EntityInterface> {
   @ConnectionAwareSqlUpdate(value = "INSERT INTO <table> (json) VALUES (:json :: jsonb)", connectionType = POSTGRES)
   void insert(@Define("table") String table, @Bind("json") String json);
 
+  @ConnectionAwareSqlUpdate(value = "INSERT INTO <table> (json) VALUES <values>", connectionType = MYSQL)
+  @ConnectionAwareSqlUpdate(
+      value = "INSERT INTO <table> (json) SELECT CAST(v.json AS jsonb) FROM (VALUES <values>) AS v(json)",
+      connectionType = POSTGRES)
+  void insertAll(
+      @Define("table") String table, @BindBeanList(value = "values", propertyNames = "json") List<JsonRecord> records);
+
   @ConnectionAwareSqlUpdate(value = "UPDATE <table> SET  json = :json WHERE id = :id", connectionType = MYSQL)
   @ConnectionAwareSqlUpdate(
       value = "UPDATE <table> SET  json = (:json :: jsonb) WHERE id = :id",
@@ -62,6 +84,9 @@ public interface EntityDAO<T extends EntityInterface> {
   @SqlQuery("SELECT json FROM <table> WHERE id = :id <cond>")
   String findById(@Define("table") String table, @Bind("id") String id, @Define("cond") String cond);
 
+  @SqlQuery("SELECT json FROM <table> WHERE id IN (<ids>) <cond>")
+  List<String> findByIds(@Define("table") String table, @BindList("ids") List<String> ids, @Define("cond") String cond);
+
   @SqlQuery("SELECT json FROM <table> WHERE <nameColumn> = :name <cond>")
   String findByName(
       @Define("table") String table,
@@ -69,6 +94,82 @@ public interface EntityDAO<T extends EntityInterface> {
       @Bind("name") String name,
       @Define("cond") String cond);
 
+  @SqlQuery("SELECT json FROM <table> WHERE <nameColumn> IN (<names>) <cond>")
+  List<String> findByNames(
+      @Define("table") String table,
+      @Define("nameColumn") String nameColumn,
+      @BindList("names") List<String> names,
+      @Define("cond") String cond);
+
+  @ConnectionAwareSqlQuery(
+      value =
+          "SELECT id, json ->> '$.name' AS name, json ->> '$.fullyQualifiedName' AS fullyQualifiedName, "
+              + "json ->> '$.displayName' AS displayName, json ->> '$.description' AS description, "
+              + "json ->> '$.deleted' AS deleted FROM <table> WHERE id = :id <cond>",
+      connectionType = MYSQL)
+  @ConnectionAwareSqlQuery(
+      value =
+          "SELECT id, json ->> 'name' AS name, json ->> 'fullyQualifiedName' AS fullyQualifiedName, "
+              + "json ->> 'displayName' AS displayName, json ->> 'description' AS description, "
+              + "json ->> 'deleted' AS deleted FROM <table> WHERE id = :id <cond>",
+      connectionType = POSTGRES)
+  @RegisterRowMapper(EntityReferenceMapper.class)
+  EntityReference findReferenceById(@Define("table") String table, @Bind("id") String id, @Define("cond") String cond);
+
+  @ConnectionAwareSqlQuery(
+      value =
+          "SELECT id, json ->> '$.name' AS name, json ->> '$.fullyQualifiedName' AS fullyQualifiedName, "
+              + "json ->> '$.displayName' AS displayName, json ->> '$.description' AS description, "
+              + "json ->> '$.deleted' AS deleted FROM <table> WHERE id IN (<ids>) <cond>",
+      connectionType = MYSQL)
+  @ConnectionAwareSqlQuery(
+      value =
+          "SELECT id, json ->> 'name' AS name, json ->> 'fullyQualifiedName' AS fullyQualifiedName, "
+              + "json ->> 'displayName' AS displayName, json ->> 'description' AS description, "
+              + "json ->> 'deleted' AS deleted FROM <table> WHERE id IN (<ids>) <cond>",
+      connectionType = POSTGRES)
+  @RegisterRowMapper(EntityReferenceMapper.class)
+  List<EntityReference> findReferencesByIds(
+      @Define("table") String table, @BindList("ids") List<String> ids, @Define("cond") String cond);
+
+  @ConnectionAwareSqlQuery(
+      value =
+          "SELECT id, json ->> '$.name' AS name, json ->> '$.fullyQualifiedName' AS fullyQualifiedName, "
+              + "json ->> '$.displayName' AS displayName, json ->> '$.description' AS description, "
+              + "json ->> '$.deleted' AS deleted FROM <table> WHERE <nameColumn> = :name <cond>",
+      connectionType = MYSQL)
+  @ConnectionAwareSqlQuery(
+      value =
+          "SELECT id, json ->> 'name' AS name, json ->> 'fullyQualifiedName' AS fullyQualifiedName, "
+              + "json ->> 'displayName' AS displayName, json ->> 'description' AS description, "
+              + "json ->> 'deleted' AS deleted FROM <table> WHERE <nameColumn> = :name <cond>",
+      connectionType = POSTGRES)
+  @RegisterRowMapper(EntityReferenceMapper.class)
+  EntityReference findReferenceByName(
+      @Define("table") String table,
+      @Define("nameColumn") String nameColumn,
+      @Bind("name") String name,
+      @Define("cond") String cond);
+
+  @ConnectionAwareSqlQuery(
+      value =
+          "SELECT id, json ->> '$.name' AS name, json ->> '$.fullyQualifiedName' AS fullyQualifiedName, "
+              + "json ->> '$.displayName' AS displayName, json ->> '$.description' AS description, "
+              + "json ->> '$.deleted' AS deleted FROM <table> WHERE <nameColumn> IN (<names>) <cond>",
+      connectionType = MYSQL)
+  @ConnectionAwareSqlQuery(
+      value =
+          "SELECT id, json ->> 'name' AS name, json ->> 'fullyQualifiedName' AS fullyQualifiedName, "
+              + "json ->> 'displayName' AS displayName, json ->> 'description' AS description, "
+              + "json ->> 'deleted' AS deleted FROM <table> WHERE <nameColumn> IN (<names>) <cond>",
+      connectionType = POSTGRES)
+  @RegisterRowMapper(EntityReferenceMapper.class)
+  List<EntityReference> findReferencesByNames(
+      @Define("table") String table,
+      @Define("nameColumn") String nameColumn,
+      @BindList("names") List<String> names,
+      @Define("cond") String cond);
+
   @SqlQuery("SELECT count(*) FROM <table> <cond>")
   int listCount(@Define("table") String table, @Define("nameColumn") String nameColumn, @Define("cond") String cond);
 
@@ -97,6 +198,27 @@ public interface EntityDAO<T extends EntityInterface> {
       @Bind("limit") int limit,
       @Bind("after") String after);
 
+  @SqlQuery(
+      "SELECT json FROM <table> <cond> AND <nameColumn> > :after AND <nameColumn> <= :end "
+          + "ORDER BY <nameColumn> LIMIT :limit")
+  List<String> listAfterUpTo(
+      @Define("table") String table,
+      @Define("nameColumn") String nameColumn,
+      @Define("cond") String cond,
+      @Bind("limit") int limit,
+      @Bind("after") String after,
+      @Bind("end") String end);
+
+  @SqlQuery(
+      "SELECT <nameColumn> FROM ("
+          + "SELECT <nameColumn>, ROW_NUMBER() OVER (ORDER BY <nameColumn>) AS rowNumber FROM <table> <cond>"
+          + ") numbered_rows WHERE MOD(rowNumber, :rangeSize) = 0 ORDER BY <nameColumn>")
+  List<String> listRangeBoundaries(
+      @Define("table") String table,
+      @Define("nameColumn") String nameColumn,
+      @Define("cond") String cond,
+      @Bind("rangeSize") int rangeSize);
+
   @SqlQuery("SELECT EXISTS (SELECT * FROM <table> WHERE id = :id)")
   boolean exists(@Define("table") String table, @Bind("id") String id);
 
@@ -106,17 +228,65 @@ public interface EntityDAO<T extends EntityInterface> {
   @SqlUpdate("DELETE FROM <table> WHERE id = :id")
   int delete(@Define("table") String table, @Bind("id") String id);
 
+  @SqlUpdate("DELETE FROM <table> WHERE id IN (<ids>)")
+  int deleteByIds(@Define("table") String table, @BindList("ids") List<String> ids);
+
+  @ConnectionAwareSqlUpdate(
+      value =
+          "UPDATE <table> SET json = JSON_SET(json, '$.deleted', CAST('true' AS JSON), "
+              + "'$.updatedBy', :updatedBy, '$.updatedAt', :updatedAt) WHERE id IN (<ids>)",
+      connectionType = MYSQL)
+  @ConnectionAwareSqlUpdate(
+      value =
+          "UPDATE <table> SET json = json || jsonb_build_object('deleted', true, "
+              + "'updatedBy', CAST(:updatedBy AS TEXT), 'updatedAt', CAST(:updatedAt AS BIGINT)) WHERE id IN (<ids>)",
+      connectionType = POSTGRES)
+  int softDeleteByIds(
+      @Define("table") String table,
+      @BindList("ids") List<String> ids,
+      @Bind("updatedBy") String updatedBy,
+      @Bind("updatedAt") long updatedAt);
+
+  @ConnectionAwareSqlQuery(
+      value = "SELECT json ->> '$.fullyQualifiedName' FROM <table> WHERE id IN (<ids>)",
+      connectionType = MYSQL)
+  @ConnectionAwareSqlQuery(
+      value = "SELECT json ->> 'fullyQualifiedName' FROM <table> WHERE id IN (<ids>)",
+      connectionType = POSTGRES)
+  List<String> findFqnsByIds(@Define("table") String table, @BindList("ids") List<String> ids);
+
   /** Default methods that interfaces with implementation. Don't override */
   default void insert(EntityInterface entity) throws JsonProcessingException {
     insert(getTableName(), JsonUtils.pojoToJson(entity));
+    invalidateReference(entity.getId(), entity.getFullyQualifiedName());
+  }
+
+  /** Insert entities with one statement per batch of entities */
+  default void insertAll(List<JsonRecord> records) {
+    for (List<JsonRecord> batch : Lists.partition(records, BulkFieldLoader.BATCH_SIZE)) {
+      insertAll(getTableName(), batch);
+    }
+    records.forEach(r -> invalidateReference(r.getId(), r.getFullyQualifiedName()));
   }
 
   default void update(UUID id, String json) {
     update(getTableName(), id.toString(), json);
+    invalidateReference(id);
   }
 
   default void update(EntityInterface entity) throws JsonProcessingException {
     update(getTableName(), entity.getId().toString(), JsonUtils.pojoToJson(entity));
+    invalidateReference(entity.getId(), entity.getFullyQualifiedName());
+  }
+
+  /**
+   * Invalidate the cached reference of an entity by id and by the given fully qualified names. The reference is
+   * invalidated again once the writes of the request are committed, as it may be loaded from the rows written so far.
+   */
+  default void invalidateReference(UUID id, String... fqns) {
+    String entityType = Entity.getEntityTypeFromClass(getEntityClass());
+    EntityReferenceCache.invalidate(entityType, id, fqns);
+    AfterCommit.run(() -> EntityReferenceCache.invalidate(entityType, id, fqns));
   }
 
   default String getCondition(Include include) {
@@ -164,20 +334,124 @@ public interface EntityDAO<T extends EntityInterface> {
     return entity;
   }
 
+  /** Find entities with the given ids. Ids that are not found are ignored. */
+  default List<T> findEntitiesByIds(List<UUID> ids, Include include) throws IOException {
+    if (ids.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<String> idList = ids.stream().map(UUID::toString).collect(Collectors.toList());
+    return JsonUtils.readObjects(findByIds(getTableName(), idList, getCondition(include)), getEntityClass());
+  }
+
   default EntityReference findEntityReferenceById(UUID id) throws IOException {
-    return findEntityById(id).getEntityReference();
+    return findEntityReferenceById(id, Include.NON_DELETED);
   }
 
   default EntityReference findEntityReferenceByName(String fqn) {
-    return findEntityByName(fqn).getEntityReference();
+    return findEntityReferenceByName(fqn, Include.NON_DELETED);
   }
 
+  /**
+   * Get the reference of an entity. References are served from {@link EntityReferenceCache} and on a cache miss, only
+   * the fields needed for the reference are read from the database instead of the entire entity JSON.
+   */
   default EntityReference findEntityReferenceById(UUID id, Include include) throws IOException {
-    return findEntityById(id, include).getEntityReference();
+    String entityType = Entity.getEntityTypeFromClass(getEntityClass());
+    EntityReference ref = EntityReferenceCache.getById(entityType, id);
+    if (ref == null) {
+      ref = findReferenceById(getTableName(), id.toString(), getCondition(Include.ALL));
+      if (ref != null) {
+        EntityReferenceCache.put(ref.withType(entityType));
+      }
+    }
+    if (ref == null || (supportsSoftDelete() && !EntityReferenceCache.matches(ref, include))) {
+      throw EntityNotFoundException.byMessage(CatalogExceptionMessage.entityNotFound(entityType, id));
+    }
+    return ref;
   }
 
   default EntityReference findEntityReferenceByName(String fqn, Include include) {
-    return findEntityByName(fqn, include).getEntityReference();
+    String entityType = Entity.getEntityTypeFromClass(getEntityClass());
+    EntityReference ref = EntityReferenceCache.getByName(entityType, fqn);
+    if (ref == null) {
+      ref = findReferenceByName(getTableName(), getNameColumn(), fqn, getCondition(Include.ALL));
+      if (ref != null) {
+        EntityReferenceCache.put(ref.withType(entityType));
+      }
+    }
+    if (ref == null || (supportsSoftDelete() && !EntityReferenceCache.matches(ref, include))) {
+      throw EntityNotFoundException.byMessage(CatalogExceptionMessage.entityNotFound(entityType, fqn));
+    }
+    return ref;
+  }
+
+  /**
+   * Get the references of the entities with the given ids, by id. References are served from {@link
+   * EntityReferenceCache} and only the fields needed for the references of the misses are read from the database. Ids
+   * that are not found are ignored.
+   */
+  default Map<UUID, EntityReference> findEntityReferencesByIds(List<UUID> ids, Include include) {
+    String entityType = Entity.getEntityTypeFromClass(getEntityClass());
+    Map<UUID, EntityReference> refs = new HashMap<>();
+    List<String> misses = new ArrayList<>();
+    for (UUID id : ids) {
+      EntityReference ref = EntityReferenceCache.getById(entityType, id);
+      if (ref == null) {
+        misses.add(id.toString());
+      } else if (!supportsSoftDelete() || EntityReferenceCache.matches(ref, include)) {
+        refs.put(id, ref);
+      }
+    }
+    if (!misses.isEmpty()) {
+      for (EntityReference ref : findReferencesByIds(getTableName(), misses, getCondition(Include.ALL))) {
+        EntityReferenceCache.put(ref.withType(entityType));
+        if (!supportsSoftDelete() || EntityReferenceCache.matches(ref, include)) {
+          refs.put(ref.getId(), ref);
+        }
+      }
+    }
+    return refs;
+  }
+
+  /** Get the references of the entities with the given names. Names that are not found are ignored. */
+  default List<EntityReference> findEntityReferencesByNames(List<String> fqns, Include include) {
+    String entityType = Entity.getEntityTypeFromClass(getEntityClass());
+    List<EntityReference> refs = new ArrayList<>();
+    List<String> misses = new ArrayList<>();
+    for (String fqn : fqns) {
+      EntityReference ref = EntityReferenceCache.getByName(entityType, fqn);
+      if (ref == null) {
+        misses.add(fqn);
+      } else if (!supportsSoftDelete() || EntityReferenceCache.matches(ref, include)) {
+        refs.add(ref);
+      }
+    }
+    if (!misses.isEmpty()) {
+      for (EntityReference ref :
+          findReferencesByNames(getTableName(), getNameColumn(), misses, getCondition(Include.ALL))) {
+        EntityReferenceCache.put(ref.withType(entityType));
+        if (!supportsSoftDelete() || EntityReferenceCache.matches(ref, include)) {
+          refs.add(ref);
+        }
+      }
+    }
+    return refs;
+  }
+
+  /**
+   * Find the entities with the given fully qualified names, which are the values of the name column of the entities.
+   * Returns the entities by fully qualified name. Names that are not found are ignored.
+   */
+  default Map<String, T> findEntitiesByNames(List<String> fqns, Include include) throws IOException {
+    Map<String, T> entities = new HashMap<>();
+    boolean byName = "name".equals(getNameColumn());
+    for (List<String> batch : Lists.partition(fqns, BulkFieldLoader.BATCH_SIZE)) {
+      List<String> jsons = findByNames(getTableName(), getNameColumn(), batch, getCondition(include));
+      for (T entity : JsonUtils.readObjects(jsons, getEntityClass())) {
+        entities.put(byName ? entity.getName() : entity.getFullyQualifiedName(), entity);
+      }
+    }
+    return entities;
   }
 
   default String findJsonById(UUID id, Include include) {
@@ -204,6 +478,23 @@ public interface EntityDAO<T extends EntityInterface> {
     return listAfter(getTableName(), getNameColumn(), filter.getCondition(), limit, after);
   }
 
+  /**
+   * List entities in the range ({@code after}, {@code end}] ordered by name column. Range bounds are values of the name
+   * column as returned by {@link #listRangeBoundaries(ListFilter, int)} and are not unquoted. When {@code end} is null
+   * the range is not bounded.
+   */
+  default List<String> listRange(ListFilter filter, int limit, String after, String end) {
+    if (end == null) {
+      return listAfter(getTableName(), getNameColumn(), filter.getCondition(), limit, after);
+    }
+    return listAfterUpTo(getTableName(), getNameColumn(), filter.getCondition(), limit, after, end);
+  }
+
+  /** Values of the name column that split the entities into ranges of {@code rangeSize} entities in name order */
+  default List<String> listRangeBoundaries(ListFilter filter, int rangeSize) {
+    return listRangeBoundaries(getTableName(), getNameColumn(), filter.getCondition(), rangeSize);
+  }
+
   default void exists(UUID id) {
     if (!exists(getTableName(), id.toString())) {
       String entityType = Entity.getEntityTypeFromClass(getEntityClass());
@@ -218,8 +509,59 @@ public interface EntityDAO<T extends EntityInterface> {
     }
   }
 
+  /** Maps the columns projected for an entity reference. Entity type is set by the caller. */
+  class EntityReferenceMapper implements RowMapper<EntityReference> {
+    @Override
+    public EntityReference map(ResultSet rs, StatementContext ctx) throws SQLException {
+      String name = rs.getString("name");
+      String fqn = rs.getString("fullyQualifiedName");
+      String deleted = rs.getString("deleted");
+      return new EntityReference()
+          .withId(UUID.fromString(rs.getString("id")))
+          .withName(name)
+          .withFullyQualifiedName(fqn == null ? name : fqn)
+          .withDisplayName(rs.getString("displayName"))
+          .withDescription(rs.getString("description"))
+          .withDeleted(deleted == null ? null : Boolean.parseBoolean(deleted));
+    }
+  }
+
+  /** Json of an entity to be inserted */
+  @Getter
+  class JsonRecord {
+    private final UUID id;
+    private final String fullyQualifiedName;
+    private final String json;
+
+    public JsonRecord(UUID id, String fullyQualifiedName, String json) {
+      this.id = id;
+      this.fullyQualifiedName = fullyQualifiedName;
+      this.json = json;
+    }
+  }
+
+  /** Delete the entities with the given ids. Ids that are not found are ignored. */
+  default int deleteByIds(List<UUID> ids) {
+    int rowsDeleted = deleteByIds(getTableName(), ids.stream().map(UUID::toString).collect(Collectors.toList()));
+    ids.forEach(id -> invalidateReference(id));
+    return rowsDeleted;
+  }
+
+  /** Set the deleted flag of the entities with the given ids without creating a new version of the entities */
+  default int softDeleteByIds(List<UUID> ids, String updatedBy, long updatedAt) {
+    List<String> idList = ids.stream().map(UUID::toString).collect(Collectors.toList());
+    int rowsUpdated = softDeleteByIds(getTableName(), idList, updatedBy, updatedAt);
+    ids.forEach(id -> invalidateReference(id));
+    return rowsUpdated;
+  }
+
+  default List<String> findFqnsByIds(List<UUID> ids) {
+    return findFqnsByIds(getTableName(), ids.stream().map(UUID::toString).collect(Collectors.toList()));
+  }
+
   default int delete(String id) {
     int rowsDeleted = delete(getTableName(), id);
+    invalidateReference(UUID.fromString(id));
     if (rowsDeleted <= 0) {
       String entityType = Entity.getEntityTypeFromClass(getEntityClass());
       throw EntityNotFoundException.byMessage(entityNotFound(entityType, id));
@@ -0,0 +1,137 @@
+/*
+ *  Copyright 2021 Collate
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openmetadata.service.jdbi3;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.openmetadata.schema.type.EntityReference;
+import org.openmetadata.schema.type.Include;
+
+/**
+ * Read-through cache of {@link EntityReference} keyed by entity type and id, and by entity type and fully qualified
+ * name. References are built from a few fields of an entity and are requested very frequently when relationships such
+ * as owner, followers, containers, and lineage nodes are resolved.
+ *
+ * <p>The cache is bounded by the approximate size of the cached references. Entries are invalidated by {@link
+ * EntityRepository} when an entity is created, updated, deleted, or restored, and again once the writes of the request
+ * are committed with {@link AfterCommit}. Entries also expire after a while to bound the staleness of changes made
+ * outside this server.
+ *
+ * <p>Cached references are shared and are never returned to the callers. Callers always get a copy that they can
+ * modify.
+ */
+@Slf4j
+public final class EntityReferenceCache {
+  private static final long MAX_WEIGHT = 32L * 1024 * 1024; // Approximate size in bytes of each of the caches
+  private static final long EXPIRY_MINUTES = 10;
+
+  private static final Cache<String, EntityReference> REFERENCE_BY_ID =
+      CacheBuilder.newBuilder()
+          .maximumWeight(MAX_WEIGHT)
+          .weigher(EntityReferenceCache::weigh)
+          .expireAfterWrite(EXPIRY_MINUTES, TimeUnit.MINUTES)
+          .build();
+  private static final Cache<String, EntityReference> REFERENCE_BY_NAME =
+      CacheBuilder.newBuilder()
+          .maximumWeight(MAX_WEIGHT)
+          .weigher(EntityReferenceCache::weigh)
+          .expireAfterWrite(EXPIRY_MINUTES, TimeUnit.MINUTES)
+          .build();
+
+  private EntityReferenceCache() {}
+
+  /** Get a copy of the cached reference. Returns null when the reference is not cached. */
+  public static EntityReference getById(String entityType, UUID id) {
+    return copy(REFERENCE_BY_ID.getIfPresent(idKey(entityType, id)));
+  }
+
+  /** Get a copy of the cached reference. Returns null when the reference is not cached. */
+  public static EntityReference getByName(String entityType, String fqn) {
+    return copy(REFERENCE_BY_NAME.getIfPresent(nameKey(entityType, fqn)));
+  }
+
+  public static void put(EntityReference ref) {
+    EntityReference cached = copy(ref);
+    REFERENCE_BY_ID.put(idKey(ref.getType(), ref.getId()), cached);
+    REFERENCE_BY_NAME.put(nameKey(ref.getType(), ref.getFullyQualifiedName()), cached);
+  }
+
+  /** Invalidate the cached reference of an entity by id and by all the names the entity was known by */
+  public static void invalidate(String entityType, UUID id, String... fqns) {
+    String key = idKey(entityType, id);
+    EntityReference cached = REFERENCE_BY_ID.getIfPresent(key);
+    if (cached != null) {
+      REFERENCE_BY_NAME.invalidate(nameKey(entityType, cached.getFullyQualifiedName()));
+    }
+    REFERENCE_BY_ID.invalidate(key);
+    for (String fqn : fqns) {
+      if (fqn != null) {
+        REFERENCE_BY_NAME.invalidate(nameKey(entityType, fqn));
+      }
+    }
+  }
+
+  public static void invalidateAll() {
+    LOG.info("Entity reference cache is cleaned up");
+    REFERENCE_BY_ID.invalidateAll();
+    REFERENCE_BY_NAME.invalidateAll();
+  }
+
+  /** Returns true if the reference of an entity with given deleted state should be returned for {@code include} */
+  public static boolean matches(EntityReference ref, Include include) {
+    if (include == Include.DELETED) {
+      return Boolean.TRUE.equals(ref.getDeleted());
+    }
+    if (include == null || include == Include.NON_DELETED) {
+      return !Boolean.TRUE.equals(ref.getDeleted());
+    }
+    return true;
+  }
+
+  private static String idKey(String entityType, UUID id) {
+    return entityType + ":" + id;
+  }
+
+  private static String nameKey(String entityType, String fqn) {
+    return entityType + ":" + fqn;
+  }
+
+  private static EntityReference copy(EntityReference ref) {
+    if (ref == null) {
+      return null;
+    }
+    return new EntityReference()
+        .withId(ref.getId())
+        .withType(ref.getType())
+        .withName(ref.getName())
+        .withFullyQualifiedName(ref.getFullyQualifiedName())
+        .withDisplayName(ref.getDisplayName())
+        .withDescription(ref.getDescription())
+        .withDeleted(ref.getDeleted());
+  }
+
+  private static int weigh(String key, EntityReference ref) {
+    // Rough estimate of the memory used by the entry, dominated by the strings
+    return 2 * (key.length() + length(ref.getName()) + length(ref.getFullyQualifiedName()))
+        + 2 * (length(ref.getDisplayName()) + length(ref.getDescription()))
+        + 128;
+  }
+
+  private static int length(String s) {
+    return s == null ? 0 : s.length();
+  }
+}
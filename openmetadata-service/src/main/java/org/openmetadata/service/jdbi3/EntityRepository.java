@@ -15,16 +15,22 @@ package org.openmetadata.service.jdbi3;
 
 import static org.openmetadata.common.utils.CommonUtil.listOrEmpty;
 import static org.openmetadata.common.utils.CommonUtil.nullOrEmpty;
+import static org.openmetadata.schema.type.EntityResult.Status.CREATED;
+import static org.openmetadata.schema.type.EntityResult.Status.FAILED;
+import static org.openmetadata.schema.type.EntityResult.Status.UNCHANGED;
+import static org.openmetadata.schema.type.EntityResult.Status.UPDATED;
 import static org.openmetadata.schema.type.Include.ALL;
 import static org.openmetadata.schema.type.Include.DELETED;
 import static org.openmetadata.schema.type.Include.NON_DELETED;
 import static org.openmetadata.service.Entity.ADMIN_USER_NAME;
 import static org.openmetadata.service.Entity.FIELD_DELETED;
+import static org.openmetadata.service.Entity.FIELD_DELETED_CHILDREN;
 import static org.openmetadata.service.Entity.FIELD_DESCRIPTION;
 import static org.openmetadata.service.Entity.FIELD_DISPLAY_NAME;
 import static org.openmetadata.service.Entity.FIELD_FOLLOWERS;
 import static org.openmetadata.service.Entity.FIELD_OWNER;
 import static org.openmetadata.service.Entity.FIELD_TAGS;
+import static org.openmetadata.service.Entity.FIELD_USAGE_SUMMARY;
 import static org.openmetadata.service.Entity.getEntityFields;
 import static org.openmetadata.service.util.EntityUtil.compareTagLabel;
 import static org.openmetadata.service.util.EntityUtil.entityReferenceMatch;
@@ -39,24 +45,32 @@ import static org.openmetadata.service.util.EntityUtil.tagLabelMatch;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.Lists;
 import com.networknt.schema.JsonSchema;
 import com.networknt.schema.ValidationMessage;
 import java.io.IOException;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
 import javax.json.JsonPatch;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.UriInfo;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.Pair;
 import org.jdbi.v3.sqlobject.transaction.Transaction;
 import org.openmetadata.common.utils.CommonUtil;
 import org.openmetadata.schema.EntityInterface;
@@ -70,17 +84,21 @@ import org.openmetadata.schema.type.ChangeDescription;
 import org.openmetadata.schema.type.ChangeEvent;
 import org.openmetadata.schema.type.EntityHistory;
 import org.openmetadata.schema.type.EntityReference;
+import org.openmetadata.schema.type.EntityResult;
 import org.openmetadata.schema.type.EventType;
 import org.openmetadata.schema.type.FieldChange;
 import org.openmetadata.schema.type.Include;
 import org.openmetadata.schema.type.Relationship;
 import org.openmetadata.schema.type.TagLabel;
+import org.openmetadata.schema.type.UsageDetails;
 import org.openmetadata.service.Entity;
 import org.openmetadata.service.OpenMetadataApplicationConfig;
 import org.openmetadata.service.TypeRegistry;
+import org.openmetadata.service.events.EventPubSub;
 import org.openmetadata.service.exception.CatalogExceptionMessage;
 import org.openmetadata.service.exception.EntityNotFoundException;
 import org.openmetadata.service.exception.UnhandledServerException;
+import org.openmetadata.service.jdbi3.CollectionDAO.ChangeEventRecord;
 import org.openmetadata.service.jdbi3.CollectionDAO.EntityRelationshipRecord;
 import org.openmetadata.service.jdbi3.CollectionDAO.EntityVersionPair;
 import org.openmetadata.service.jdbi3.CollectionDAO.ExtensionRecord;
@@ -139,6 +157,14 @@ public abstract class EntityRepository<T extends EntityInterface> {
   @Getter protected final boolean supportsTags;
   @Getter protected final boolean supportsOwner;
   protected final boolean supportsFollower;
+  protected final boolean supportsUsageSummary;
+  private final EntityVersionStore versionStore;
+
+  /** Relationship fields loaded in bulk for the page of entities being listed by the current thread */
+  private final ThreadLocal<BulkFieldLoader> bulkFieldLoader = new ThreadLocal<>();
+
+  /** Rows of the new entities being created in bulk by the current thread */
+  private final ThreadLocal<BulkWriter> bulkWriter = new ThreadLocal<>();
 
   /** Fields that can be updated during PATCH operation */
   private final Fields patchFields;
@@ -167,6 +193,8 @@ public abstract class EntityRepository<T extends EntityInterface> {
     this.supportsOwner = allowedFields.contains(FIELD_OWNER);
     this.supportsSoftDelete = allowedFields.contains(FIELD_DELETED);
     this.supportsFollower = allowedFields.contains(FIELD_FOLLOWERS);
+    this.supportsUsageSummary = allowedFields.contains(FIELD_USAGE_SUMMARY);
+    this.versionStore = new EntityVersionStore(collectionDAO.entityExtensionDAO(), entityType);
     Entity.registerEntity(entityClass, entityType, dao, this);
   }
 
@@ -322,11 +350,8 @@ public abstract class EntityRepository<T extends EntityInterface> {
     if (limitParam > 0) {
       // forward scrolling, if after == null then first page is being asked
       List<String> jsons = dao.listAfter(filter, limitParam + 1, after == null ? "" : RestUtil.decodeCursor(after));
-
-      for (String json : jsons) {
-        T entity = withHref(uriInfo, setFieldsInternal(JsonUtils.readValue(json, entityClass), fields));
-        entities.add(entity);
-      }
+      entities = setFieldsInBulk(JsonUtils.readObjects(jsons, entityClass), fields);
+      entities.forEach(entity -> withHref(uriInfo, entity));
 
       String beforeCursor;
       String afterCursor = null;
@@ -347,12 +372,8 @@ public abstract class EntityRepository<T extends EntityInterface> {
       UriInfo uriInfo, Fields fields, ListFilter filter, int limitParam, String before) throws IOException {
     // Reverse scrolling - Get one extra result used for computing before cursor
     List<String> jsons = dao.listBefore(filter, limitParam + 1, RestUtil.decodeCursor(before));
-
-    List<T> entities = new ArrayList<>();
-    for (String json : jsons) {
-      T entity = withHref(uriInfo, setFieldsInternal(JsonUtils.readValue(json, entityClass), fields));
-      entities.add(entity);
-    }
+    List<T> entities = setFieldsInBulk(JsonUtils.readObjects(jsons, entityClass), fields);
+    entities.forEach(entity -> withHref(uriInfo, entity));
     int total = dao.listCount(filter);
 
     String beforeCursor = null;
@@ -365,13 +386,43 @@ public abstract class EntityRepository<T extends EntityInterface> {
     return getResultList(entities, beforeCursor, afterCursor, total);
   }
 
+  /**
+   * List a page of entities in the range ({@code after}, {@code end}] of name column values, with the fields set in
+   * bulk. Used by reindexing to read ranges of entities in parallel. {@link #getRangeCursor(EntityInterface)} of the
+   * last entity returned is the {@code after} of the next page. When {@code end} is null the range is not bounded.
+   */
+  public final List<T> listRange(Fields fields, ListFilter filter, int limit, String after, String end)
+      throws IOException {
+    List<String> jsons = dao.listRange(filter, limit, after, end);
+    return setFieldsInBulk(JsonUtils.readObjects(jsons, entityClass), fields);
+  }
+
+  /** Get the entities with given ids, including deleted entities, with the fields set in bulk */
+  public final List<T> listByIds(Fields fields, List<UUID> ids) throws IOException {
+    return setFieldsInBulk(dao.findEntitiesByIds(ids, ALL), fields);
+  }
+
+  /** Values of the name column that split the entities into ranges of {@code rangeSize} entities for listRange */
+  public final List<String> listRangeBoundaries(ListFilter filter, int rangeSize) {
+    return dao.listRangeBoundaries(filter, rangeSize);
+  }
+
+  public final int listCount(ListFilter filter) {
+    return dao.listCount(filter);
+  }
+
+  /** Value of the name column of an entity used as cursor by {@link #listRange} */
+  public final String getRangeCursor(T entity) {
+    // Quoted name is stored in fullyQualifiedName column and not in the name column
+    return dao.getNameColumn().equals("name") ? entity.getName() : entity.getFullyQualifiedName();
+  }
+
   @Transaction
   public T getVersion(UUID id, String version) throws IOException {
     Double requestedVersion = Double.parseDouble(version);
-    String extension = EntityUtil.getVersionExtension(entityType, requestedVersion);
 
     // Get previous version from version history
-    String json = daoCollection.entityExtensionDAO().getExtension(id.toString(), extension);
+    String json = versionStore.getVersion(id, requestedVersion);
     if (json != null) {
       return JsonUtils.readValue(json, entityClass);
     }
@@ -387,10 +438,7 @@ public abstract class EntityRepository<T extends EntityInterface> {
   @Transaction
   public EntityHistory listVersions(UUID id) throws IOException {
     T latest = setFieldsInternal(dao.findEntityById(id, ALL), putFields);
-    String extensionPrefix = EntityUtil.getVersionExtensionPrefix(entityType);
-    List<ExtensionRecord> records = daoCollection.entityExtensionDAO().getExtensions(id.toString(), extensionPrefix);
-    List<EntityVersionPair> oldVersions = new ArrayList<>();
-    records.forEach(r -> oldVersions.add(new EntityVersionPair(r)));
+    List<EntityVersionPair> oldVersions = versionStore.listVersions(id);
     oldVersions.sort(EntityUtil.compareVersion.reversed());
 
     final List<Object> allVersions = new ArrayList<>();
@@ -424,6 +472,54 @@ public abstract class EntityRepository<T extends EntityInterface> {
     return entity;
   }
 
+  /**
+   * Set the requested fields for a page of entities. Owner, tags (including tags of the fields returned by {@link
+   * #getFieldTagTargets(EntityInterface)}), followers and usage summary are loaded for the whole page with one query
+   * per field. The per entity {@link #setFields(EntityInterface, Fields)} is then served from the loaded data.
+   */
+  final List<T> setFieldsInBulk(List<T> entities, Fields fields) throws IOException {
+    if (entities.isEmpty()) {
+      return entities;
+    }
+    List<UUID> ids = entities.stream().map(EntityInterface::getId).collect(Collectors.toList());
+    BulkFieldLoader loader = new BulkFieldLoader(daoCollection, entityType);
+    if (supportsOwner && fields.contains(FIELD_OWNER)) {
+      loader.loadOwners(ids);
+    }
+    if (supportsFollower && fields.contains(FIELD_FOLLOWERS)) {
+      loader.loadFollowers(ids);
+    }
+    if (supportsTags && fields.contains(FIELD_TAGS)) {
+      Set<String> targetFQNs = new HashSet<>();
+      for (T entity : entities) {
+        targetFQNs.add(entity.getFullyQualifiedName());
+        targetFQNs.addAll(getFieldTagTargets(entity));
+      }
+      loader.loadTags(targetFQNs);
+    }
+    if (supportsUsageSummary && fields.contains(FIELD_USAGE_SUMMARY)) {
+      loader.loadUsageSummaries(ids);
+    }
+
+    bulkFieldLoader.set(loader);
+    try {
+      for (T entity : entities) {
+        setFieldsInternal(entity, fields);
+      }
+    } finally {
+      bulkFieldLoader.remove();
+    }
+    return entities;
+  }
+
+  /**
+   * Fully qualified names of the fields of an entity that have their own tags, such as table columns. Tags for these
+   * are loaded along with entity tags when a page of entities is listed.
+   */
+  protected List<String> getFieldTagTargets(T entity) {
+    return Collections.emptyList();
+  }
+
   @Transaction
   public final PutResponse<T> createOrUpdate(UriInfo uriInfo, T original, T updated) throws IOException {
     prepareInternal(updated);
@@ -455,6 +551,168 @@ public abstract class EntityRepository<T extends EntityInterface> {
     return update(uriInfo, original, updated);
   }
 
+  /**
+   * Create or update a batch of prepared entities, given by their index in the request. Existing entities are looked up
+   * with one query per batch of names. New entities are stored together, with one statement for the rows of the
+   * entities, one for their relationships and one for their tags. Existing entities are updated one at a time, as in
+   * {@link #createOrUpdate(UriInfo, EntityInterface)}.
+   *
+   * <p>An entity that fails does not fail the other entities. Returns the result of each entity, ordered by index.
+   * Change events for the created and updated entities are stored together.
+   */
+  public final List<EntityResult> bulkCreateOrUpdate(UriInfo uriInfo, Map<Integer, T> entities) throws IOException {
+    Map<Integer, EntityResult> results = new TreeMap<>();
+    List<String> fqns =
+        entities.values().stream().map(EntityInterface::getFullyQualifiedName).distinct().collect(Collectors.toList());
+    Map<String, T> originals = dao.findEntitiesByNames(fqns, ALL);
+
+    List<ChangeEvent> changeEvents = new ArrayList<>();
+    Map<Integer, T> newEntities = new LinkedHashMap<>();
+    Set<String> seen = new HashSet<>();
+    for (Entry<Integer, T> entry : entities.entrySet()) {
+      int index = entry.getKey();
+      T entity = entry.getValue();
+      T original = originals.get(entity.getFullyQualifiedName());
+      if (!seen.add(entity.getFullyQualifiedName())) {
+        results.put(index, failedResult(index, entity, "Entity is repeated in the request"));
+      } else if (original == null) {
+        newEntities.put(index, entity);
+      } else {
+        try {
+          PutResponse<T> response = update(uriInfo, original, entity);
+          postUpdate(response.getEntity());
+          boolean changed = RestUtil.ENTITY_UPDATED.equals(response.getChangeType());
+          results.put(index, getResult(index, entity, changed ? UPDATED : UNCHANGED));
+          if (changed) {
+            changeEvents.add(
+                getChangeEvent(EventType.ENTITY_UPDATED, entity)
+                    .withPreviousVersion(entity.getChangeDescription().getPreviousVersion()));
+          }
+        } catch (Exception e) {
+          LOG.warn("Failed to update {} {}", entityType, entity.getFullyQualifiedName(), e);
+          results.put(index, failedResult(index, entity, e.getMessage()));
+        }
+      }
+    }
+    createInBulk(newEntities, results);
+    for (Entry<Integer, T> entry : newEntities.entrySet()) {
+      postCreate(entry.getValue());
+      changeEvents.add(getChangeEvent(EventType.ENTITY_CREATED, entry.getValue()));
+    }
+    storeChangeEvents(changeEvents);
+    return new ArrayList<>(results.values());
+  }
+
+  /**
+   * Store new entities with their rows buffered in a {@link BulkWriter}. The rows of the entities are written before
+   * the extensions and relationships of the entities are stored. Entities that fail are removed from {@code entities}.
+   */
+  private void createInBulk(Map<Integer, T> entities, Map<Integer, EntityResult> results) {
+    BulkWriter writer = new BulkWriter(daoCollection, dao);
+    bulkWriter.set(writer);
+    try {
+      Map<Integer, String> failures = new HashMap<>();
+      for (Entry<Integer, T> entry : entities.entrySet()) {
+        writer.setCurrent(entry.getKey());
+        try {
+          validateExtension(entry.getValue());
+          storeEntity(entry.getValue(), false);
+        } catch (Exception e) {
+          writer.discard(entry.getKey());
+          failures.put(entry.getKey(), e.getMessage());
+        }
+      }
+      failures.putAll(writer.flush());
+      removeFailed(entities, failures, results, false);
+
+      failures = new HashMap<>();
+      for (Entry<Integer, T> entry : entities.entrySet()) {
+        writer.setCurrent(entry.getKey());
+        try {
+          storeExtension(entry.getValue());
+          storeRelationships(entry.getValue());
+        } catch (Exception e) {
+          writer.discard(entry.getKey());
+          failures.put(entry.getKey(), e.getMessage());
+        }
+      }
+      failures.putAll(writer.flush());
+      removeFailed(entities, failures, results, true);
+    } finally {
+      bulkWriter.remove();
+    }
+    entities.forEach((index, entity) -> results.put(index, getResult(index, entity, CREATED)));
+  }
+
+  /** Remove the entities that failed. When the rows of the entities were written, delete what was stored for them. */
+  private void removeFailed(
+      Map<Integer, T> entities, Map<Integer, String> failures, Map<Integer, EntityResult> results, boolean stored) {
+    List<UUID> ids = new ArrayList<>();
+    List<String> fqns = new ArrayList<>();
+    for (Entry<Integer, String> failure : failures.entrySet()) {
+      T entity = entities.remove(failure.getKey());
+      LOG.warn("Failed to create {} {}: {}", entityType, entity.getFullyQualifiedName(), failure.getValue());
+      results.put(failure.getKey(), failedResult(failure.getKey(), entity, failure.getValue()));
+      ids.add(entity.getId());
+      fqns.add(entity.getFullyQualifiedName());
+    }
+    if (stored && !ids.isEmpty()) {
+      List<String> idList = ids.stream().map(UUID::toString).collect(Collectors.toList());
+      daoCollection.relationshipDAO().deleteAllByIds(idList);
+      daoCollection.entityExtensionDAO().deleteAllByIds(idList);
+      for (String fqn : fqns) {
+        // Tags of the entity, and of its fields such as columns
+        daoCollection.tagUsageDAO().deleteTagsByTarget(fqn);
+        daoCollection.tagUsageDAO().deleteTagLabelsByTargetPrefix(fqn + Entity.SEPARATOR);
+      }
+      dao.deleteByIds(ids);
+    }
+  }
+
+  private static EntityResult getResult(int index, EntityInterface entity, EntityResult.Status status) {
+    return new EntityResult()
+        .withIndex(index)
+        .withFullyQualifiedName(entity.getFullyQualifiedName())
+        .withId(entity.getId())
+        .withStatus(status);
+  }
+
+  private static EntityResult failedResult(int index, EntityInterface entity, String message) {
+    return new EntityResult()
+        .withIndex(index)
+        .withFullyQualifiedName(entity.getFullyQualifiedName())
+        .withStatus(FAILED)
+        .withMessage(message);
+  }
+
+  private ChangeEvent getChangeEvent(EventType eventType, T entity) {
+    return new ChangeEvent()
+        .withEventType(eventType)
+        .withEntityId(entity.getId())
+        .withEntityType(entityType)
+        .withEntityFullyQualifiedName(entity.getFullyQualifiedName())
+        .withUserName(entity.getUpdatedBy())
+        .withTimestamp(entity.getUpdatedAt())
+        .withChangeDescription(entity.getChangeDescription())
+        .withCurrentVersion(entity.getVersion())
+        .withEntity(entity);
+  }
+
+  /** Store the change events with the entity as masked json, as the change event pipeline stores them */
+  private void storeChangeEvents(List<ChangeEvent> changeEvents) throws JsonProcessingException {
+    List<ChangeEventRecord> records = new ArrayList<>(changeEvents.size());
+    for (ChangeEvent changeEvent : changeEvents) {
+      changeEvent.withEntity(JsonUtils.pojoToMaskedJson(changeEvent.getEntity()));
+      records.add(new ChangeEventRecord(0, JsonUtils.pojoToJson(changeEvent)));
+    }
+    if (!records.isEmpty()) {
+      for (List<ChangeEventRecord> batch : Lists.partition(records, BulkFieldLoader.BATCH_SIZE)) {
+        daoCollection.changeEventDAO().insertAll(batch);
+      }
+      EventPubSub.publish();
+    }
+  }
+
   protected void postCreate(T entity) {
     // Override to perform any operation required after creation.
     // For example ingestion pipeline creates a pipeline in AirFlow.
@@ -566,7 +824,7 @@ public abstract class EntityRepository<T extends EntityInterface> {
     preDelete(original);
     setFieldsInternal(original, putFields);
 
-    deleteChildren(id, recursive, hardDelete, updatedBy);
+    Map<String, Integer> deletedChildren = deleteChildren(original, recursive, hardDelete, updatedBy);
 
     String changeType;
     T updated = JsonUtils.readValue(json, entityClass);
@@ -582,6 +840,13 @@ public abstract class EntityRepository<T extends EntityInterface> {
       cleanup(updated);
       changeType = RestUtil.ENTITY_DELETED;
     }
+    if (!deletedChildren.isEmpty()) {
+      // Children are summarized in the change event of this entity instead of a change event for each child
+      if (changeType.equals(RestUtil.ENTITY_DELETED) || updated.getChangeDescription() == null) {
+        updated.setChangeDescription(new ChangeDescription().withPreviousVersion(updated.getVersion()));
+      }
+      fieldDeleted(updated.getChangeDescription(), FIELD_DELETED_CHILDREN, deletedChildren);
+    }
     LOG.info("{} deleted {}", hardDelete ? "Hard" : "Soft", updated.getFullyQualifiedName());
     return new DeleteResponse<>(updated, changeType);
   }
@@ -609,31 +874,29 @@ public abstract class EntityRepository<T extends EntityInterface> {
     return delete(updatedBy, json, id, recursive, hardDelete);
   }
 
-  private void deleteChildren(UUID id, boolean recursive, boolean hardDelete, String updatedBy) throws IOException {
+  /** Delete all the children of an entity and return the number of deleted children by entity type */
+  private Map<String, Integer> deleteChildren(T entity, boolean recursive, boolean hardDelete, String updatedBy)
+      throws IOException {
     // If an entity being deleted contains other **non-deleted** children entities, it can't be deleted
     List<EntityRelationshipRecord> records =
         daoCollection
             .relationshipDAO()
             .findTo(
-                id.toString(), entityType, List.of(Relationship.CONTAINS.ordinal(), Relationship.PARENT_OF.ordinal()));
+                entity.getId().toString(),
+                entityType,
+                List.of(Relationship.CONTAINS.ordinal(), Relationship.PARENT_OF.ordinal()));
 
     if (records.isEmpty()) {
-      return;
+      return Collections.emptyMap();
     }
     // Entity being deleted contains children entities
     if (!recursive) {
       throw new IllegalArgumentException(CatalogExceptionMessage.entityIsNotEmpty(entityType));
     }
     // Delete all the contained entities
-    for (EntityRelationshipRecord entityRelationshipRecord : records) {
-      LOG.info(
-          "Recursively {} deleting {} {}",
-          hardDelete ? "hard" : "soft",
-          entityRelationshipRecord.getType(),
-          entityRelationshipRecord.getId());
-      Entity.deleteEntity(
-          updatedBy, entityRelationshipRecord.getType(), entityRelationshipRecord.getId(), true, hardDelete);
-    }
+    SubtreeDeleter subtreeDeleter = new SubtreeDeleter(daoCollection, updatedBy, hardDelete);
+    subtreeDeleter.collect(entity.getId());
+    return subtreeDeleter.delete(entity.getFullyQualifiedName());
   }
 
   protected void cleanup(T entityInterface) throws IOException {
@@ -641,6 +904,10 @@ public abstract class EntityRepository<T extends EntityInterface> {
 
     // Delete all the relationships to other entities
     daoCollection.relationshipDAO().deleteAll(id, entityType);
+    LineageGraph lineageGraph = LineageGraph.getInstance();
+    if (lineageGraph != null) {
+      AfterCommit.run(() -> lineageGraph.removeNode(entityInterface.getId()));
+    }
 
     // Delete all the field relationships to other entities
     daoCollection.fieldRelationshipDAO().deleteAllByPrefix(entityInterface.getFullyQualifiedName());
@@ -702,8 +969,11 @@ public abstract class EntityRepository<T extends EntityInterface> {
   }
 
   protected void store(UUID id, T entity, boolean update) throws JsonProcessingException {
+    BulkWriter writer = bulkWriter.get();
     if (update) {
       dao.update(id, JsonUtils.pojoToJson(entity));
+    } else if (writer != null) {
+      writer.addEntity(id, entity.getFullyQualifiedName(), JsonUtils.pojoToJson(entity));
     } else {
       dao.insert(entity);
     }
@@ -816,16 +1086,14 @@ public abstract class EntityRepository<T extends EntityInterface> {
 
   /** Apply tags {@code tagLabels} to the entity or field identified by {@code targetFQN} */
   public void applyTags(List<TagLabel> tagLabels, String targetFQN) {
+    BulkWriter writer = bulkWriter.get();
     for (TagLabel tagLabel : listOrEmpty(tagLabels)) {
-      if (tagLabel.getSource() == TagLabel.TagSource.TAG) {
-        Tag tag = daoCollection.tagDAO().findEntityByName(tagLabel.getTagFQN());
-        tagLabel.withDescription(tag.getDescription());
-        tagLabel.setSource(TagLabel.TagSource.TAG);
-      } else if (tagLabel.getSource() == TagLabel.TagSource.GLOSSARY) {
-        GlossaryTerm term = daoCollection.glossaryTermDAO().findEntityByName(tagLabel.getTagFQN(), NON_DELETED);
-        tagLabel.withDescription(term.getDescription());
-        tagLabel.setSource(TagLabel.TagSource.GLOSSARY);
+      if (writer != null) {
+        tagLabel.withDescription(writer.getTagDescription(tagLabel, this::getTagDescription));
+        writer.applyTag(tagLabel, targetFQN);
+        continue;
       }
+      tagLabel.withDescription(getTagDescription(tagLabel));
 
       // Apply tagLabel to targetFQN that identifies an entity or field
       daoCollection
@@ -839,14 +1107,56 @@ public abstract class EntityRepository<T extends EntityInterface> {
     }
   }
 
+  private String getTagDescription(TagLabel tagLabel) {
+    if (tagLabel.getSource() == TagLabel.TagSource.GLOSSARY) {
+      GlossaryTerm term = daoCollection.glossaryTermDAO().findEntityByName(tagLabel.getTagFQN(), NON_DELETED);
+      return term.getDescription();
+    }
+    Tag tag = daoCollection.tagDAO().findEntityByName(tagLabel.getTagFQN());
+    return tag.getDescription();
+  }
+
   protected List<TagLabel> getTags(String fqn) {
-    return !supportsTags ? null : daoCollection.tagUsageDAO().getTags(fqn);
+    if (!supportsTags) {
+      return null;
+    }
+    BulkFieldLoader loader = bulkFieldLoader.get();
+    return loader != null && loader.hasTags(fqn) ? loader.getTags(fqn) : daoCollection.tagUsageDAO().getTags(fqn);
+  }
+
+  /**
+   * Get the tags of the fields of an entity, such as the columns of a table, whose FQNs are under the FQN of the
+   * entity. The tags loaded for a page of entities are used when there are, otherwise the tags of all the fields are
+   * read with a single query. Fields without tags are mapped to an empty list.
+   */
+  protected Map<String, List<TagLabel>> getFieldTags(String entityFQN, List<String> fieldFQNs) {
+    Map<String, List<TagLabel>> tags = new HashMap<>();
+    fieldFQNs.forEach(fqn -> tags.put(fqn, new ArrayList<>()));
+    if (!supportsTags || fieldFQNs.isEmpty()) {
+      return tags;
+    }
+    BulkFieldLoader loader = bulkFieldLoader.get();
+    if (loader != null && fieldFQNs.stream().allMatch(loader::hasTags)) {
+      fieldFQNs.forEach(fqn -> tags.put(fqn, loader.getTags(fqn)));
+      return tags;
+    }
+    for (Pair<String, TagLabel> tag : daoCollection.tagUsageDAO().getTagsByTargetPrefix(entityFQN)) {
+      List<TagLabel> fieldTags = tags.get(tag.getLeft());
+      if (fieldTags != null) { // Skip the tags of other targets that match the prefix
+        fieldTags.add(tag.getRight());
+      }
+    }
+    return tags;
   }
 
   protected List<EntityReference> getFollowers(T entity) throws IOException {
     if (!supportsFollower || entity == null) {
       return Collections.emptyList();
     }
+    BulkFieldLoader loader = bulkFieldLoader.get();
+    if (loader != null && loader.hasFollowers(entity.getId())) {
+      return loader.getFollowers(entity.getId());
+    }
     List<EntityReference> followers = new ArrayList<>();
     List<EntityRelationshipRecord> records = findFrom(entity.getId(), entityType, Relationship.FOLLOWS, Entity.USER);
     for (EntityRelationshipRecord entityRelationshipRecord : records) {
@@ -855,6 +1165,14 @@ public abstract class EntityRepository<T extends EntityInterface> {
     return followers;
   }
 
+  protected UsageDetails getUsageSummary(T entity) {
+    BulkFieldLoader loader = bulkFieldLoader.get();
+    if (loader != null && loader.hasUsageSummary(entity.getId())) {
+      return EntityUtil.getUsageOrDefault(loader.getUsageSummary(entity.getId()));
+    }
+    return EntityUtil.getLatestUsage(daoCollection.usageDAO(), entity.getId());
+  }
+
   public T withHref(UriInfo uriInfo, T entity) {
     if (uriInfo == null) {
       return entity;
@@ -911,6 +1229,11 @@ public abstract class EntityRepository<T extends EntityInterface> {
       from = toId;
       to = fromId;
     }
+    BulkWriter writer = bulkWriter.get();
+    if (writer != null) {
+      writer.addRelationship(from, to, fromEntity, toEntity, relationship.ordinal(), json);
+      return;
+    }
     daoCollection.relationshipDAO().insert(from, to, fromEntity, toEntity, relationship.ordinal(), json);
   }
 
@@ -1029,6 +1352,10 @@ public abstract class EntityRepository<T extends EntityInterface> {
     if (!supportsOwner) {
       return null;
     }
+    BulkFieldLoader loader = bulkFieldLoader.get();
+    if (loader != null && loader.hasOwner(entity.getId())) {
+      return loader.getOwner(entity.getId());
+    }
     return getFromEntityRef(entity.getId(), Relationship.OWNS, null, false);
   }
 
@@ -1473,14 +1800,13 @@ public abstract class EntityRepository<T extends EntityInterface> {
     }
 
     private void storeOldVersion() throws JsonProcessingException {
-      String extensionName = EntityUtil.getVersionExtension(entityType, original.getVersion());
-      daoCollection
-          .entityExtensionDAO()
-          .insert(original.getId().toString(), extensionName, entityType, JsonUtils.pojoToJson(original));
+      versionStore.putVersion(original);
     }
 
     private void storeNewVersion() throws IOException {
       EntityRepository.this.storeEntity(updated, true);
+      // Entity may have been renamed. Remove the cached reference by the original name as well.
+      dao.invalidateReference(original.getId(), original.getFullyQualifiedName(), updated.getFullyQualifiedName());
     }
 
     public final boolean updatedByBot() {
@@ -0,0 +1,390 @@
+/*
+ *  Copyright 2021 Collate
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openmetadata.service.jdbi3;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.openmetadata.service.jdbi3.CollectionDAO.EntityExtensionTimeSeriesDAO;
+import org.openmetadata.service.jdbi3.CollectionDAO.TimeSeriesChunkRecord;
+import org.openmetadata.service.util.JsonUtils;
+
+/**
+ * Stores the entries of table profiles, column profiles and test case results. Entries are written as rows of {@code
+ * entity_extension_time_series}. When chunked storage is enabled, a compaction job periodically moves the entries of
+ * the time buckets that have ended into {@code entity_extension_time_series_chunk}, with one {@link TimeSeriesChunk}
+ * per entity, extension and time bucket. The compaction job also migrates the rows written before chunked storage was
+ * enabled.
+ *
+ * <p>Reads merge the chunks with the rows, so chunks written when chunked storage was enabled are read after it is
+ * disabled. A row replaces an entry of a chunk with the same timestamp. An entry written for a timestamp that is in a
+ * chunk is removed from the chunk.
+ *
+ * <p>Each rewrite of the chunk of a bucket, together with the rows it moves, runs in one transaction holding the lock
+ * on the chunk with {@link EntityExtensionTimeSeriesDAO#rewriteBucket}. The compaction jobs of several servers and the
+ * requests writing entries do not lose each other's writes.
+ *
+ * <p>The latest entry of a time series is always kept as a row. Reading the latest entry stays a single row lookup
+ * with {@link EntityExtensionTimeSeriesDAO#getLatestExtension(String, String)}.
+ */
+@Slf4j
+public class EntityTimeSeriesStore {
+  private static final String TIMESTAMP = "timestamp";
+  private static final long DAY_MS = 24 * 60 * 60 * 1000L;
+  private static final long MAX_SECONDS_TIMESTAMP = 100_000_000_000L; // Timestamps below this are in seconds
+
+  /** Extensions stored in chunks and the json schema of their entries */
+  private static final Map<String, String> CHUNKED_EXTENSIONS =
+      Map.of(
+          TableRepository.TABLE_PROFILE_EXTENSION, "tableProfile",
+          TableRepository.TABLE_COLUMN_PROFILE_EXTENSION, "columnProfile",
+          TestCaseRepository.TESTCASE_RESULT_EXTENSION, "testCaseResult");
+
+  private static ScheduledExecutorService compactor;
+
+  private final EntityExtensionTimeSeriesDAO dao;
+
+  public EntityTimeSeriesStore(EntityExtensionTimeSeriesDAO dao) {
+    this.dao = dao;
+  }
+
+  public static void initialize(TimeSeriesConfiguration config, CollectionDAO collectionDAO) {
+    if (!config.isChunkedStorageEnabled() || compactor != null) {
+      return;
+    }
+    EntityTimeSeriesStore store = new EntityTimeSeriesStore(collectionDAO.entityExtensionTimeSeriesDao());
+    long bucketSize = config.getBucketSizeDays() * DAY_MS;
+    compactor =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "time-series-compaction");
+              thread.setDaemon(true);
+              return thread;
+            });
+    compactor.scheduleWithFixedDelay(
+        () -> store.compactAll(bucketSize, config.getCompactionBatchSize()),
+        config.getCompactionIntervalMinutes(),
+        config.getCompactionIntervalMinutes(),
+        TimeUnit.MINUTES);
+    LOG.info("Time series compaction scheduled with buckets of {} days", config.getBucketSizeDays());
+  }
+
+  public static void shutdown() {
+    if (compactor != null) {
+      compactor.shutdownNow();
+      compactor = null;
+    }
+  }
+
+  /** Return the json of the entry at the timestamp or null when there is no such entry */
+  public String getExtensionAtTimestamp(String entityFQN, String extension, long timestamp) throws IOException {
+    String json = dao.getExtensionAtTimestamp(entityFQN, extension, timestamp);
+    if (json != null) {
+      return json;
+    }
+    List<TimeSeriesChunkRecord> records = dao.listChunks(entityFQN, extension, timestamp, timestamp);
+    for (int i = records.size() - 1; i >= 0; i--) {
+      TimeSeriesChunk chunk = TimeSeriesChunk.decode(records.get(i).getChunk(), false);
+      int index = chunk.indexOf(timestamp);
+      if (index >= 0) {
+        return JsonUtils.pojoToJson(chunk.getEntry(index));
+      }
+    }
+    return null;
+  }
+
+  /** Insert the entry at the timestamp, or update it when there is already an entry at the timestamp */
+  public void put(String entityFQN, String extension, String jsonSchema, String json, long timestamp)
+      throws IOException {
+    // A row compacted into a chunk since it was read is not updated, and its entry is replaced in the chunk instead
+    if (dao.getExtensionAtTimestamp(entityFQN, extension, timestamp) != null
+        && dao.update(entityFQN, extension, json, timestamp) > 0) {
+      return;
+    }
+    List<TimeSeriesChunkRecord> records = dao.listChunks(entityFQN, extension, timestamp, timestamp);
+    if (records.isEmpty()) {
+      dao.insert(entityFQN, extension, jsonSchema, json);
+      return;
+    }
+    // The entry is in the chunk of one bucket
+    dao.rewriteBucket(
+        entityFQN,
+        extension,
+        records.get(0).getBucketStart(),
+        locked -> {
+          removeFromChunk(entityFQN, extension, locked, timestamp);
+          dao.insert(entityFQN, extension, jsonSchema, json);
+        });
+  }
+
+  public void deleteAtTimestamp(String entityFQN, String extension, long timestamp) throws IOException {
+    dao.deleteAtTimestamp(entityFQN, extension, timestamp);
+    for (TimeSeriesChunkRecord rec : dao.listChunks(entityFQN, extension, timestamp, timestamp)) {
+      dao.rewriteBucket(
+          entityFQN,
+          extension,
+          rec.getBucketStart(),
+          locked -> removeFromChunk(entityFQN, extension, locked, timestamp));
+    }
+
+    // When the latest entry is deleted, the entry that becomes the latest may be in a chunk. Move it to a row.
+    Long latestInChunk = dao.getLatestChunkTimestamp(entityFQN, extension);
+    if (latestInChunk != null) {
+      Long latest = dao.getLatestTimestamp(entityFQN, extension);
+      if (latest == null || latest < latestInChunk) {
+        for (TimeSeriesChunkRecord rec : dao.listChunks(entityFQN, extension, latestInChunk, latestInChunk)) {
+          dao.rewriteBucket(
+              entityFQN,
+              extension,
+              rec.getBucketStart(),
+              locked -> {
+                ObjectNode entry = removeFromChunk(entityFQN, extension, locked, latestInChunk);
+                if (entry != null) {
+                  dao.insert(entityFQN, extension, CHUNKED_EXTENSIONS.get(extension), JsonUtils.pojoToJson(entry));
+                }
+              });
+        }
+      }
+    }
+  }
+
+  /** List the entries between the timestamps, the latest first */
+  public <T> List<T> listBetweenTimestamps(
+      String entityFQN, String extension, long startTs, long endTs, Class<T> clz) throws IOException {
+    List<String> rows = dao.listBetweenTimestamps(entityFQN, extension, startTs, endTs);
+    List<TimeSeriesChunkRecord> records = dao.listChunks(entityFQN, extension, startTs, endTs);
+    if (records.isEmpty()) {
+      return JsonUtils.readObjects(rows, clz);
+    }
+
+    TreeMap<Long, ObjectNode> entries = new TreeMap<>(Comparator.reverseOrder());
+    for (String json : rows) {
+      ObjectNode row = (ObjectNode) JsonUtils.readTree(json);
+      entries.put(row.get(TIMESTAMP).asLong(), row);
+    }
+    for (int r = records.size() - 1; r >= 0; r--) {
+      TimeSeriesChunk chunk = TimeSeriesChunk.decode(records.get(r).getChunk(), false);
+      for (int i = 0; i < chunk.size(); i++) {
+        long timestamp = chunk.getTimestamp(i);
+        if (timestamp >= startTs && timestamp <= endTs && !entries.containsKey(timestamp)) {
+          entries.put(timestamp, chunk.getEntry(i));
+        }
+      }
+    }
+    List<T> result = new ArrayList<>(entries.size());
+    for (ObjectNode entry : entries.values()) {
+      result.add(JsonUtils.convertValue(entry, clz));
+    }
+    return result;
+  }
+
+  /**
+   * Summarize the numeric fields of the entries between the timestamps with their min, max and average per bucket of
+   * {@code interval}, given in the unit of the timestamps, and count the values of the {@code countedFields} per
+   * bucket. Buckets are returned in the order of time and buckets without entries are left out. The entries in chunks
+   * are summarized without decoding their other fields.
+   */
+  public List<TimeSeriesBucket> downsample(
+      String entityFQN, String extension, long startTs, long endTs, long interval, Set<String> countedFields)
+      throws IOException {
+    if (interval <= 0) {
+      throw new IllegalArgumentException("interval must be greater than 0");
+    }
+    List<ObjectNode> rows = new ArrayList<>();
+    for (String json : dao.listBetweenTimestamps(entityFQN, extension, startTs, endTs)) {
+      rows.add((ObjectNode) JsonUtils.readTree(json));
+    }
+    List<TimeSeriesChunk> chunks = new ArrayList<>();
+    chunks.add(TimeSeriesChunk.fromEntries(rows));
+    List<TimeSeriesChunkRecord> records = dao.listChunks(entityFQN, extension, startTs, endTs);
+    for (int r = records.size() - 1; r >= 0; r--) {
+      chunks.add(TimeSeriesChunk.decode(records.get(r).getChunk(), true));
+    }
+
+    Set<Long> seen = new HashSet<>();
+    TreeMap<Long, TimeSeriesBucket> buckets = new TreeMap<>();
+    for (TimeSeriesChunk chunk : chunks) {
+      for (int i = 0; i < chunk.size(); i++) {
+        long timestamp = chunk.getTimestamp(i);
+        if (timestamp < startTs || timestamp > endTs || !seen.add(timestamp)) {
+          continue;
+        }
+        long bucketStart = startTs + (timestamp - startTs) / interval * interval;
+        buckets.computeIfAbsent(bucketStart, TimeSeriesBucket::new).add(chunk, i, countedFields);
+      }
+    }
+    return new ArrayList<>(buckets.values());
+  }
+
+  /** Compact the entries of the time buckets that ended, of all the time series. Runs in the compaction thread. */
+  void compactAll(long bucketSize, int batchSize) {
+    long before = System.currentTimeMillis() / bucketSize * bucketSize;
+    for (String extension : CHUNKED_EXTENSIONS.keySet()) {
+      int compacted = 0;
+      try {
+        String after = "";
+        List<String> entityFQNs;
+        do {
+          entityFQNs = dao.listEntitiesBefore(extension, before, after, batchSize);
+          for (String entityFQN : entityFQNs) {
+            compacted += compact(entityFQN, extension, before, bucketSize);
+            after = entityFQN;
+          }
+        } while (entityFQNs.size() == batchSize);
+      } catch (Exception e) {
+        LOG.error("Failed to compact the time series of {}", extension, e);
+      }
+      if (compacted > 0) {
+        LOG.info("Compacted {} entries of {} into chunks", compacted, extension);
+      }
+    }
+  }
+
+  /** Compact the entries of a time series that are in buckets ending before {@code before}, in milliseconds */
+  int compact(String entityFQN, String extension, long before, long bucketSize) throws IOException {
+    Long latest = dao.getLatestTimestamp(entityFQN, extension);
+    TreeMap<Long, List<ObjectNode>> rowsByBucket = new TreeMap<>();
+    for (String json : dao.listBetweenTimestamps(entityFQN, extension, 0L, before - 1)) {
+      ObjectNode row = (ObjectNode) JsonUtils.readTree(json);
+      long timestamp = row.get(TIMESTAMP).asLong();
+      if ((latest != null && timestamp == latest) || toMillis(timestamp) >= before) {
+        continue; // The latest entry stays a row
+      }
+      long bucketStart = toMillis(timestamp) / bucketSize * bucketSize;
+      rowsByBucket.computeIfAbsent(bucketStart, k -> new ArrayList<>()).add(row);
+    }
+
+    int compacted = 0;
+    for (Map.Entry<Long, List<ObjectNode>> bucket : rowsByBucket.entrySet()) {
+      List<Long> timestamps = new ArrayList<>();
+      for (ObjectNode row : bucket.getValue()) {
+        timestamps.add(row.get(TIMESTAMP).asLong());
+      }
+      dao.rewriteBucket(
+          entityFQN,
+          extension,
+          bucket.getKey(),
+          locked -> {
+            List<ObjectNode> entries = new ArrayList<>();
+            if (locked != null) {
+              entries.addAll(TimeSeriesChunk.decode(locked.getChunk(), false).getEntries());
+            }
+            // Rows are read again once locked, as they may have been updated or deleted since they were listed
+            for (String json : dao.listAtTimestampsForUpdate(entityFQN, extension, timestamps)) {
+              entries.add((ObjectNode) JsonUtils.readTree(json)); // Rows replace the entries with the same timestamp
+            }
+            replaceChunk(entityFQN, extension, bucket.getKey(), locked, entries);
+            dao.deleteAtTimestamps(entityFQN, extension, timestamps);
+          });
+      compacted += timestamps.size();
+    }
+    return compacted;
+  }
+
+  /** Remove the entry at the timestamp from the locked chunk. Returns the removed entry, or null when there is none. */
+  private ObjectNode removeFromChunk(String entityFQN, String extension, TimeSeriesChunkRecord locked, long timestamp)
+      throws IOException {
+    if (locked == null) {
+      return null;
+    }
+    TimeSeriesChunk chunk = TimeSeriesChunk.decode(locked.getChunk(), false);
+    int index = chunk.indexOf(timestamp);
+    if (index < 0) {
+      return null;
+    }
+    ObjectNode removed = chunk.getEntry(index);
+    List<ObjectNode> entries = chunk.getEntries();
+    entries.removeIf(entry -> entry.get(TIMESTAMP).asLong() == timestamp);
+    replaceChunk(entityFQN, extension, locked.getBucketStart(), locked, entries);
+    return removed;
+  }
+
+  /** Write the entries as the chunk of a locked bucket, in place of its chunk */
+  private void replaceChunk(
+      String entityFQN, String extension, long bucketStart, TimeSeriesChunkRecord replaced, List<ObjectNode> entries)
+      throws IOException {
+    if (replaced != null) {
+      dao.deleteChunk(entityFQN, extension, bucketStart, replaced.getCompactedAt());
+    }
+    if (!entries.isEmpty()) {
+      TimeSeriesChunk chunk = TimeSeriesChunk.fromEntries(entries);
+      dao.insertChunk(
+          entityFQN,
+          extension,
+          bucketStart,
+          chunk.getTimestamp(0),
+          chunk.getTimestamp(chunk.size() - 1),
+          System.currentTimeMillis(),
+          chunk.encode());
+    }
+  }
+
+  /** Profiles sent by the ingestion framework have timestamps in seconds */
+  private static long toMillis(long timestamp) {
+    return timestamp < MAX_SECONDS_TIMESTAMP ? timestamp * 1000 : timestamp;
+  }
+
+  /** Summary of the entries of a time series in a bucket of time */
+  @Getter
+  public static class TimeSeriesBucket {
+    private final long timestamp; // Start of the bucket
+    private int count;
+    private final Map<String, MetricSummary> metrics = new TreeMap<>();
+    private final Map<String, Map<String, Integer>> valueCounts = new TreeMap<>();
+
+    TimeSeriesBucket(long timestamp) {
+      this.timestamp = timestamp;
+    }
+
+    void add(TimeSeriesChunk chunk, int index, Set<String> countedFields) {
+      count++;
+      chunk.forEachMetric(index, (name, value) -> metrics.computeIfAbsent(name, k -> new MetricSummary()).add(value));
+      for (String field : countedFields) {
+        String value = chunk.getString(index, field);
+        if (value != null) {
+          valueCounts.computeIfAbsent(field, k -> new TreeMap<>()).merge(value, 1, Integer::sum);
+        }
+      }
+    }
+  }
+
+  public static class MetricSummary {
+    @Getter private double min = Double.MAX_VALUE;
+    @Getter private double max = -Double.MAX_VALUE;
+    @Getter private int count;
+    private double sum;
+
+    void add(double value) {
+      min = Math.min(min, value);
+      max = Math.max(max, value);
+      sum += value;
+      count++;
+    }
+
+    public double getAvg() {
+      return sum / count;
+    }
+  }
+}
@@ -0,0 +1,282 @@
+/*
+ *  Copyright 2021 Collate
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openmetadata.service.jdbi3;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonPatch;
+import javax.json.JsonStructure;
+import javax.json.JsonValue;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.Pair;
+import org.openmetadata.schema.EntityInterface;
+import org.openmetadata.schema.type.ChangeDescription;
+import org.openmetadata.service.exception.UnhandledServerException;
+import org.openmetadata.service.jdbi3.CollectionDAO.EntityExtensionDAO;
+import org.openmetadata.service.jdbi3.CollectionDAO.EntityVersionPair;
+import org.openmetadata.service.jdbi3.CollectionDAO.ExtensionRecord;
+import org.openmetadata.service.jdbi3.CollectionDAO.VersionRecord;
+import org.openmetadata.service.util.EntityUtil;
+import org.openmetadata.service.util.JsonUtils;
+
+/**
+ * Stores the previous versions of an entity in {@code entity_extension} under {@code <entityType>.version.<version>}.
+ * When delta storage is enabled, versions are stored in runs of {@code snapshotInterval} versions. The first version
+ * of a run is stored as the full entity json, with json schema {@link #SNAPSHOT}. The other versions of the run are
+ * stored as a JSON patch from the first version of the run, with json schema {@link #DELTA}:
+ *
+ * <pre>{"base": 0.3, "run": 2, "patch": [{"op": "replace", "path": "/description", "value": "..."}]}</pre>
+ *
+ * <p>Reading any version reads at most two rows and applies at most one patch. A version is stored as a snapshot
+ * instead of a delta when the delta is not smaller than half of the entity json.
+ *
+ * <p>Versions stored as full entity json with the entity type as json schema, which is how all versions were stored
+ * before delta storage, are read as snapshots. A compaction job rewrites the versions of entities that have such
+ * versions into runs of snapshots and deltas.
+ */
+@Slf4j
+public class EntityVersionStore {
+  static final String SNAPSHOT = "versionSnapshot";
+  static final String DELTA = "versionDelta";
+  private static final String BASE = "base";
+  private static final String RUN = "run";
+  private static final String PATCH = "patch";
+
+  private static volatile boolean deltaStorageEnabled = false;
+  private static volatile int snapshotInterval = 10;
+  private static ScheduledExecutorService compactor;
+
+  private final EntityExtensionDAO dao;
+  private final String entityType;
+
+  public EntityVersionStore(EntityExtensionDAO dao, String entityType) {
+    this.dao = dao;
+    this.entityType = entityType;
+  }
+
+  public static void initialize(VersionHistoryConfiguration config, CollectionDAO collectionDAO) {
+    deltaStorageEnabled = config.isDeltaStorageEnabled();
+    snapshotInterval = config.getSnapshotInterval();
+    if (!deltaStorageEnabled || compactor != null) {
+      return;
+    }
+    compactor =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "version-history-compaction");
+              thread.setDaemon(true);
+              return thread;
+            });
+    // The first run shortly after start rewrites the versions stored before delta storage was enabled
+    compactor.scheduleWithFixedDelay(
+        () -> compactAll(collectionDAO.entityExtensionDAO(), config.getCompactionBatchSize()),
+        1,
+        config.getCompactionIntervalMinutes(),
+        TimeUnit.MINUTES);
+    LOG.info("Version history stored as deltas with a snapshot every {} versions", snapshotInterval);
+  }
+
+  public static void shutdown() {
+    if (compactor != null) {
+      compactor.shutdownNow();
+      compactor = null;
+    }
+  }
+
+  /** Store the version of an entity that is being replaced by a new version */
+  public void putVersion(EntityInterface original) throws JsonProcessingException {
+    String id = original.getId().toString();
+    String extension = EntityUtil.getVersionExtension(entityType, original.getVersion());
+    String json = JsonUtils.pojoToJson(original);
+    if (!deltaStorageEnabled) {
+      dao.insert(id, extension, entityType, json);
+      return;
+    }
+
+    // The version before this one tells which run of versions this version belongs to
+    ChangeDescription change = original.getChangeDescription();
+    VersionRecord previous =
+        change == null || change.getPreviousVersion() == null
+            ? null
+            : dao.getVersionRecord(id, EntityUtil.getVersionExtension(entityType, change.getPreviousVersion()));
+    if (previous == null) {
+      store(id, extension, json, null, null, 0);
+    } else if (DELTA.equals(previous.getJsonSchema())) {
+      JsonObject delta = JsonUtils.readJson(previous.getExtensionJson()).asJsonObject();
+      Double baseVersion = delta.getJsonNumber(BASE).doubleValue();
+      int run = delta.getInt(RUN) + 1;
+      String baseJson = run < snapshotInterval ? getVersion(id, baseVersion) : null;
+      store(id, extension, json, baseVersion, baseJson, run);
+    } else {
+      Double baseVersion = EntityUtil.getVersion(previous.getExtensionName());
+      store(id, extension, json, baseVersion, previous.getExtensionJson(), 1);
+    }
+  }
+
+  /** Return the json of a version of an entity or null when the version is not stored */
+  public String getVersion(UUID id, Double version) {
+    return getVersion(id.toString(), version);
+  }
+
+  private String getVersion(String id, Double version) {
+    VersionRecord versionRecord = dao.getVersionRecord(id, EntityUtil.getVersionExtension(entityType, version));
+    if (versionRecord == null) {
+      return null;
+    }
+    return toJson(
+        versionRecord, v -> dao.getVersionRecord(id, EntityUtil.getVersionExtension(entityType, v)), new HashMap<>());
+  }
+
+  /** List the stored versions of an entity */
+  public List<EntityVersionPair> listVersions(UUID id) {
+    return toVersions(dao.getVersionRecords(id.toString(), EntityUtil.getVersionExtensionPrefix(entityType)));
+  }
+
+  private static List<EntityVersionPair> toVersions(List<VersionRecord> records) {
+    Map<Double, VersionRecord> recordsByVersion = new HashMap<>();
+    records.forEach(r -> recordsByVersion.put(EntityUtil.getVersion(r.getExtensionName()), r));
+    Map<Double, JsonStructure> bases = new HashMap<>();
+    List<EntityVersionPair> versions = new ArrayList<>(records.size());
+    for (VersionRecord versionRecord : records) {
+      String json = toJson(versionRecord, recordsByVersion::get, bases);
+      versions.add(new EntityVersionPair(new ExtensionRecord(versionRecord.getExtensionName(), json)));
+    }
+    return versions;
+  }
+
+  /** Rewrite the versions of entities that have versions stored as full entity json without a run */
+  static void compactAll(EntityExtensionDAO dao, int batchSize) {
+    try {
+      long start = System.currentTimeMillis();
+      long[] sizes = new long[2]; // Total json size before and after
+      int count = 0;
+      String after = "";
+      List<Pair<String, String>> batch;
+      do {
+        batch = dao.listEntitiesWithUnformattedVersions(after, List.of(SNAPSHOT, DELTA), batchSize);
+        for (Pair<String, String> entity : batch) {
+          String extension = entity.getRight();
+          String entityType = extension.substring(0, extension.indexOf(".version."));
+          try {
+            new EntityVersionStore(dao, entityType).compact(entity.getLeft(), sizes);
+            count++;
+          } catch (Exception e) {
+            LOG.error("Failed to rewrite versions of {} {}", entityType, entity.getLeft(), e);
+          }
+        }
+        after = batch.isEmpty() ? after : batch.get(batch.size() - 1).getLeft();
+      } while (batch.size() == batchSize);
+      if (count > 0) {
+        LOG.info(
+            "Rewrote versions of {} entities from {} bytes to {} bytes in {} ms",
+            count,
+            sizes[0],
+            sizes[1],
+            System.currentTimeMillis() - start);
+      }
+    } catch (Exception e) {
+      LOG.error("Version history compaction failed", e);
+    }
+  }
+
+  /** Rewrite all the versions of an entity into runs of snapshots and deltas */
+  private void compact(String id, long[] sizes) {
+    List<VersionRecord> records = dao.getVersionRecords(id, EntityUtil.getVersionExtensionPrefix(entityType));
+    records.forEach(r -> sizes[0] += r.getExtensionJson().length());
+    List<EntityVersionPair> versions = toVersions(records);
+    versions.sort(Comparator.comparing(EntityVersionPair::getVersion));
+
+    // Versions are rewritten from the oldest, so the base of a rewritten delta is always a rewritten snapshot
+    Double baseVersion = null;
+    String baseJson = null;
+    int run = 0;
+    for (EntityVersionPair version : versions) {
+      String extension = EntityUtil.getVersionExtension(entityType, version.getVersion());
+      VersionRecord stored = store(id, extension, version.getEntityJson(), baseVersion, baseJson, ++run);
+      if (SNAPSHOT.equals(stored.getJsonSchema())) {
+        baseVersion = version.getVersion();
+        baseJson = version.getEntityJson();
+        run = 0;
+      }
+      sizes[1] += stored.getExtensionJson().length();
+    }
+  }
+
+  /** Store a version as a delta from the base version of its run or as a snapshot that starts a new run */
+  private VersionRecord store(String id, String extension, String json, Double baseVersion, String baseJson, int run) {
+    if (baseJson != null && run < snapshotInterval) {
+      String delta = toDelta(baseVersion, run, baseJson, json);
+      if (delta != null) {
+        dao.insert(id, extension, DELTA, delta);
+        return new VersionRecord(extension, DELTA, delta);
+      }
+    }
+    dao.insert(id, extension, SNAPSHOT, json);
+    return new VersionRecord(extension, SNAPSHOT, json);
+  }
+
+  /** Json of the delta from the base json to the json, or null when the delta is not small enough to store */
+  static String toDelta(Double baseVersion, int run, String baseJson, String json) {
+    JsonStructure base = (JsonStructure) JsonUtils.readJson(baseJson);
+    JsonValue target = JsonUtils.readJson(json);
+    JsonPatch patch = Json.createDiff(base, (JsonStructure) target);
+    if (!patch.apply(base).equals(target)) {
+      return null;
+    }
+    String delta =
+        Json.createObjectBuilder()
+            .add(BASE, baseVersion)
+            .add(RUN, run)
+            .add(PATCH, patch.toJsonArray())
+            .build()
+            .toString();
+    return delta.length() < json.length() / 2 ? delta : null;
+  }
+
+  /**
+   * Json of a stored version. Parsed base versions are kept in {@code bases} for the other deltas of the same run. The
+   * base of a delta is a snapshot, unless a compaction rewrote it while the delta was being stored. Then the base is a
+   * delta from an older version.
+   */
+  static String toJson(
+      VersionRecord versionRecord, Function<Double, VersionRecord> records, Map<Double, JsonStructure> bases) {
+    if (!DELTA.equals(versionRecord.getJsonSchema())) {
+      return versionRecord.getExtensionJson();
+    }
+    JsonObject delta = JsonUtils.readJson(versionRecord.getExtensionJson()).asJsonObject();
+    Double baseVersion = delta.getJsonNumber(BASE).doubleValue();
+    JsonStructure base = bases.get(baseVersion);
+    if (base == null) {
+      VersionRecord baseRecord = records.apply(baseVersion);
+      if (baseRecord == null) {
+        throw new UnhandledServerException(
+            String.format("Base version %s of %s is missing", baseVersion, versionRecord.getExtensionName()));
+      }
+      base = (JsonStructure) JsonUtils.readJson(toJson(baseRecord, records, bases));
+      bases.put(baseVersion, base);
+    }
+    return Json.createPatch(delta.getJsonArray(PATCH)).apply(base).toString();
+  }
+}
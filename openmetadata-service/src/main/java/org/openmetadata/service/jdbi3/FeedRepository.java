@@ -40,7 +40,9 @@ import io.jsonwebtoken.lang.Collections;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
@@ -53,8 +55,8 @@ import javax.ws.rs.core.UriInfo;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.jdbi.v3.sqlobject.transaction.Transaction;
-import org.json.JSONObject;
 import org.openmetadata.schema.api.feed.CloseTask;
 import org.openmetadata.schema.api.feed.EntityLinkThreadCount;
 import org.openmetadata.schema.api.feed.ResolveTask;
@@ -82,7 +84,7 @@ import org.openmetadata.service.Entity;
 import org.openmetadata.service.exception.EntityNotFoundException;
 import org.openmetadata.service.jdbi3.CollectionDAO.EntityRelationshipRecord;
 import org.openmetadata.service.resources.feeds.FeedResource;
-import org.openmetadata.service.resources.feeds.FeedUtil;
+import org.openmetadata.service.resources.feeds.FeedResource.PostList;
 import org.openmetadata.service.resources.feeds.MessageParser;
 import org.openmetadata.service.resources.feeds.MessageParser.EntityLink;
 import org.openmetadata.service.util.*;
@@ -91,6 +93,7 @@ import org.openmetadata.service.util.RestUtil.PatchResponse;
 
 @Slf4j
 public class FeedRepository {
+  private static final String MAX_THREAD_ID = "ffffffff-ffff-ffff-ffff-ffffffffffff"; // Above the ids of all threads
   private final CollectionDAO dao;
 
   public FeedRepository(CollectionDAO dao) {
@@ -146,6 +149,8 @@ public class FeedRepository {
 
     // Insert a new thread
     dao.feedDAO().insert(JsonUtils.pojoToJson(thread));
+    updateThreadCount(thread, about, 1);
+    storeAssignees(thread);
 
     // Add relationship User -- created --> Thread relationship
     dao.relationshipDAO().insert(createdByUser.getId(), thread.getId(), Entity.USER, Entity.THREAD, CREATED.ordinal());
@@ -168,7 +173,7 @@ public class FeedRepository {
     }
 
     // Add mentions to field relationship table
-    storeMentions(thread, thread.getMessage());
+    storeMentions(thread.getId(), thread.getMessage());
 
     return thread;
   }
@@ -189,13 +194,12 @@ public class FeedRepository {
 
   public Thread get(String id) throws IOException {
     Thread thread = EntityUtil.validate(id, dao.feedDAO().findById(id), Thread.class);
-    sortPosts(thread);
-    return thread;
+    return thread.withPosts(readPosts(dao.postDAO().list(id)));
   }
 
   public Thread getTask(Integer id) throws IOException {
     Thread task = EntityUtil.validate(id.toString(), dao.feedDAO().findByTaskId(id), Thread.class);
-    sortPosts(task);
+    task.withPosts(readPosts(dao.postDAO().list(task.getId().toString())));
     return populateAssignees(task);
   }
 
@@ -413,7 +417,7 @@ public class FeedRepository {
             .withReactions(java.util.Collections.emptyList())
             .withPostTs(System.currentTimeMillis());
     try {
-      addPostToThread(thread.getId().toString(), post, user);
+      addPostToThread(thread.getId().toString(), post, user, false);
     } catch (IOException exception) {
       LOG.error("Unable to post a reply to the Task upon closing.", exception);
     }
@@ -421,15 +425,17 @@ public class FeedRepository {
 
   private void closeTask(Thread thread, String user, String closingComment) throws IOException {
     TaskDetails task = thread.getTask();
+    updateThreadCount(thread, -1); // No longer counted with its previous status
     task.withStatus(TaskStatus.Closed).withClosedBy(user).withClosedAt(System.currentTimeMillis());
     thread.withTask(task).withUpdatedBy(user).withUpdatedAt(System.currentTimeMillis());
 
-    dao.feedDAO().update(thread.getId().toString(), JsonUtils.pojoToJson(thread));
+    storeThread(thread);
+    updateThreadCount(thread, 1);
     addClosingPost(thread, user, closingComment);
     sortPosts(thread);
   }
 
-  private void storeMentions(Thread thread, String message) {
+  private void storeMentions(UUID threadId, String message) {
     // Create relationship for users, teams, and other entities that are mentioned in the post
     // Multiple mentions of the same entity is handled by taking distinct mentions
     List<EntityLink> mentions = MessageParser.getEntityLinks(message);
@@ -437,73 +443,79 @@ public class FeedRepository {
     mentions.stream()
         .distinct()
         .forEach(
-            mention ->
-                dao.fieldRelationshipDAO()
-                    .insert(
-                        mention.getFullyQualifiedFieldValue(),
-                        thread.getId().toString(),
-                        mention.getFullyQualifiedFieldType(),
-                        Entity.THREAD,
-                        Relationship.MENTIONED_IN.ordinal(),
-                        null));
+            mention -> {
+              dao.fieldRelationshipDAO()
+                  .insert(
+                      mention.getFullyQualifiedFieldValue(),
+                      threadId.toString(),
+                      mention.getFullyQualifiedFieldType(),
+                      Entity.THREAD,
+                      Relationship.MENTIONED_IN.ordinal(),
+                      null);
+              // Mentions of users and teams are also indexed by name, to list the threads they are mentioned in
+              String type = mention.getFullyQualifiedFieldType();
+              if (type.equals(Entity.USER) || type.equals(Entity.TEAM)) {
+                dao.threadMentionDAO().insert(threadId.toString(), mention.getFullyQualifiedFieldValue(), type);
+              }
+            });
   }
 
+  private void storeAssignees(Thread thread) {
+    if (thread.getTask() == null || thread.getTask().getAssignees() == null) {
+      return;
+    }
+    for (EntityReference assignee : thread.getTask().getAssignees()) {
+      dao.threadAssigneeDAO().insert(thread.getId().toString(), assignee.getId().toString(), assignee.getType());
+    }
+  }
+
+  /** Add a post to a thread. Returns the thread with the new post only, or with all its posts when allPosts is set. */
   @Transaction
-  public Thread addPostToThread(String id, Post post, String userName) throws IOException {
+  public Thread addPostToThread(String id, Post post, String userName, boolean allPosts) throws IOException {
     // Query 1 - validate the user posting the message
     User fromUser = dao.userDAO().findEntityByName(post.getFrom());
 
-    // Query 2 - Find the thread
-    Thread thread = EntityUtil.validate(id, dao.feedDAO().findById(id), Thread.class);
-    thread.withUpdatedBy(userName).withUpdatedAt(System.currentTimeMillis());
-    FeedUtil.addPost(thread, post);
-
-    // TODO is rewriting entire json okay?
-    // Query 3 - update the JSON document for the feed
-    dao.feedDAO().update(id, JsonUtils.pojoToJson(thread));
-
-    // Query 4 - Add relation User -- repliedTo --> Thread
-    // Add relationship from thread to the user entity that is posting a reply
-    boolean relationAlreadyExists = false;
-    for (Post p : thread.getPosts()) {
-      if (p.getFrom().equals(post.getFrom())) {
-        relationAlreadyExists = true;
-        break;
-      }
-    }
-    if (!relationAlreadyExists) {
-      dao.relationshipDAO().insert(fromUser.getId(), thread.getId(), Entity.USER, Entity.THREAD, REPLIED_TO.ordinal());
+    // Query 2 - validate the thread
+    if (dao.feedDAO().findById(id) == null) {
+      throw EntityNotFoundException.byMessage(entityNotFound(Thread.class.getSimpleName(), id));
     }
 
-    // Add mentions into field relationship table
-    storeMentions(thread, post.getMessage());
+    // Query 3 - append the post, without reading or rewriting the thread and its other posts
+    dao.postDAO().insert(id, post.getId().toString(), post.getPostTs(), JsonUtils.pojoToJson(post));
 
-    sortPostsInThreads(List.of(thread));
+    // Query 4 - count the post in the thread. Concurrent posts are each counted by the database
+    dao.feedDAO().updatePostsCount(id, 1, System.currentTimeMillis(), userName);
 
-    return thread;
+    // Query 5 - Add relation User -- repliedTo --> Thread
+    // Add relationship from thread to the user entity that is posting a reply. Replying again updates the relationship
+    UUID threadId = UUID.fromString(id);
+    dao.relationshipDAO().insert(fromUser.getId(), threadId, Entity.USER, Entity.THREAD, REPLIED_TO.ordinal());
+
+    // Add mentions into field relationship table
+    storeMentions(threadId, post.getMessage());
+
+    if (allPosts) {
+      return get(id);
+    }
+    // Query 6 - the thread with the updated posts count, without reading its other posts
+    Thread thread = EntityUtil.validate(id, dao.feedDAO().findById(id), Thread.class);
+    return thread.withPosts(new ArrayList<>(List.of(post)));
   }
 
-  public Post getPostById(Thread thread, String postId) {
-    Optional<Post> post = thread.getPosts().stream().filter(p -> p.getId().equals(UUID.fromString(postId))).findAny();
-    if (post.isEmpty()) {
+  public Post getPostById(Thread thread, String postId) throws IOException {
+    String json = dao.postDAO().findById(thread.getId().toString(), postId);
+    if (json == null) {
       throw EntityNotFoundException.byMessage(entityNotFound("Post", postId));
     }
-    return post.get();
+    return JsonUtils.readValue(json, Post.class);
   }
 
   @Transaction
-  public DeleteResponse<Post> deletePost(Thread thread, Post post, String userName) throws IOException {
-    List<Post> posts = thread.getPosts();
-    // Remove the post to be deleted from the posts list
-    posts = posts.stream().filter(p -> !p.getId().equals(post.getId())).collect(Collectors.toList());
-    thread
-        .withUpdatedAt(System.currentTimeMillis())
-        .withUpdatedBy(userName)
-        .withPosts(posts)
-        .withPostsCount(posts.size());
-    // update the json document
-    dao.feedDAO().update(thread.getId().toString(), JsonUtils.pojoToJson(thread));
-
+  public DeleteResponse<Post> deletePost(Thread thread, Post post, String userName) {
+    String threadId = thread.getId().toString();
+    if (dao.postDAO().delete(threadId, post.getId().toString()) > 0) {
+      dao.feedDAO().updatePostsCount(threadId, -1, System.currentTimeMillis(), userName);
+    }
     return new DeleteResponse<>(post, RestUtil.ENTITY_DELETED);
   }
 
@@ -517,8 +529,12 @@ public class FeedRepository {
     // Delete all the field relationships to other entities
     dao.fieldRelationshipDAO().deleteAllByPrefix(id);
 
-    // Finally, delete the entity
+    // Finally, delete the entity and its posts
+    dao.threadAssigneeDAO().deleteAll(id);
+    dao.threadMentionDAO().deleteAll(id);
+    dao.postDAO().deleteAll(id);
     dao.feedDAO().delete(id);
+    updateThreadCount(thread, -1);
 
     LOG.info("{} deleted thread with id {}", deletedByUser, thread.getId());
     return new DeleteResponse<>(thread, RestUtil.ENTITY_DELETED);
@@ -537,9 +553,7 @@ public class FeedRepository {
     AtomicInteger totalCount = new AtomicInteger(0);
     if (link == null) {
       // Get thread count of all entities
-      result =
-          dao.feedDAO()
-              .listCountByEntityLink(null, Entity.THREAD, null, IS_ABOUT.ordinal(), type, taskStatus, isResolved);
+      result = dao.threadCountDAO().listCountByEntityLink(null, null, type, taskStatus, isResolved);
     } else {
       EntityLink entityLink = EntityLink.parse(link);
       EntityReference reference = EntityUtil.validateEntityLink(entityLink);
@@ -554,12 +568,10 @@ public class FeedRepository {
         }
       } else {
         result =
-            dao.feedDAO()
+            dao.threadCountDAO()
                 .listCountByEntityLink(
                     entityLink.getFullyQualifiedFieldValue(),
-                    Entity.THREAD,
                     entityLink.getFullyQualifiedFieldType(),
-                    IS_ABOUT.ordinal(),
                     type,
                     taskStatus,
                     isResolved);
@@ -577,8 +589,61 @@ public class FeedRepository {
   }
 
   public List<Post> listPosts(String threadId) throws IOException {
-    Thread thread = get(threadId);
-    return thread.getPosts();
+    return get(threadId).getPosts();
+  }
+
+  /**
+   * List a page of the posts of a thread, oldest first. Posts are read from the index on the thread, timestamp and id
+   * of the posts, so that the cost of a page does not depend on the length of the thread.
+   */
+  public PostList listPosts(String threadId, int limit, String before, String after) throws IOException {
+    Thread thread = EntityUtil.validate(threadId, dao.feedDAO().findById(threadId), Thread.class);
+    int total = thread.getPostsCount() == null ? 0 : thread.getPostsCount();
+    List<Post> posts;
+    String beforeCursor = null;
+    String afterCursor = null;
+    if (before != null) {
+      Post cursor = decodePostCursor(before);
+      posts = readPosts(dao.postDAO().listBefore(threadId, cursor.getPostTs(), cursor.getId().toString(), limit + 1));
+      if (posts.size() > limit) { // If extra result exists, then previous page exists - return before cursor
+        posts.remove(limit);
+        beforeCursor = getPostCursor(posts.get(limit - 1));
+      }
+      java.util.Collections.reverse(posts);
+      afterCursor = posts.isEmpty() ? null : getPostCursor(posts.get(posts.size() - 1));
+    } else {
+      Post cursor = after == null ? null : decodePostCursor(after);
+      posts =
+          cursor == null
+              ? readPosts(dao.postDAO().listAfter(threadId, -1, "", limit + 1))
+              : readPosts(dao.postDAO().listAfter(threadId, cursor.getPostTs(), cursor.getId().toString(), limit + 1));
+      beforeCursor = cursor == null || posts.isEmpty() ? null : getPostCursor(posts.get(0));
+      if (posts.size() > limit) { // If extra result exists, then next page exists - return after cursor
+        posts.remove(limit);
+        afterCursor = getPostCursor(posts.get(limit - 1));
+      }
+    }
+    return new PostList(posts, beforeCursor, afterCursor, total);
+  }
+
+  private static String getPostCursor(Post post) {
+    return post.getPostTs() + ":" + post.getId();
+  }
+
+  private static Post decodePostCursor(String cursor) {
+    String decoded = RestUtil.decodeCursor(cursor);
+    int separator = decoded.indexOf(':');
+    try {
+      return new Post()
+          .withPostTs(Long.parseLong(decoded.substring(0, separator)))
+          .withId(UUID.fromString(decoded.substring(separator + 1)));
+    } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("Invalid post cursor " + cursor);
+    }
+  }
+
+  private static List<Post> readPosts(List<String> jsons) throws IOException {
+    return JsonUtils.readObjects(jsons, Post.class);
   }
 
   /** List threads based on the filters and limits in the order of the updated timestamp. */
@@ -598,13 +663,17 @@ public class FeedRepository {
       throws IOException {
     List<Thread> threads;
     int total;
-    // Here updatedAt time is used for page marker since threads are sorted by last update time
+    // Here updatedAt time and id are used for page marker since threads are sorted by last update time and by id
     long time = Long.MAX_VALUE;
     // if paginationType is "before", it must have a pageMarker time.
     // "after" could be null to get the first page. In this case we set time to MAX_VALUE
     // to get any entry with updatedTime < MAX_VALUE
+    String threadId = paginationType == PaginationType.BEFORE ? MAX_THREAD_ID : "";
     if (pageMarker != null) {
-      time = Long.parseLong(RestUtil.decodeCursor(pageMarker));
+      String cursor = RestUtil.decodeCursor(pageMarker);
+      int separator = cursor.indexOf(':');
+      time = Long.parseLong(separator < 0 ? cursor : cursor.substring(0, separator));
+      threadId = separator < 0 ? threadId : cursor.substring(separator + 1);
     }
 
     // No filters are enabled. Listing all the threads
@@ -704,18 +773,19 @@ public class FeedRepository {
         if (ThreadType.Task.equals(threadType)) {
           // Only two filter types are supported for tasks -> ASSIGNED_TO, ASSIGNED_BY
           if (filterType == FilterType.ASSIGNED_BY) {
-            filteredThreads = getTasksAssignedBy(userId, limit + 1, time, taskStatus, paginationType);
+            filteredThreads = getTasksAssignedBy(userId, limit + 1, time, threadId, taskStatus, paginationType);
           } else if (filterType == FilterType.ASSIGNED_TO) {
-            filteredThreads = getTasksAssignedTo(userId, limit + 1, time, taskStatus, paginationType);
+            filteredThreads = getTasksAssignedTo(userId, limit + 1, time, threadId, taskStatus, paginationType);
           } else {
             // Get all the tasks assigned to or created by the user
-            filteredThreads = getTasksOfUser(userId, limit + 1, time, taskStatus, paginationType);
+            filteredThreads = getTasksOfUser(userId, limit + 1, time, threadId, taskStatus, paginationType);
           }
         } else {
           if (filterType == FilterType.FOLLOWS) {
             filteredThreads = getThreadsByFollows(userId, limit + 1, time, threadType, isResolved, paginationType);
           } else if (filterType == FilterType.MENTIONS) {
-            filteredThreads = getThreadsByMentions(userId, limit + 1, time, threadType, isResolved, paginationType);
+            filteredThreads =
+                getThreadsByMentions(userId, limit + 1, time, threadId, threadType, isResolved, paginationType);
           } else {
             filteredThreads = getThreadsByOwner(userId, limit + 1, time, threadType, isResolved, paginationType);
           }
@@ -724,7 +794,7 @@ public class FeedRepository {
         total = filteredThreads.getTotalCount();
       }
     }
-    limitPostsInThreads(threads, limitPosts);
+    populateLatestPosts(threads, limitPosts);
     populateAssignees(threads);
 
     String beforeCursor = null;
@@ -732,19 +802,24 @@ public class FeedRepository {
     if (paginationType == PaginationType.BEFORE) {
       if (threads.size() > limit) { // If extra result exists, then previous page exists - return before cursor
         threads.remove(0);
-        beforeCursor = threads.get(0).getUpdatedAt().toString();
+        beforeCursor = getThreadCursor(threads.get(0));
       }
-      afterCursor = threads.get(threads.size() - 1).getUpdatedAt().toString();
+      afterCursor = getThreadCursor(threads.get(threads.size() - 1));
     } else {
-      beforeCursor = pageMarker == null ? null : threads.get(0).getUpdatedAt().toString();
+      beforeCursor = pageMarker == null ? null : getThreadCursor(threads.get(0));
       if (threads.size() > limit) { // If extra result exists, then next page exists - return after cursor
         threads.remove(limit);
-        afterCursor = threads.get(limit - 1).getUpdatedAt().toString();
+        afterCursor = getThreadCursor(threads.get(limit - 1));
       }
     }
     return new ResultList<>(threads, beforeCursor, afterCursor, total);
   }
 
+  /** Cursor of a thread. The id orders the threads updated at the same time, for the filters that support it. */
+  private static String getThreadCursor(Thread thread) {
+    return thread.getUpdatedAt() + ":" + thread.getId();
+  }
+
   private void storeReactions(Thread thread, String user) {
     // Reactions are captured at the thread level. If the user reacted to a post of a thread,
     // it will still be tracked as "user reacted to thread" since this will only be used to filter
@@ -766,18 +841,11 @@ public class FeedRepository {
     // Update the attributes
     populateUserReactions(updated.getReactions());
 
-    // delete the existing post and add the updated post
-    List<Post> posts = thread.getPosts();
-    posts = posts.stream().filter(p -> !p.getId().equals(post.getId())).collect(Collectors.toList());
-    posts.add(updated);
-    thread.withPosts(posts).withUpdatedAt(System.currentTimeMillis()).withUpdatedBy(user);
-
     if (!updated.getReactions().isEmpty()) {
       updated.getReactions().forEach(reaction -> storeReactions(thread, reaction.getUser().getName()));
     }
 
-    sortPosts(thread);
-    String change = patchUpdate(thread, post, updated) ? RestUtil.ENTITY_UPDATED : RestUtil.ENTITY_NO_CHANGE;
+    String change = patchUpdate(thread, post, updated, user) ? RestUtil.ENTITY_UPDATED : RestUtil.ENTITY_NO_CHANGE;
     return new PatchResponse<>(Status.OK, updated, change);
   }
 
@@ -865,22 +933,68 @@ public class FeedRepository {
     // if there is no change, there is no need to apply patch
     if (fieldsChanged(original, updated)) {
       populateUserReactions(updated.getReactions());
-      dao.feedDAO().update(updated.getId().toString(), JsonUtils.pojoToJson(updated));
+      storeThread(updated);
+      if (!Objects.equals(original.getResolved(), updated.getResolved())
+          || getTaskStatus(original) != getTaskStatus(updated)) {
+        updateThreadCount(original, -1);
+        updateThreadCount(updated, 1);
+      }
+      if (original.getTask() != null) {
+        // Replace the assignees, which can be changed by the patch
+        dao.threadAssigneeDAO().deleteAll(updated.getId().toString());
+        storeAssignees(updated);
+      }
       return true;
     }
     return false;
   }
 
-  private boolean patchUpdate(Thread thread, Post originalPost, Post updatedPost) throws JsonProcessingException {
-    // store the updated post
+  private boolean patchUpdate(Thread thread, Post originalPost, Post updatedPost, String user)
+      throws JsonProcessingException {
+    // store the updated post, and mark the thread updated
     // if there is no change, there is no need to apply patch
     if (fieldsChanged(originalPost, updatedPost)) {
-      dao.feedDAO().update(thread.getId().toString(), JsonUtils.pojoToJson(thread));
+      String threadId = thread.getId().toString();
+      dao.postDAO().update(threadId, updatedPost.getId().toString(), JsonUtils.pojoToJson(updatedPost));
+      dao.feedDAO().updatePostsCount(threadId, 0, System.currentTimeMillis(), user);
       return true;
     }
     return false;
   }
 
+  /** Add the thread to the count of threads with its entity link, type, task status and resolved state */
+  private void updateThreadCount(Thread thread, int delta) {
+    updateThreadCount(thread, EntityLink.parse(thread.getAbout()), delta);
+  }
+
+  private void updateThreadCount(Thread thread, EntityLink about, int delta) {
+    TaskStatus taskStatus = getTaskStatus(thread);
+    dao.threadCountDAO()
+        .update(
+            thread.getAbout(),
+            about.getFullyQualifiedFieldValue(),
+            about.getFullyQualifiedFieldType(),
+            thread.getType().value(),
+            taskStatus == null ? "" : taskStatus.value(),
+            Boolean.TRUE.equals(thread.getResolved()),
+            delta);
+  }
+
+  private static TaskStatus getTaskStatus(Thread thread) {
+    return thread.getTask() == null ? null : thread.getTask().getStatus();
+  }
+
+  /** Store the thread without its posts, which are stored in their own table */
+  private void storeThread(Thread thread) throws JsonProcessingException {
+    List<Post> posts = thread.getPosts();
+    thread.setPosts(new ArrayList<>());
+    try {
+      dao.feedDAO().update(thread.getId().toString(), JsonUtils.pojoToJson(thread));
+    } finally {
+      thread.setPosts(posts);
+    }
+  }
+
   private boolean fieldsChanged(Post original, Post updated) {
     // Patch supports message, and reactions for now
     return !original.getMessage().equals(updated.getMessage())
@@ -911,64 +1025,41 @@ public class FeedRepository {
     thread.getPosts().sort(Comparator.comparing(Post::getPostTs));
   }
 
-  private void sortPostsInThreads(List<Thread> threads) {
+  /** Populate the last "n" number of posts within each thread, read for all the threads with a single query. */
+  private void populateLatestPosts(List<Thread> threads, int limitPosts) throws IOException {
+    Map<String, Thread> threadsById = new HashMap<>();
     for (Thread t : threads) {
-      sortPosts(t);
+      t.withPosts(new ArrayList<>());
+      threadsById.put(t.getId().toString(), t);
     }
-  }
-
-  /** Limit the number of posts within each thread. */
-  private void limitPostsInThreads(List<Thread> threads, int limitPosts) {
-    for (Thread t : threads) {
-      List<Post> posts = t.getPosts();
-      sortPosts(t);
-      if (posts.size() > limitPosts) {
-        // Only keep the last "n" number of posts
-        posts = posts.subList(posts.size() - limitPosts, posts.size());
-        t.withPosts(posts);
-      }
+    if (threadsById.isEmpty() || limitPosts <= 0) {
+      return;
+    }
+    for (Pair<String, String> post : dao.postDAO().listLatest(new ArrayList<>(threadsById.keySet()), limitPosts)) {
+      threadsById.get(post.getLeft()).getPosts().add(JsonUtils.readValue(post.getRight(), Post.class));
     }
   }
 
-  private String getUserTeamJsonMysql(String userId, List<String> teamIds) {
-    // Build a string like this for the tasks filter
-    // [{"id":"9e78b924-b75c-4141-9845-1b3eb81fdc1b","type":"team"},{"id":"fe21e1ba-ce00-49fa-8b62-3c9a6669a11b","type":"user"}]
-    List<String> result = new ArrayList<>();
-    JSONObject json = getUserTeamJson(userId, "user");
-    result.add(json.toString());
-    teamIds.forEach(id -> result.add(getUserTeamJson(id, "team").toString()));
-    return result.toString();
-  }
-
-  private List<String> getUserTeamJsonPostgres(String userId, List<String> teamIds) {
-    // Build a list of objects like this for the tasks filter
-    // [{"id":"9e78b924-b75c-4141-9845-1b3eb81fdc1b","type":"team"}]','[{"id":"fe21e1ba-ce00-49fa-8b62-3c9a6669a11b","type":"user"}]
-    List<String> result = new ArrayList<>();
-    JSONObject json = getUserTeamJson(userId, "user");
-    result.add(List.of(json.toString()).toString());
-    teamIds.forEach(id -> result.add(List.of(getUserTeamJson(id, "team").toString()).toString()));
-    return result;
-  }
-
-  private JSONObject getUserTeamJson(String userId, String type) {
-    return new JSONObject().put("id", userId).put("type", type);
+  /** Ids of the user and the teams of the user, that tasks can be assigned to */
+  private List<String> getAssigneeIds(String userId) {
+    List<String> assigneeIds = new ArrayList<>(getTeamIds(userId));
+    assigneeIds.add(userId);
+    return assigneeIds;
   }
 
   /** Return the tasks assigned to the user. */
   private FilteredThreads getTasksAssignedTo(
-      String userId, int limit, long time, TaskStatus status, PaginationType paginationType) throws IOException {
-    List<String> teamIds = getTeamIds(userId);
+      String userId, int limit, long time, String threadId, TaskStatus status, PaginationType paginationType)
+      throws IOException {
+    List<String> assigneeIds = getAssigneeIds(userId);
     List<String> jsons;
-    List<String> userTeamJsonPostgres = getUserTeamJsonPostgres(userId, teamIds);
-    String userTeamJsonMysql = getUserTeamJsonMysql(userId, teamIds);
     if (paginationType == PaginationType.BEFORE) {
-      jsons = dao.feedDAO().listTasksAssignedToBefore(userTeamJsonPostgres, userTeamJsonMysql, limit, time, status);
+      jsons = dao.feedDAO().listTasksAssignedToBefore(assigneeIds, limit, time, threadId, status);
     } else {
-      jsons = dao.feedDAO().listTasksAssignedToAfter(userTeamJsonPostgres, userTeamJsonMysql, limit, time, status);
+      jsons = dao.feedDAO().listTasksAssignedToAfter(assigneeIds, limit, time, threadId, status);
     }
     List<Thread> threads = JsonUtils.readObjects(jsons, Thread.class);
-    int totalCount = dao.feedDAO().listCountTasksAssignedTo(userTeamJsonPostgres, userTeamJsonMysql, status);
-    sortPostsInThreads(threads);
+    int totalCount = dao.feedDAO().listCountTasksAssignedTo(assigneeIds, status);
     return new FilteredThreads(threads, totalCount);
   }
 
@@ -1005,40 +1096,36 @@ public class FeedRepository {
 
   /** Return the tasks created by or assigned to the user. */
   private FilteredThreads getTasksOfUser(
-      String userId, int limit, long time, TaskStatus status, PaginationType paginationType) throws IOException {
+      String userId, int limit, long time, String threadId, TaskStatus status, PaginationType paginationType)
+      throws IOException {
     User user = dao.userDAO().findEntityById(UUID.fromString(userId));
     String username = user.getName();
-    List<String> teamIds = getTeamIds(userId);
-    List<String> userTeamJsonPostgres = getUserTeamJsonPostgres(userId, teamIds);
-    String userTeamJsonMysql = getUserTeamJsonMysql(userId, teamIds);
+    List<String> assigneeIds = getAssigneeIds(userId);
     List<String> jsons;
     if (paginationType == PaginationType.BEFORE) {
-      jsons =
-          dao.feedDAO().listTasksOfUserBefore(userTeamJsonPostgres, userTeamJsonMysql, username, limit, time, status);
+      jsons = dao.feedDAO().listTasksOfUserBefore(assigneeIds, username, limit, time, threadId, status);
     } else {
-      jsons =
-          dao.feedDAO().listTasksOfUserAfter(userTeamJsonPostgres, userTeamJsonMysql, username, limit, time, status);
+      jsons = dao.feedDAO().listTasksOfUserAfter(assigneeIds, username, limit, time, threadId, status);
     }
     List<Thread> threads = JsonUtils.readObjects(jsons, Thread.class);
-    int totalCount = dao.feedDAO().listCountTasksOfUser(userTeamJsonPostgres, userTeamJsonMysql, username, status);
-    sortPostsInThreads(threads);
+    int totalCount = dao.feedDAO().listCountTasksOfUser(assigneeIds, username, status);
     return new FilteredThreads(threads, totalCount);
   }
 
   /** Return the tasks created by the user. */
   private FilteredThreads getTasksAssignedBy(
-      String userId, int limit, long time, TaskStatus status, PaginationType paginationType) throws IOException {
+      String userId, int limit, long time, String threadId, TaskStatus status, PaginationType paginationType)
+      throws IOException {
     User user = dao.userDAO().findEntityById(UUID.fromString(userId));
     String username = user.getName();
     List<String> jsons;
     if (paginationType == PaginationType.BEFORE) {
-      jsons = dao.feedDAO().listTasksAssignedByBefore(username, limit, time, status);
+      jsons = dao.feedDAO().listTasksAssignedByBefore(username, limit, time, threadId, status);
     } else {
-      jsons = dao.feedDAO().listTasksAssignedByAfter(username, limit, time, status);
+      jsons = dao.feedDAO().listTasksAssignedByAfter(username, limit, time, threadId, status);
     }
     List<Thread> threads = JsonUtils.readObjects(jsons, Thread.class);
     int totalCount = dao.feedDAO().listCountTasksAssignedBy(username, status);
-    sortPostsInThreads(threads);
     return new FilteredThreads(threads, totalCount);
   }
 
@@ -1060,7 +1147,6 @@ public class FeedRepository {
     }
     List<Thread> threads = JsonUtils.readObjects(jsons, Thread.class);
     int totalCount = dao.feedDAO().listCountThreadsByOwner(userId, teamIds, type, isResolved);
-    sortPostsInThreads(threads);
     return new FilteredThreads(threads, totalCount);
   }
 
@@ -1077,7 +1163,13 @@ public class FeedRepository {
 
   /** Returns the threads where the user or the team they belong to were mentioned by other users with @mention. */
   private FilteredThreads getThreadsByMentions(
-      String userId, int limit, long time, ThreadType type, boolean isResolved, PaginationType paginationType)
+      String userId,
+      int limit,
+      long time,
+      String threadId,
+      ThreadType type,
+      boolean isResolved,
+      PaginationType paginationType)
       throws IOException {
     List<EntityReference> teams =
         populateEntityReferences(
@@ -1092,21 +1184,13 @@ public class FeedRepository {
     List<String> jsons;
     if (paginationType == PaginationType.BEFORE) {
       jsons =
-          dao.feedDAO()
-              .listThreadsByMentionsBefore(
-                  user.getName(), teamNames, limit, time, type, isResolved, Relationship.MENTIONED_IN.ordinal());
+          dao.feedDAO().listThreadsByMentionsBefore(user.getName(), teamNames, limit, time, threadId, type, isResolved);
     } else {
       jsons =
-          dao.feedDAO()
-              .listThreadsByMentionsAfter(
-                  user.getName(), teamNames, limit, time, type, isResolved, Relationship.MENTIONED_IN.ordinal());
+          dao.feedDAO().listThreadsByMentionsAfter(user.getName(), teamNames, limit, time, threadId, type, isResolved);
     }
     List<Thread> threads = JsonUtils.readObjects(jsons, Thread.class);
-    int totalCount =
-        dao.feedDAO()
-            .listCountThreadsByMentions(
-                user.getName(), teamNames, type, isResolved, Relationship.MENTIONED_IN.ordinal());
-    sortPostsInThreads(threads);
+    int totalCount = dao.feedDAO().listCountThreadsByMentions(user.getName(), teamNames, type, isResolved);
     return new FilteredThreads(threads, totalCount);
   }
 
@@ -1130,7 +1214,6 @@ public class FeedRepository {
     List<Thread> threads = JsonUtils.readObjects(jsons, Thread.class);
     int totalCount =
         dao.feedDAO().listCountThreadsByFollows(userId, teamIds, type, isResolved, Relationship.FOLLOWS.ordinal());
-    sortPostsInThreads(threads);
     return new FilteredThreads(threads, totalCount);
   }
 
@@ -0,0 +1,315 @@
+/*
+ *  Copyright 2021 Collate
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openmetadata.service.jdbi3;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.openmetadata.schema.type.Relationship;
+import org.openmetadata.service.jdbi3.CollectionDAO.EntityRelationshipObject;
+
+/**
+ * In-memory index of the lineage graph made of {@link Relationship#UPSTREAM} relationships between entities. Each
+ * entity is mapped to an int and the upstream and downstream edges of an entity are stored as int arrays, which keeps
+ * the index compact and the traversal free of database queries. The index is optional and is used by {@link
+ * LineageRepository} only when it is enabled in the configuration.
+ *
+ * <p>The index is loaded from {@code entity_relationship} at startup and is kept current by {@link LineageRepository}
+ * when lineage is added or deleted and by {@link EntityRepository} when an entity is hard deleted. The index is updated
+ * with {@link AfterCommit} once the writes of the request are committed, so that a traversal does not return an edge
+ * that is not in the database yet. Changes made by other servers are not reflected until restart, so the database
+ * remains the source of truth for the edges returned.
+ */
+@Slf4j
+public class LineageGraph {
+  private static final int LOAD_BATCH_SIZE = 10000;
+  private static final int INITIAL_NODE_CAPACITY = 1024;
+  private static final int INITIAL_EDGE_CAPACITY = 2;
+
+  private static LineageGraph INSTANCE;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<UUID, Integer> nodeIndex = new HashMap<>();
+  private UUID[] nodeIds = new UUID[INITIAL_NODE_CAPACITY];
+  private String[] nodeTypes = new String[INITIAL_NODE_CAPACITY];
+  private int[][] upstream = new int[INITIAL_NODE_CAPACITY][]; // upstream[n] has nodes with an edge to n
+  private int[] upstreamCount = new int[INITIAL_NODE_CAPACITY];
+  private int[][] downstream = new int[INITIAL_NODE_CAPACITY][]; // downstream[n] has nodes with an edge from n
+  private int[] downstreamCount = new int[INITIAL_NODE_CAPACITY];
+  private int nodeCount = 0;
+  private long edgeCount = 0;
+
+  LineageGraph() {}
+
+  // Expected to be called only once from the LineageResource when the in-memory lineage index is enabled
+  public static void initialize(CollectionDAO dao) {
+    if (INSTANCE != null) {
+      LOG.info("Lineage graph is already initialized");
+      return;
+    }
+    long start = System.currentTimeMillis();
+    LineageGraph graph = new LineageGraph();
+    graph.load(dao);
+    INSTANCE = graph;
+    LOG.info(
+        "Lineage graph is initialized with {} nodes and {} edges in {} ms using approximately {} KB",
+        graph.nodeCount,
+        graph.edgeCount,
+        System.currentTimeMillis() - start,
+        graph.estimateSize() / 1024);
+  }
+
+  /** Returns the lineage graph or {@code null} when the in-memory lineage index is not enabled */
+  public static LineageGraph getInstance() {
+    return INSTANCE;
+  }
+
+  private void load(CollectionDAO dao) {
+    String fromId = "";
+    String toId = "";
+    List<EntityRelationshipObject> records;
+    do {
+      records = dao.relationshipDAO().listAfter(Relationship.UPSTREAM.ordinal(), fromId, toId, LOAD_BATCH_SIZE);
+      for (EntityRelationshipObject rec : records) {
+        UUID from = UUID.fromString(rec.getFromId());
+        addEdge(from, rec.getFromEntity(), UUID.fromString(rec.getToId()), rec.getToEntity());
+      }
+      if (!records.isEmpty()) {
+        EntityRelationshipObject last = records.get(records.size() - 1);
+        fromId = last.getFromId();
+        toId = last.getToId();
+      }
+    } while (records.size() == LOAD_BATCH_SIZE);
+  }
+
+  public void addEdge(UUID fromId, String fromType, UUID toId, String toType) {
+    lock.writeLock().lock();
+    try {
+      int from = getOrAddNode(fromId, fromType);
+      int to = getOrAddNode(toId, toType);
+      if (indexOf(downstream[from], downstreamCount[from], to) >= 0) {
+        return; // Edge already exists
+      }
+      downstream[from] = append(downstream[from], downstreamCount[from]++, to);
+      upstream[to] = append(upstream[to], upstreamCount[to]++, from);
+      edgeCount++;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void removeEdge(UUID fromId, UUID toId) {
+    lock.writeLock().lock();
+    try {
+      Integer from = nodeIndex.get(fromId);
+      Integer to = nodeIndex.get(toId);
+      if (from == null || to == null) {
+        return;
+      }
+      if (remove(downstream[from], downstreamCount[from], to)) {
+        downstreamCount[from]--;
+        remove(upstream[to], upstreamCount[to], from);
+        upstreamCount[to]--;
+        edgeCount--;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Remove an entity and all its lineage edges. Index of a removed node is not reused. */
+  public void removeNode(UUID id) {
+    lock.writeLock().lock();
+    try {
+      Integer node = nodeIndex.remove(id);
+      if (node == null) {
+        return;
+      }
+      boolean selfEdge = indexOf(downstream[node], downstreamCount[node], node) >= 0;
+      edgeCount -= upstreamCount[node] + downstreamCount[node] - (selfEdge ? 1 : 0);
+      for (int i = 0; i < upstreamCount[node]; i++) {
+        int from = upstream[node][i];
+        if (from != node && remove(downstream[from], downstreamCount[from], node)) {
+          downstreamCount[from]--;
+        }
+      }
+      for (int i = 0; i < downstreamCount[node]; i++) {
+        int to = downstream[node][i];
+        if (to != node && remove(upstream[to], upstreamCount[to], node)) {
+          upstreamCount[to]--;
+        }
+      }
+      upstream[node] = null;
+      downstream[node] = null;
+      upstreamCount[node] = 0;
+      downstreamCount[node] = 0;
+      nodeIds[node] = null;
+      nodeTypes[node] = null;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Traverse lineage breadth-first from an entity up to {@code depth} levels in the upstream or downstream direction.
+   * Nodes found are added to {@code nodes}, which maps the id of a node to its entity type, until it has {@code
+   * maxNodes} nodes. Only the edges between the entity and the nodes in {@code nodes} are returned. Each node is
+   * expanded at most once, so the traversal is safe for cycles.
+   */
+  public List<LineageEdge> getEdges(
+      UUID id, int depth, boolean upstreamDirection, Map<UUID, String> nodes, int maxNodes) {
+    List<LineageEdge> edges = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      Integer start = nodeIndex.get(id);
+      if (start == null) {
+        return edges;
+      }
+      BitSet visited = new BitSet(nodeCount);
+      visited.set(start);
+      int[] frontier = {start};
+      int frontierSize = 1;
+      for (int level = 0; level < depth && frontierSize > 0; level++) {
+        int[] nextFrontier = new int[INITIAL_EDGE_CAPACITY];
+        int nextFrontierSize = 0;
+        for (int i = 0; i < frontierSize; i++) {
+          int node = frontier[i];
+          int[] adjacent = upstreamDirection ? upstream[node] : downstream[node];
+          int adjacentCount = upstreamDirection ? upstreamCount[node] : downstreamCount[node];
+          for (int j = 0; j < adjacentCount; j++) {
+            int other = adjacent[j];
+            if (other != start && !nodes.containsKey(nodeIds[other])) {
+              if (nodes.size() >= maxNodes) {
+                continue; // Lineage is truncated to max nodes
+              }
+              nodes.put(nodeIds[other], nodeTypes[other]);
+            }
+            edges.add(upstreamDirection ? getEdge(other, node) : getEdge(node, other));
+            if (!visited.get(other)) {
+              visited.set(other);
+              nextFrontier = append(nextFrontier, nextFrontierSize++, other);
+            }
+          }
+        }
+        frontier = nextFrontier;
+        frontierSize = nextFrontierSize;
+      }
+      return edges;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public int getNodeCount() {
+    lock.readLock().lock();
+    try {
+      return nodeIndex.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public long getEdgeCount() {
+    lock.readLock().lock();
+    try {
+      return edgeCount;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Approximate heap used by the index in bytes */
+  long estimateSize() {
+    long size = (long) nodeIds.length * (4 + 4 + 4 + 4 + 4 + 4); // References and counts in the node arrays
+    size += nodeIndex.size() * (32L + 32 + 16 + 40); // Map entry, UUID, Integer, and the array header per node
+    for (int i = 0; i < nodeCount; i++) {
+      size += upstream[i] == null ? 0 : 16 + 4L * upstream[i].length;
+      size += downstream[i] == null ? 0 : 16 + 4L * downstream[i].length;
+    }
+    return size;
+  }
+
+  private LineageEdge getEdge(int from, int to) {
+    return new LineageEdge(nodeIds[from], nodeTypes[from], nodeIds[to], nodeTypes[to]);
+  }
+
+  private int getOrAddNode(UUID id, String entityType) {
+    Integer node = nodeIndex.get(id);
+    if (node != null) {
+      return node;
+    }
+    if (nodeCount == nodeIds.length) {
+      int capacity = nodeIds.length * 2;
+      nodeIds = Arrays.copyOf(nodeIds, capacity);
+      nodeTypes = Arrays.copyOf(nodeTypes, capacity);
+      upstream = Arrays.copyOf(upstream, capacity);
+      upstreamCount = Arrays.copyOf(upstreamCount, capacity);
+      downstream = Arrays.copyOf(downstream, capacity);
+      downstreamCount = Arrays.copyOf(downstreamCount, capacity);
+    }
+    node = nodeCount++;
+    nodeIds[node] = id;
+    nodeTypes[node] = entityType.intern();
+    nodeIndex.put(id, node);
+    return node;
+  }
+
+  /** Set {@code value} at {@code index} growing the array if needed and return the array */
+  private static int[] append(int[] array, int index, int value) {
+    if (array == null) {
+      array = new int[INITIAL_EDGE_CAPACITY];
+    } else if (index == array.length) {
+      array = Arrays.copyOf(array, array.length * 2);
+    }
+    array[index] = value;
+    return array;
+  }
+
+  private static int indexOf(int[] array, int count, int value) {
+    for (int i = 0; i < count; i++) {
+      if (array[i] == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** Remove {@code value} by moving the last element in its place. Caller decrements the count on success. */
+  private static boolean remove(int[] array, int count, int value) {
+    int index = indexOf(array, count, value);
+    if (index < 0) {
+      return false;
+    }
+    array[index] = array[count - 1];
+    return true;
+  }
+
+  @Getter
+  @AllArgsConstructor
+  public static class LineageEdge {
+    private final UUID fromId;
+    private final String fromType;
+    private final UUID toId;
+    private final String toType;
+  }
+}
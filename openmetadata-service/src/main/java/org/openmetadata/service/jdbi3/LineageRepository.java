@@ -15,11 +15,19 @@ package org.openmetadata.service.jdbi3;
 
 import static org.openmetadata.common.utils.CommonUtil.listOrEmpty;
 
+import com.google.common.collect.Lists;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
 import org.jdbi.v3.sqlobject.transaction.Transaction;
 import org.openmetadata.schema.api.lineage.AddLineage;
 import org.openmetadata.schema.entity.data.Table;
@@ -31,15 +39,26 @@ import org.openmetadata.schema.type.Include;
 import org.openmetadata.schema.type.LineageDetails;
 import org.openmetadata.schema.type.Relationship;
 import org.openmetadata.service.Entity;
-import org.openmetadata.service.jdbi3.CollectionDAO.EntityRelationshipRecord;
+import org.openmetadata.service.jdbi3.CollectionDAO.EntityRelationshipObject;
+import org.openmetadata.service.jdbi3.LineageGraph.LineageEdge;
 import org.openmetadata.service.util.FullyQualifiedName;
 import org.openmetadata.service.util.JsonUtils;
 
+@Slf4j
 public class LineageRepository {
+  /** Default maximum number of nodes returned in the lineage of an entity */
+  public static final int DEFAULT_MAX_NODES = 10000;
+
   private final CollectionDAO dao;
+  private final int maxNodes;
 
   public LineageRepository(CollectionDAO dao) {
+    this(dao, DEFAULT_MAX_NODES);
+  }
+
+  public LineageRepository(CollectionDAO dao, int maxNodes) {
     this.dao = dao;
+    this.maxNodes = maxNodes;
   }
 
   @Transaction
@@ -71,6 +90,14 @@ public class LineageRepository {
     // Finally, add lineage relationship
     dao.relationshipDAO()
         .insert(from.getId(), to.getId(), from.getType(), to.getType(), Relationship.UPSTREAM.ordinal(), detailsJson);
+    LineageGraph graph = LineageGraph.getInstance();
+    if (graph != null) {
+      UUID fromId = from.getId();
+      String fromType = from.getType();
+      UUID toId = to.getId();
+      String toType = to.getType();
+      AfterCommit.run(() -> graph.addEdge(fromId, fromType, toId, toType));
+    }
   }
 
   private String validateLineageDetails(EntityReference from, EntityReference to, LineageDetails details)
@@ -110,88 +137,186 @@ public class LineageRepository {
     EntityReference to = Entity.getEntityReferenceById(toEntity, UUID.fromString(toId), Include.NON_DELETED);
 
     // Finally, delete lineage relationship
-    return dao.relationshipDAO()
-            .delete(
-                from.getId().toString(),
-                from.getType(),
-                to.getId().toString(),
-                to.getType(),
-                Relationship.UPSTREAM.ordinal())
-        > 0;
+    boolean deleted =
+        dao.relationshipDAO()
+                .delete(
+                    from.getId().toString(),
+                    from.getType(),
+                    to.getId().toString(),
+                    to.getType(),
+                    Relationship.UPSTREAM.ordinal())
+            > 0;
+    LineageGraph graph = LineageGraph.getInstance();
+    if (deleted && graph != null) {
+      AfterCommit.run(() -> graph.removeEdge(from.getId(), to.getId()));
+    }
+    return deleted;
   }
 
   private EntityLineage getLineage(EntityReference primary, int upstreamDepth, int downstreamDepth) throws IOException {
-    List<EntityReference> entities = new ArrayList<>();
-    EntityLineage lineage =
-        new EntityLineage()
-            .withEntity(primary)
-            .withNodes(entities)
-            .withUpstreamEdges(new ArrayList<>())
-            .withDownstreamEdges(new ArrayList<>());
-    getUpstreamLineage(primary.getId(), primary.getType(), lineage, upstreamDepth);
-    getDownstreamLineage(primary.getId(), primary.getType(), lineage, downstreamDepth);
-
-    // Remove duplicate nodes
-    lineage.withNodes(lineage.getNodes().stream().distinct().collect(Collectors.toList()));
-    return lineage;
+    LineageGraph graph = LineageGraph.getInstance();
+    if (graph != null) {
+      return getLineage(graph, primary, upstreamDepth, downstreamDepth);
+    }
+
+    // Nodes are shared by upstream and downstream traversal so that an entity is resolved and counted only once
+    Map<UUID, EntityReference> nodes = new LinkedHashMap<>();
+    List<Edge> upstreamEdges = getLineageEdges(primary, upstreamDepth, true, nodes);
+    List<Edge> downstreamEdges = getLineageEdges(primary, downstreamDepth, false, nodes);
+    return new EntityLineage()
+        .withEntity(primary)
+        .withNodes(new ArrayList<>(nodes.values()))
+        .withUpstreamEdges(upstreamEdges)
+        .withDownstreamEdges(downstreamEdges);
+  }
+
+  /**
+   * Traverse lineage breadth-first one level at a time in the upstream or downstream direction. The edges of all the
+   * nodes in a level are fetched with a single query and the references of the newly found nodes are resolved in bulk.
+   * Each node is expanded at most once, so shared ancestors and cycles do not result in repeated queries or duplicate
+   * edges. Once {@code maxNodes} nodes are found, edges to any other node are not returned.
+   */
+  private List<Edge> getLineageEdges(
+      EntityReference primary, int depth, boolean upstream, Map<UUID, EntityReference> nodes) throws IOException {
+    List<Edge> edges = new ArrayList<>();
+    Set<UUID> visited = new HashSet<>();
+    visited.add(primary.getId());
+    List<UUID> frontier = List.of(primary.getId());
+    for (int level = 0; level < depth && !frontier.isEmpty(); level++) {
+      List<String> frontierIds = frontier.stream().map(UUID::toString).collect(Collectors.toList());
+      List<EntityRelationshipObject> records = findLineageRecords(frontierIds, upstream);
+      addNodes(primary, records, upstream, nodes);
+
+      List<UUID> nextFrontier = new ArrayList<>();
+      for (EntityRelationshipObject rec : records) {
+        UUID fromId = UUID.fromString(rec.getFromId());
+        UUID toId = UUID.fromString(rec.getToId());
+        UUID otherId = upstream ? fromId : toId;
+        if (!otherId.equals(primary.getId()) && !nodes.containsKey(otherId)) {
+          continue; // Node was not added due to the max nodes limit or because the entity does not exist
+        }
+        LineageDetails lineageDetails = JsonUtils.readValue(rec.getJson(), LineageDetails.class);
+        edges.add(new Edge().withFromEntity(fromId).withToEntity(toId).withLineageDetails(lineageDetails));
+        if (visited.add(otherId)) {
+          nextFrontier.add(otherId);
+        }
+      }
+      frontier = nextFrontier;
+    }
+    return edges;
+  }
+
+  /** Get upstream or downstream lineage relationships of a set of nodes */
+  private List<EntityRelationshipObject> findLineageRecords(List<String> ids, boolean upstream) {
+    List<EntityRelationshipObject> records = new ArrayList<>();
+    for (List<String> batch : Lists.partition(ids, BulkFieldLoader.BATCH_SIZE)) {
+      records.addAll(
+          upstream
+              ? dao.relationshipDAO().findFromBatch(batch, Relationship.UPSTREAM.ordinal())
+              : dao.relationshipDAO().findToBatch(batch, Relationship.UPSTREAM.ordinal()));
+    }
+    return records;
   }
 
-  private void getUpstreamLineage(UUID id, String entityType, EntityLineage lineage, int upstreamDepth)
+  /** Resolve the references of the nodes seen for the first time in the given records */
+  private void addNodes(
+      EntityReference primary,
+      List<EntityRelationshipObject> records,
+      boolean upstream,
+      Map<UUID, EntityReference> nodes)
       throws IOException {
-    if (upstreamDepth == 0) {
-      return;
+    Map<UUID, String> newNodes = new LinkedHashMap<>();
+    for (EntityRelationshipObject rec : records) {
+      UUID id = UUID.fromString(upstream ? rec.getFromId() : rec.getToId());
+      if (id.equals(primary.getId()) || nodes.containsKey(id) || newNodes.containsKey(id)) {
+        continue;
+      }
+      if (nodes.size() + newNodes.size() >= maxNodes) {
+        LOG.warn("Lineage of {} {} is truncated to {} nodes", primary.getType(), primary.getId(), maxNodes);
+        break;
+      }
+      newNodes.put(id, upstream ? rec.getFromEntity() : rec.getToEntity());
     }
-    // from this id ---> find other ids
-    List<EntityRelationshipRecord> records =
-        dao.relationshipDAO().findFrom(id.toString(), entityType, Relationship.UPSTREAM.ordinal());
-
-    final List<EntityReference> upstreamEntityReferences = new ArrayList<>();
-    for (EntityRelationshipRecord entityRelationshipRecord : records) {
-      EntityReference ref =
-          Entity.getEntityReferenceById(
-              entityRelationshipRecord.getType(), entityRelationshipRecord.getId(), Include.ALL);
-      LineageDetails lineageDetails = JsonUtils.readValue(entityRelationshipRecord.getJson(), LineageDetails.class);
-      upstreamEntityReferences.add(ref);
-      lineage
-          .getUpstreamEdges()
-          .add(new Edge().withFromEntity(ref.getId()).withToEntity(id).withLineageDetails(lineageDetails));
+    nodes.putAll(getReferences(newNodes));
+  }
+
+  /**
+   * Resolve references of the nodes given as a map of id to entity type with one query per entity type. The references
+   * are returned in the order of the given nodes to keep the results stable. Nodes that do not exist are left out.
+   */
+  private static Map<UUID, EntityReference> getReferences(Map<UUID, String> nodeTypes) throws IOException {
+    Map<String, List<UUID>> idsByType = new HashMap<>();
+    nodeTypes.forEach((id, type) -> idsByType.computeIfAbsent(type, k -> new ArrayList<>()).add(id));
+    Map<UUID, EntityReference> refs = new HashMap<>();
+    for (Map.Entry<String, List<UUID>> entry : idsByType.entrySet()) {
+      for (List<UUID> batch : Lists.partition(entry.getValue(), BulkFieldLoader.BATCH_SIZE)) {
+        refs.putAll(Entity.getEntityReferencesByIds(entry.getKey(), batch, Include.ALL));
+      }
     }
+    Map<UUID, EntityReference> nodes = new LinkedHashMap<>();
+    for (UUID id : nodeTypes.keySet()) {
+      EntityReference ref = refs.get(id);
+      if (ref != null) {
+        nodes.put(id, ref);
+      }
+    }
+    return nodes;
+  }
 
-    lineage.getNodes().addAll(upstreamEntityReferences);
+  /**
+   * Get lineage by traversing the in-memory {@link LineageGraph}. Only the nodes and the lineage details of the edges
+   * are read from the database. Edges that are not in the database are left out in case the graph is out of sync.
+   */
+  private EntityLineage getLineage(
+      LineageGraph graph, EntityReference primary, int upstreamDepth, int downstreamDepth) throws IOException {
+    Map<UUID, String> nodeTypes = new LinkedHashMap<>();
+    List<LineageEdge> upstreamEdges = graph.getEdges(primary.getId(), upstreamDepth, true, nodeTypes, maxNodes);
+    List<LineageEdge> downstreamEdges = graph.getEdges(primary.getId(), downstreamDepth, false, nodeTypes, maxNodes);
+    Map<UUID, EntityReference> nodes = getReferences(nodeTypes);
 
-    upstreamDepth--;
-    // Recursively add upstream nodes and edges
-    for (EntityReference entity : upstreamEntityReferences) {
-      getUpstreamLineage(entity.getId(), entity.getType(), lineage, upstreamDepth);
+    // Lineage details of all the edges are read using the from side of the edges
+    List<String> fromIds =
+        Stream.concat(upstreamEdges.stream(), downstreamEdges.stream())
+            .map(edge -> edge.getFromId().toString())
+            .distinct()
+            .collect(Collectors.toList());
+    Map<String, String> detailsByEdge = new HashMap<>();
+    for (EntityRelationshipObject rec : findLineageRecords(fromIds, false)) {
+      detailsByEdge.put(rec.getFromId() + ":" + rec.getToId(), rec.getJson());
     }
+
+    return new EntityLineage()
+        .withEntity(primary)
+        .withNodes(new ArrayList<>(nodes.values()))
+        .withUpstreamEdges(toEdges(primary, upstreamEdges, nodes, detailsByEdge))
+        .withDownstreamEdges(toEdges(primary, downstreamEdges, nodes, detailsByEdge));
   }
 
-  private void getDownstreamLineage(UUID id, String entityType, EntityLineage lineage, int downstreamDepth)
+  private static List<Edge> toEdges(
+      EntityReference primary,
+      List<LineageEdge> lineageEdges,
+      Map<UUID, EntityReference> nodes,
+      Map<String, String> detailsByEdge)
       throws IOException {
-    if (downstreamDepth == 0) {
-      return;
-    }
-    // from other ids ---> to this id
-    List<EntityRelationshipRecord> records =
-        dao.relationshipDAO().findTo(id.toString(), entityType, Relationship.UPSTREAM.ordinal());
-
-    final List<EntityReference> downstreamEntityReferences = new ArrayList<>();
-    for (EntityRelationshipRecord entityRelationshipRecord : records) {
-      EntityReference ref =
-          Entity.getEntityReferenceById(
-              entityRelationshipRecord.getType(), entityRelationshipRecord.getId(), Include.ALL);
-      LineageDetails lineageDetails = JsonUtils.readValue(entityRelationshipRecord.getJson(), LineageDetails.class);
-      downstreamEntityReferences.add(ref);
-      lineage
-          .getDownstreamEdges()
-          .add(new Edge().withToEntity(ref.getId()).withFromEntity(id).withLineageDetails(lineageDetails));
+    List<Edge> edges = new ArrayList<>();
+    for (LineageEdge lineageEdge : lineageEdges) {
+      String key = lineageEdge.getFromId() + ":" + lineageEdge.getToId();
+      if (!detailsByEdge.containsKey(key)
+          || !isLineageNode(primary, lineageEdge.getFromId(), nodes)
+          || !isLineageNode(primary, lineageEdge.getToId(), nodes)) {
+        continue;
+      }
+      LineageDetails lineageDetails = JsonUtils.readValue(detailsByEdge.get(key), LineageDetails.class);
+      edges.add(
+          new Edge()
+              .withFromEntity(lineageEdge.getFromId())
+              .withToEntity(lineageEdge.getToId())
+              .withLineageDetails(lineageDetails));
     }
-    lineage.getNodes().addAll(downstreamEntityReferences);
+    return edges;
+  }
 
-    downstreamDepth--;
-    // Recursively add upstream nodes and edges
-    for (EntityReference entity : downstreamEntityReferences) {
-      getDownstreamLineage(entity.getId(), entity.getType(), lineage, downstreamDepth);
-    }
+  private static boolean isLineageNode(EntityReference primary, UUID id, Map<UUID, EntityReference> nodes) {
+    return primary.getId().equals(id) || nodes.containsKey(id);
   }
 }
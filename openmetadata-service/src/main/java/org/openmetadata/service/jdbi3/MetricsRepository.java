@@ -25,7 +25,6 @@ import org.openmetadata.schema.type.TagLabel;
 import org.openmetadata.service.Entity;
 import org.openmetadata.service.exception.CatalogExceptionMessage;
 import org.openmetadata.service.resources.metrics.MetricsResource;
-import org.openmetadata.service.util.EntityUtil;
 import org.openmetadata.service.util.EntityUtil.Fields;
 import org.openmetadata.service.util.FullyQualifiedName;
 
@@ -52,8 +51,7 @@ public class MetricsRepository extends EntityRepository<Metrics> {
   public Metrics setFields(Metrics metrics, Fields fields) throws IOException {
     metrics.setService(getContainer(metrics.getId())); // service is a default field
     metrics.setOwner(fields.contains(FIELD_OWNER) ? getOwner(metrics) : null);
-    metrics.setUsageSummary(
-        fields.contains("usageSummary") ? EntityUtil.getLatestUsage(daoCollection.usageDAO(), metrics.getId()) : null);
+    metrics.setUsageSummary(fields.contains("usageSummary") ? getUsageSummary(metrics) : null);
     return metrics;
   }
 
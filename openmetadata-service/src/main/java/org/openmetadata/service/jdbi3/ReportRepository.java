@@ -22,7 +22,6 @@ import org.openmetadata.schema.type.EntityReference;
 import org.openmetadata.schema.type.Relationship;
 import org.openmetadata.service.Entity;
 import org.openmetadata.service.resources.reports.ReportResource;
-import org.openmetadata.service.util.EntityUtil;
 import org.openmetadata.service.util.EntityUtil.Fields;
 
 @Slf4j
@@ -37,8 +36,7 @@ public class ReportRepository extends EntityRepository<Report> {
   public Report setFields(Report report, Fields fields) throws IOException {
     report.setService(getService(report)); // service is a default field
     report.setOwner(fields.contains(FIELD_OWNER) ? getOwner(report) : null);
-    report.setUsageSummary(
-        fields.contains("usageSummary") ? EntityUtil.getLatestUsage(daoCollection.usageDAO(), report.getId()) : null);
+    report.setUsageSummary(fields.contains("usageSummary") ? getUsageSummary(report) : null);
     return report;
   }
 
@@ -0,0 +1,196 @@
+/*
+ *  Copyright 2021 Collate
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openmetadata.service.jdbi3;
+
+import com.google.common.collect.Lists;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.openmetadata.schema.type.EntityReference;
+import org.openmetadata.schema.type.Relationship;
+import org.openmetadata.service.Entity;
+import org.openmetadata.service.exception.EntityNotFoundException;
+import org.openmetadata.service.jdbi3.CollectionDAO.EntityRelationshipObject;
+
+/**
+ * Deletes all the entities contained in an entity with set based statements instead of deleting the entities one at a
+ * time. The children of an entity are collected with one relationship query per level of the hierarchy (and per
+ * {@link #BATCH_SIZE} entities of a level). The entities are then soft deleted or hard deleted with one statement per
+ * entity type and batch of ids, and the relationships, extensions, usage, tags and field relationships of hard deleted
+ * entities are removed with one statement per batch.
+ *
+ * <p>Entities of a type whose repository overrides {@code preDelete}, {@code postDelete} or {@code cleanup} are deleted
+ * one at a time with {@link Entity#deleteEntity} so that the entity specific clean up is done. The children of such an
+ * entity are deleted along with it and are not collected here.
+ *
+ * <p>Soft deleted children only have the {@code deleted} flag, {@code updatedBy} and {@code updatedAt} set. Like when
+ * an entity is restored, no new version of the children is created.
+ */
+@Slf4j
+class SubtreeDeleter {
+  /** Maximum number of ids bound to a single {@code IN (...)} clause */
+  static final int BATCH_SIZE = 1000;
+
+  private static final List<Integer> CHILD_RELATIONSHIPS =
+      List.of(Relationship.CONTAINS.ordinal(), Relationship.PARENT_OF.ordinal());
+  private static final Set<String> DELETE_HOOKS = Set.of("preDelete", "postDelete", "cleanup");
+  private static final Map<Class<?>, Boolean> HAS_DELETE_HOOKS = new ConcurrentHashMap<>();
+
+  private final CollectionDAO daoCollection;
+  private final String updatedBy;
+  private final boolean hardDelete;
+  private final Map<String, List<UUID>> children = new LinkedHashMap<>(); // Children by entity type
+  private final List<EntityReference> childrenWithHooks = new ArrayList<>();
+
+  SubtreeDeleter(CollectionDAO daoCollection, String updatedBy, boolean hardDelete) {
+    this.daoCollection = daoCollection;
+    this.updatedBy = updatedBy;
+    this.hardDelete = hardDelete;
+  }
+
+  /** Collect the children of an entity level by level */
+  void collect(UUID id) {
+    Set<String> visited = new HashSet<>();
+    visited.add(id.toString());
+    List<String> frontier = List.of(id.toString());
+    while (!frontier.isEmpty()) {
+      List<String> nextFrontier = new ArrayList<>();
+      for (List<String> batch : Lists.partition(frontier, BATCH_SIZE)) {
+        for (EntityRelationshipObject rec : daoCollection.relationshipDAO().findToBatch(batch, CHILD_RELATIONSHIPS)) {
+          if (!visited.add(rec.getToId())) {
+            continue;
+          }
+          UUID childId = UUID.fromString(rec.getToId());
+          if (hasDeleteHooks(Entity.getEntityRepository(rec.getToEntity()))) {
+            childrenWithHooks.add(new EntityReference().withId(childId).withType(rec.getToEntity()));
+          } else {
+            children.computeIfAbsent(rec.getToEntity(), k -> new ArrayList<>()).add(childId);
+            nextFrontier.add(rec.getToId());
+          }
+        }
+      }
+      frontier = nextFrontier;
+    }
+  }
+
+  /**
+   * Delete the collected children of the entity with the given fully qualified name. Returns the number of deleted
+   * children by entity type.
+   */
+  Map<String, Integer> delete(String fqn) throws IOException {
+    long start = System.currentTimeMillis();
+    Map<String, Integer> deleted = new TreeMap<>();
+    for (EntityReference child : childrenWithHooks) {
+      try {
+        Entity.deleteEntity(updatedBy, child.getType(), child.getId(), true, hardDelete);
+        deleted.merge(child.getType(), 1, Integer::sum);
+      } catch (EntityNotFoundException e) {
+        LOG.debug("{} {} is already deleted along with another child of {}", child.getType(), child.getId(), fqn);
+      }
+    }
+
+    long updatedAt = System.currentTimeMillis();
+    List<String> hardDeletedFqns = new ArrayList<>();
+    for (Map.Entry<String, List<UUID>> entry : children.entrySet()) {
+      EntityRepository<?> repository = Entity.getEntityRepository(entry.getKey());
+      boolean softDelete = !hardDelete && repository.supportsSoftDelete;
+      int count = 0;
+      for (List<UUID> batch : Lists.partition(entry.getValue(), BATCH_SIZE)) {
+        if (softDelete) {
+          count += repository.dao.softDeleteByIds(batch, updatedBy, updatedAt);
+        } else {
+          hardDeletedFqns.addAll(repository.dao.findFqnsByIds(batch));
+          count += hardDelete(repository.dao, batch);
+        }
+      }
+      deleted.merge(entry.getKey(), count, Integer::sum);
+    }
+
+    // Tags and field relationships are deleted by prefix. A hard deleted parent deletes the ones under its own name.
+    for (String prefix : coveringPrefixes(hardDelete ? fqn : null, hardDeletedFqns)) {
+      daoCollection.tagUsageDAO().deleteTagLabelsByTargetPrefix(prefix);
+      daoCollection.fieldRelationshipDAO().deleteAllByPrefix(prefix);
+    }
+    LOG.info(
+        "{} deleted children {} of {} in {} ms",
+        hardDelete ? "Hard" : "Soft",
+        deleted,
+        fqn,
+        System.currentTimeMillis() - start);
+    return deleted;
+  }
+
+  private int hardDelete(EntityDAO<?> dao, List<UUID> ids) {
+    List<String> idList = ids.stream().map(UUID::toString).collect(Collectors.toList());
+    daoCollection.relationshipDAO().deleteAllByIds(idList);
+    daoCollection.entityExtensionDAO().deleteAllByIds(idList); // Versions and custom properties
+    daoCollection.usageDAO().deleteByIds(idList);
+    LineageGraph lineageGraph = LineageGraph.getInstance();
+    if (lineageGraph != null) {
+      AfterCommit.run(() -> ids.forEach(lineageGraph::removeNode));
+    }
+    return dao.deleteByIds(ids);
+  }
+
+  /**
+   * Returns the names from {@code fqns} that are not under another name in {@code fqns} or under {@code parentFqn},
+   * which may be null. A prefix delete of each of the returned names covers all the given names.
+   */
+  static List<String> coveringPrefixes(String parentFqn, Collection<String> fqns) {
+    Set<String> names = new HashSet<>(fqns);
+    if (parentFqn != null) {
+      names.add(parentFqn);
+    }
+    List<String> prefixes = new ArrayList<>();
+    for (String fqn : new HashSet<>(fqns)) {
+      if (fqn == null || fqn.equals(parentFqn)) {
+        continue;
+      }
+      boolean covered = false;
+      for (int i = fqn.indexOf(Entity.SEPARATOR); i > 0 && !covered; i = fqn.indexOf(Entity.SEPARATOR, i + 1)) {
+        covered = names.contains(fqn.substring(0, i));
+      }
+      if (!covered) {
+        prefixes.add(fqn);
+      }
+    }
+    return prefixes;
+  }
+
+  static boolean hasDeleteHooks(EntityRepository<?> repository) {
+    return HAS_DELETE_HOOKS.computeIfAbsent(repository.getClass(), SubtreeDeleter::overridesDeleteHooks);
+  }
+
+  private static boolean overridesDeleteHooks(Class<?> repositoryClass) {
+    for (Class<?> c = repositoryClass; c != null && c != EntityRepository.class; c = c.getSuperclass()) {
+      for (Method method : c.getDeclaredMethods()) {
+        if (DELETE_HOOKS.contains(method.getName())) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+}
@@ -30,6 +30,7 @@ import static org.openmetadata.service.util.LambdaExceptionUtil.ignoringComparat
 import static org.openmetadata.service.util.LambdaExceptionUtil.rethrowFunction;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Streams;
 import java.io.IOException;
 import java.security.MessageDigest;
@@ -42,6 +43,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.BiPredicate;
 import java.util.function.Function;
@@ -78,6 +80,7 @@ import org.openmetadata.schema.type.TagLabel;
 import org.openmetadata.service.Entity;
 import org.openmetadata.service.exception.CatalogExceptionMessage;
 import org.openmetadata.service.exception.EntityNotFoundException;
+import org.openmetadata.service.jdbi3.EntityTimeSeriesStore.TimeSeriesBucket;
 import org.openmetadata.service.resources.databases.DatabaseUtil;
 import org.openmetadata.service.resources.databases.TableResource;
 import org.openmetadata.service.util.EntityUtil;
@@ -105,6 +108,8 @@ public class TableRepository extends EntityRepository<Table> {
   public static final String TABLE_COLUMN_EXTENSION = "table.column.";
   public static final String CUSTOM_METRICS_EXTENSION = ".customMetrics";
 
+  private final EntityTimeSeriesStore timeSeriesStore;
+
   public TableRepository(CollectionDAO daoCollection) {
     super(
         TableResource.COLLECTION_PATH,
@@ -114,6 +119,7 @@ public class TableRepository extends EntityRepository<Table> {
         daoCollection,
         TABLE_PATCH_FIELDS,
         TABLE_UPDATE_FIELDS);
+    this.timeSeriesStore = new EntityTimeSeriesStore(daoCollection.entityExtensionTimeSeriesDao());
   }
 
   @Override
@@ -121,9 +127,8 @@ public class TableRepository extends EntityRepository<Table> {
     setDefaultFields(table);
     table.setTableConstraints(fields.contains("tableConstraints") ? table.getTableConstraints() : null);
     table.setFollowers(fields.contains(FIELD_FOLLOWERS) ? getFollowers(table) : null);
-    table.setUsageSummary(
-        fields.contains("usageSummary") ? EntityUtil.getLatestUsage(daoCollection.usageDAO(), table.getId()) : null);
-    getColumnTags(fields.contains(FIELD_TAGS), table.getColumns());
+    table.setUsageSummary(fields.contains("usageSummary") ? getUsageSummary(table) : null);
+    getColumnTags(fields.contains(FIELD_TAGS), table);
     table.setJoins(fields.contains("joins") ? getJoins(table) : null);
     table.setSampleData(fields.contains("sampleData") ? getSampleData(table) : null);
     table.setViewDefinition(fields.contains("viewDefinition") ? table.getViewDefinition() : null);
@@ -266,32 +271,12 @@ public class TableRepository extends EntityRepository<Table> {
   public Table addTableProfileData(UUID tableId, CreateTableProfile createTableProfile) throws IOException {
     // Validate the request content
     Table table = dao.findEntityById(tableId);
-    TableProfile storedTableProfile =
-        JsonUtils.readValue(
-            daoCollection
-                .entityExtensionTimeSeriesDao()
-                .getExtensionAtTimestamp(
-                    table.getFullyQualifiedName(),
-                    TABLE_PROFILE_EXTENSION,
-                    createTableProfile.getTableProfile().getTimestamp()),
-            TableProfile.class);
-    if (storedTableProfile != null) {
-      daoCollection
-          .entityExtensionTimeSeriesDao()
-          .update(
-              table.getFullyQualifiedName(),
-              TABLE_PROFILE_EXTENSION,
-              JsonUtils.pojoToJson(createTableProfile.getTableProfile()),
-              createTableProfile.getTableProfile().getTimestamp());
-    } else {
-      daoCollection
-          .entityExtensionTimeSeriesDao()
-          .insert(
-              table.getFullyQualifiedName(),
-              TABLE_PROFILE_EXTENSION,
-              "tableProfile",
-              JsonUtils.pojoToJson(createTableProfile.getTableProfile()));
-    }
+    timeSeriesStore.put(
+        table.getFullyQualifiedName(),
+        TABLE_PROFILE_EXTENSION,
+        "tableProfile",
+        JsonUtils.pojoToJson(createTableProfile.getTableProfile()),
+        createTableProfile.getTableProfile().getTimestamp());
 
     for (ColumnProfile columnProfile : createTableProfile.getColumnProfile()) {
       // Validate all the columns
@@ -300,31 +285,12 @@ public class TableRepository extends EntityRepository<Table> {
       if (column == null) {
         throw new IllegalArgumentException("Invalid column name " + columnProfile.getName());
       }
-      ColumnProfile storedColumnProfile =
-          JsonUtils.readValue(
-              daoCollection
-                  .entityExtensionTimeSeriesDao()
-                  .getExtensionAtTimestamp(
-                      column.getFullyQualifiedName(), TABLE_COLUMN_PROFILE_EXTENSION, columnProfile.getTimestamp()),
-              ColumnProfile.class);
-
-      if (storedColumnProfile != null) {
-        daoCollection
-            .entityExtensionTimeSeriesDao()
-            .update(
-                column.getFullyQualifiedName(),
-                TABLE_COLUMN_PROFILE_EXTENSION,
-                JsonUtils.pojoToJson(columnProfile),
-                storedColumnProfile.getTimestamp());
-      } else {
-        daoCollection
-            .entityExtensionTimeSeriesDao()
-            .insert(
-                column.getFullyQualifiedName(),
-                TABLE_COLUMN_PROFILE_EXTENSION,
-                "columnProfile",
-                JsonUtils.pojoToJson(columnProfile));
-      }
+      timeSeriesStore.put(
+          column.getFullyQualifiedName(),
+          TABLE_COLUMN_PROFILE_EXTENSION,
+          "columnProfile",
+          JsonUtils.pojoToJson(columnProfile),
+          columnProfile.getTimestamp());
     }
     setFieldsInternal(table, Fields.EMPTY_FIELDS);
     return table.withProfile(createTableProfile.getTableProfile());
@@ -343,13 +309,11 @@ public class TableRepository extends EntityRepository<Table> {
     }
 
     TableProfile storedTableProfile =
-        JsonUtils.readValue(
-            daoCollection.entityExtensionTimeSeriesDao().getExtensionAtTimestamp(fqn, extension, timestamp),
-            TableProfile.class);
+        JsonUtils.readValue(timeSeriesStore.getExtensionAtTimestamp(fqn, extension, timestamp), TableProfile.class);
     if (storedTableProfile == null) {
       throw new EntityNotFoundException(String.format("Failed to find table profile for %s at %s", fqn, timestamp));
     }
-    daoCollection.entityExtensionTimeSeriesDao().deleteAtTimestamp(fqn, extension, timestamp);
+    timeSeriesStore.deleteAtTimestamp(fqn, extension, timestamp);
   }
 
   @Transaction
@@ -629,22 +593,51 @@ public class TableRepository extends EntityRepository<Table> {
     applyTags(table.getColumns());
   }
 
-  private void getColumnTags(boolean setTags, List<Column> columns) {
+  @Override
+  protected List<String> getFieldTagTargets(Table table) {
+    List<String> columnFQNs = new ArrayList<>();
+    addColumnFQNs(table.getColumns(), columnFQNs);
+    return columnFQNs;
+  }
+
+  private void addColumnFQNs(List<Column> columns, List<String> columnFQNs) {
+    for (Column c : listOrEmpty(columns)) {
+      columnFQNs.add(c.getFullyQualifiedName());
+      addColumnFQNs(c.getChildren(), columnFQNs);
+    }
+  }
+
+  /** Set the tags of all the columns, including nested columns, from the tags read with a single query */
+  private void getColumnTags(boolean setTags, Table table) {
+    Map<String, List<TagLabel>> columnTags =
+        setTags ? getFieldTags(table.getFullyQualifiedName(), getFieldTagTargets(table)) : null;
+    setColumnTags(columnTags, table.getColumns());
+  }
+
+  private static void setColumnTags(Map<String, List<TagLabel>> columnTags, List<Column> columns) {
     for (Column c : listOrEmpty(columns)) {
-      c.setTags(setTags ? getTags(c.getFullyQualifiedName()) : null);
-      getColumnTags(setTags, c.getChildren());
+      c.setTags(columnTags == null ? null : columnTags.get(c.getFullyQualifiedName()));
+      setColumnTags(columnTags, c.getChildren());
     }
   }
 
+  /** Set the latest profile of the columns, read with a single query per {@link BulkFieldLoader#BATCH_SIZE} columns */
   private void getColumnProfile(boolean setProfile, List<Column> columns) throws IOException {
     if (setProfile) {
+      Map<String, Column> columnsByFQN = new HashMap<>();
       for (Column c : listOrEmpty(columns)) {
-        c.setProfile(
-            JsonUtils.readValue(
-                daoCollection
-                    .entityExtensionTimeSeriesDao()
-                    .getLatestExtension(c.getFullyQualifiedName(), TABLE_COLUMN_PROFILE_EXTENSION),
-                ColumnProfile.class));
+        c.setProfile(null);
+        columnsByFQN.put(c.getFullyQualifiedName(), c);
+      }
+      for (List<String> batch : Lists.partition(new ArrayList<>(columnsByFQN.keySet()), BulkFieldLoader.BATCH_SIZE)) {
+        List<Pair<String, String>> profiles =
+            daoCollection.entityExtensionTimeSeriesDao().getLatestExtensionBatch(batch, TABLE_COLUMN_PROFILE_EXTENSION);
+        for (Pair<String, String> profile : profiles) {
+          Column column = columnsByFQN.get(profile.getLeft());
+          if (column != null) {
+            column.setProfile(JsonUtils.readValue(profile.getRight(), ColumnProfile.class));
+          }
+        }
       }
     }
   }
@@ -752,25 +745,33 @@ public class TableRepository extends EntityRepository<Table> {
   public ResultList<TableProfile> getTableProfiles(String fqn, Long startTs, Long endTs) throws IOException {
     List<TableProfile> tableProfiles;
     tableProfiles =
-        JsonUtils.readObjects(
-            daoCollection
-                .entityExtensionTimeSeriesDao()
-                .listBetweenTimestamps(fqn, "table.tableProfile", startTs, endTs),
-            TableProfile.class);
+        timeSeriesStore.listBetweenTimestamps(fqn, TABLE_PROFILE_EXTENSION, startTs, endTs, TableProfile.class);
     return new ResultList<>(tableProfiles, startTs.toString(), endTs.toString(), tableProfiles.size());
   }
 
   public ResultList<ColumnProfile> getColumnProfiles(String fqn, Long startTs, Long endTs) throws IOException {
     List<ColumnProfile> columnProfiles;
     columnProfiles =
-        JsonUtils.readObjects(
-            daoCollection
-                .entityExtensionTimeSeriesDao()
-                .listBetweenTimestamps(fqn, "table.columnProfile", startTs, endTs),
-            ColumnProfile.class);
+        timeSeriesStore.listBetweenTimestamps(fqn, TABLE_COLUMN_PROFILE_EXTENSION, startTs, endTs, ColumnProfile.class);
     return new ResultList<>(columnProfiles, startTs.toString(), endTs.toString(), columnProfiles.size());
   }
 
+  /** Min, max and average of the table profile metrics per bucket of {@code interval} */
+  public ResultList<TimeSeriesBucket> getTableProfileSummary(String fqn, Long startTs, Long endTs, long interval)
+      throws IOException {
+    List<TimeSeriesBucket> buckets =
+        timeSeriesStore.downsample(fqn, TABLE_PROFILE_EXTENSION, startTs, endTs, interval, Set.of());
+    return new ResultList<>(buckets, startTs.toString(), endTs.toString(), buckets.size());
+  }
+
+  /** Min, max and average of the column profile metrics per bucket of {@code interval} */
+  public ResultList<TimeSeriesBucket> getColumnProfileSummary(String fqn, Long startTs, Long endTs, long interval)
+      throws IOException {
+    List<TimeSeriesBucket> buckets =
+        timeSeriesStore.downsample(fqn, TABLE_COLUMN_PROFILE_EXTENSION, startTs, endTs, interval, Set.of());
+    return new ResultList<>(buckets, startTs.toString(), endTs.toString(), buckets.size());
+  }
+
   /**
    * Pure function that creates a new list of {@link DailyCount} by either adding the {@code newDailyCount} to the list
    * or, if there is already data for the date {@code newDailyCount.getDate()}, replace older count with the new one.
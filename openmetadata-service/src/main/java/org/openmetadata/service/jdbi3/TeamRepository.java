@@ -517,6 +517,7 @@ public class TeamRepository extends EntityRepository<Team> {
       updateParents(original, updated);
       updateChildren(original, updated);
       updatePolicies(original, updated);
+      SubjectCache.getInstance().invalidateTeam(original.getId());
     }
 
     private void updateUsers(Team origTeam, Team updatedTeam) throws JsonProcessingException {
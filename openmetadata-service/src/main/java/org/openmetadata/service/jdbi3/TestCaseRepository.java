@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 import org.jdbi.v3.sqlobject.transaction.Transaction;
@@ -27,6 +28,7 @@ import org.openmetadata.schema.type.Include;
 import org.openmetadata.schema.type.Relationship;
 import org.openmetadata.service.Entity;
 import org.openmetadata.service.exception.EntityNotFoundException;
+import org.openmetadata.service.jdbi3.EntityTimeSeriesStore.TimeSeriesBucket;
 import org.openmetadata.service.resources.feeds.MessageParser;
 import org.openmetadata.service.util.EntityUtil;
 import org.openmetadata.service.util.FullyQualifiedName;
@@ -40,8 +42,11 @@ public class TestCaseRepository extends EntityRepository<TestCase> {
   private static final String PATCH_FIELDS = "owner,entityLink,testSuite,testDefinition";
   public static final String TESTCASE_RESULT_EXTENSION = "testCase.testCaseResult";
 
+  private final EntityTimeSeriesStore timeSeriesStore;
+
   public TestCaseRepository(CollectionDAO dao) {
     super(COLLECTION_PATH, TEST_CASE, TestCase.class, dao.testCaseDAO(), dao, PATCH_FIELDS, UPDATE_FIELDS);
+    this.timeSeriesStore = new EntityTimeSeriesStore(dao.entityExtensionTimeSeriesDao());
   }
 
   @Override
@@ -130,28 +135,15 @@ public class TestCaseRepository extends EntityRepository<TestCase> {
 
     TestCaseResult storedTestCaseResult =
         JsonUtils.readValue(
-            daoCollection
-                .entityExtensionTimeSeriesDao()
-                .getExtensionAtTimestamp(
-                    testCase.getFullyQualifiedName(), TESTCASE_RESULT_EXTENSION, testCaseResult.getTimestamp()),
+            timeSeriesStore.getExtensionAtTimestamp(
+                testCase.getFullyQualifiedName(), TESTCASE_RESULT_EXTENSION, testCaseResult.getTimestamp()),
             TestCaseResult.class);
-    if (storedTestCaseResult != null) {
-      daoCollection
-          .entityExtensionTimeSeriesDao()
-          .update(
-              testCase.getFullyQualifiedName(),
-              TESTCASE_RESULT_EXTENSION,
-              JsonUtils.pojoToJson(testCaseResult),
-              testCaseResult.getTimestamp());
-    } else {
-      daoCollection
-          .entityExtensionTimeSeriesDao()
-          .insert(
-              testCase.getFullyQualifiedName(),
-              TESTCASE_RESULT_EXTENSION,
-              "testCaseResult",
-              JsonUtils.pojoToJson(testCaseResult));
-    }
+    timeSeriesStore.put(
+        testCase.getFullyQualifiedName(),
+        TESTCASE_RESULT_EXTENSION,
+        "testCaseResult",
+        JsonUtils.pojoToJson(testCaseResult),
+        testCaseResult.getTimestamp());
     setFieldsInternal(testCase, new EntityUtil.Fields(allowedFields, "testSuite"));
     ChangeDescription change =
         addTestCaseChangeDescription(testCase.getVersion(), testCaseResult, storedTestCaseResult);
@@ -166,12 +158,9 @@ public class TestCaseRepository extends EntityRepository<TestCase> {
     TestCase testCase = dao.findEntityByName(fqn);
     TestCaseResult storedTestCaseResult =
         JsonUtils.readValue(
-            daoCollection
-                .entityExtensionTimeSeriesDao()
-                .getExtensionAtTimestamp(fqn, TESTCASE_RESULT_EXTENSION, timestamp),
-            TestCaseResult.class);
+            timeSeriesStore.getExtensionAtTimestamp(fqn, TESTCASE_RESULT_EXTENSION, timestamp), TestCaseResult.class);
     if (storedTestCaseResult != null) {
-      daoCollection.entityExtensionTimeSeriesDao().deleteAtTimestamp(fqn, TESTCASE_RESULT_EXTENSION, timestamp);
+      timeSeriesStore.deleteAtTimestamp(fqn, TESTCASE_RESULT_EXTENSION, timestamp);
       testCase.setTestCaseResult(storedTestCaseResult);
       ChangeDescription change = deleteTestCaseChangeDescription(testCase.getVersion(), storedTestCaseResult);
       ChangeEvent changeEvent = getChangeEvent(testCase, change, entityType, testCase.getVersion());
@@ -222,15 +211,19 @@ public class TestCaseRepository extends EntityRepository<TestCase> {
   public ResultList<TestCaseResult> getTestCaseResults(String fqn, Long startTs, Long endTs) throws IOException {
     List<TestCaseResult> testCaseResults;
     testCaseResults =
-        JsonUtils.readObjects(
-            daoCollection
-                .entityExtensionTimeSeriesDao()
-                .listBetweenTimestamps(fqn, TESTCASE_RESULT_EXTENSION, startTs, endTs),
-            TestCaseResult.class);
+        timeSeriesStore.listBetweenTimestamps(fqn, TESTCASE_RESULT_EXTENSION, startTs, endTs, TestCaseResult.class);
 
     return new ResultList<>(testCaseResults, String.valueOf(startTs), String.valueOf(endTs), testCaseResults.size());
   }
 
+  /** Number of test case results of each status and min, max and average of their numeric fields per bucket */
+  public ResultList<TimeSeriesBucket> getTestCaseResultSummary(String fqn, Long startTs, Long endTs, long interval)
+      throws IOException {
+    List<TimeSeriesBucket> buckets =
+        timeSeriesStore.downsample(fqn, TESTCASE_RESULT_EXTENSION, startTs, endTs, interval, Set.of("testCaseStatus"));
+    return new ResultList<>(buckets, String.valueOf(startTs), String.valueOf(endTs), buckets.size());
+  }
+
   @Override
   public EntityUpdater getUpdater(TestCase original, TestCase updated, Operation operation) {
     return new TestUpdater(original, updated, operation);
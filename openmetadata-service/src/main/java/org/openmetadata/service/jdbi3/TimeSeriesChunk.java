@@ -0,0 +1,394 @@
+/*
+ *  Copyright 2021 Collate
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openmetadata.service.jdbi3;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjDoubleConsumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.openmetadata.service.util.JsonUtils;
+
+/**
+ * Entries of a time series, such as table profiles or test case results, stored column-wise. Each top level field of
+ * the entries that holds a number or a string is stored as a column, and all the other fields of an entry are stored
+ * as the residual json of the entry. Entries are ordered by timestamp and have unique timestamps.
+ *
+ * <p>The encoded chunk is gzip compressed and has the following layout:
+ *
+ * <ul>
+ *   <li>Timestamps as the first timestamp followed by the deltas between timestamps
+ *   <li>For each column, its name, type, the entries that have a value, and the values. Long values are stored as the
+ *       delta from the previous value, double values as the xor with the previous value, and string values as indexes
+ *       into a dictionary of the column.
+ *   <li>The residual json of each entry
+ * </ul>
+ *
+ * Numbers are written as variable length integers so that small deltas take a single byte. Metrics are decoded without
+ * reading the residual json, which is what makes downsampling cheap.
+ */
+public class TimeSeriesChunk {
+  private static final int FORMAT_VERSION = 1;
+  private static final String TIMESTAMP = "timestamp";
+  private static final byte LONG_COLUMN = 0;
+  private static final byte DOUBLE_COLUMN = 1;
+  private static final byte STRING_COLUMN = 2;
+
+  private final long[] timestamps;
+  private final Map<String, Column> columns;
+  private final ObjectNode[] residuals; // Null when the chunk is decoded for its metrics only
+
+  private TimeSeriesChunk(long[] timestamps, Map<String, Column> columns, ObjectNode[] residuals) {
+    this.timestamps = timestamps;
+    this.columns = columns;
+    this.residuals = residuals;
+  }
+
+  /** Build a chunk from entries that have a {@code timestamp} field. Entries with the same timestamp are replaced. */
+  public static TimeSeriesChunk fromEntries(List<ObjectNode> entries) {
+    Map<Long, ObjectNode> byTimestamp = new HashMap<>();
+    for (ObjectNode entry : entries) {
+      byTimestamp.put(entry.get(TIMESTAMP).asLong(), entry);
+    }
+    long[] timestamps = byTimestamp.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+    int size = timestamps.length;
+
+    // Find the type of the column of each field. A field that holds numbers and strings is stored as numbers.
+    Map<String, Byte> types = new LinkedHashMap<>();
+    for (long timestamp : timestamps) {
+      Iterator<Map.Entry<String, JsonNode>> fields = byTimestamp.get(timestamp).fields();
+      while (fields.hasNext()) {
+        Map.Entry<String, JsonNode> field = fields.next();
+        Byte type = columnType(field.getValue());
+        if (type != null && !field.getKey().equals(TIMESTAMP)) {
+          types.merge(field.getKey(), type, TimeSeriesChunk::mergeTypes);
+        }
+      }
+    }
+
+    Map<String, Column> columns = new LinkedHashMap<>();
+    types.forEach((name, type) -> columns.put(name, new Column(type, size)));
+    ObjectNode[] residuals = new ObjectNode[size];
+    for (int i = 0; i < size; i++) {
+      ObjectNode residual = JsonUtils.getObjectNode();
+      Iterator<Map.Entry<String, JsonNode>> fields = byTimestamp.get(timestamps[i]).fields();
+      while (fields.hasNext()) {
+        Map.Entry<String, JsonNode> field = fields.next();
+        if (field.getKey().equals(TIMESTAMP)) {
+          continue;
+        }
+        Column column = columns.get(field.getKey());
+        if (column == null || !column.set(i, field.getValue())) {
+          residual.set(field.getKey(), field.getValue());
+        }
+      }
+      residuals[i] = residual;
+    }
+    return new TimeSeriesChunk(timestamps, columns, residuals);
+  }
+
+  public int size() {
+    return timestamps.length;
+  }
+
+  public long getTimestamp(int index) {
+    return timestamps[index];
+  }
+
+  /** Index of the entry at the timestamp or a negative number when there is no such entry */
+  public int indexOf(long timestamp) {
+    return Arrays.binarySearch(timestamps, timestamp);
+  }
+
+  /** Return the entry at {@code index} as json. The chunk must not be decoded for metrics only. */
+  public ObjectNode getEntry(int index) {
+    ObjectNode entry = JsonUtils.getObjectNode();
+    entry.put(TIMESTAMP, timestamps[index]);
+    columns.forEach((name, column) -> column.get(index, name, entry));
+    entry.setAll(residuals[index]);
+    return entry;
+  }
+
+  public List<ObjectNode> getEntries() {
+    List<ObjectNode> entries = new ArrayList<>(size());
+    for (int i = 0; i < size(); i++) {
+      entries.add(getEntry(i));
+    }
+    return entries;
+  }
+
+  /** Call the consumer with the name and the value of every numeric field of the entry at {@code index} */
+  public void forEachMetric(int index, ObjDoubleConsumer<String> consumer) {
+    for (Map.Entry<String, Column> entry : columns.entrySet()) {
+      Column column = entry.getValue();
+      if (column.type != STRING_COLUMN && column.present.get(index)) {
+        consumer.accept(entry.getKey(), column.type == LONG_COLUMN ? column.longs[index] : column.doubles[index]);
+      }
+    }
+  }
+
+  /** Return the value of a string field of the entry at {@code index} or null when the entry has no such value */
+  public String getString(int index, String name) {
+    Column column = columns.get(name);
+    return column != null && column.type == STRING_COLUMN && column.present.get(index) ? column.strings[index] : null;
+  }
+
+  public byte[] encode() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+      writeVarLong(out, FORMAT_VERSION);
+      writeVarLong(out, size());
+      long previous = 0;
+      for (long timestamp : timestamps) {
+        writeVarLong(out, zigZag(timestamp - previous));
+        previous = timestamp;
+      }
+      writeVarLong(out, columns.size());
+      for (Map.Entry<String, Column> entry : columns.entrySet()) {
+        writeString(out, entry.getKey());
+        entry.getValue().write(out);
+      }
+      for (ObjectNode residual : residuals) {
+        writeString(out, residual.isEmpty() ? "" : JsonUtils.pojoToJson(residual));
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  /** Decode a chunk. When {@code metricsOnly} is true the residual json is not read and only metrics are available. */
+  public static TimeSeriesChunk decode(byte[] bytes, boolean metricsOnly) throws IOException {
+    try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(bytes)))) {
+      long version = readVarLong(in);
+      if (version != FORMAT_VERSION) {
+        throw new IOException("Unsupported time series chunk format " + version);
+      }
+      int size = (int) readVarLong(in);
+      long[] timestamps = new long[size];
+      long previous = 0;
+      for (int i = 0; i < size; i++) {
+        timestamps[i] = previous + unZigZag(readVarLong(in));
+        previous = timestamps[i];
+      }
+      int columnCount = (int) readVarLong(in);
+      Map<String, Column> columns = new LinkedHashMap<>();
+      for (int c = 0; c < columnCount; c++) {
+        String name = readString(in);
+        columns.put(name, Column.read(in, size));
+      }
+      if (metricsOnly) {
+        return new TimeSeriesChunk(timestamps, columns, null);
+      }
+      ObjectNode[] residuals = new ObjectNode[size];
+      for (int i = 0; i < size; i++) {
+        String json = readString(in);
+        residuals[i] = json.isEmpty() ? JsonUtils.getObjectNode() : (ObjectNode) JsonUtils.readTree(json);
+      }
+      return new TimeSeriesChunk(timestamps, columns, residuals);
+    }
+  }
+
+  private static Byte columnType(JsonNode value) {
+    if (value.isIntegralNumber() && value.canConvertToLong()) {
+      return LONG_COLUMN;
+    } else if (value.isDouble() || value.isFloat()) {
+      return DOUBLE_COLUMN;
+    } else if (value.isTextual()) {
+      return STRING_COLUMN;
+    }
+    return null; // Stored in the residual json
+  }
+
+  private static byte mergeTypes(byte type, byte other) {
+    if (type == other) {
+      return type;
+    } else if (type == STRING_COLUMN || other == STRING_COLUMN) {
+      return type == STRING_COLUMN ? other : type; // String values go to the residual json
+    }
+    return DOUBLE_COLUMN;
+  }
+
+  private static class Column {
+    private final byte type;
+    private final BitSet present;
+    private long[] longs;
+    private double[] doubles;
+    private String[] strings;
+
+    Column(byte type, int size) {
+      this.type = type;
+      this.present = new BitSet(size);
+      if (type == LONG_COLUMN) {
+        longs = new long[size];
+      } else if (type == DOUBLE_COLUMN) {
+        doubles = new double[size];
+      } else {
+        strings = new String[size];
+      }
+    }
+
+    /** Store the value of entry {@code index}. Returns false when the value does not fit the type of the column. */
+    boolean set(int index, JsonNode value) {
+      Byte valueType = columnType(value);
+      if (valueType == null) {
+        return false;
+      }
+      if (type == LONG_COLUMN && valueType == LONG_COLUMN) {
+        longs[index] = value.asLong();
+      } else if (type == DOUBLE_COLUMN && valueType != STRING_COLUMN) {
+        doubles[index] = value.asDouble();
+      } else if (type == STRING_COLUMN && valueType == STRING_COLUMN) {
+        strings[index] = value.asText();
+      } else {
+        return false;
+      }
+      present.set(index);
+      return true;
+    }
+
+    void get(int index, String name, ObjectNode entry) {
+      if (!present.get(index)) {
+        return;
+      }
+      if (type == LONG_COLUMN) {
+        entry.put(name, longs[index]);
+      } else if (type == DOUBLE_COLUMN) {
+        entry.put(name, doubles[index]);
+      } else {
+        entry.put(name, strings[index]);
+      }
+    }
+
+    void write(DataOutputStream out) throws IOException {
+      out.writeByte(type);
+      long[] words = present.toLongArray();
+      writeVarLong(out, words.length);
+      for (long word : words) {
+        out.writeLong(word);
+      }
+      if (type == STRING_COLUMN) {
+        writeStrings(out);
+        return;
+      }
+      long previous = 0;
+      for (int i = present.nextSetBit(0); i >= 0; i = present.nextSetBit(i + 1)) {
+        if (type == LONG_COLUMN) {
+          writeVarLong(out, zigZag(longs[i] - previous));
+          previous = longs[i];
+        } else {
+          long bits = Double.doubleToLongBits(doubles[i]);
+          writeVarLong(out, bits ^ previous);
+          previous = bits;
+        }
+      }
+    }
+
+    private void writeStrings(DataOutputStream out) throws IOException {
+      Map<String, Integer> dictionary = new LinkedHashMap<>();
+      for (int i = present.nextSetBit(0); i >= 0; i = present.nextSetBit(i + 1)) {
+        dictionary.putIfAbsent(strings[i], dictionary.size());
+      }
+      writeVarLong(out, dictionary.size());
+      for (String value : dictionary.keySet()) {
+        writeString(out, value);
+      }
+      for (int i = present.nextSetBit(0); i >= 0; i = present.nextSetBit(i + 1)) {
+        writeVarLong(out, dictionary.get(strings[i]));
+      }
+    }
+
+    static Column read(DataInputStream in, int size) throws IOException {
+      Column column = new Column(in.readByte(), size);
+      long[] words = new long[(int) readVarLong(in)];
+      for (int i = 0; i < words.length; i++) {
+        words[i] = in.readLong();
+      }
+      column.present.or(BitSet.valueOf(words));
+      if (column.type == STRING_COLUMN) {
+        String[] dictionary = new String[(int) readVarLong(in)];
+        for (int i = 0; i < dictionary.length; i++) {
+          dictionary[i] = readString(in);
+        }
+        for (int i = column.present.nextSetBit(0); i >= 0; i = column.present.nextSetBit(i + 1)) {
+          column.strings[i] = dictionary[(int) readVarLong(in)];
+        }
+        return column;
+      }
+      long previous = 0;
+      for (int i = column.present.nextSetBit(0); i >= 0; i = column.present.nextSetBit(i + 1)) {
+        if (column.type == LONG_COLUMN) {
+          column.longs[i] = previous + unZigZag(readVarLong(in));
+          previous = column.longs[i];
+        } else {
+          previous = readVarLong(in) ^ previous;
+          column.doubles[i] = Double.longBitsToDouble(previous);
+        }
+      }
+      return column;
+    }
+  }
+
+  private static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.writeByte((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.writeByte((int) value);
+  }
+
+  private static long readVarLong(DataInputStream in) throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = in.readUnsignedByte();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed variable length number in time series chunk");
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeVarLong(out, bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[(int) readVarLong(in)];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
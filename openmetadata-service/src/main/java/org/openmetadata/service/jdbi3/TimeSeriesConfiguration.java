@@ -0,0 +1,37 @@
+/*
+ *  Copyright 2021 Collate
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openmetadata.service.jdbi3;
+
+import javax.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class TimeSeriesConfiguration {
+  /** Compact profiles and test case results of past time buckets into chunks of columns */
+  private boolean chunkedStorageEnabled = false;
+
+  /** Length of the time bucket of a chunk */
+  @Min(1)
+  private int bucketSizeDays = 7;
+
+  /** Time between compaction runs */
+  @Min(1)
+  private int compactionIntervalMinutes = 60;
+
+  /** Number of time series read at a time by a compaction run */
+  @Min(1)
+  private int compactionBatchSize = 100;
+}
@@ -15,18 +15,27 @@ package org.openmetadata.service.jdbi3;
 
 import static org.openmetadata.service.Entity.CHART;
 import static org.openmetadata.service.Entity.DASHBOARD;
+import static org.openmetadata.service.Entity.DATABASE;
+import static org.openmetadata.service.Entity.DATABASE_SCHEMA;
 import static org.openmetadata.service.Entity.FIELD_USAGE_SUMMARY;
 import static org.openmetadata.service.Entity.MLMODEL;
 import static org.openmetadata.service.Entity.TABLE;
 import static org.openmetadata.service.util.EntityUtil.fieldUpdated;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.collect.Lists;
 import java.io.IOException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import javax.ws.rs.core.Response;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.Triple;
 import org.jdbi.v3.core.mapper.RowMapper;
 import org.jdbi.v3.core.statement.StatementContext;
 import org.jdbi.v3.sqlobject.transaction.Transaction;
@@ -35,25 +44,35 @@ import org.openmetadata.schema.entity.data.Chart;
 import org.openmetadata.schema.entity.data.Dashboard;
 import org.openmetadata.schema.entity.data.MlModel;
 import org.openmetadata.schema.entity.data.Table;
+import org.openmetadata.schema.type.BulkUsage;
+import org.openmetadata.schema.type.BulkUsageResult;
 import org.openmetadata.schema.type.ChangeDescription;
 import org.openmetadata.schema.type.ChangeEvent;
 import org.openmetadata.schema.type.DailyCount;
 import org.openmetadata.schema.type.EntityReference;
 import org.openmetadata.schema.type.EntityUsage;
 import org.openmetadata.schema.type.EventType;
+import org.openmetadata.schema.type.EntityUsageCount;
 import org.openmetadata.schema.type.Include;
+import org.openmetadata.schema.type.Relationship;
 import org.openmetadata.schema.type.UsageDetails;
 import org.openmetadata.schema.type.UsageStats;
 import org.openmetadata.service.Entity;
+import org.openmetadata.service.events.EventPubSub;
 import org.openmetadata.service.exception.CatalogExceptionMessage;
 import org.openmetadata.service.exception.UnhandledServerException;
+import org.openmetadata.service.jdbi3.CollectionDAO.ChangeEventRecord;
+import org.openmetadata.service.jdbi3.CollectionDAO.EntityRelationshipObject;
+import org.openmetadata.service.jdbi3.CollectionDAO.UsageDAO.UsageCountRecord;
 import org.openmetadata.service.util.EntityUtil.Fields;
+import org.openmetadata.service.util.JsonUtils;
 import org.openmetadata.service.util.RestUtil;
 
 @Slf4j
 public class UsageRepository {
   private static final String PUT = "createOrUpdate";
   private static final String POST = "createNew";
+  private static final List<String> USAGE_ENTITY_TYPES = List.of(TABLE, DASHBOARD, CHART, MLMODEL);
   private final CollectionDAO dao;
 
   public UsageRepository(CollectionDAO dao) {
@@ -102,11 +121,148 @@ public class UsageRepository {
     return addUsage(PUT, entityType, ref.getId().toString(), usage);
   }
 
+  /**
+   * Add the usage of many entities of a type on a date, the same as {@link #createOrUpdateByName} for each of the
+   * entities. The names are resolved, the rolling counts are computed, and the usage is stored with a few statements
+   * per {@link BulkFieldLoader#BATCH_SIZE} entities. The percentile ranks are computed once for all the entities.
+   */
+  @Transaction
+  public BulkUsageResult bulkCreateOrUpdate(String entityType, BulkUsage usage, String updatedBy)
+      throws JsonProcessingException {
+    if (!USAGE_ENTITY_TYPES.contains(entityType.toLowerCase())) {
+      LOG.error("Invalid Usage Entity Type");
+      throw new UnhandledServerException(CatalogExceptionMessage.entityTypeNotSupported(entityType));
+    }
+    long start = System.currentTimeMillis();
+    Map<String, Integer> countsByName = new LinkedHashMap<>();
+    for (EntityUsageCount entityUsage : usage.getUsage()) {
+      countsByName.merge(entityUsage.getFullyQualifiedName(), entityUsage.getCount(), Integer::sum);
+    }
+
+    // Resolve the names of the entities
+    EntityDAO<?> entityDAO = Entity.getEntityRepository(entityType).dao;
+    Map<String, Integer> counts = new LinkedHashMap<>(); // Counts by entity id
+    Map<String, EntityReference> refs = new HashMap<>(); // References by entity id
+    for (List<String> batch : Lists.partition(new ArrayList<>(countsByName.keySet()), BulkFieldLoader.BATCH_SIZE)) {
+      for (EntityReference ref : entityDAO.findEntityReferencesByNames(batch, Include.NON_DELETED)) {
+        Integer count = countsByName.remove(ref.getFullyQualifiedName());
+        if (count != null) {
+          counts.put(ref.getId().toString(), count);
+          refs.put(ref.getId().toString(), ref);
+        }
+      }
+    }
+
+    List<String> ids = new ArrayList<>(counts.keySet());
+    Map<String, UsageDetails> previousUsage = getLatestUsage(ids);
+    String date = usage.getDate();
+    addCounts(entityType, date, counts);
+    if (entityType.equalsIgnoreCase(TABLE)) {
+      // Add the table usage to the schemas and databases of the tables
+      Map<String, Integer> schemaCounts = getContainerCounts(counts, TABLE, DATABASE_SCHEMA);
+      addCounts(DATABASE_SCHEMA, date, schemaCounts);
+      addCounts(DATABASE, date, getContainerCounts(schemaCounts, DATABASE_SCHEMA, DATABASE));
+    }
+    computePercentile(entityType, date);
+    storeChangeEvents(entityType, refs, previousUsage, getLatestUsage(ids), updatedBy);
+
+    LOG.info(
+        "Added usage of {} {} entities on {} in {} ms",
+        counts.size(),
+        entityType,
+        date,
+        System.currentTimeMillis() - start);
+    return new BulkUsageResult().withUpdated(counts.size()).withNotFound(new ArrayList<>(countsByName.keySet()));
+  }
+
+  /**
+   * Compute the percentile ranks of the usage of all the entities of a type on a date. The ranks are computed with
+   * window functions, which need MySQL 8 or Postgres.
+   */
   @Transaction
   public void computePercentile(String entityType, String date) {
     dao.usageDAO().computePercentile(entityType, date);
   }
 
+  /** Insert or add to the daily counts of entities, with the rolling counts computed from the previous days */
+  private void addCounts(String entityType, String date, Map<String, Integer> counts) {
+    for (List<String> batch : Lists.partition(new ArrayList<>(counts.keySet()), BulkFieldLoader.BATCH_SIZE)) {
+      Map<String, Triple<String, Integer, Integer>> previousCounts = new HashMap<>();
+      dao.usageDAO().getPreviousCounts(batch, date).forEach(sums -> previousCounts.put(sums.getLeft(), sums));
+      List<UsageCountRecord> records = new ArrayList<>(batch.size());
+      for (String id : batch) {
+        int count = counts.get(id);
+        Triple<String, Integer, Integer> sums = previousCounts.get(id);
+        records.add(
+            UsageCountRecord.builder()
+                .usageDate(date)
+                .id(id)
+                .entityType(entityType)
+                .count1(count)
+                .count7(count + (sums == null ? 0 : sums.getMiddle()))
+                .count30(count + (sums == null ? 0 : sums.getRight()))
+                .build());
+      }
+      dao.usageDAO().insertOrUpdateCounts(records);
+    }
+  }
+
+  /** Sum of the counts of entities by the entity that contains them */
+  private Map<String, Integer> getContainerCounts(
+      Map<String, Integer> counts, String entityType, String containerType) {
+    Map<String, Integer> containerCounts = new LinkedHashMap<>();
+    for (List<String> batch : Lists.partition(new ArrayList<>(counts.keySet()), BulkFieldLoader.BATCH_SIZE)) {
+      List<EntityRelationshipObject> relationships =
+          dao.relationshipDAO().findFromBatch(batch, entityType, Relationship.CONTAINS.ordinal(), containerType);
+      for (EntityRelationshipObject relationship : relationships) {
+        containerCounts.merge(relationship.getFromId(), counts.get(relationship.getToId()), Integer::sum);
+      }
+    }
+    return containerCounts;
+  }
+
+  private Map<String, UsageDetails> getLatestUsage(List<String> ids) {
+    Map<String, UsageDetails> usage = new HashMap<>();
+    for (List<String> batch : Lists.partition(ids, BulkFieldLoader.BATCH_SIZE)) {
+      dao.usageDAO().getLatestUsageBatch(batch).forEach(u -> usage.put(u.getLeft(), u.getRight()));
+    }
+    return usage;
+  }
+
+  /**
+   * Store a change event of the usage summary of each of the entities, which updates the usage summary in the search
+   * index. Unlike the change events of the usage of a single entity, the events don't have the entity, so that the
+   * entities don't have to be read.
+   */
+  private void storeChangeEvents(
+      String entityType,
+      Map<String, EntityReference> refs,
+      Map<String, UsageDetails> previousUsage,
+      Map<String, UsageDetails> currentUsage,
+      String updatedBy)
+      throws JsonProcessingException {
+    long timestamp = System.currentTimeMillis();
+    List<ChangeEventRecord> records = new ArrayList<>(refs.size());
+    for (Map.Entry<String, EntityReference> entry : refs.entrySet()) {
+      ChangeDescription change = new ChangeDescription();
+      fieldUpdated(change, FIELD_USAGE_SUMMARY, previousUsage.get(entry.getKey()), currentUsage.get(entry.getKey()));
+      ChangeEvent changeEvent =
+          new ChangeEvent()
+              .withEventType(EventType.ENTITY_UPDATED)
+              .withEntityType(entityType)
+              .withEntityId(entry.getValue().getId())
+              .withEntityFullyQualifiedName(entry.getValue().getFullyQualifiedName())
+              .withUserName(updatedBy)
+              .withTimestamp(timestamp)
+              .withChangeDescription(change);
+      records.add(new ChangeEventRecord(0, JsonUtils.pojoToJson(changeEvent)));
+    }
+    if (!records.isEmpty()) {
+      Lists.partition(records, BulkFieldLoader.BATCH_SIZE).forEach(batch -> dao.changeEventDAO().insertAll(batch));
+      EventPubSub.publish();
+    }
+  }
+
   private RestUtil.PutResponse<?> addUsage(String method, String entityType, String entityId, DailyCount usage)
       throws IOException {
     Fields fields = new Fields(List.of("usageSummary"));
@@ -140,7 +296,7 @@ public class UsageRepository {
     dao.usageDAO()
         .insertOrUpdateCount(
             usage.getDate(), table.getDatabase().getId().toString(), Entity.DATABASE, usage.getCount());
-    dao.usageDAO().computePercentile(entityType, usage.getDate());
+    computePercentile(entityType, usage.getDate());
 
     ChangeDescription change =
         getChangeDescription(table.getVersion(), updated.getUsageSummary(), table.getUsageSummary());
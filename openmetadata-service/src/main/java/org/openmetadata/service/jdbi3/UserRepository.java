@@ -301,6 +301,7 @@ public class UserRepository extends EntityRepository<User> {
       recordChange("email", original.getEmail(), updated.getEmail());
       recordChange("isEmailVerified", original.getIsEmailVerified(), updated.getIsEmailVerified());
       updateAuthenticationMechanism(original, updated);
+      SubjectCache.getInstance().invalidateUser(original.getName()); // Roles and teams of the user may have changed
     }
 
     private void updateRoles(User original, User updated) throws IOException {
@@ -0,0 +1,37 @@
+/*
+ *  Copyright 2021 Collate
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openmetadata.service.jdbi3;
+
+import javax.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class VersionHistoryConfiguration {
+  /** Store previous versions of entities as snapshots and deltas from the snapshots */
+  private boolean deltaStorageEnabled = false;
+
+  /** Number of versions from one snapshot to the next. The versions in between are stored as deltas. */
+  @Min(1)
+  private int snapshotInterval = 10;
+
+  /** Time between runs of the job that rewrites versions stored as full entity json */
+  @Min(1)
+  private int compactionIntervalMinutes = 60;
+
+  /** Number of entities whose versions are rewritten at a time */
+  @Min(1)
+  private int compactionBatchSize = 100;
+}
@@ -17,7 +17,6 @@ import static org.openmetadata.service.util.EntityUtil.eventFilterMatch;
 import static org.openmetadata.service.util.EntityUtil.failureDetailsMatch;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.lmax.disruptor.BatchEventProcessor;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -30,8 +29,8 @@ import org.openmetadata.schema.type.Webhook;
 import org.openmetadata.schema.type.Webhook.Status;
 import org.openmetadata.schema.type.WebhookType;
 import org.openmetadata.service.Entity;
+import org.openmetadata.service.events.ChangeEventConsumer;
 import org.openmetadata.service.events.EventPubSub;
-import org.openmetadata.service.events.EventPubSub.ChangeEventHolder;
 import org.openmetadata.service.events.MSTeamsWebhookPublisher;
 import org.openmetadata.service.events.WebhookPublisher;
 import org.openmetadata.service.resources.events.WebhookResource;
@@ -95,7 +94,7 @@ public class WebhookRepository extends EntityRepository<Webhook> {
     } else {
       publisher = new WebhookPublisher(webhook, daoCollection);
     }
-    BatchEventProcessor<ChangeEventHolder> processor = EventPubSub.addEventHandler(publisher);
+    ChangeEventConsumer processor = EventPubSub.addEventHandler(publisher);
     publisher.setProcessor(processor);
     webhookPublisherMap.put(webhook.getId(), publisher);
     LOG.info("Webhook subscription started for {}", webhook.getName());
@@ -115,9 +114,9 @@ public class WebhookRepository extends EntityRepository<Webhook> {
       // Update the existing publisher
       Status status = previousPublisher.getWebhook().getStatus();
       previousPublisher.updateWebhook(webhook);
-      if (status != Status.ACTIVE && status != Status.AWAITING_RETRY) {
+      if (status != Status.ACTIVE && status != Status.AWAITING_RETRY && !previousPublisher.getProcessor().isRunning()) {
         // Restart the previously stopped publisher (in states notStarted, error, retryLimitReached)
-        BatchEventProcessor<ChangeEventHolder> processor = EventPubSub.addEventHandler(previousPublisher);
+        ChangeEventConsumer processor = EventPubSub.addEventHandler(previousPublisher);
         previousPublisher.setProcessor(processor);
         LOG.info("Webhook publisher restarted for {}", webhook.getName());
       }
@@ -130,9 +129,10 @@ public class WebhookRepository extends EntityRepository<Webhook> {
   public void deleteWebhookPublisher(UUID id) throws InterruptedException {
     WebhookPublisher publisher = webhookPublisherMap.get(id);
     if (publisher != null) {
-      publisher.getProcessor().halt();
+      EventPubSub.removeConsumer(publisher.getProcessor());
       publisher.awaitShutdown();
-      EventPubSub.removeProcessor(publisher.getProcessor());
+      // Events published while the webhook is deleted or disabled are not delivered
+      EventPubSub.deleteOffset(publisher.getName());
       LOG.info("Webhook publisher deleted for {}", publisher.getWebhook().getName());
     }
     webhookPublisherMap.remove(id);
@@ -3,8 +3,13 @@ package org.openmetadata.service.resources;
 import static org.openmetadata.common.utils.CommonUtil.listOrEmpty;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import javax.json.JsonPatch;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
@@ -13,8 +18,10 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.openmetadata.schema.CreateEntity;
 import org.openmetadata.schema.EntityInterface;
+import org.openmetadata.schema.type.BulkEntityResult;
 import org.openmetadata.schema.type.EntityHistory;
 import org.openmetadata.schema.type.EntityReference;
+import org.openmetadata.schema.type.EntityResult;
 import org.openmetadata.schema.type.Include;
 import org.openmetadata.schema.type.MetadataOperation;
 import org.openmetadata.service.Entity;
@@ -25,6 +32,7 @@ import org.openmetadata.service.security.policyevaluator.OperationContext;
 import org.openmetadata.service.security.policyevaluator.ResourceContext;
 import org.openmetadata.service.security.policyevaluator.ResourceContextInterface;
 import org.openmetadata.service.util.EntityUtil.Fields;
+import org.openmetadata.service.util.LambdaExceptionUtil.FunctionWithExceptions;
 import org.openmetadata.service.util.RestUtil;
 import org.openmetadata.service.util.RestUtil.DeleteResponse;
 import org.openmetadata.service.util.RestUtil.PatchResponse;
@@ -199,6 +207,63 @@ public abstract class EntityResource<T extends EntityInterface, K extends Entity
     return response.toResponse();
   }
 
+  /**
+   * Create or update many entities of the same type. Each request is converted to an entity, prepared and authorized on
+   * its own, then the entities are created or updated together. A request that fails is reported in the result and does
+   * not fail the other requests.
+   */
+  public <C> Response bulkCreateOrUpdate(
+      UriInfo uriInfo,
+      SecurityContext securityContext,
+      List<C> requests,
+      FunctionWithExceptions<C, T, IOException> toEntity,
+      boolean allowBots)
+      throws IOException {
+    OperationContext createOperationContext = new OperationContext(entityType, MetadataOperation.CREATE);
+    Map<Integer, T> entities = new LinkedHashMap<>();
+    List<EntityResult> results = new ArrayList<>();
+    for (int i = 0; i < requests.size(); i++) {
+      T entity = null;
+      try {
+        entity = toEntity.apply(requests.get(i));
+        dao.prepare(entity);
+        authorizer.authorize(
+            securityContext,
+            createOperationContext,
+            getResourceContextByName(entity.getFullyQualifiedName()),
+            allowBots);
+        entities.put(i, entity);
+      } catch (Exception e) {
+        results.add(
+            new EntityResult()
+                .withIndex(i)
+                .withFullyQualifiedName(entity == null ? null : entity.getFullyQualifiedName())
+                .withStatus(EntityResult.Status.FAILED)
+                .withMessage(e.getMessage()));
+      }
+    }
+    results.addAll(dao.bulkCreateOrUpdate(uriInfo, entities));
+    results.sort(Comparator.comparing(EntityResult::getIndex));
+
+    Map<EntityResult.Status, Long> counts =
+        results.stream().collect(Collectors.groupingBy(EntityResult::getStatus, Collectors.counting()));
+    BulkEntityResult result =
+        new BulkEntityResult()
+            .withCreated(counts.getOrDefault(EntityResult.Status.CREATED, 0L).intValue())
+            .withUpdated(
+                counts.getOrDefault(EntityResult.Status.UPDATED, 0L).intValue()
+                    + counts.getOrDefault(EntityResult.Status.UNCHANGED, 0L).intValue())
+            .withFailed(counts.getOrDefault(EntityResult.Status.FAILED, 0L).intValue())
+            .withResults(results);
+    LOG.info(
+        "Created {}, updated {} and failed {} {} entities",
+        result.getCreated(),
+        result.getUpdated(),
+        result.getFailed(),
+        entityType);
+    return Response.ok(result).build();
+  }
+
   public Response patchInternal(UriInfo uriInfo, SecurityContext securityContext, UUID id, JsonPatch patch)
       throws IOException {
     OperationContext operationContext = new OperationContext(entityType, patch);
@@ -52,6 +52,7 @@ import org.openmetadata.schema.api.data.CreateTableProfile;
 import org.openmetadata.schema.api.tests.CreateCustomMetric;
 import org.openmetadata.schema.entity.data.Table;
 import org.openmetadata.schema.tests.CustomMetric;
+import org.openmetadata.schema.type.BulkEntityResult;
 import org.openmetadata.schema.type.ChangeEvent;
 import org.openmetadata.schema.type.ColumnProfile;
 import org.openmetadata.schema.type.DataModel;
@@ -65,6 +66,7 @@ import org.openmetadata.schema.type.TableProfile;
 import org.openmetadata.schema.type.TableProfilerConfig;
 import org.openmetadata.service.Entity;
 import org.openmetadata.service.jdbi3.CollectionDAO;
+import org.openmetadata.service.jdbi3.EntityTimeSeriesStore.TimeSeriesBucket;
 import org.openmetadata.service.jdbi3.ListFilter;
 import org.openmetadata.service.jdbi3.TableRepository;
 import org.openmetadata.service.resources.Collection;
@@ -153,6 +155,13 @@ public class TableResource extends EntityResource<Table, TableRepository> {
     }
   }
 
+  public static class TimeSeriesBucketList extends ResultList<TimeSeriesBucket> {
+    @SuppressWarnings("unused")
+    public TimeSeriesBucketList() {
+      /* Required for serde */
+    }
+  }
+
   static final String FIELDS =
       "tableConstraints,tablePartition,usageSummary,owner,customMetrics,"
           + "tags,followers,joins,sampleData,viewDefinition,tableProfilerConfig,profile,location,tableQueries,dataModel,tests,"
@@ -365,6 +374,30 @@ public class TableResource extends EntityResource<Table, TableRepository> {
     return createOrUpdate(uriInfo, securityContext, table, true);
   }
 
+  @PUT
+  @Path("/bulk")
+  @Operation(
+      operationId = "bulkCreateOrUpdateTables",
+      summary = "Create or update many tables",
+      tags = "tables",
+      description =
+          "Create the tables that do not exist and update the tables that already exist. A table that fails is "
+              + "reported in the result and does not fail the other tables.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Result for each table",
+            content =
+                @Content(mediaType = "application/json", schema = @Schema(implementation = BulkEntityResult.class))),
+        @ApiResponse(responseCode = "400", description = "Bad request")
+      })
+  public Response bulkCreateOrUpdate(
+      @Context UriInfo uriInfo, @Context SecurityContext securityContext, @Valid List<CreateTable> creates)
+      throws IOException {
+    String user = securityContext.getUserPrincipal().getName();
+    return bulkCreateOrUpdate(uriInfo, securityContext, creates, create -> getTable(create, user), true);
+  }
+
   @PATCH
   @Path("/{id}")
   @Operation(
@@ -660,6 +693,86 @@ public class TableResource extends EntityResource<Table, TableRepository> {
     return dao.getColumnProfiles(fqn, startTs, endTs);
   }
 
+  @GET
+  @Path("/{fqn}/tableProfile/summary")
+  @Operation(
+      operationId = "summarizeTableProfiles",
+      summary = "Summary of table profiles",
+      tags = "tables",
+      description =
+          "Get the min, max and average of the table profile metrics for the given table fqn per `interval` between "
+              + "`startTs` and `endTs`.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Table profile metrics per interval",
+            content =
+                @Content(mediaType = "application/json", schema = @Schema(implementation = TimeSeriesBucketList.class)))
+      })
+  public ResultList<TimeSeriesBucket> summarizeTableProfiles(
+      @Context SecurityContext securityContext,
+      @Parameter(description = "FQN of the table", schema = @Schema(type = "String")) @PathParam("fqn") String fqn,
+      @Parameter(
+              description = "Summarize table profiles after the given start timestamp",
+              schema = @Schema(type = "number"))
+          @NotNull
+          @QueryParam("startTs")
+          Long startTs,
+      @Parameter(
+              description = "Summarize table profiles before the given end timestamp",
+              schema = @Schema(type = "number"))
+          @NotNull
+          @QueryParam("endTs")
+          Long endTs,
+      @Parameter(description = "Length of an interval in the unit of the timestamps", schema = @Schema(type = "number"))
+          @DefaultValue("86400000")
+          @Min(1)
+          @QueryParam("interval")
+          long interval)
+      throws IOException {
+    return dao.getTableProfileSummary(fqn, startTs, endTs, interval);
+  }
+
+  @GET
+  @Path("/{fqn}/columnProfile/summary")
+  @Operation(
+      operationId = "summarizeColumnProfiles",
+      summary = "Summary of column profiles",
+      tags = "tables",
+      description =
+          "Get the min, max and average of the column profile metrics for the given column fqn per `interval` between "
+              + "`startTs` and `endTs`.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Column profile metrics per interval",
+            content =
+                @Content(mediaType = "application/json", schema = @Schema(implementation = TimeSeriesBucketList.class)))
+      })
+  public ResultList<TimeSeriesBucket> summarizeColumnProfiles(
+      @Context SecurityContext securityContext,
+      @Parameter(description = "FQN of the column", schema = @Schema(type = "String")) @PathParam("fqn") String fqn,
+      @Parameter(
+              description = "Summarize column profiles after the given start timestamp",
+              schema = @Schema(type = "number"))
+          @NotNull
+          @QueryParam("startTs")
+          Long startTs,
+      @Parameter(
+              description = "Summarize column profiles before the given end timestamp",
+              schema = @Schema(type = "number"))
+          @NotNull
+          @QueryParam("endTs")
+          Long endTs,
+      @Parameter(description = "Length of an interval in the unit of the timestamps", schema = @Schema(type = "number"))
+          @DefaultValue("86400000")
+          @Min(1)
+          @QueryParam("interval")
+          long interval)
+      throws IOException {
+    return dao.getColumnProfileSummary(fqn, startTs, endTs, interval);
+  }
+
   @PUT
   @Path("/{id}/tableProfile")
   @Operation(
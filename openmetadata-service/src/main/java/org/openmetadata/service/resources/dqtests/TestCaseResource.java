@@ -46,10 +46,12 @@ import org.openmetadata.schema.type.Include;
 import org.openmetadata.schema.type.MetadataOperation;
 import org.openmetadata.service.Entity;
 import org.openmetadata.service.jdbi3.CollectionDAO;
+import org.openmetadata.service.jdbi3.EntityTimeSeriesStore.TimeSeriesBucket;
 import org.openmetadata.service.jdbi3.ListFilter;
 import org.openmetadata.service.jdbi3.TestCaseRepository;
 import org.openmetadata.service.resources.Collection;
 import org.openmetadata.service.resources.EntityResource;
+import org.openmetadata.service.resources.databases.TableResource;
 import org.openmetadata.service.resources.feeds.MessageParser.EntityLink;
 import org.openmetadata.service.security.Authorizer;
 import org.openmetadata.service.security.policyevaluator.OperationContext;
@@ -503,6 +505,48 @@ public class TestCaseResource extends EntityResource<TestCase, TestCaseRepositor
     return dao.getTestCaseResults(fqn, startTs, endTs);
   }
 
+  @GET
+  @Path("/{fqn}/testCaseResult/summary")
+  @Operation(
+      operationId = "summarizeTestCaseResults",
+      summary = "Summary of testCase results",
+      tags = "TestCases",
+      description =
+          "Get the number of test case results of each status for the given testCase fqn per `interval` between "
+              + "`startTs` and `endTs`.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "TestCase results per interval",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = TableResource.TimeSeriesBucketList.class)))
+      })
+  public ResultList<TimeSeriesBucket> summarizeTestCaseResults(
+      @Context SecurityContext securityContext,
+      @Parameter(description = "fqn of the testCase", schema = @Schema(type = "string")) @PathParam("fqn") String fqn,
+      @Parameter(
+              description = "Summarize testCase results after the given start timestamp",
+              schema = @Schema(type = "number"))
+          @NonNull
+          @QueryParam("startTs")
+          Long startTs,
+      @Parameter(
+              description = "Summarize testCase results before the given end timestamp",
+              schema = @Schema(type = "number"))
+          @NonNull
+          @QueryParam("endTs")
+          Long endTs,
+      @Parameter(description = "Length of an interval in the unit of the timestamps", schema = @Schema(type = "number"))
+          @DefaultValue("86400000")
+          @Min(1)
+          @QueryParam("interval")
+          long interval)
+      throws IOException {
+    return dao.getTestCaseResultSummary(fqn, startTs, endTs, interval);
+  }
+
   @DELETE
   @Path("/{fqn}/testCaseResult/{timestamp}")
   @Operation(
@@ -1,7 +1,6 @@
 package org.openmetadata.service.resources.elasticSearch;
 
 import static org.openmetadata.service.Entity.TABLE;
-import static org.openmetadata.service.Entity.TEAM;
 
 import io.swagger.annotations.Api;
 import io.swagger.v3.oas.annotations.Operation;
@@ -17,7 +16,6 @@ import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.function.BiConsumer;
 import javax.validation.Valid;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
@@ -31,16 +29,9 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.UriInfo;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang.exception.ExceptionUtils;
-import org.elasticsearch.action.ActionListener;
-import org.elasticsearch.action.bulk.BackoffPolicy;
-import org.elasticsearch.action.bulk.BulkProcessor;
-import org.elasticsearch.action.bulk.BulkRequest;
-import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
-import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.openmetadata.schema.EntityInterface;
 import org.openmetadata.schema.api.CreateEventPublisherJob;
@@ -99,17 +90,6 @@ public class BuildSearchIndexResource {
     }
   }
 
-  private BulkProcessor getBulkProcessor(BulkProcessorListener listener, int bulkSize, int flushIntervalInSeconds) {
-    BiConsumer<BulkRequest, ActionListener<BulkResponse>> bulkConsumer =
-        (request, bulkListener) -> client.bulkAsync(request, RequestOptions.DEFAULT, bulkListener);
-    BulkProcessor.Builder builder = BulkProcessor.builder(bulkConsumer, listener, "es-reindex");
-    builder.setBulkActions(bulkSize);
-    builder.setConcurrentRequests(2);
-    builder.setFlushInterval(TimeValue.timeValueSeconds(flushIntervalInSeconds));
-    builder.setBackoffPolicy(BackoffPolicy.constantBackoff(TimeValue.timeValueSeconds(1L), 3));
-    return builder.build();
-  }
-
   @POST
   @Path("/reindex")
   @Operation(
@@ -242,68 +222,11 @@ public class BuildSearchIndexResource {
 
     // Update Listener for only Batch
     BulkProcessorListener bulkProcessorListener = new BulkProcessorListener(dao, startedBy);
-    BulkProcessor processor =
-        getBulkProcessor(bulkProcessorListener, createRequest.getBatchSize(), createRequest.getFlushIntervalInSec());
-
-    for (String entityName : createRequest.getEntities()) {
-      try {
-        updateEntityBatch(processor, bulkProcessorListener, uriInfo, entityName, createRequest);
-      } catch (Exception ex) {
-        LOG.error("Reindexing intermittent failure for entityType : {}", entityName, ex);
-      }
-    }
-  }
-
-  private synchronized void updateEntityBatch(
-      BulkProcessor processor,
-      BulkProcessorListener listener,
-      UriInfo uriInfo,
-      String entityType,
-      CreateEventPublisherJob createRequest) {
-    listener.allowTotalRequestUpdate();
-
-    ElasticSearchIndexDefinition.ElasticSearchIndexType indexType =
-        elasticSearchIndexDefinition.getIndexMappingByEntityType(entityType);
-
-    if (Boolean.TRUE.equals(createRequest.getRecreateIndex())) {
-      // Delete index
-      elasticSearchIndexDefinition.deleteIndex(indexType);
-      // Create index
-      elasticSearchIndexDefinition.createIndex(indexType);
-    }
-
-    // Start fetching a list of Entities and pushing them to ES
-    EntityRepository<EntityInterface> entityRepository = Entity.getEntityRepository(entityType);
-    List<String> allowedFields = entityRepository.getAllowedFields();
-    String fields = String.join(",", allowedFields);
-    ResultList<EntityInterface> result;
-    String after = null;
     try {
-      do {
-        if (entityType.equals(TEAM)) {
-          // just name and display name are needed
-          fields = "name,displayName";
-        }
-        result =
-            entityRepository.listAfter(
-                uriInfo,
-                new EntityUtil.Fields(allowedFields, fields),
-                new ListFilter(Include.ALL),
-                createRequest.getBatchSize(),
-                after);
-        listener.addRequests(result.getPaging().getTotal());
-        updateElasticSearchForEntityBatch(indexType, processor, entityType, result.getData());
-        processor.flush();
-        after = result.getPaging().getAfter();
-      } while (after != null);
-    } catch (Exception ex) {
-      LOG.error("Failed in listing all Entities of type : {}, Reason : ", entityType, ex);
-      FailureDetails failureDetails =
-          new FailureDetails()
-              .withContext(String.format("%s:Failure in fetching Data", entityType))
-              .withLastFailedReason(
-                  String.format("Failed in listing all Entities \n Reason : %s", ExceptionUtils.getStackTrace(ex)));
-      listener.updateElasticSearchStatus(EventPublisherJob.Status.IDLE, failureDetails, null);
+      new ReindexPipeline(client, dao, elasticSearchIndexDefinition, bulkProcessorListener, createRequest).run();
+    } catch (InterruptedException e) {
+      LOG.error("Reindexing Batch Job interrupted");
+      Thread.currentThread().interrupt();
     }
   }
 
@@ -313,12 +236,14 @@ public class BuildSearchIndexResource {
     ElasticSearchIndexDefinition.ElasticSearchIndexType indexType =
         elasticSearchIndexDefinition.getIndexMappingByEntityType(entityType);
 
+    // Build a new index while the current index keeps serving queries and swap the index alias when it is loaded
+    String shadowIndex = null;
+    long startOffset = 0;
     if (Boolean.TRUE.equals(createRequest.getRecreateIndex())) {
-      // Delete index
-      elasticSearchIndexDefinition.deleteIndex(indexType);
-      // Create index
-      elasticSearchIndexDefinition.createIndex(indexType);
+      shadowIndex = elasticSearchIndexDefinition.createShadowIndex(indexType);
+      startOffset = dao.changeEventDAO().getMaxOffset(); // Entities changed after the offset are written again
     }
+    String targetIndex = shadowIndex != null ? shadowIndex : indexType.indexName;
 
     // Start fetching a list of Entities and pushing them to ES
     EntityRepository<EntityInterface> entityRepository = Entity.getEntityRepository(entityType);
@@ -335,39 +260,30 @@ public class BuildSearchIndexResource {
                 new ListFilter(Include.ALL),
                 createRequest.getBatchSize(),
                 after);
-        updateElasticSearchForEntityStream(entityType, result.getData());
+        updateElasticSearchForEntityStream(targetIndex, entityType, result.getData());
         after = result.getPaging().getAfter();
       } while (after != null);
+      if (shadowIndex != null) {
+        ReindexPipeline.catchUp(client, dao, entityType, shadowIndex, startOffset, createRequest.getBatchSize());
+        elasticSearchIndexDefinition.promoteShadowIndex(indexType, shadowIndex);
+        shadowIndex = null;
+      }
     } catch (Exception ex) {
       LOG.error("Failed in listing all Entities of type : {}, Reason {}", entityType, ex);
-    }
-  }
-
-  private synchronized void updateElasticSearchForEntityBatch(
-      ElasticSearchIndexDefinition.ElasticSearchIndexType indexType,
-      BulkProcessor bulkProcessor,
-      String entityType,
-      List<EntityInterface> entities) {
-    for (EntityInterface entity : entities) {
-      if (entityType.equals(TABLE)) {
-        ((Table) entity).getColumns().forEach(table -> table.setProfile(null));
-      }
-      UpdateRequest request = getUpdateRequest(indexType, entityType, entity);
-      if (request != null) {
-        bulkProcessor.add(request);
+    } finally {
+      if (shadowIndex != null) {
+        elasticSearchIndexDefinition.discardShadowIndex(indexType, shadowIndex);
       }
     }
   }
 
-  private synchronized void updateElasticSearchForEntityStream(String entityType, List<EntityInterface> entities)
-      throws IOException {
+  private synchronized void updateElasticSearchForEntityStream(
+      String targetIndex, String entityType, List<EntityInterface> entities) throws IOException {
     String reindexJobString =
         dao.entityExtensionTimeSeriesDao()
             .getLatestExtension(ELASTIC_SEARCH_ENTITY_FQN_STREAM, ELASTIC_SEARCH_EXTENSION);
     EventPublisherJob latestJob = JsonUtils.readValue(reindexJobString, EventPublisherJob.class);
     Long lastUpdateTime = latestJob.getTimestamp();
-    ElasticSearchIndexDefinition.ElasticSearchIndexType indexType =
-        elasticSearchIndexDefinition.getIndexMappingByEntityType(entityType);
     for (EntityInterface entity : entities) {
       if (entityType.equals(TABLE)) {
         ((Table) entity).getColumns().forEach(table -> table.setProfile(null));
@@ -375,7 +291,7 @@ public class BuildSearchIndexResource {
       FailureDetails failureDetails;
       Long time = Date.from(LocalDateTime.now().atZone(ZoneId.systemDefault()).toInstant()).getTime();
       try {
-        client.update(getUpdateRequest(indexType, entityType, entity), RequestOptions.DEFAULT);
+        client.update(getUpdateRequest(targetIndex, entityType, entity), RequestOptions.DEFAULT);
       } catch (IOException ex) {
         failureDetails = new FailureDetails().withLastFailedAt(time).withLastFailedReason(ex.getMessage());
         latestJob.setFailureDetails(failureDetails);
@@ -392,10 +308,9 @@ public class BuildSearchIndexResource {
     }
   }
 
-  private UpdateRequest getUpdateRequest(
-      ElasticSearchIndexDefinition.ElasticSearchIndexType indexType, String entityType, EntityInterface entity) {
+  static UpdateRequest getUpdateRequest(String indexName, String entityType, EntityInterface entity) {
     try {
-      UpdateRequest updateRequest = new UpdateRequest(indexType.indexName, entity.getId().toString());
+      UpdateRequest updateRequest = new UpdateRequest(indexName, entity.getId().toString());
       updateRequest.doc(
           JsonUtils.pojoToJson(
               Objects.requireNonNull(ElasticSearchIndexFactory.buildIndex(entityType, entity)).buildESDoc()),
@@ -403,7 +318,7 @@ public class BuildSearchIndexResource {
       updateRequest.docAsUpsert(true);
       return updateRequest;
     } catch (Exception ex) {
-      LOG.error("Failed in creating update Request for indexType : {}, entityType: {}", indexType, entityType, ex);
+      LOG.error("Failed in creating update Request for index : {}, entityType: {}", indexName, entityType, ex);
     }
     return null;
   }
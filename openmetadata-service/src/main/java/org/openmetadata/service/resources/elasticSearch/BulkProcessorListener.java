@@ -6,7 +6,9 @@ import static org.openmetadata.service.resources.elasticSearch.BuildSearchIndexR
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang.exception.ExceptionUtils;
 import org.elasticsearch.action.bulk.BulkItemResponse;
@@ -15,6 +17,7 @@ import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
 import org.openmetadata.schema.settings.EventPublisherJob;
 import org.openmetadata.schema.settings.FailureDetails;
+import org.openmetadata.schema.settings.StageStats;
 import org.openmetadata.schema.settings.Stats;
 import org.openmetadata.service.jdbi3.CollectionDAO;
 import org.openmetadata.service.socket.WebSocketManager;
@@ -28,6 +31,7 @@ public class BulkProcessorListener implements BulkProcessor.Listener {
   private volatile int totalRequests = 0;
   private final CollectionDAO dao;
   private final UUID startedBy;
+  private volatile Supplier<List<StageStats>> stageStats = () -> null;
 
   public BulkProcessorListener(CollectionDAO dao, UUID startedBy) {
     this.dao = dao;
@@ -65,7 +69,7 @@ public class BulkProcessorListener implements BulkProcessor.Listener {
 
       EventPublisherJob.Status status =
           batchHasFailures ? EventPublisherJob.Status.ACTIVEWITHERROR : EventPublisherJob.Status.ACTIVE;
-      Stats stats = new Stats().withFailed(totalFailedCount).withSuccess(totalSuccessCount).withTotal(totalRequests);
+      Stats stats = getStats();
       FailureDetails hasFailureDetails = batchHasFailures ? failureDetails : null;
       updateElasticSearchStatus(status, hasFailureDetails, stats);
     } catch (RuntimeException e) {
@@ -78,7 +82,7 @@ public class BulkProcessorListener implements BulkProcessor.Listener {
     LOG.error("Failed to execute bulk", throwable);
     updateFailedAndSuccess(bulkRequest.numberOfActions(), 0);
     EventPublisherJob.Status status = EventPublisherJob.Status.ACTIVEWITHERROR;
-    Stats stats = new Stats().withFailed(totalFailedCount).withSuccess(totalSuccessCount).withTotal(totalRequests);
+    Stats stats = getStats();
     FailureDetails hasFailureDetails =
         new FailureDetails()
             .withContext(String.format("Bulk Requests : [%s] ", bulkRequest.getDescription()))
@@ -107,12 +111,26 @@ public class BulkProcessorListener implements BulkProcessor.Listener {
     updateTotalRequest = true;
   }
 
+  /** Set the source of the stage stats included in the job status */
+  public void setStageStats(Supplier<List<StageStats>> stageStats) {
+    this.stageStats = stageStats;
+  }
+
+  public synchronized Stats getStats() {
+    return new Stats()
+        .withFailed(totalFailedCount)
+        .withSuccess(totalSuccessCount)
+        .withTotal(totalRequests)
+        .withStages(stageStats.get());
+  }
+
   public synchronized void updateFailedAndSuccess(int failedCount, int successCount) {
     totalFailedCount += failedCount;
     totalSuccessCount += successCount;
   }
 
-  public void updateElasticSearchStatus(EventPublisherJob.Status status, FailureDetails failDetails, Stats newStats) {
+  public synchronized void updateElasticSearchStatus(
+      EventPublisherJob.Status status, FailureDetails failDetails, Stats newStats) {
     try {
       long updateTime = Date.from(LocalDateTime.now().atZone(ZoneId.systemDefault()).toInstant()).getTime();
       String recordString =
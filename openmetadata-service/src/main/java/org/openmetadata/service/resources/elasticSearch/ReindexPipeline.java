@@ -0,0 +1,482 @@
+/*
+ *  Copyright 2021 Collate
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openmetadata.service.resources.elasticSearch;
+
+import static org.openmetadata.service.Entity.TABLE;
+
+import com.google.common.collect.Lists;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang.exception.ExceptionUtils;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.bulk.BackoffPolicy;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.unit.TimeValue;
+import org.openmetadata.schema.EntityInterface;
+import org.openmetadata.schema.api.CreateEventPublisherJob;
+import org.openmetadata.schema.entity.data.Table;
+import org.openmetadata.schema.settings.EventPublisherJob;
+import org.openmetadata.schema.settings.FailureDetails;
+import org.openmetadata.schema.settings.StageStats;
+import org.openmetadata.schema.type.Include;
+import org.openmetadata.service.Entity;
+import org.openmetadata.service.elasticsearch.ElasticSearchIndexDefinition;
+import org.openmetadata.service.elasticsearch.ElasticSearchIndexDefinition.ElasticSearchIndexType;
+import org.openmetadata.service.elasticsearch.ElasticSearchIndexFactory;
+import org.openmetadata.service.jdbi3.CollectionDAO;
+import org.openmetadata.service.jdbi3.EntityRepository;
+import org.openmetadata.service.jdbi3.ListFilter;
+import org.openmetadata.service.util.EntityUtil.Fields;
+
+/**
+ * Reindex pipeline used by the batch mode of {@link BuildSearchIndexResource}. Entities are processed in three stages
+ * connected by bounded queues:
+ *
+ * <ul>
+ *   <li>read - each entity type is split into keyset ranges of {@code rangeSize} entities by name and the ranges of all
+ *       the entity types are read from the database in parallel by {@code concurrency} threads. Only the fields needed
+ *       by the {@link org.openmetadata.service.elasticsearch.ElasticSearchIndex} of the entity type are loaded.
+ *   <li>build - pages of entities are taken from the read queue and converted to ES update requests.
+ *   <li>write - update requests are sent in bulk by the {@link BulkProcessor} with {@code concurrency} concurrent
+ *       requests. Adding a request to the processor blocks while all the concurrent requests are in flight.
+ * </ul>
+ *
+ * A full queue blocks the stage that feeds it, so the memory used is bounded regardless of the number of entities.
+ * Count of entities processed and time spent by each stage are reported in the job status. When a build thread fails,
+ * the readers stop waiting on the queue and build the pages they read themselves.
+ *
+ * <p>When the indexes are recreated, entities are written to a new shadow index per index type while the current
+ * index keeps serving queries. The shadow index is promoted by moving the index alias to it once it is fully loaded.
+ * See {@link ElasticSearchIndexDefinition#createShadowIndex}.
+ */
+@Slf4j
+public class ReindexPipeline {
+  static final String READ_STAGE = "read";
+  static final String BUILD_STAGE = "build";
+  static final String WRITE_STAGE = "write";
+  private static final int PAGES_QUEUED_PER_READER = 2;
+  private static final Batch END = new Batch(null, null, Collections.emptyList());
+
+  private final RestHighLevelClient client;
+  private final CollectionDAO dao;
+  private final ElasticSearchIndexDefinition indexDefinition;
+  private final BulkProcessorListener listener;
+  private final CreateEventPublisherJob request;
+  private final int concurrency;
+  private final BlockingQueue<Batch> queue;
+  private final CompletableFuture<Void> building = new CompletableFuture<>(); // Fails when a build thread fails
+  private final Stage readStage = new Stage(READ_STAGE);
+  private final Stage buildStage = new Stage(BUILD_STAGE);
+  private final Stage writeStage = new Stage(WRITE_STAGE);
+  private final Map<ElasticSearchIndexType, String> shadowIndexes = new EnumMap<>(ElasticSearchIndexType.class);
+  private final Map<ElasticSearchIndexType, List<String>> entityTypesByIndex =
+      new EnumMap<>(ElasticSearchIndexType.class);
+  private final Set<ElasticSearchIndexType> incompleteIndexes = ConcurrentHashMap.newKeySet();
+  private long startTime;
+  private long startOffset; // Change event offset before the entities are read
+
+  public ReindexPipeline(
+      RestHighLevelClient client,
+      CollectionDAO dao,
+      ElasticSearchIndexDefinition indexDefinition,
+      BulkProcessorListener listener,
+      CreateEventPublisherJob request) {
+    this.client = client;
+    this.dao = dao;
+    this.indexDefinition = indexDefinition;
+    this.listener = listener;
+    this.request = request;
+    this.concurrency = request.getConcurrency();
+    this.queue = new ArrayBlockingQueue<>(concurrency * PAGES_QUEUED_PER_READER);
+    listener.setStageStats(this::getStageStats);
+  }
+
+  /** Reindex the entity types in the request. Returns after all the entities are sent to ES. */
+  public void run() throws InterruptedException {
+    startTime = System.currentTimeMillis();
+    List<Range> ranges = prepare();
+    startOffset = dao.changeEventDAO().getMaxOffset(); // Taken after the shadow indexes receive published changes
+    LOG.info("Reindexing {} entity types in {} ranges", request.getEntities().size(), ranges.size());
+
+    BulkProcessor processor = getBulkProcessor();
+    ExecutorService readers = Executors.newFixedThreadPool(concurrency);
+    ExecutorService builders = Executors.newFixedThreadPool(concurrency);
+    try {
+      for (int i = 0; i < concurrency; i++) {
+        builders.submit(() -> buildDocs(processor));
+      }
+      List<Future<?>> reads = new ArrayList<>();
+      for (Range range : ranges) {
+        reads.add(readers.submit(() -> readRange(range, processor)));
+      }
+      for (Future<?> read : reads) {
+        try {
+          read.get();
+        } catch (ExecutionException e) {
+          LOG.error("Reindexing range failed", e.getCause());
+        }
+      }
+      for (int i = 0; i < concurrency; i++) {
+        enqueue(END, processor);
+      }
+      builders.shutdown();
+      builders.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+      buildQueued(processor); // Left in the queue when the build threads failed
+      processor.awaitClose(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+      promoteShadowIndexes();
+    } finally {
+      readers.shutdownNow();
+      builders.shutdownNow();
+      processor.close();
+      shadowIndexes.forEach(indexDefinition::discardShadowIndex);
+    }
+    LOG.info(
+        "Reindexing completed in {} ms with stats {}", System.currentTimeMillis() - startTime, getStageStats());
+    listener.updateElasticSearchStatus(EventPublisherJob.Status.IDLE, null, listener.getStats());
+  }
+
+  /**
+   * Create the shadow indexes when the indexes are recreated, count the entities to reindex, and split each entity type
+   * into ranges. Ranges of the entity types are interleaved so that the entity types are reindexed concurrently.
+   */
+  private List<Range> prepare() {
+    List<Queue<Range>> rangesByType = new ArrayList<>();
+    for (String entityType : request.getEntities()) {
+      ElasticSearchIndexType indexType = null;
+      try {
+        indexType = indexDefinition.getIndexMappingByEntityType(entityType);
+        String targetIndex = indexType.indexName;
+        if (Boolean.TRUE.equals(request.getRecreateIndex())) {
+          if (!shadowIndexes.containsKey(indexType)) {
+            shadowIndexes.put(indexType, indexDefinition.createShadowIndex(indexType));
+          }
+          targetIndex = shadowIndexes.get(indexType);
+        }
+        entityTypesByIndex.computeIfAbsent(indexType, k -> new ArrayList<>()).add(entityType);
+        EntityRepository<EntityInterface> repository = Entity.getEntityRepository(entityType);
+        ListFilter filter = new ListFilter(Include.ALL);
+        listener.allowTotalRequestUpdate();
+        listener.addRequests(repository.listCount(filter));
+
+        Queue<Range> ranges = new ArrayDeque<>();
+        String start = "";
+        for (String boundary : repository.listRangeBoundaries(filter, request.getRangeSize())) {
+          ranges.add(new Range(entityType, indexType, targetIndex, start, boundary));
+          start = boundary;
+        }
+        ranges.add(new Range(entityType, indexType, targetIndex, start, null));
+        rangesByType.add(ranges);
+      } catch (Exception ex) {
+        LOG.error("Failed to prepare reindexing of entity type : {}", entityType, ex);
+        recordFailure(indexType, entityType, "Failure in preparing reindex", ex);
+      }
+    }
+    List<Range> ranges = new ArrayList<>();
+    while (!rangesByType.isEmpty()) {
+      rangesByType.forEach(typeRanges -> ranges.add(typeRanges.remove()));
+      rangesByType.removeIf(Queue::isEmpty);
+    }
+    return ranges;
+  }
+
+  private void readRange(Range range, BulkProcessor processor) {
+    EntityRepository<EntityInterface> repository = Entity.getEntityRepository(range.entityType);
+    Fields fields = repository.getFields(ElasticSearchIndexFactory.getIndexFields(range.entityType));
+    ListFilter filter = new ListFilter(Include.ALL);
+    int batchSize = request.getBatchSize();
+    String after = range.start;
+    List<EntityInterface> entities;
+    try {
+      do {
+        long start = System.nanoTime();
+        entities = repository.listRange(fields, filter, batchSize, after, range.end);
+        readStage.record(entities.size(), start);
+        if (!entities.isEmpty()) {
+          enqueue(new Batch(range.entityType, range.targetIndex, entities), processor);
+          after = repository.getRangeCursor(entities.get(entities.size() - 1));
+        }
+      } while (entities.size() == batchSize);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception ex) {
+      LOG.error("Failed in listing Entities of type : {} after {}", range.entityType, after, ex);
+      recordFailure(range.indexType, range.entityType, "Failure in fetching Data", ex);
+    }
+  }
+
+  private void buildDocs(BulkProcessor processor) {
+    Batch batch = null;
+    try {
+      for (batch = queue.take(); batch != END; batch = queue.take()) {
+        build(batch, processor);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception ex) {
+      LOG.error("Failed in building documents of type : {}", batch.entityType, ex);
+      ElasticSearchIndexType indexType = indexDefinition.getIndexMappingByEntityType(batch.entityType);
+      recordFailure(indexType, batch.entityType, "Failure in building documents", ex);
+      building.completeExceptionally(ex);
+    }
+  }
+
+  private void build(Batch batch, BulkProcessor processor) {
+    long start = System.nanoTime();
+    List<UpdateRequest> requests = new ArrayList<>(batch.entities.size());
+    for (EntityInterface entity : batch.entities) {
+      UpdateRequest updateRequest = getUpdateRequest(batch.targetIndex, batch.entityType, entity);
+      if (updateRequest != null) {
+        requests.add(updateRequest);
+      } else {
+        listener.updateFailedAndSuccess(1, 0);
+      }
+    }
+    buildStage.record(batch.entities.size(), start);
+    requests.forEach(processor::add);
+  }
+
+  /**
+   * Hand a page over to the build threads. Once a build thread has failed, the queue may never be taken from again, so
+   * the page and the pages left in the queue are built on the calling thread instead.
+   */
+  private void enqueue(Batch batch, BulkProcessor processor) throws InterruptedException {
+    while (!building.isCompletedExceptionally()) {
+      if (queue.offer(batch, 1, TimeUnit.SECONDS)) {
+        return;
+      }
+    }
+    buildQueued(processor);
+    if (batch != END) {
+      build(batch, processor);
+    }
+  }
+
+  private void buildQueued(BulkProcessor processor) {
+    for (Batch batch = queue.poll(); batch != null; batch = queue.poll()) {
+      if (batch != END) {
+        build(batch, processor);
+      }
+    }
+  }
+
+  private static UpdateRequest getUpdateRequest(String targetIndex, String entityType, EntityInterface entity) {
+    if (TABLE.equals(entityType) && ((Table) entity).getColumns() != null) {
+      ((Table) entity).getColumns().forEach(column -> column.setProfile(null));
+    }
+    return BuildSearchIndexResource.getUpdateRequest(targetIndex, entityType, entity);
+  }
+
+  /**
+   * Promote the shadow indexes that were fully loaded. Before the alias is moved, the entities changed after the start
+   * offset are written again to the shadow index so that the changes published by any server while the
+   * entities were read are not lost. Shadow indexes of entity types that failed to be read are discarded.
+   */
+  private void promoteShadowIndexes() {
+    Iterator<Map.Entry<ElasticSearchIndexType, String>> iterator = shadowIndexes.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<ElasticSearchIndexType, String> entry = iterator.next();
+      ElasticSearchIndexType indexType = entry.getKey();
+      String shadowIndex = entry.getValue();
+      iterator.remove();
+      if (incompleteIndexes.contains(indexType)) {
+        LOG.warn("Reindexing of {} is incomplete, keeping the current index", indexType.indexName);
+        indexDefinition.discardShadowIndex(indexType, shadowIndex);
+        continue;
+      }
+      try {
+        for (String entityType : entityTypesByIndex.get(indexType)) {
+          catchUp(client, dao, entityType, shadowIndex, startOffset, request.getBatchSize());
+        }
+        indexDefinition.promoteShadowIndex(indexType, shadowIndex);
+      } catch (Exception ex) {
+        LOG.error("Failed to promote shadow index {}", shadowIndex, ex);
+        recordFailure(indexType, indexType.indexName, "Failure in promoting reindexed index", ex);
+        indexDefinition.discardShadowIndex(indexType, shadowIndex);
+      }
+    }
+  }
+
+  /**
+   * Write the entities of a type with change events after {@code offset} to the shadow index. The offset is taken once
+   * the shadow index receives the changes published by this server and before the entities are read, so a change made
+   * on any server is either read with the entities or has an event after the offset. An entity with several events
+   * after the offset is read and written once, with its latest state.
+   */
+  static void catchUp(
+      RestHighLevelClient client,
+      CollectionDAO dao,
+      String entityType,
+      String shadowIndex,
+      long offset,
+      int batchSize)
+      throws IOException {
+    EntityRepository<EntityInterface> repository = Entity.getEntityRepository(entityType);
+    Fields fields = repository.getFields(ElasticSearchIndexFactory.getIndexFields(entityType));
+    List<UUID> ids =
+        dao.changeEventDAO().listEntityIds(entityType, offset).stream()
+            .map(UUID::fromString)
+            .collect(Collectors.toList());
+    LOG.info("Reindexing {} entities of type {} changed during reindex", ids.size(), entityType);
+    for (List<UUID> batch : Lists.partition(ids, batchSize)) {
+      BulkRequest bulkRequest = new BulkRequest();
+      Set<UUID> deleted = new HashSet<>(batch);
+      for (EntityInterface entity : repository.listByIds(fields, batch)) {
+        deleted.remove(entity.getId());
+        UpdateRequest updateRequest = getUpdateRequest(shadowIndex, entityType, entity);
+        if (updateRequest != null) {
+          bulkRequest.add(updateRequest);
+        }
+      }
+      deleted.forEach(id -> bulkRequest.add(new DeleteRequest(shadowIndex, id.toString())));
+      if (bulkRequest.numberOfActions() > 0) {
+        BulkResponse response = client.bulk(bulkRequest, RequestOptions.DEFAULT);
+        if (response.hasFailures()) {
+          LOG.warn("Failed to reindex changed entities of type {} {}", entityType, response.buildFailureMessage());
+        }
+      }
+    }
+  }
+
+  private BulkProcessor getBulkProcessor() {
+    BiConsumer<BulkRequest, ActionListener<BulkResponse>> bulkConsumer =
+        (bulkRequest, bulkListener) -> client.bulkAsync(bulkRequest, RequestOptions.DEFAULT, bulkListener);
+    BulkProcessor.Builder builder = BulkProcessor.builder(bulkConsumer, new WriteStageListener(), "es-reindex");
+    builder.setBulkActions(request.getBatchSize());
+    builder.setConcurrentRequests(concurrency);
+    builder.setFlushInterval(TimeValue.timeValueSeconds(request.getFlushIntervalInSec()));
+    builder.setBackoffPolicy(BackoffPolicy.exponentialBackoff(TimeValue.timeValueSeconds(1L), 3));
+    return builder.build();
+  }
+
+  private void recordFailure(ElasticSearchIndexType indexType, String entityType, String context, Exception ex) {
+    if (indexType != null) {
+      incompleteIndexes.add(indexType);
+    }
+    FailureDetails failureDetails =
+        new FailureDetails()
+            .withContext(String.format("%s:%s", entityType, context))
+            .withLastFailedReason(
+                String.format("Failed in reindexing Entities \n Reason : %s", ExceptionUtils.getStackTrace(ex)));
+    listener.updateElasticSearchStatus(EventPublisherJob.Status.ACTIVEWITHERROR, failureDetails, listener.getStats());
+  }
+
+  List<StageStats> getStageStats() {
+    long elapsed = System.currentTimeMillis() - startTime;
+    return List.of(readStage.getStats(elapsed), buildStage.getStats(elapsed), writeStage.getStats(elapsed));
+  }
+
+  /** Records the write stage and passes the results of the bulk requests to the job listener */
+  private class WriteStageListener implements BulkProcessor.Listener {
+    private final Map<Long, Long> bulkStartTimes = new ConcurrentHashMap<>();
+
+    @Override
+    public void beforeBulk(long executionId, BulkRequest bulkRequest) {
+      bulkStartTimes.put(executionId, System.nanoTime());
+      listener.beforeBulk(executionId, bulkRequest);
+    }
+
+    @Override
+    public void afterBulk(long executionId, BulkRequest bulkRequest, BulkResponse bulkResponse) {
+      writeStage.record(bulkRequest.numberOfActions(), bulkStartTimes.remove(executionId));
+      listener.afterBulk(executionId, bulkRequest, bulkResponse);
+    }
+
+    @Override
+    public void afterBulk(long executionId, BulkRequest bulkRequest, Throwable throwable) {
+      writeStage.record(bulkRequest.numberOfActions(), bulkStartTimes.remove(executionId));
+      listener.afterBulk(executionId, bulkRequest, throwable);
+    }
+  }
+
+  static class Stage {
+    private final String name;
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong elapsedNanos = new AtomicLong();
+
+    Stage(String name) {
+      this.name = name;
+    }
+
+    void record(int count, long startNanos) {
+      processed.addAndGet(count);
+      elapsedNanos.addAndGet(System.nanoTime() - startNanos);
+    }
+
+    StageStats getStats(long jobElapsedMillis) {
+      long count = processed.get();
+      return new StageStats()
+          .withName(name)
+          .withProcessed((int) count)
+          .withElapsedTime((int) TimeUnit.NANOSECONDS.toMillis(elapsedNanos.get()))
+          .withThroughput(jobElapsedMillis > 0 ? count * 1000.0 / jobElapsedMillis : 0.0);
+    }
+  }
+
+  private static class Range {
+    private final String entityType;
+    private final ElasticSearchIndexType indexType;
+    private final String targetIndex;
+    private final String start; // Exclusive
+    private final String end; // Inclusive, null when the range is not bounded
+
+    private Range(String entityType, ElasticSearchIndexType indexType, String targetIndex, String start, String end) {
+      this.entityType = entityType;
+      this.indexType = indexType;
+      this.targetIndex = targetIndex;
+      this.start = start;
+      this.end = end;
+    }
+  }
+
+  private static class Batch {
+    private final String entityType;
+    private final String targetIndex;
+    private final List<EntityInterface> entities;
+
+    private Batch(String entityType, String targetIndex, List<EntityInterface> entities) {
+      this.entityType = entityType;
+      this.targetIndex = targetIndex;
+      this.entities = entities;
+    }
+  }
+}
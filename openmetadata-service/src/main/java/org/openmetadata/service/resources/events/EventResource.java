@@ -23,17 +23,25 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Objects;
 import javax.validation.Valid;
+import javax.validation.constraints.Min;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
+import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.UriInfo;
 import lombok.Getter;
 import org.openmetadata.schema.type.ChangeEvent;
 import org.openmetadata.service.Entity.EntityList;
+import org.openmetadata.service.events.EventPubSub;
+import org.openmetadata.service.exception.CatalogExceptionMessage;
+import org.openmetadata.service.exception.EntityNotFoundException;
 import org.openmetadata.service.jdbi3.ChangeEventRepository;
 import org.openmetadata.service.jdbi3.CollectionDAO;
 import org.openmetadata.service.resources.Collection;
@@ -122,4 +130,33 @@ public class EventResource {
     events.sort(EntityUtil.compareChangeEvent); // Sort change events based on time
     return new ChangeEventList(events, null, null, events.size()); // TODO
   }
+
+  @PUT
+  @Path("/consumers/{name}/offset")
+  @Operation(
+      operationId = "rewindChangeEventConsumer",
+      summary = "Move the offset of a change event consumer",
+      tags = "events",
+      description =
+          "Move the committed offset of a change event consumer such as `elasticsearch` or `webhook-<webhookId>`. "
+              + "The consumer delivers again the change events after the given offset.",
+      responses = {
+        @ApiResponse(responseCode = "200", description = "Offset of the consumer is moved"),
+        @ApiResponse(responseCode = "404", description = "Consumer {name} is not found")
+      })
+  public Response rewind(
+      @Context UriInfo uriInfo,
+      @Context SecurityContext securityContext,
+      @Parameter(description = "Name of the consumer", schema = @Schema(type = "string")) @PathParam("name")
+          String name,
+      @Parameter(description = "Offset after which the events are delivered", schema = @Schema(type = "long"))
+          @QueryParam("offset")
+          @Min(0)
+          long offset) {
+    authorizer.authorizeAdmin(securityContext, false);
+    if (!EventPubSub.rewind(name, offset)) {
+      throw EntityNotFoundException.byMessage(CatalogExceptionMessage.entityNotFound("changeEventConsumer", name));
+    }
+    return Response.ok().build();
+  }
 }
@@ -76,6 +76,7 @@ import org.openmetadata.service.security.policyevaluator.PostResourceContext;
 import org.openmetadata.service.security.policyevaluator.ResourceContextInterface;
 import org.openmetadata.service.security.policyevaluator.ThreadResourceContext;
 import org.openmetadata.service.util.EntityUtil;
+import org.openmetadata.service.util.EntityUtil.Fields;
 import org.openmetadata.service.util.RestUtil;
 import org.openmetadata.service.util.RestUtil.PatchResponse;
 import org.openmetadata.service.util.ResultList;
@@ -87,6 +88,7 @@ import org.openmetadata.service.util.ResultList;
 @Collection(name = "feeds")
 public class FeedResource {
   public static final String COLLECTION_PATH = "/v1/feed/";
+  public static final List<String> ADD_POST_FIELDS = List.of("posts");
 
   private final FeedRepository dao;
   private final Authorizer authorizer;
@@ -460,7 +462,7 @@ public class FeedResource {
       responses = {
         @ApiResponse(
             responseCode = "200",
-            description = "The post",
+            description = "The thread with the new post, or with all its posts when `posts` field is requested",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = Thread.class))),
         @ApiResponse(responseCode = "400", description = "Bad request")
       })
@@ -468,10 +470,17 @@ public class FeedResource {
       @Context SecurityContext securityContext,
       @Context UriInfo uriInfo,
       @PathParam("id") String id,
+      @Parameter(
+              description = "Fields requested in the returned thread. Use `posts` to get all the posts of the thread",
+              schema = @Schema(type = "string", example = "posts"))
+          @QueryParam("fields")
+          String fieldsParam,
       @Valid CreatePost createPost)
       throws IOException {
+    Fields fields = new Fields(ADD_POST_FIELDS, fieldsParam);
     Post post = getPost(createPost);
-    Thread thread = addHref(uriInfo, dao.addPostToThread(id, post, securityContext.getUserPrincipal().getName()));
+    String userName = securityContext.getUserPrincipal().getName();
+    Thread thread = addHref(uriInfo, dao.addPostToThread(id, post, userName, fields.contains("posts")));
     return Response.created(thread.getHref()).entity(thread).build();
   }
 
@@ -576,15 +585,35 @@ public class FeedResource {
       operationId = "getAllPostOfThread",
       summary = "Get all the posts of a thread",
       tags = "feeds",
-      description = "Get all the posts of an existing thread.",
+      description =
+          "Get all the posts of an existing thread, oldest first. When `limit` is given, a page of the posts is "
+              + "returned with cursors to the previous and next pages.",
       responses = {
         @ApiResponse(
             responseCode = "200",
             description = "The posts of the given thread.",
             content = @Content(mediaType = "application/json", schema = @Schema(implementation = PostList.class))),
       })
-  public PostList getPosts(@Context UriInfo uriInfo, @PathParam("id") String id) throws IOException {
-    return new PostList(dao.listPosts(id));
+  public PostList getPosts(
+      @Context UriInfo uriInfo,
+      @PathParam("id") String id,
+      @Parameter(description = "Limit the number of posts returned. (1 to 1000000, default = all the posts)")
+          @Min(1)
+          @Max(1000000)
+          @QueryParam("limit")
+          Integer limitParam,
+      @Parameter(description = "Returns list of posts before this cursor", schema = @Schema(type = "string"))
+          @QueryParam("before")
+          String before,
+      @Parameter(description = "Returns list of posts after this cursor", schema = @Schema(type = "string"))
+          @QueryParam("after")
+          String after)
+      throws IOException {
+    RestUtil.validateCursors(before, after);
+    if (limitParam == null && before == null && after == null) {
+      return new PostList(dao.listPosts(id));
+    }
+    return dao.listPosts(id, limitParam == null ? 10 : limitParam, before, after);
   }
 
   private Thread getThread(SecurityContext securityContext, CreateThread create) {
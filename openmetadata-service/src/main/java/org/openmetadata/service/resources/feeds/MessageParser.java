@@ -15,6 +15,8 @@ package org.openmetadata.service.resources.feeds;
 
 import static org.openmetadata.service.exception.CatalogExceptionMessage.INVALID_ENTITY_LINK;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -60,6 +62,10 @@ public final class MessageParser {
               + // Non-greedy collection group 7 for optional ::{arrayFieldValue} // and 8 for arrayFieldValue
               ">"); // Match for end of link name
 
+  // Entity links parsed recently, as the links of threads and tags are parsed for each thread listed
+  private static final Cache<String, EntityLink> ENTITY_LINK_CACHE =
+      CacheBuilder.newBuilder().maximumSize(10000).build();
+
   public static class EntityLink {
     private final LinkType linkType;
     private final String entityType;
@@ -132,6 +138,15 @@ public final class MessageParser {
     }
 
     public static EntityLink parse(String link) {
+      EntityLink entityLink = ENTITY_LINK_CACHE.getIfPresent(link);
+      if (entityLink == null) {
+        entityLink = parseLink(link);
+        ENTITY_LINK_CACHE.put(link, entityLink);
+      }
+      return entityLink;
+    }
+
+    private static EntityLink parseLink(String link) {
       // Entity links also have support for fallback texts with "|"
       // example: <#E::user::user1|[@User One](http://localhost:8585/user/user1)>
       // Extract the entity link alone if the string has a fallback text
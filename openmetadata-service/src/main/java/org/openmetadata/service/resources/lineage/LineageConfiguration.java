@@ -11,18 +11,20 @@
  *  limitations under the License.
  */
 
-package org.openmetadata.service.resources.feeds;
+package org.openmetadata.service.resources.lineage;
 
-import org.openmetadata.schema.entity.feed.Thread;
-import org.openmetadata.schema.type.Post;
+import javax.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.openmetadata.service.jdbi3.LineageRepository;
 
-public final class FeedUtil {
+@Getter
+@Setter
+public class LineageConfiguration {
+  /** Keep the lineage graph in memory to traverse lineage without querying the database */
+  private boolean inMemoryIndexEnabled = false;
 
-  private FeedUtil() {}
-
-  public static void addPost(Thread thread, Post post) {
-    // Add new post to the thread
-    thread.getPosts().add(post);
-    thread.withPostsCount(thread.getPosts().size());
-  }
+  /** Maximum number of nodes returned in the lineage of an entity */
+  @Min(1)
+  private int maxNodes = LineageRepository.DEFAULT_MAX_NODES;
 }
@@ -50,7 +50,9 @@ import org.openmetadata.schema.type.EntityReference;
 import org.openmetadata.schema.type.MetadataOperation;
 import org.openmetadata.schema.type.TagLabel;
 import org.openmetadata.service.Entity;
+import org.openmetadata.service.OpenMetadataApplicationConfig;
 import org.openmetadata.service.jdbi3.CollectionDAO;
+import org.openmetadata.service.jdbi3.LineageGraph;
 import org.openmetadata.service.jdbi3.LineageRepository;
 import org.openmetadata.service.resources.Collection;
 import org.openmetadata.service.security.Authorizer;
@@ -63,14 +65,24 @@ import org.openmetadata.service.security.policyevaluator.ResourceContextInterfac
 @Consumes(MediaType.APPLICATION_JSON)
 @Collection(name = "lineage")
 public class LineageResource {
-  private final LineageRepository dao;
+  private final CollectionDAO collectionDAO;
+  private LineageRepository dao;
   private final Authorizer authorizer;
 
   public LineageResource(@NonNull CollectionDAO dao, Authorizer authorizer) {
+    this.collectionDAO = dao;
     this.dao = new LineageRepository(dao);
     this.authorizer = authorizer;
   }
 
+  public void initialize(OpenMetadataApplicationConfig config) {
+    LineageConfiguration lineageConfiguration = config.getLineageConfiguration();
+    this.dao = new LineageRepository(collectionDAO, lineageConfiguration.getMaxNodes());
+    if (lineageConfiguration.isInMemoryIndexEnabled()) {
+      LineageGraph.initialize(collectionDAO);
+    }
+  }
+
   @GET
   @Valid
   @Path("/{entity}/{id}")
@@ -25,6 +25,7 @@ import javax.annotation.CheckForNull;
 import lombok.extern.slf4j.Slf4j;
 import org.openmetadata.schema.settings.Settings;
 import org.openmetadata.service.exception.EntityNotFoundException;
+import org.openmetadata.service.jdbi3.CacheInvalidationFeed;
 import org.openmetadata.service.jdbi3.CollectionDAO;
 import org.openmetadata.service.jdbi3.SettingsRepository;
 
@@ -41,9 +42,10 @@ public class SettingsCache {
       SETTINGS_CACHE =
           CacheBuilder.newBuilder()
               .maximumSize(1000)
-              .expireAfterAccess(1, TimeUnit.MINUTES)
+              .expireAfterAccess(CacheInvalidationFeed.getInstance().getCacheExpiryMinutes(1), TimeUnit.MINUTES)
               .build(new SettingsLoader());
       SETTINGS_REPOSITORY = new SettingsRepository(dao);
+      CacheInvalidationFeed.getInstance().register(CacheInvalidationFeed.SETTINGS, SettingsCache::evictSettings);
       INITIALIZED = true;
     }
   }
@@ -62,6 +64,7 @@ public class SettingsCache {
 
   public void putSettings(Settings setting) throws RuntimeException {
     SETTINGS_CACHE.put(setting.getConfigType().toString(), setting);
+    CacheInvalidationFeed.getInstance().publish(CacheInvalidationFeed.SETTINGS, setting.getConfigType().toString());
   }
 
   public static void cleanUp() {
@@ -70,6 +73,11 @@ public class SettingsCache {
   }
 
   public void invalidateSettings(String settingsName) {
+    evictSettings(settingsName);
+    CacheInvalidationFeed.getInstance().publish(CacheInvalidationFeed.SETTINGS, settingsName);
+  }
+
+  private static void evictSettings(String settingsName) {
     try {
       SETTINGS_CACHE.invalidate(settingsName);
     } catch (Exception ex) {
@@ -123,6 +123,7 @@ import org.openmetadata.service.security.AuthorizationException;
 import org.openmetadata.service.security.Authorizer;
 import org.openmetadata.service.security.auth.BotTokenCache;
 import org.openmetadata.service.security.auth.LoginAttemptCache;
+import org.openmetadata.service.security.auth.VerifiedTokenCache;
 import org.openmetadata.service.security.jwt.JWTTokenGenerator;
 import org.openmetadata.service.security.policyevaluator.OperationContext;
 import org.openmetadata.service.security.policyevaluator.ResourceContext;
@@ -430,6 +431,7 @@ public class UserResource extends EntityResource<User, UserRepository> {
                 .withUsername(securityContext.getUserPrincipal().getName())
                 .withToken(request.getToken())
                 .withLogoutTime(logoutTime));
+    VerifiedTokenCache.getInstance().invalidateToken(request.getToken());
     if (isBasicAuth() && request.getRefreshToken() != null) {
       // need to clear the refresh token as well
       tokenRepository.deleteToken(request.getRefreshToken());
@@ -626,6 +628,7 @@ public class UserResource extends EntityResource<User, UserRepository> {
     addHref(uriInfo, response.getEntity());
     // Invalidate Bot Token in Cache
     BotTokenCache.getInstance().invalidateToken(user.getName());
+    VerifiedTokenCache.getInstance().invalidateUser(user.getName());
     return response.toResponse();
   }
 
@@ -35,8 +35,11 @@ import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.UriInfo;
 import lombok.extern.slf4j.Slf4j;
+import org.openmetadata.schema.type.BulkUsage;
+import org.openmetadata.schema.type.BulkUsageResult;
 import org.openmetadata.schema.type.DailyCount;
 import org.openmetadata.schema.type.EntityUsage;
 import org.openmetadata.service.Entity;
@@ -278,6 +281,37 @@ public class UsageResource {
     return dao.createOrUpdateByName(entity, fullyQualifiedName, usage).toResponse();
   }
 
+  @PUT
+  @Path("/{entity}/bulk")
+  @Operation(
+      operationId = "reportBulkEntityUsage",
+      summary = "Report usage of many entities",
+      tags = "usage",
+      description =
+          "Report usage information for many entities of a type by name on a given date. This is the same as "
+              + "reporting the usage of each of the entities by name, and computes the percentile ranks once.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Number of entities whose usage is updated and the names of the entities not found",
+            content =
+                @Content(mediaType = "application/json", schema = @Schema(implementation = BulkUsageResult.class))),
+        @ApiResponse(responseCode = "400", description = "Bad request")
+      })
+  public BulkUsageResult bulkCreateOrUpdate(
+      @Context UriInfo uriInfo,
+      @Context SecurityContext securityContext,
+      @Parameter(
+              description = "Entity type for which usage is reported",
+              required = true,
+              schema = @Schema(type = "string", example = "table, report, metrics, or dashboard"))
+          @PathParam("entity")
+          String entity,
+      @Parameter(description = "Usage information of the entities on a given date") @Valid BulkUsage usage)
+      throws IOException {
+    return dao.bulkCreateOrUpdate(entity, usage, securityContext.getUserPrincipal().getName());
+  }
+
   @POST
   @Path("/compute.percentile/{entity}/{date}")
   @Operation(
@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
 import java.util.TreeMap;
+import java.util.UUID;
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.container.ContainerRequestFilter;
 import javax.ws.rs.core.MultivaluedMap;
@@ -46,6 +47,8 @@ import org.openmetadata.schema.auth.LogoutRequest;
 import org.openmetadata.schema.teams.authn.SSOAuthMechanism;
 import org.openmetadata.service.security.auth.BotTokenCache;
 import org.openmetadata.service.security.auth.CatalogSecurityContext;
+import org.openmetadata.service.security.auth.VerifiedTokenCache;
+import org.openmetadata.service.security.auth.VerifiedTokenCache.VerifiedToken;
 import org.openmetadata.service.security.saml.JwtTokenCacheManager;
 
 @Slf4j
@@ -59,6 +62,7 @@ public class JwtFilter implements ContainerRequestFilter {
   private String principalDomain;
   private boolean enforcePrincipalDomain;
   private String providerType;
+  private final String tokenScope = UUID.randomUUID().toString(); // Scope of the tokens verified by this filter
   public static final List<String> EXCLUDED_ENDPOINTS =
       List.of(
           "v1/config",
@@ -115,19 +119,15 @@ public class JwtFilter implements ContainerRequestFilter {
     LOG.debug("Token from header:{}", tokenFromHeader);
 
     // the case where OMD generated the Token for the Client
-    if (providerType.equals(SSOAuthMechanism.SsoServiceType.BASIC.toString())) {
+    if (SSOAuthMechanism.SsoServiceType.BASIC.toString().equals(providerType)) {
       validateTokenIsNotUsedAfterLogout(tokenFromHeader);
     }
 
-    DecodedJWT jwt = validateAndReturnDecodedJwtToken(tokenFromHeader);
-
-    Map<String, Claim> claims = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-    claims.putAll(jwt.getClaims());
-
-    String userName = validateAndReturnUsername(claims);
+    VerifiedToken verifiedToken = verifyToken(tokenFromHeader);
+    String userName = verifiedToken.getUserName();
 
     // validate bot token
-    if (claims.containsKey(BOT_CLAIM) && Boolean.TRUE.equals(claims.get(BOT_CLAIM).asBoolean())) {
+    if (verifiedToken.isBot()) {
       validateBotToken(tokenFromHeader, userName);
     }
 
@@ -140,6 +140,24 @@ public class JwtFilter implements ContainerRequestFilter {
     requestContext.setSecurityContext(catalogSecurityContext);
   }
 
+  /**
+   * Verifies the token and returns the user it is issued to. A token is verified once by each filter and then kept in
+   * {@link VerifiedTokenCache} until it expires.
+   */
+  public VerifiedToken verifyToken(String token) {
+    VerifiedToken verifiedToken = VerifiedTokenCache.getInstance().get(tokenScope, token);
+    if (verifiedToken == null) {
+      DecodedJWT jwt = validateAndReturnDecodedJwtToken(token);
+      Map<String, Claim> claims = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+      claims.putAll(jwt.getClaims());
+      String userName = validateAndReturnUsername(claims);
+      boolean bot = claims.containsKey(BOT_CLAIM) && Boolean.TRUE.equals(claims.get(BOT_CLAIM).asBoolean());
+      verifiedToken = new VerifiedToken(userName, bot, jwt.getExpiresAt());
+      VerifiedTokenCache.getInstance().put(tokenScope, token, verifiedToken);
+    }
+    return verifiedToken;
+  }
+
   @SneakyThrows
   public DecodedJWT validateAndReturnDecodedJwtToken(String token) {
     // Decode JWT Token
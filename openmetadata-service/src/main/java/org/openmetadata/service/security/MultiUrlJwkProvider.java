@@ -18,19 +18,59 @@ import com.auth0.jwk.JwkException;
 import com.auth0.jwk.JwkProvider;
 import com.auth0.jwk.SigningKeyNotFoundException;
 import com.auth0.jwk.UrlJwkProvider;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import java.net.URL;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import javax.annotation.CheckForNull;
 
+/**
+ * Looks up signing keys in the JWKS of several URLs. Keys are cached by key id. A cached key is fetched again in the
+ * background once it is older than the refresh interval, so that requests keep using the cached key while the JWKS is
+ * fetched, and rotated or removed keys are picked up without a request having to wait for the URL.
+ *
+ * <p>When the background fetch fails, the cached key is used for at most one more refresh interval. It then expires,
+ * and the tokens signed with it are rejected until the JWKS can be fetched again, so that a key removed from the JWKS
+ * while the URL is unreachable is not trusted for longer than that.
+ */
 final class MultiUrlJwkProvider implements JwkProvider {
+  private static final long REFRESH_MINUTES = 5;
+  private static final long EXPIRY_MINUTES = 2 * REFRESH_MINUTES;
   private final List<UrlJwkProvider> urlJwkProviders;
+  private final LoadingCache<String, Jwk> keys;
 
   public MultiUrlJwkProvider(List<URL> publicKeyUris) {
     this.urlJwkProviders = publicKeyUris.stream().map(UrlJwkProvider::new).collect(Collectors.toUnmodifiableList());
+    this.keys =
+        CacheBuilder.newBuilder()
+            .maximumSize(100)
+            .refreshAfterWrite(REFRESH_MINUTES, TimeUnit.MINUTES)
+            .expireAfterWrite(EXPIRY_MINUTES, TimeUnit.MINUTES)
+            .build(CacheLoader.asyncReloading(new KeyLoader(), ForkJoinPool.commonPool()));
   }
 
   @Override
   public Jwk get(String keyId) throws JwkException {
+    if (keyId == null) {
+      return fetch(null); // Tokens without key id use the only key of the JWKS, which can not be cached by key id
+    }
+    try {
+      return keys.get(keyId);
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof JwkException) {
+        throw (JwkException) e.getCause();
+      }
+      throw new SigningKeyNotFoundException("Failed to get key with kid " + keyId, e.getCause());
+    }
+  }
+
+  private Jwk fetch(String keyId) throws JwkException {
     JwkException lastException = new SigningKeyNotFoundException("No key found in with kid " + keyId, null);
     for (UrlJwkProvider jwkProvider : urlJwkProviders) {
       try {
@@ -41,4 +81,11 @@ final class MultiUrlJwkProvider implements JwkProvider {
     }
     throw lastException;
   }
+
+  class KeyLoader extends CacheLoader<String, Jwk> {
+    @Override
+    public Jwk load(@CheckForNull String keyId) throws JwkException {
+      return fetch(keyId);
+    }
+  }
 }
@@ -14,6 +14,7 @@ import org.openmetadata.schema.entity.teams.AuthenticationMechanism;
 import org.openmetadata.schema.entity.teams.User;
 import org.openmetadata.schema.teams.authn.JWTAuthMechanism;
 import org.openmetadata.service.Entity;
+import org.openmetadata.service.jdbi3.CacheInvalidationFeed;
 import org.openmetadata.service.jdbi3.UserRepository;
 import org.openmetadata.service.resources.teams.UserResource;
 import org.openmetadata.service.util.EntityUtil;
@@ -27,7 +28,11 @@ public class BotTokenCache {
 
   public BotTokenCache() {
     BOTS_TOKEN_CACHE =
-        CacheBuilder.newBuilder().maximumSize(1000).expireAfterAccess(15, TimeUnit.MINUTES).build(new BotTokenLoader());
+        CacheBuilder.newBuilder()
+            .maximumSize(1000)
+            .expireAfterAccess(CacheInvalidationFeed.getInstance().getCacheExpiryMinutes(15), TimeUnit.MINUTES)
+            .build(new BotTokenLoader());
+    CacheInvalidationFeed.getInstance().register(CacheInvalidationFeed.BOT_TOKEN, this::evictToken);
   }
 
   public String getToken(String botName) {
@@ -46,6 +51,11 @@ public class BotTokenCache {
   }
 
   public void invalidateToken(String botName) {
+    evictToken(botName);
+    CacheInvalidationFeed.getInstance().publish(CacheInvalidationFeed.BOT_TOKEN, botName);
+  }
+
+  private void evictToken(String botName) {
     try {
       BOTS_TOKEN_CACHE.invalidate(botName);
     } catch (Exception ex) {
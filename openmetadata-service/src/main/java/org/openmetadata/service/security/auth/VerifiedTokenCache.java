@@ -0,0 +1,112 @@
+/*
+ *  Copyright 2021 Collate
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openmetadata.service.security.auth;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+
+/**
+ * Tokens whose signature has already been verified, with the user they were issued to. Verifying the signature of a
+ * token needs a key lookup and an RSA verification, which is expensive for clients such as ingestion bots that send
+ * thousands of requests with the same token. Tokens are kept by their SHA-256 hash and dropped when they expire, when
+ * the user logs out, or when the token of a bot is revoked.
+ *
+ * <p>Whether a token is valid depends on the keys and claims of the filter that verified it, so tokens are kept per
+ * scope, one for each filter. A token verified by one filter is verified again by the others.
+ */
+@Slf4j
+public class VerifiedTokenCache {
+  private static final VerifiedTokenCache INSTANCE = new VerifiedTokenCache();
+  private final Cache<String, VerifiedToken> verifiedTokens;
+
+  private VerifiedTokenCache() {
+    verifiedTokens = CacheBuilder.newBuilder().maximumSize(10000).expireAfterWrite(10, TimeUnit.MINUTES).build();
+  }
+
+  public static VerifiedTokenCache getInstance() {
+    return INSTANCE;
+  }
+
+  /** Returns the token verified in the scope, or null when the token is not verified yet or has expired */
+  public VerifiedToken get(String scope, String token) {
+    String key = key(scope, token);
+    VerifiedToken verifiedToken = verifiedTokens.getIfPresent(key);
+    if (verifiedToken != null && verifiedToken.isExpired()) {
+      verifiedTokens.invalidate(key);
+      return null;
+    }
+    return verifiedToken;
+  }
+
+  public void put(String scope, String token, VerifiedToken verifiedToken) {
+    verifiedTokens.put(key(scope, token), verifiedToken);
+  }
+
+  /** Drop the token in all the scopes, for example when the user logs out */
+  public void invalidateToken(String token) {
+    try {
+      String suffix = "/" + hash(token);
+      verifiedTokens.asMap().keySet().removeIf(key -> key.endsWith(suffix));
+    } catch (Exception ex) {
+      LOG.error("Failed to invalidate verified token cache", ex);
+    }
+  }
+
+  /** Drop all the tokens issued to a user, for example when the token of a bot is revoked */
+  public void invalidateUser(String userName) {
+    try {
+      verifiedTokens.asMap().values().removeIf(verifiedToken -> verifiedToken.getUserName().equals(userName));
+    } catch (Exception ex) {
+      LOG.error("Failed to invalidate verified token cache for user {}", userName, ex);
+    }
+  }
+
+  private static String key(String scope, String token) {
+    return scope + "/" + hash(token);
+  }
+
+  private static String hash(String token) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+      return Hex.encodeHexString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Getter
+  public static class VerifiedToken {
+    private final String userName;
+    private final boolean bot;
+    private final Date expiresAt; // Null for tokens that never expire
+
+    public VerifiedToken(String userName, boolean bot, Date expiresAt) {
+      this.userName = userName;
+      this.bot = bot;
+      this.expiresAt = expiresAt;
+    }
+
+    public boolean isExpired() {
+      return expiresAt != null && expiresAt.getTime() < System.currentTimeMillis();
+    }
+  }
+}
@@ -25,6 +25,7 @@ import org.springframework.expression.spel.support.StandardEvaluationContext;
 @Slf4j
 public class CompiledRule extends Rule {
   private static final SpelExpressionParser EXPRESSION_PARSER = new SpelExpressionParser();
+  private static final List<String> OWNER_FUNCTIONS = List.of("noOwner", "isOwner", "matchTeam");
   @JsonIgnore private Expression expression;
   @JsonIgnore @Getter private boolean resourceBased = false;
 
@@ -208,6 +209,24 @@ public class CompiledRule extends Rule {
     return getOperations().contains(operation);
   }
 
+  private boolean matchAnyOperation(String resource, List<MetadataOperation> operations) {
+    return matchResource(resource) && operations.stream().anyMatch(this::matchOperation);
+  }
+
+  /** Returns true if the rule applies to one of the operations on the resource, with a condition on the owner */
+  boolean hasOwnerCondition(String resource, List<MetadataOperation> operations) {
+    String condition = getCondition();
+    return condition != null
+        && OWNER_FUNCTIONS.stream().anyMatch(condition::contains)
+        && matchAnyOperation(resource, operations);
+  }
+
+  /** Returns true if the rule applies to one of the operations on the resource, and is evaluated for resource owners */
+  boolean isResourceBased(String resource, List<MetadataOperation> operations) {
+    getExpression(); // Finds out if the rule is resource based
+    return resourceBased && matchAnyOperation(resource, operations);
+  }
+
   private boolean matchExpression(
       PolicyContext policyContext, SubjectContext subjectContext, ResourceContextInterface resourceContext) {
     Expression expression = getExpression();
@@ -26,9 +26,13 @@ import javax.annotation.CheckForNull;
 import lombok.extern.slf4j.Slf4j;
 import org.openmetadata.schema.entity.policies.Policy;
 import org.openmetadata.schema.entity.policies.accessControl.Rule;
+import org.openmetadata.schema.type.Include;
+import org.openmetadata.schema.type.MetadataOperation;
 import org.openmetadata.service.Entity;
 import org.openmetadata.service.exception.EntityNotFoundException;
+import org.openmetadata.service.jdbi3.CacheInvalidationFeed;
 import org.openmetadata.service.jdbi3.EntityRepository;
+import org.openmetadata.service.jdbi3.ListFilter;
 import org.openmetadata.service.util.EntityUtil.Fields;
 
 /** Subject context used for Access Control Policies */
@@ -40,6 +44,8 @@ public class PolicyCache {
   protected static LoadingCache<UUID, List<CompiledRule>> POLICY_CACHE;
   private static EntityRepository<Policy> POLICY_REPOSITORY;
   private static Fields FIELDS;
+  private static final int POLICY_PAGE_SIZE = 100;
+  private static volatile ResourceBasedRules RESOURCE_BASED_RULES;
 
   public static PolicyCache getInstance() {
     return INSTANCE;
@@ -51,6 +57,8 @@ public class PolicyCache {
       POLICY_CACHE = CacheBuilder.newBuilder().maximumSize(100).build(new PolicyLoader());
       POLICY_REPOSITORY = Entity.getEntityRepository(Entity.POLICY);
       FIELDS = POLICY_REPOSITORY.getFields("rules");
+      CacheInvalidationFeed.getInstance()
+          .register(CacheInvalidationFeed.POLICY, id -> evictPolicy(UUID.fromString(id)));
       INITIALIZED = true;
     }
   }
@@ -63,9 +71,28 @@ public class PolicyCache {
     }
   }
 
+  /**
+   * Returns true if a policy has a resource based rule for one of the operations on the resource. The resource based
+   * rules of the policies of the owner of an entity are evaluated for all the users, so decisions depend on the owner.
+   */
+  public boolean hasResourceBasedRules(String resource, List<MetadataOperation> operations) throws IOException {
+    ResourceBasedRules rules = RESOURCE_BASED_RULES;
+    if (rules == null || rules.version != SubjectCache.getVersion()) {
+      rules = new ResourceBasedRules();
+      RESOURCE_BASED_RULES = rules;
+    }
+    return rules.rules.stream().anyMatch(rule -> rule.isResourceBased(resource, operations));
+  }
+
   public void invalidatePolicy(UUID policyId) {
+    evictPolicy(policyId);
+    CacheInvalidationFeed.getInstance().publish(CacheInvalidationFeed.POLICY, policyId.toString());
+  }
+
+  private static void evictPolicy(UUID policyId) {
     try {
       POLICY_CACHE.invalidate(policyId);
+      SubjectCache.incrementVersion();
     } catch (Exception ex) {
       LOG.error("Failed to invalidate cache for policy {}", policyId, ex);
     }
@@ -81,9 +108,34 @@ public class PolicyCache {
 
   public static void cleanUp() {
     POLICY_CACHE.cleanUp();
+    SubjectCache.incrementVersion();
     INITIALIZED = false;
   }
 
+  /** Resource based rules of all the policies, loaded once for each version of users, teams, roles and policies */
+  static class ResourceBasedRules {
+    private final long version;
+    private final List<CompiledRule> rules = new ArrayList<>();
+
+    ResourceBasedRules() throws IOException {
+      this.version = SubjectCache.getVersion();
+      ListFilter filter = new ListFilter(Include.NON_DELETED);
+      String after = null;
+      List<Policy> policies;
+      do {
+        policies = POLICY_REPOSITORY.listRange(FIELDS, filter, POLICY_PAGE_SIZE, after, null);
+        for (Policy policy : policies) {
+          for (CompiledRule rule : getInstance().getRules(policy)) {
+            if (rule.getExpression() != null && rule.isResourceBased()) {
+              rules.add(rule);
+            }
+          }
+          after = POLICY_REPOSITORY.getRangeCursor(policy);
+        }
+      } while (policies.size() == POLICY_PAGE_SIZE);
+    }
+  }
+
   static class PolicyLoader extends CacheLoader<UUID, List<CompiledRule>> {
     @Override
     public List<CompiledRule> load(@CheckForNull UUID policyId) throws IOException {
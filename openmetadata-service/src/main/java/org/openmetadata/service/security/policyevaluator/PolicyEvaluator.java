@@ -13,6 +13,10 @@
 
 package org.openmetadata.service.security.policyevaluator;
 
+import static org.openmetadata.common.utils.CommonUtil.listOrEmpty;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -20,15 +24,20 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.openmetadata.schema.entity.policies.Policy;
 import org.openmetadata.schema.entity.policies.accessControl.Rule;
+import org.openmetadata.schema.type.EntityReference;
 import org.openmetadata.schema.type.MetadataOperation;
 import org.openmetadata.schema.type.Permission;
 import org.openmetadata.schema.type.Permission.Access;
 import org.openmetadata.schema.type.ResourceDescriptor;
 import org.openmetadata.schema.type.ResourcePermission;
+import org.openmetadata.schema.type.TagLabel;
 import org.openmetadata.service.ResourceRegistry;
 import org.openmetadata.service.exception.CatalogExceptionMessage;
 import org.openmetadata.service.security.AuthorizationException;
@@ -49,9 +58,17 @@ import org.openmetadata.service.security.policyevaluator.SubjectContext.PolicyCo
  *   <li>Second, all the Allow rules are applied and if there is rule match, then the operation is allowed.
  *   <li>All operations that don't a match rule are not allowed.
  * </ul>
+ *
+ * <p>Conditions of rules only depend on the user, the owner and the tags of the resource. Decisions are cached by the
+ * user, the operations, and the owner and tags of the resource when rules depend on them, so that the decision made for
+ * one entity is reused for all the other entities with the same owner and tags. The cache is keyed by the version of
+ * {@link SubjectCache}, which changes when a user, team, role or policy changes.
  */
 @Slf4j
 public class PolicyEvaluator {
+  /** Reason an operation is denied by the key of the decision, or empty when the operation is allowed */
+  private static final Cache<String, Optional<String>> DECISION_CACHE =
+      CacheBuilder.newBuilder().maximumSize(10000).expireAfterWrite(1, TimeUnit.MINUTES).build();
 
   private PolicyEvaluator() {}
 
@@ -61,17 +78,45 @@ public class PolicyEvaluator {
       @NonNull ResourceContextInterface resourceContext,
       @NonNull OperationContext operationContext)
       throws IOException {
+    boolean ownerRules = hasOwnerRules(subjectContext, operationContext);
+    String key = getDecisionKey(subjectContext, resourceContext, operationContext, ownerRules);
+    Optional<String> denied = DECISION_CACHE.getIfPresent(key);
+    if (denied == null) {
+      try {
+        evaluatePermission(subjectContext, resourceContext, operationContext, ownerRules);
+        denied = Optional.empty();
+      } catch (AuthorizationException e) {
+        denied = Optional.of(e.getMessage());
+      }
+      DECISION_CACHE.put(key, denied);
+    }
+    if (denied.isPresent()) {
+      throw new AuthorizationException(denied.get());
+    }
+    operationContext.getOperations().clear(); // All the operations are allowed
+  }
+
+  private static void evaluatePermission(
+      SubjectContext subjectContext,
+      ResourceContextInterface resourceContext,
+      OperationContext operationContext,
+      boolean ownerRules)
+      throws IOException {
     // First run through all the DENY policies based on the user
     evaluateDenySubjectPolicies(subjectContext, resourceContext, operationContext);
 
     // Next run through all the DENY policies based on the resource
-    evaluateDenyResourcePolicies(subjectContext, resourceContext, operationContext);
+    if (ownerRules) {
+      evaluateDenyResourcePolicies(subjectContext, resourceContext, operationContext);
+    }
 
     // Next run through all the ALLOW policies based on the user
     evaluateAllowSubjectPolicies(subjectContext, resourceContext, operationContext);
 
     // Next run through all the ALLOW policies based on the resource
-    evaluateAllowResourcePolicies(subjectContext, resourceContext, operationContext);
+    if (ownerRules) {
+      evaluateAllowResourcePolicies(subjectContext, resourceContext, operationContext);
+    }
 
     if (!operationContext.getOperations().isEmpty()) { // Some operations have not been allowed
       throw new AuthorizationException(
@@ -80,6 +125,48 @@ public class PolicyEvaluator {
     }
   }
 
+  /**
+   * Returns true if the decision depends on the owner of the resource: a rule of the user for the operations has a
+   * condition on the owner, or a policy has resource based rules that are evaluated for the owners of the resource.
+   */
+  private static boolean hasOwnerRules(SubjectContext subjectContext, OperationContext operationContext)
+      throws IOException {
+    String resource = operationContext.getResource();
+    List<MetadataOperation> operations = operationContext.getOperations();
+    return subjectContext.hasOwnerConditions(resource, operations)
+        || PolicyCache.getInstance().hasResourceBasedRules(resource, operations);
+  }
+
+  /**
+   * Key of a decision. It has everything the conditions of the rules evaluated for the decision depend on. The entity
+   * is only loaded for its owner when the owner is used by the rules, and for its tags when the conditions match tags.
+   */
+  private static String getDecisionKey(
+      SubjectContext subjectContext,
+      ResourceContextInterface resourceContext,
+      OperationContext operationContext,
+      boolean ownerRules)
+      throws IOException {
+    StringBuilder key =
+        new StringBuilder()
+            .append(SubjectCache.getVersion())
+            .append('|')
+            .append(subjectContext.getUser().getName())
+            .append('|')
+            .append(operationContext.getResource())
+            .append('|')
+            .append(operationContext.getOperations());
+    EntityReference owner = ownerRules ? resourceContext.getOwner() : null;
+    if (owner != null) {
+      key.append('|').append(owner.getType()).append(':').append(owner.getId()).append(':').append(owner.getName());
+    }
+    if (subjectContext.hasTagConditions(owner)) { // Tags are only loaded when a condition needs them
+      List<TagLabel> tags = listOrEmpty(resourceContext.getTags());
+      key.append('|').append(tags.stream().map(TagLabel::getTagFQN).sorted().collect(Collectors.joining(",")));
+    }
+    return key.toString();
+  }
+
   private static void evaluateDenySubjectPolicies(
       SubjectContext subjectContext, ResourceContextInterface resourceContext, OperationContext operationContext) {
     evaluatePolicies(subjectContext.getPolicies(), subjectContext, resourceContext, operationContext, true, false);
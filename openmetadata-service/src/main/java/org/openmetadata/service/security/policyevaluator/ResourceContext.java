@@ -12,6 +12,7 @@ import org.openmetadata.schema.EntityInterface;
 import org.openmetadata.schema.type.EntityReference;
 import org.openmetadata.schema.type.TagLabel;
 import org.openmetadata.service.Entity;
+import org.openmetadata.service.exception.EntityNotFoundException;
 import org.openmetadata.service.jdbi3.EntityRepository;
 import org.openmetadata.service.util.EntityUtil;
 
@@ -28,6 +29,7 @@ public class ResourceContext implements ResourceContextInterface {
   private UUID id;
   private String name;
   private EntityInterface entity; // Will be lazily initialized
+  private boolean resolved;
 
   @Override
   public EntityReference getOwner() throws IOException {
@@ -46,8 +48,10 @@ public class ResourceContext implements ResourceContextInterface {
     return resolveEntity();
   }
 
+  /** Entity being accessed, or null when it does not exist yet, such as when it is created with PUT */
   private EntityInterface resolveEntity() throws IOException {
-    if (entity == null) {
+    if (!resolved) {
+      resolved = true;
       String fields = "";
       if (entityRepository.isSupportsOwner()) {
         fields = EntityUtil.addField(fields, Entity.FIELD_OWNER);
@@ -55,10 +59,14 @@ public class ResourceContext implements ResourceContextInterface {
       if (entityRepository.isSupportsTags()) {
         fields = EntityUtil.addField(fields, Entity.FIELD_TAGS);
       }
-      if (id != null) {
-        entity = entityRepository.get(null, id, entityRepository.getFields(fields));
-      } else if (name != null) {
-        entity = entityRepository.getByName(null, name, entityRepository.getFields(fields));
+      try {
+        if (id != null) {
+          entity = entityRepository.get(null, id, entityRepository.getFields(fields));
+        } else if (name != null) {
+          entity = entityRepository.getByName(null, name, entityRepository.getFields(fields));
+        }
+      } catch (EntityNotFoundException e) {
+        entity = null; // An entity that does not exist has no owner and no tags
       }
     }
     return entity;
@@ -25,6 +25,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.openmetadata.schema.entity.teams.Role;
 import org.openmetadata.service.Entity;
 import org.openmetadata.service.exception.EntityNotFoundException;
+import org.openmetadata.service.jdbi3.CacheInvalidationFeed;
 import org.openmetadata.service.jdbi3.EntityRepository;
 import org.openmetadata.service.util.EntityUtil.Fields;
 
@@ -47,6 +48,7 @@ public class RoleCache {
       ROLE_CACHE = CacheBuilder.newBuilder().maximumSize(100).build(new RoleLoader());
       ROLE_REPOSITORY = Entity.getEntityRepository(Entity.ROLE);
       FIELDS = ROLE_REPOSITORY.getFields("policies");
+      CacheInvalidationFeed.getInstance().register(CacheInvalidationFeed.ROLE, id -> evictRole(UUID.fromString(id)));
       INITIALIZED = true;
     }
   }
@@ -60,8 +62,14 @@ public class RoleCache {
   }
 
   public void invalidateRole(UUID roleId) {
+    evictRole(roleId);
+    CacheInvalidationFeed.getInstance().publish(CacheInvalidationFeed.ROLE, roleId.toString());
+  }
+
+  private static void evictRole(UUID roleId) {
     try {
       ROLE_CACHE.invalidate(roleId);
+      SubjectCache.incrementVersion();
     } catch (Exception ex) {
       LOG.error("Failed to invalidate cache for role {}", roleId, ex);
     }
@@ -78,6 +86,7 @@ public class RoleCache {
 
   public static void cleanUp() {
     ROLE_CACHE.cleanUp();
+    SubjectCache.incrementVersion();
     INITIALIZED = false;
   }
 }
@@ -15,18 +15,25 @@ package org.openmetadata.service.security.policyevaluator;
 
 import static org.openmetadata.common.utils.CommonUtil.listOrEmpty;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.Stack;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import javax.annotation.CheckForNull;
+import lombok.Getter;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.openmetadata.schema.entity.teams.Team;
@@ -34,7 +41,11 @@ import org.openmetadata.schema.entity.teams.User;
 import org.openmetadata.schema.type.EntityReference;
 import org.openmetadata.service.Entity;
 import org.openmetadata.service.exception.EntityNotFoundException;
+import org.openmetadata.service.jdbi3.AfterCommit;
+import org.openmetadata.service.jdbi3.CacheInvalidationFeed;
 import org.openmetadata.service.jdbi3.EntityRepository;
+import org.openmetadata.service.security.policyevaluator.SubjectContext.PolicyContext;
+import org.openmetadata.service.security.policyevaluator.SubjectContext.TeamPolicyIterator;
 import org.openmetadata.service.util.EntityUtil.Fields;
 
 /** Subject context used for Access Control Policies */
@@ -45,6 +56,10 @@ public class SubjectCache {
 
   protected static LoadingCache<String, SubjectContext> USER_CACHE;
   protected static LoadingCache<UUID, Team> TEAM_CACHE;
+  protected static Cache<UUID, TeamClosure> TEAM_CLOSURE_CACHE;
+
+  // Incremented when a user, team, role or policy changes. Anything computed from them for an older version is rebuilt.
+  private static final AtomicLong VERSION = new AtomicLong();
 
   protected static EntityRepository<User> USER_REPOSITORY;
   protected static Fields USER_FIELDS;
@@ -54,14 +69,25 @@ public class SubjectCache {
   // Expected to be called only once from the DefaultAuthorizer
   public static void initialize() {
     if (!INITIALIZED) {
+      int expiryMinutes = CacheInvalidationFeed.getInstance().getCacheExpiryMinutes(1);
       USER_CACHE =
-          CacheBuilder.newBuilder().maximumSize(1000).expireAfterAccess(1, TimeUnit.MINUTES).build(new UserLoader());
+          CacheBuilder.newBuilder()
+              .maximumSize(1000)
+              .expireAfterWrite(expiryMinutes, TimeUnit.MINUTES)
+              .build(new UserLoader());
       TEAM_CACHE =
-          CacheBuilder.newBuilder().maximumSize(1000).expireAfterAccess(1, TimeUnit.MINUTES).build(new TeamLoader());
+          CacheBuilder.newBuilder()
+              .maximumSize(1000)
+              .expireAfterWrite(expiryMinutes, TimeUnit.MINUTES)
+              .build(new TeamLoader());
+      TEAM_CLOSURE_CACHE =
+          CacheBuilder.newBuilder().maximumSize(1000).expireAfterWrite(expiryMinutes, TimeUnit.MINUTES).build();
       USER_REPOSITORY = Entity.getEntityRepository(Entity.USER);
       USER_FIELDS = USER_REPOSITORY.getFields("roles, teams");
       TEAM_REPOSITORY = Entity.getEntityRepository(Entity.TEAM);
       TEAM_FIELDS = TEAM_REPOSITORY.getFields("defaultRoles, policies, parents");
+      CacheInvalidationFeed.getInstance().register(CacheInvalidationFeed.USER, SubjectCache::evictUser);
+      CacheInvalidationFeed.getInstance().register(CacheInvalidationFeed.TEAM, id -> evictTeams(UUID.fromString(id)));
       INSTANCE = new SubjectCache();
       INITIALIZED = true;
       LOG.info("Subject cache is initialized");
@@ -91,24 +117,67 @@ public class SubjectCache {
     }
   }
 
+  /** Names of the team and of all the teams above it, and the policies of these teams in the order of evaluation */
+  TeamClosure getTeamClosure(UUID teamId) {
+    TeamClosure closure = TEAM_CLOSURE_CACHE.getIfPresent(teamId);
+    if (closure == null || closure.getVersion() != getVersion()) {
+      closure = new TeamClosure(teamId);
+      TEAM_CLOSURE_CACHE.put(teamId, closure);
+    }
+    return closure;
+  }
+
+  public static long getVersion() {
+    return VERSION.get();
+  }
+
+  /** Called when a user, team, role or policy changes */
+  static void incrementVersion() {
+    VERSION.incrementAndGet();
+  }
+
   public static void cleanUp() {
     LOG.info("Subject cache is cleaned up");
     USER_CACHE.invalidateAll();
     TEAM_CACHE.invalidateAll();
+    TEAM_CLOSURE_CACHE.invalidateAll();
+    incrementVersion();
     INITIALIZED = false;
   }
 
+  /** Evict a user, here and on the other servers, once the writes of the current request are committed */
   public void invalidateUser(String userName) {
+    AfterCommit.run(
+        () -> {
+          evictUser(userName);
+          CacheInvalidationFeed.getInstance().publish(CacheInvalidationFeed.USER, userName);
+        });
+  }
+
+  private static void evictUser(String userName) {
     try {
       USER_CACHE.invalidate(userName);
+      incrementVersion();
     } catch (Exception ex) {
       LOG.error("Failed to invalidate cache for user {}", userName, ex);
     }
   }
 
+  /** Evict a team, here and on the other servers, once the writes of the current request are committed */
   public void invalidateTeam(UUID teamId) {
+    AfterCommit.run(
+        () -> {
+          evictTeams(teamId);
+          CacheInvalidationFeed.getInstance().publish(CacheInvalidationFeed.TEAM, teamId.toString());
+        });
+  }
+
+  private static void evictTeams(UUID teamId) {
     try {
-      TEAM_CACHE.invalidate(teamId);
+      // A change to a team changes the parents of its children and the teams of its users. Drop all teams and users.
+      TEAM_CACHE.invalidateAll();
+      USER_CACHE.invalidateAll();
+      incrementVersion();
     } catch (Exception ex) {
       LOG.error("Failed to invalidate cache for team {}", teamId, ex);
     }
@@ -130,6 +199,38 @@ public class SubjectCache {
     return roles.stream().distinct().collect(Collectors.toList());
   }
 
+  /** Team hierarchy above a team, computed once for each version */
+  @Getter
+  static class TeamClosure {
+    private final long version;
+    private final Set<String> teamNames;
+    private final List<PolicyContext> policies;
+    private final boolean tagConditions;
+
+    TeamClosure(UUID teamId) {
+      this.version = getVersion();
+      this.teamNames = getTeamNames(teamId);
+      this.policies = SubjectContext.toList(new TeamPolicyIterator(teamId, new ArrayList<>()));
+      this.tagConditions = SubjectContext.hasTagConditions(policies);
+    }
+
+    private static Set<String> getTeamNames(UUID teamId) {
+      Set<String> names = new HashSet<>();
+      Set<UUID> visited = new HashSet<>();
+      Stack<UUID> stack = new Stack<>();
+      stack.push(teamId);
+      while (!stack.empty()) {
+        UUID id = stack.pop();
+        Team team = visited.add(id) ? getInstance().getTeam(id) : null;
+        if (team != null) {
+          names.add(team.getName());
+          listOrEmpty(team.getParents()).forEach(parent -> stack.push(parent.getId()));
+        }
+      }
+      return Collections.unmodifiableSet(names);
+    }
+  }
+
   static class UserLoader extends CacheLoader<String, SubjectContext> {
     @Override
     public SubjectContext load(@CheckForNull String userName) throws IOException {
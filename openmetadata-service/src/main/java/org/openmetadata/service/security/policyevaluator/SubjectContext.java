@@ -17,22 +17,25 @@ import static org.openmetadata.common.utils.CommonUtil.listOrEmpty;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.Stack;
+import java.util.Set;
 import java.util.UUID;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.openmetadata.schema.entity.teams.Team;
 import org.openmetadata.schema.entity.teams.User;
 import org.openmetadata.schema.type.EntityReference;
+import org.openmetadata.schema.type.MetadataOperation;
 import org.openmetadata.service.Entity;
 
 /** Subject context used for Access Control Policies */
 @Slf4j
 public class SubjectContext {
   @Getter protected final User user;
+  private volatile UserClosure closure;
 
   protected SubjectContext(User user) {
     this.user = user;
@@ -65,7 +68,7 @@ public class SubjectContext {
 
   /** Returns true if the user of this SubjectContext is under the team hierarchy of parentTeam */
   public boolean isUserUnderTeam(String parentTeam) {
-    return isInTeam(parentTeam, user.getTeams());
+    return getClosure().getTeamNames().contains(parentTeam);
   }
 
   /** Returns true if the given resource owner is under the team hierarchy of parentTeam */
@@ -74,29 +77,14 @@ public class SubjectContext {
       SubjectContext subjectContext = SubjectCache.getInstance().getSubjectContext(owner.getName());
       return subjectContext.isUserUnderTeam(parentTeam);
     } else if (owner.getType().equals(Entity.TEAM)) {
-      Team team = SubjectCache.getInstance().getTeam(owner.getId());
-      return isInTeam(parentTeam, List.of(team.getEntityReference()));
-    }
-    return false;
-  }
-
-  /** Return true if given list of teams is part of the hierarchy of parentTeam */
-  private boolean isInTeam(String parentTeam, List<EntityReference> teams) {
-    Stack<EntityReference> stack = new Stack<>();
-    listOrEmpty(teams).forEach(stack::push);
-    while (!stack.empty()) {
-      Team parent = SubjectCache.getInstance().getTeam(stack.pop().getId());
-      if (parent.getName().equals(parentTeam)) {
-        return true;
-      }
-      listOrEmpty(parent.getParents()).forEach(stack::push);
+      return SubjectCache.getInstance().getTeamClosure(owner.getId()).getTeamNames().contains(parentTeam);
     }
     return false;
   }
 
   // Iterate over all the policies of the team hierarchy the user belongs to
   public Iterator<PolicyContext> getPolicies() {
-    return new UserPolicyIterator(user, new ArrayList<>());
+    return getClosure().getPolicies().iterator();
   }
 
   // Iterate over all the policies of the team hierarchy the resource belongs to
@@ -105,17 +93,93 @@ public class SubjectContext {
       SubjectContext subjectContext = SubjectCache.getInstance().getSubjectContext(owner.getName());
       return subjectContext.getPolicies();
     } else if (owner.getType().equals(Entity.TEAM)) {
-      Team team = SubjectCache.getInstance().getTeam(owner.getId());
-      List<UUID> teamsVisited = new ArrayList<>();
-      return new TeamPolicyIterator(team.getId(), teamsVisited);
+      return SubjectCache.getInstance().getTeamClosure(owner.getId()).getPolicies().iterator();
     }
     return Collections.emptyIterator();
   }
 
+  /** Returns true if a rule of the policies of the user for one of the operations has a condition on the owner */
+  public boolean hasOwnerConditions(String resource, List<MetadataOperation> operations) {
+    for (PolicyContext policy : getClosure().getPolicies()) {
+      for (CompiledRule rule : listOrEmpty(policy.getRules())) {
+        if (rule.hasOwnerCondition(resource, operations)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /** Returns true if a condition of the policies of the user, or of the given resource owner, matches resource tags */
+  public boolean hasTagConditions(EntityReference owner) {
+    if (getClosure().isTagConditions()) {
+      return true;
+    }
+    if (owner == null) {
+      return false;
+    }
+    if (owner.getType().equals(Entity.USER)) {
+      return SubjectCache.getInstance().getSubjectContext(owner.getName()).getClosure().isTagConditions();
+    } else if (owner.getType().equals(Entity.TEAM)) {
+      return SubjectCache.getInstance().getTeamClosure(owner.getId()).isTagConditions();
+    }
+    return false;
+  }
+
   public List<EntityReference> getTeams() {
     return user.getTeams();
   }
 
+  private UserClosure getClosure() {
+    UserClosure current = closure;
+    if (current == null || current.getVersion() != SubjectCache.getVersion()) {
+      current = new UserClosure(user);
+      closure = current;
+    }
+    return current;
+  }
+
+  static List<PolicyContext> toList(Iterator<PolicyContext> policies) {
+    List<PolicyContext> list = new ArrayList<>();
+    policies.forEachRemaining(list::add);
+    return Collections.unmodifiableList(list);
+  }
+
+  static boolean hasTagConditions(List<PolicyContext> policies) {
+    for (PolicyContext policy : policies) {
+      for (CompiledRule rule : listOrEmpty(policy.getRules())) {
+        String condition = rule.getCondition();
+        if (condition != null && (condition.contains("matchAllTags") || condition.contains("matchAnyTag"))) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Policies of a user and the names of all the teams the user is under, computed once for each version of users,
+   * teams, roles and policies instead of walking the team hierarchy for each authorization.
+   */
+  @Getter
+  static class UserClosure {
+    private final long version;
+    private final Set<String> teamNames;
+    private final List<PolicyContext> policies;
+    private final boolean tagConditions;
+
+    UserClosure(User user) {
+      this.version = SubjectCache.getVersion();
+      Set<String> names = new HashSet<>();
+      for (EntityReference team : listOrEmpty(user.getTeams())) {
+        names.addAll(SubjectCache.getInstance().getTeamClosure(team.getId()).getTeamNames());
+      }
+      this.teamNames = Collections.unmodifiableSet(names);
+      this.policies = toList(new UserPolicyIterator(user, new ArrayList<>()));
+      this.tagConditions = hasTagConditions(policies);
+    }
+  }
+
   @Getter
   static class PolicyContext {
     private final String entityType;
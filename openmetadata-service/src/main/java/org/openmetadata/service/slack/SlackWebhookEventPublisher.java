@@ -1,33 +1,20 @@
 package org.openmetadata.service.slack;
 
-import java.util.concurrent.TimeUnit;
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
-import javax.ws.rs.client.Invocation;
-import javax.ws.rs.core.MediaType;
-import javax.ws.rs.core.Response;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import lombok.extern.slf4j.Slf4j;
 import org.openmetadata.schema.type.ChangeEvent;
 import org.openmetadata.schema.type.Webhook;
 import org.openmetadata.service.events.WebhookPublisher;
-import org.openmetadata.service.events.errors.EventPublisherException;
 import org.openmetadata.service.jdbi3.CollectionDAO;
 import org.openmetadata.service.resources.events.EventResource.ChangeEventList;
 import org.openmetadata.service.util.ChangeEventParser;
+import org.openmetadata.service.util.JsonUtils;
 
 @Slf4j
 public class SlackWebhookEventPublisher extends WebhookPublisher {
-  private final Invocation.Builder target;
-  private final Client client;
-
   public SlackWebhookEventPublisher(Webhook webhook, CollectionDAO dao) {
     super(webhook, dao);
-    String slackWebhookURL = webhook.getEndpoint().toString();
-    ClientBuilder clientBuilder = ClientBuilder.newBuilder();
-    clientBuilder.connectTimeout(webhook.getTimeout(), TimeUnit.SECONDS);
-    clientBuilder.readTimeout(webhook.getReadTimeout(), TimeUnit.SECONDS);
-    client = clientBuilder.build();
-    target = client.target(slackWebhookURL).request();
   }
 
   @Override
@@ -36,28 +23,32 @@ public class SlackWebhookEventPublisher extends WebhookPublisher {
   }
 
   @Override
-  public void onShutdown() {
-    if (client != null) {
-      client.close();
+  protected CompletableFuture<Void> publishAsync(ChangeEventList events) {
+    CompletableFuture<Void> sent = CompletableFuture.completedFuture(null);
+    for (ChangeEvent event : events.getData()) {
+      sent = sent.thenCompose(previous -> send(event));
     }
+    return sent;
   }
 
-  @Override
-  public void publish(ChangeEventList events) throws EventPublisherException {
-    for (ChangeEvent event : events.getData()) {
-      try {
-        SlackMessage slackMessage = ChangeEventParser.buildSlackMessage(event);
-        Response response =
-            target.post(javax.ws.rs.client.Entity.entity(slackMessage, MediaType.APPLICATION_JSON_TYPE));
-        if (response.getStatus() >= 300 && response.getStatus() < 400) {
-          throw new EventPublisherException(
-              "Slack webhook callback is getting redirected. " + "Please check your configuration");
-        } else if (response.getStatus() >= 300 && response.getStatus() < 600) {
-          throw new SlackRetriableException(response.getStatusInfo().getReasonPhrase());
-        }
-      } catch (Exception e) {
-        LOG.error("Failed to publish event {} to slack due to {} ", event, e.getMessage());
-      }
+  private CompletableFuture<Void> send(ChangeEvent event) {
+    try {
+      SlackMessage slackMessage = ChangeEventParser.buildSlackMessage(event);
+      return post(JsonUtils.pojoToJson(slackMessage), Map.of())
+          .handle(
+              (response, ex) -> {
+                if (ex != null) {
+                  LOG.error("Failed to publish event {} to slack due to {} ", event, ex.getMessage());
+                } else if (response.statusCode() >= 300 && response.statusCode() < 400) {
+                  LOG.error("Slack webhook callback is getting redirected. Please check your configuration");
+                } else if (response.statusCode() >= 300) {
+                  LOG.error("Failed to publish event {} to slack with status {}", event, response.statusCode());
+                }
+                return null;
+              });
+    } catch (Exception e) {
+      LOG.error("Failed to publish event {} to slack due to {} ", event, e.getMessage());
+      return CompletableFuture.completedFuture(null);
     }
   }
 }
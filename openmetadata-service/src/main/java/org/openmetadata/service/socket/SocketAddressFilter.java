@@ -13,12 +13,9 @@
 
 package org.openmetadata.service.socket;
 
-import com.auth0.jwt.interfaces.Claim;
-import com.auth0.jwt.interfaces.DecodedJWT;
 import io.socket.engineio.server.utils.ParseQS;
 import java.io.IOException;
 import java.util.Map;
-import java.util.TreeMap;
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
 import javax.servlet.FilterConfig;
@@ -66,12 +63,8 @@ public class SocketAddressFilter implements Filter {
       String tokenWithType = httpServletRequest.getHeader("Authorization");
       requestWrapper.addHeader("Authorization", tokenWithType);
       String token = JwtFilter.extractToken(tokenWithType);
-      // validate token
-      DecodedJWT jwt = jwtFilter.validateAndReturnDecodedJwtToken(token);
-      // validate Domain and Username
-      Map<String, Claim> claims = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-      claims.putAll(jwt.getClaims());
-      jwtFilter.validateAndReturnUsername(claims);
+      // validate token, Domain and Username
+      jwtFilter.verifyToken(token);
     }
     // Goes to default servlet.
     chain.doFilter(requestWrapper, response);
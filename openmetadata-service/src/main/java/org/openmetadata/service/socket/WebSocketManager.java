@@ -2,17 +2,35 @@ package org.openmetadata.service.socket;
 
 import static org.openmetadata.common.utils.CommonUtil.listOrEmpty;
 
+import io.github.maksymdolgykh.dropwizard.micrometer.MicrometerBundle;
+import io.micrometer.core.instrument.Counter;
 import io.socket.engineio.server.EngineIoServer;
 import io.socket.engineio.server.EngineIoServerOptions;
 import io.socket.socketio.server.SocketIoNamespace;
 import io.socket.socketio.server.SocketIoServer;
 import io.socket.socketio.server.SocketIoSocket;
-import java.util.*;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.openmetadata.service.jdbi3.CollectionDAO.EntityRelationshipRecord;
 
+/**
+ * Sockets of the connected users, and the messages sent to them. Messages are not sent on the caller thread: each
+ * user has a bounded queue of outbound messages, drained by a small pool of sender threads, so that a slow client or
+ * a large number of clients does not hold up the change event processing. When a user's queue is full, the oldest
+ * message is dropped.
+ */
 @Slf4j
 public class WebSocketManager {
   private static WebSocketManager INSTANCE;
@@ -23,14 +41,38 @@ public class WebSocketManager {
   public static final String JOB_STATUS_BROADCAST_CHANNEL = "jobStatus";
   public static final String MENTION_CHANNEL = "mentionChannel";
   public static final String ANNOUNCEMENT_CHANNEL = "announcementChannel";
-  private final Map<UUID, Map<String, SocketIoSocket>> activityFeedEndpoints = new ConcurrentHashMap<>();
+  static final int SENDER_THREADS = 4;
+  static final int MAX_QUEUED_MESSAGES_PER_USER = 256;
+  private static final int MAX_MESSAGES_PER_DRAIN = 64; // Sent to a user before the sender moves to other users
+  private final Map<UUID, UserConnections> connections = new ConcurrentHashMap<>();
+  private final int queueCapacity;
+  private final ExecutorService senders;
+  private final Counter droppedCounter;
 
   private WebSocketManager(EngineIoServerOptions eiOptions) {
-    engineIoServer = new EngineIoServer(eiOptions);
-    socketIoServer = new SocketIoServer(engineIoServer);
+    this(new EngineIoServer(eiOptions), SENDER_THREADS, MAX_QUEUED_MESSAGES_PER_USER);
     initializeHandlers();
   }
 
+  /** Clients are registered with {@link #register} as socket.io connection handlers are only set up by the builder */
+  WebSocketManager(EngineIoServer engineIoServer, int senderThreads, int queueCapacity) {
+    this.engineIoServer = engineIoServer;
+    this.socketIoServer = new SocketIoServer(engineIoServer);
+    this.queueCapacity = queueCapacity;
+    this.senders =
+        Executors.newFixedThreadPool(
+            senderThreads,
+            runnable -> {
+              Thread thread = new Thread(runnable, "websocket-sender");
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.droppedCounter =
+        Counter.builder("websocket_messages_dropped")
+            .description("Number of messages dropped because the queue of the user was full")
+            .register(MicrometerBundle.prometheusRegistry);
+  }
+
   private void initializeHandlers() {
     SocketIoNamespace ns = socketIoServer.namespace("/");
     // On Connection
@@ -45,16 +87,14 @@ public class WebSocketManager {
 
           if (userId != null && !userId.equals("")) {
             LOG.info("Client : {} with Remote Address:{} connected {} ", userId, remoteAddress, initialHeaders);
+            UUID id = UUID.fromString(userId);
 
             // On Socket Disconnect
             socket.on(
                 "disconnect",
                 args1 -> {
                   LOG.info("Client from: {} with Remote Address:{} disconnected.", userId, remoteAddress);
-                  UUID id = UUID.fromString(userId);
-                  Map<String, SocketIoSocket> allUserConnection = activityFeedEndpoints.get(id);
-                  allUserConnection.remove(socket.getId());
-                  activityFeedEndpoints.put(id, allUserConnection);
+                  unregister(id, socket.getId());
                 });
 
             // On Socket Connection Error
@@ -73,12 +113,7 @@ public class WebSocketManager {
                         userId,
                         remoteAddress));
 
-            UUID id = UUID.fromString(userId);
-            Map<String, SocketIoSocket> userSocketConnections;
-            userSocketConnections =
-                activityFeedEndpoints.containsKey(id) ? activityFeedEndpoints.get(id) : new HashMap<>();
-            userSocketConnections.put(socket.getId(), socket);
-            activityFeedEndpoints.put(id, userSocketConnections);
+            register(id, socket.getId(), (event, message) -> socket.send(event, message));
           }
         });
     ns.on("error", args -> LOG.error("Connection error on the server"));
@@ -88,28 +123,139 @@ public class WebSocketManager {
     return INSTANCE;
   }
 
-  public Map<UUID, Map<String, SocketIoSocket>> getActivityFeedEndpoints() {
-    return activityFeedEndpoints;
+  public static void shutdown() {
+    if (INSTANCE != null) {
+      INSTANCE.stop();
+    }
+  }
+
+  void stop() {
+    senders.shutdownNow();
+  }
+
+  /** Add a socket of a user, with the function that sends a message on the socket */
+  void register(UUID userId, String socketId, BiConsumer<String, String> sender) {
+    connections.compute(
+        userId,
+        (id, userConnections) -> {
+          UserConnections result = userConnections == null ? new UserConnections() : userConnections;
+          result.sockets.put(socketId, sender);
+          return result;
+        });
+  }
+
+  /** Remove a socket of a user, and the messages waiting to be sent to the user when it was their last socket */
+  void unregister(UUID userId, String socketId) {
+    connections.computeIfPresent(
+        userId,
+        (id, userConnections) -> {
+          userConnections.sockets.remove(socketId);
+          return userConnections.sockets.isEmpty() ? null : userConnections;
+        });
+  }
+
+  public Set<UUID> getConnectedUsers() {
+    return connections.keySet();
   }
 
   public void broadCastMessageToAll(String event, String message) {
-    activityFeedEndpoints.forEach((key, value) -> value.forEach((key1, value1) -> value1.send(event, message)));
+    Message outbound = new Message(event, message);
+    connections.values().forEach(userConnections -> userConnections.enqueue(outbound));
   }
 
   public void sendToOne(UUID receiver, String event, String message) {
-    if (activityFeedEndpoints.containsKey(receiver)) {
-      activityFeedEndpoints.get(receiver).forEach((key, value) -> value.send(event, message));
+    UserConnections userConnections = connections.get(receiver);
+    if (userConnections != null) {
+      userConnections.enqueue(new Message(event, message));
+    }
+  }
+
+  /** Send a message to each of the users that is connected, once even when the user is listed several times */
+  public void sendToMany(Collection<UUID> receivers, String event, String message) {
+    Message outbound = new Message(event, message);
+    for (UUID receiver : Set.copyOf(receivers)) {
+      UserConnections userConnections = connections.get(receiver);
+      if (userConnections != null) {
+        userConnections.enqueue(outbound);
+      }
     }
   }
 
   public void sendToManyWithUUID(List<UUID> receivers, String event, String message) {
-    receivers.forEach(e -> sendToOne(e, event, message));
+    sendToMany(receivers, event, message);
   }
 
   public void sendToManyWithString(List<EntityRelationshipRecord> receivers, String event, String message) {
     receivers.forEach(e -> sendToOne(e.getId(), event, message));
   }
 
+  private static class Message {
+    private final String event;
+    private final String message;
+
+    Message(String event, String message) {
+      this.event = event;
+      this.message = message;
+    }
+  }
+
+  /** The sockets of a user, and the messages waiting to be sent to them */
+  private class UserConnections {
+    private final Map<String, BiConsumer<String, String>> sockets = new ConcurrentHashMap<>();
+    private final Deque<Message> queue = new ArrayDeque<>(); // Guarded by this
+    private boolean draining; // A sender is draining the queue, guarded by this
+
+    void enqueue(Message message) {
+      boolean startDraining;
+      synchronized (this) {
+        if (queue.size() >= queueCapacity) {
+          queue.pollFirst();
+          droppedCounter.increment();
+        }
+        queue.addLast(message);
+        startDraining = !draining;
+        draining = true;
+      }
+      if (startDraining) {
+        schedule();
+      }
+    }
+
+    private void schedule() {
+      try {
+        senders.execute(this::drain);
+      } catch (RejectedExecutionException e) {
+        LOG.debug("Not sending the messages as the web socket senders are shut down");
+      }
+    }
+
+    private void drain() {
+      for (int i = 0; i < MAX_MESSAGES_PER_DRAIN; i++) {
+        Message message;
+        synchronized (this) {
+          message = queue.pollFirst();
+          if (message == null) {
+            draining = false;
+            return;
+          }
+        }
+        send(message);
+      }
+      schedule(); // Let the messages of the other users be sent before the rest of the messages of this user
+    }
+
+    private void send(Message message) {
+      sockets.forEach(
+          (socketId, sender) -> {
+            try {
+              sender.accept(message.event, message.message);
+            } catch (Exception e) {
+              LOG.warn("Failed to send {} message on socket {}", message.event, socketId, e);
+            }
+          });
+    }
+  }
+
   public static class WebSocketManagerBuilder {
     private WebSocketManagerBuilder() {}
 
@@ -0,0 +1,332 @@
+/*
+ *  Copyright 2021 Collate
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.openmetadata.service.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonPatch;
+import javax.json.JsonValue;
+
+/**
+ * A JSON patch compiled once into operations that are applied directly on a Jackson tree. Applying a patch to an
+ * entity converts the entity to a tree, changes the tree in place and converts the tree back to the entity, instead of
+ * converting to and from immutable javax.json structures that are copied for every operation.
+ *
+ * <p>The operations are applied with the semantics of RFC 6902, in the order the patches of entities have always been
+ * applied in:
+ *
+ * <ul>
+ *   <li>Operations on {@code href} paths are ignored, as {@code href} is read only.
+ *   <li>All other operations are applied before the {@code remove} operations.
+ *   <li>Operations with array indexes in the path are sorted by the index, so that adding {@code /tags/2} and {@code
+ *       /tags/1} adds {@code /tags/1} first.
+ *   <li>Remove operations with array indexes in the path are sorted by the index in reverse, so that removing {@code
+ *       /tags/1} and {@code /tags/2} removes {@code /tags/2} first.
+ * </ul>
+ *
+ * Errors are reported with {@link JsonException}, the same as when patches were applied with javax.json.
+ */
+public final class CompiledJsonPatch {
+  private static final String OP = "op";
+  private static final String PATH = "path";
+  private static final String FROM = "from";
+  private static final String VALUE = "value";
+
+  /** Numbers are equal when their values are equal, regardless of how they are represented */
+  private static final Comparator<JsonNode> VALUE_EQUALITY =
+      (n1, n2) -> {
+        if (n1.equals(n2)) {
+          return 0;
+        }
+        return n1.isNumber() && n2.isNumber() && n1.decimalValue().compareTo(n2.decimalValue()) == 0 ? 0 : 1;
+      };
+
+  private final List<Operation> operations;
+
+  private CompiledJsonPatch(List<Operation> operations) {
+    this.operations = operations;
+  }
+
+  public static CompiledJsonPatch compile(JsonPatch patch, ObjectMapper mapper) {
+    List<Operation> removeOperations = new ArrayList<>();
+    List<Operation> otherOperations = new ArrayList<>();
+    for (JsonValue value : patch.toJsonArray()) {
+      JsonObject jsonObject = value.asJsonObject();
+      String path = jsonObject.getString(PATH);
+      if (path.endsWith("href")) {
+        continue; // Ignore patch operations related to href path
+      }
+      Operation operation = new Operation(jsonObject, mapper);
+      if (operation.type == OperationType.REMOVE) {
+        removeOperations.add(operation);
+      } else {
+        otherOperations.add(operation);
+      }
+    }
+    sort(otherOperations, false);
+    sort(removeOperations, true);
+    List<Operation> operations = new ArrayList<>(otherOperations.size() + removeOperations.size());
+    operations.addAll(otherOperations);
+    operations.addAll(removeOperations);
+    return new CompiledJsonPatch(operations);
+  }
+
+  /** Apply the patch to the document. The document is changed in place. Returns the patched document. */
+  public JsonNode apply(JsonNode document) {
+    JsonNode root = document;
+    for (Operation operation : operations) {
+      root = operation.apply(root);
+    }
+    return root;
+  }
+
+  /**
+   * The operations were sorted once for each operation with a path that has digits, by the number formed by all the
+   * digits in the path. Remove operations were reversed after each sort. Since sorts are stable, sorting again has no
+   * effect, and sorting and reversing three times is the same as doing it once. So the sorts of a run of paths sorted
+   * by the same key are applied at most twice.
+   */
+  private static void sort(List<Operation> operations, boolean reverse) {
+    List<Comparator<Operation>> sorts = new ArrayList<>();
+    for (Operation operation : operations) {
+      if (operation.sortKey != null) {
+        sorts.add(operation.sortByPath ? Operation.BY_PATH : Operation.BY_DIGITS);
+      }
+    }
+    int i = 0;
+    while (i < sorts.size()) {
+      int runEnd = i;
+      while (runEnd < sorts.size() && sorts.get(runEnd) == sorts.get(i)) {
+        runEnd++;
+      }
+      int times = reverse && (runEnd - i) % 2 == 0 ? 2 : 1;
+      for (int t = 0; t < times; t++) {
+        operations.sort(sorts.get(i));
+        if (reverse) {
+          Collections.reverse(operations);
+        }
+      }
+      i = runEnd;
+    }
+  }
+
+  private enum OperationType {
+    ADD,
+    REMOVE,
+    REPLACE,
+    MOVE,
+    COPY,
+    TEST;
+
+    static OperationType of(String op) {
+      for (OperationType type : values()) {
+        if (type.name().equalsIgnoreCase(op)) {
+          return type;
+        }
+      }
+      throw new JsonException("Illegal value for the op member of the JSON patch operation: " + op);
+    }
+  }
+
+  private static final class Operation {
+    static final Comparator<Operation> BY_PATH = Comparator.comparing(o -> o.path);
+    static final Comparator<Operation> BY_DIGITS = Operation::compareDigits;
+
+    final OperationType type;
+    final String path;
+    final String[] tokens;
+    final String from;
+    final String[] fromTokens;
+    final JsonNode value;
+    final String sortKey; // Digits in the path without leading zeros, or the path. Null when not sorted.
+    final boolean sortByPath;
+
+    Operation(JsonObject jsonObject, ObjectMapper mapper) {
+      type = OperationType.of(jsonObject.getString(OP));
+      path = jsonObject.getString(PATH);
+      tokens = parsePointer(path);
+      from = type == OperationType.MOVE || type == OperationType.COPY ? jsonObject.getString(FROM) : null;
+      fromTokens = from == null ? null : parsePointer(from);
+      boolean hasValue = type == OperationType.ADD || type == OperationType.REPLACE || type == OperationType.TEST;
+      if (hasValue && !jsonObject.containsKey(VALUE)) {
+        throw new JsonException("The JSON patch operation " + jsonObject + " has no value");
+      }
+      value = hasValue ? mapper.convertValue(jsonObject.get(VALUE), JsonNode.class) : null;
+      sortByPath = path.matches("^[a-zA-Z]*$");
+      String digits = path.replaceAll("\\D", "");
+      sortKey = sortByPath ? path : digits.isEmpty() ? null : digits.replaceFirst("^0+(?=.)", "");
+    }
+
+    /** Compare the numbers formed by the digits in the paths. A path without digits is number 0. */
+    private static int compareDigits(Operation o1, Operation o2) {
+      String d1 = o1.sortByPath || o1.sortKey == null ? "0" : o1.sortKey;
+      String d2 = o2.sortByPath || o2.sortKey == null ? "0" : o2.sortKey;
+      return d1.length() != d2.length() ? Integer.compare(d1.length(), d2.length()) : d1.compareTo(d2);
+    }
+
+    JsonNode apply(JsonNode root) {
+      switch (type) {
+        case ADD:
+          return add(root, tokens, path, value.deepCopy());
+        case REMOVE:
+          remove(root, tokens, path);
+          return root;
+        case REPLACE:
+          if (tokens.length == 0) {
+            return value.deepCopy();
+          }
+          replace(root, tokens, path, value.deepCopy());
+          return root;
+        case MOVE:
+          if (from.equals(path)) {
+            return root;
+          }
+          if (path.startsWith(from + "/")) {
+            throw new JsonException("The path " + path + " is a child of the path " + from + " to move from");
+          }
+          JsonNode moved = get(root, fromTokens, from);
+          remove(root, fromTokens, from);
+          return add(root, tokens, path, moved);
+        case COPY:
+          return add(root, tokens, path, get(root, fromTokens, from).deepCopy());
+        case TEST:
+          if (!get(root, tokens, path).equals(VALUE_EQUALITY, value)) {
+            throw new JsonException("The JSON patch test operation failed for the path " + path);
+          }
+          return root;
+        default:
+          throw new IllegalStateException("Unknown operation " + type);
+      }
+    }
+  }
+
+  private static String[] parsePointer(String pointer) {
+    if (pointer.isEmpty()) {
+      return new String[0];
+    }
+    if (pointer.charAt(0) != '/') {
+      throw new JsonException("A non-empty JSON pointer must begin with a '/': " + pointer);
+    }
+    String[] tokens = pointer.substring(1).split("/", -1);
+    for (int i = 0; i < tokens.length; i++) {
+      tokens[i] = tokens[i].replace("~1", "/").replace("~0", "~");
+    }
+    return tokens;
+  }
+
+  private static JsonNode get(JsonNode root, String[] tokens, String path) {
+    JsonNode node = root;
+    for (String token : tokens) {
+      node = child(node, token, path);
+    }
+    return node;
+  }
+
+  private static JsonNode parent(JsonNode root, String[] tokens, String path) {
+    JsonNode node = root;
+    for (int i = 0; i < tokens.length - 1; i++) {
+      node = child(node, tokens[i], path);
+    }
+    return node;
+  }
+
+  private static JsonNode child(JsonNode node, String token, String path) {
+    if (node instanceof ObjectNode) {
+      JsonNode child = node.get(token);
+      if (child == null) {
+        throw new JsonException("The JSON object at " + path + " contains no value for name " + token);
+      }
+      return child;
+    }
+    if (node instanceof ArrayNode) {
+      int index = index(token, node.size() - 1, path);
+      return node.get(index);
+    }
+    throw new JsonException("The reference value in a JSON pointer must be an object or array: " + path);
+  }
+
+  private static JsonNode add(JsonNode root, String[] tokens, String path, JsonNode value) {
+    if (tokens.length == 0) {
+      return value;
+    }
+    JsonNode parent = parent(root, tokens, path);
+    String last = tokens[tokens.length - 1];
+    if (parent instanceof ObjectNode) {
+      ((ObjectNode) parent).set(last, value);
+    } else if (parent instanceof ArrayNode) {
+      ArrayNode array = (ArrayNode) parent;
+      if ("-".equals(last)) {
+        array.add(value);
+      } else {
+        array.insert(index(last, array.size(), path), value);
+      }
+    } else {
+      throw new JsonException("The reference value in a JSON pointer must be an object or array: " + path);
+    }
+    return root;
+  }
+
+  private static void remove(JsonNode root, String[] tokens, String path) {
+    if (tokens.length == 0) {
+      throw new JsonException("The root of the JSON document can not be removed");
+    }
+    JsonNode parent = parent(root, tokens, path);
+    String last = tokens[tokens.length - 1];
+    if (parent instanceof ObjectNode) {
+      if (((ObjectNode) parent).remove(last) == null) {
+        throw new JsonException("The JSON object at " + path + " contains no value for name " + last);
+      }
+    } else if (parent instanceof ArrayNode) {
+      ((ArrayNode) parent).remove(index(last, parent.size() - 1, path));
+    } else {
+      throw new JsonException("The reference value in a JSON pointer must be an object or array: " + path);
+    }
+  }
+
+  private static void replace(JsonNode root, String[] tokens, String path, JsonNode value) {
+    JsonNode parent = parent(root, tokens, path);
+    String last = tokens[tokens.length - 1];
+    if (parent instanceof ObjectNode) {
+      if (!parent.has(last)) {
+        throw new JsonException("The JSON object at " + path + " contains no value for name " + last);
+      }
+      ((ObjectNode) parent).set(last, value);
+    } else if (parent instanceof ArrayNode) {
+      ((ArrayNode) parent).set(index(last, parent.size() - 1, path), value);
+    } else {
+      throw new JsonException("The reference value in a JSON pointer must be an object or array: " + path);
+    }
+  }
+
+  /** Parse an array index, which must not be larger than {@code maxIndex} */
+  private static int index(String token, int maxIndex, String path) {
+    boolean valid = !token.isEmpty() && token.length() <= 9 && token.chars().allMatch(Character::isDigit);
+    if (!valid || (token.length() > 1 && token.charAt(0) == '0')) {
+      throw new JsonException("Illegal array index " + token + " in the JSON pointer " + path);
+    }
+    int index = Integer.parseInt(token);
+    if (index > maxIndex) {
+      throw new JsonException("The JSON array at " + path + " contains no element for index " + index);
+    }
+    return index;
+  }
+}
@@ -242,7 +242,11 @@ public final class EntityUtil {
 
   public static UsageDetails getLatestUsage(UsageDAO usageDAO, UUID entityId) {
     LOG.debug("Getting latest usage for {}", entityId);
-    UsageDetails details = usageDAO.getLatestUsage(entityId.toString());
+    return getUsageOrDefault(usageDAO.getLatestUsage(entityId.toString()));
+  }
+
+  /** Return the given usage details or the default usage when the entity has no usage recorded */
+  public static UsageDetails getUsageOrDefault(UsageDetails details) {
     if (details == null) {
       LOG.debug("Usage details not found. Sending default usage");
       UsageStats stats = new UsageStats().withCount(0).withPercentileRank(0.0);
@@ -1,25 +1,23 @@
 package org.openmetadata.service.util;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import org.antlr.v4.runtime.BailErrorStrategy;
-import org.antlr.v4.runtime.CharStreams;
-import org.antlr.v4.runtime.CommonTokenStream;
-import org.antlr.v4.runtime.tree.ParseTreeWalker;
-import org.openmetadata.schema.FqnBaseListener;
-import org.openmetadata.schema.FqnLexer;
-import org.openmetadata.schema.FqnParser;
-import org.openmetadata.schema.FqnParser.FqnContext;
-import org.openmetadata.schema.FqnParser.QuotedNameContext;
-import org.openmetadata.schema.FqnParser.UnquotedNameContext;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.openmetadata.service.Entity;
 import org.openmetadata.service.exception.CatalogExceptionMessage;
 
+/**
+ * Builds and splits fully qualified names. A name is split following the grammar in {@code Fqn.g4}: names are
+ * separated by ".", and a name that contains "." is quoted as {@code "sss"}. The names are read in a single pass
+ * instead of with the ANTLR parser generated from the grammar, which is kept to check this parser in tests, and the
+ * names split recently are cached as the same FQNs of columns, tags and entity links are split over and over.
+ */
 public class FullyQualifiedName {
-  // Quoted name of format "sss" or unquoted string sss
-  private static final Pattern namePattern = Pattern.compile("^(\")([^\"]+)(\")$|^(.*)$");
+  private static final char QUOTE = '"';
+  private static final char SEPARATOR = '.';
+  private static final Cache<String, String[]> SPLIT_CACHE = CacheBuilder.newBuilder().maximumSize(10000).build();
 
   private FullyQualifiedName() {
     /* Utility class with private constructor */
@@ -32,83 +30,110 @@ public class FullyQualifiedName {
 
   /** From the given set of string, build FQN. */
   public static String build(String... strings) {
-    List<String> list = new ArrayList<>();
+    StringBuilder fqn = new StringBuilder();
     for (String string : strings) {
-      list.add(quoteName(string));
+      if (fqn.length() > 0) {
+        fqn.append(Entity.SEPARATOR);
+      }
+      fqn.append(quoteName(string));
     }
-    return String.join(Entity.SEPARATOR, list);
+    return fqn.toString();
   }
 
+  /** Split an FQN into its names, quoted names keeping their quotes. Throws ParseCancellationException as ANTLR */
   public static String[] split(String string) {
-    SplitListener listener = new SplitListener();
-    walk(string, listener);
-    return listener.split();
-  }
-
-  private static <L extends FqnBaseListener> void walk(String string, L listener) {
-    FqnLexer fqnLexer = new FqnLexer(CharStreams.fromString(string));
-    CommonTokenStream tokens = new CommonTokenStream(fqnLexer);
-    FqnParser fqnParser = new FqnParser(tokens);
-    fqnParser.setErrorHandler(new BailErrorStrategy());
-    FqnContext fqn = fqnParser.fqn();
-    ParseTreeWalker walker = new ParseTreeWalker();
-    walker.walk(listener, fqn);
-  }
-
-  private static class SplitListener extends FqnBaseListener {
-    final List<String> list = new ArrayList<>();
-
-    public String[] split() {
-      return list.toArray(new String[0]);
+    String[] names = SPLIT_CACHE.getIfPresent(string);
+    if (names == null) {
+      names = parse(string);
+      SPLIT_CACHE.put(string, names);
     }
+    return names.clone();
+  }
 
-    @Override
-    public void enterQuotedName(QuotedNameContext ctx) {
-      list.add(ctx.getText());
+  private static String[] parse(String fqn) {
+    List<String> names = new ArrayList<>();
+    int length = fqn.length();
+    int start = 0;
+    while (true) {
+      int end;
+      if (start < length && fqn.charAt(start) == QUOTE) {
+        // A quoted name "sss" with at least one "." and no other quote
+        end = fqn.indexOf(QUOTE, start + 1) + 1;
+        int separator = fqn.indexOf(SEPARATOR, start);
+        if (end == 0 || separator < 0 || separator >= end) {
+          throw invalidFqn(fqn, start);
+        }
+      } else {
+        // An unquoted name with at least one character that is not a quote or "."
+        end = start;
+        while (end < length && fqn.charAt(end) != QUOTE && fqn.charAt(end) != SEPARATOR) {
+          end++;
+        }
+        if (end == start) {
+          throw invalidFqn(fqn, start);
+        }
+      }
+      names.add(fqn.substring(start, end));
+      if (end == length) {
+        return names.toArray(new String[0]);
+      }
+      if (fqn.charAt(end) != SEPARATOR) {
+        throw invalidFqn(fqn, end);
+      }
+      start = end + 1;
     }
+  }
 
-    @Override
-    public void enterUnquotedName(UnquotedNameContext ctx) {
-      list.add(ctx.getText());
-    }
+  private static ParseCancellationException invalidFqn(String fqn, int position) {
+    return new ParseCancellationException(String.format("Invalid FQN %s at position %d", fqn, position));
   }
 
   /** Adds quotes to name as required */
   public static String quoteName(String name) {
-    Matcher matcher = namePattern.matcher(name);
-    if (!matcher.find() || matcher.end() != name.length()) {
-      throw new IllegalArgumentException(CatalogExceptionMessage.invalidName(name));
-    }
-
-    // Name matches quoted string "sss".
+    // Name is a quoted string "sss".
     // If quoted string does not contain "." return unquoted sss, else return quoted "sss"
-    if (matcher.group(1) != null) {
-      String unquotedName = matcher.group(2);
-      return unquotedName.contains(".") ? name : unquotedName;
+    if (isQuoted(name)) {
+      String unquotedName = name.substring(1, name.length() - 1);
+      return unquotedName.indexOf(SEPARATOR) >= 0 ? name : unquotedName;
     }
 
-    // Name matches unquoted string sss
+    // Name is an unquoted string sss
     // If unquoted string contains ".", return quoted "sss", else unquoted sss
-    String unquotedName = matcher.group(4);
-    if (!unquotedName.contains("\"")) {
-      return unquotedName.contains(".") ? "\"" + name + "\"" : unquotedName;
+    if (name.indexOf(QUOTE) >= 0 || hasLineTerminator(name)) {
+      throw new IllegalArgumentException(CatalogExceptionMessage.invalidName(name));
     }
-    throw new IllegalArgumentException(CatalogExceptionMessage.invalidName(name));
+    return name.indexOf(SEPARATOR) >= 0 ? QUOTE + name + QUOTE : name;
   }
 
-  /** Adds quotes to name as required */
+  /** Removes the quotes of a quoted name */
   public static String unquoteName(String name) {
-    Matcher matcher = namePattern.matcher(name);
-    if (!matcher.find() || matcher.end() != name.length()) {
+    if (isQuoted(name)) {
+      return name.substring(1, name.length() - 1);
+    }
+    if (hasLineTerminator(name)) {
       throw new IllegalArgumentException(CatalogExceptionMessage.invalidName(name));
     }
+    return name;
+  }
 
-    // Name matches quoted string "sss".
-    // If quoted string does not contain "." return unquoted sss, else return quoted "sss"
-    if (matcher.group(1) != null) {
-      return matcher.group(2);
+  /** Name of format "sss", with no other quote */
+  private static boolean isQuoted(String name) {
+    int length = name.length();
+    return length > 2
+        && name.charAt(0) == QUOTE
+        && name.charAt(length - 1) == QUOTE
+        && name.indexOf(QUOTE, 1) == length - 1;
+  }
+
+  /** Unquoted names are on a single line */
+  private static boolean hasLineTerminator(String name) {
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+        return true;
+      }
     }
-    return name;
+    return false;
   }
 
   public static String getTableFQN(String columnFQN) {
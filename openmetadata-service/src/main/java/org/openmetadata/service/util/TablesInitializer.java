@@ -95,6 +95,11 @@ public final class TablesInitializer {
     OPTIONS.addOption(
         null, SchemaMigrationOption.ES_DROP.toString(), false, "Drop all the indexes in the elastic search");
     OPTIONS.addOption(null, SchemaMigrationOption.ES_MIGRATE.toString(), false, "Update Elastic Search index mapping");
+    OPTIONS.addOption(
+        null,
+        SchemaMigrationOption.REBUILD_THREAD_COUNTS.toString(),
+        false,
+        "Recompute the counts of threads of each entity from the threads");
   }
 
   private TablesInitializer() {}
@@ -291,6 +296,10 @@ public final class TablesInitializer {
         esIndexDefinition = new ElasticSearchIndexDefinition(client, jdbi.onDemand(CollectionDAO.class));
         esIndexDefinition.dropIndexes();
         break;
+      case REBUILD_THREAD_COUNTS:
+        jdbi.onDemand(CollectionDAO.class).threadCountDAO().rebuild();
+        printToConsoleMandatory("DONE");
+        break;
       default:
         throw new SQLException("SchemaMigrationHelper unable to execute the option : " + schemaMigrationOption);
     }
@@ -325,7 +334,8 @@ public final class TablesInitializer {
     REPAIR("repair"),
     ES_DROP("es-drop"),
     ES_CREATE("es-create"),
-    ES_MIGRATE("es-migrate");
+    ES_MIGRATE("es-migrate"),
+    REBUILD_THREAD_COUNTS("rebuild-thread-counts");
     private final String value;
 
     SchemaMigrationOption(String schemaMigrationOption) {
@@ -0,0 +1,190 @@
+package org.openmetadata.service.elasticsearch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.openmetadata.service.resources.elasticSearch.BuildSearchIndexResource.ELASTIC_SEARCH_ENTITY_FQN_STREAM;
+import static org.openmetadata.service.resources.elasticSearch.BuildSearchIndexResource.ELASTIC_SEARCH_EXTENSION;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.support.WriteRequest.RefreshPolicy;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.rest.RestStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.openmetadata.schema.entity.teams.Team;
+import org.openmetadata.schema.settings.EventPublisherJob;
+import org.openmetadata.schema.type.ChangeEvent;
+import org.openmetadata.schema.type.EventType;
+import org.openmetadata.service.Entity;
+import org.openmetadata.service.jdbi3.CollectionDAO;
+import org.openmetadata.service.jdbi3.CollectionDAO.EntityExtensionTimeSeriesDAO;
+import org.openmetadata.service.resources.events.EventResource.ChangeEventList;
+import org.openmetadata.service.util.JsonUtils;
+
+/** Bulk requests sent for batches of team change events, with the bulk responses given by the test */
+class ElasticSearchEventPublisherTest {
+  private final RestHighLevelClient client = mock(RestHighLevelClient.class);
+  private final EntityExtensionTimeSeriesDAO timeSeriesDAO = mock(EntityExtensionTimeSeriesDAO.class);
+  private final List<BulkRequest> sent = new ArrayList<>();
+  private final Queue<BulkResponse> responses = new ArrayDeque<>();
+  private ElasticSearchEventPublisher publisher;
+
+  @BeforeEach
+  void setup() throws IOException {
+    CollectionDAO dao = mock(CollectionDAO.class);
+    when(dao.entityExtensionTimeSeriesDao()).thenReturn(timeSeriesDAO);
+    EventPublisherJob streamJob =
+        new EventPublisherJob()
+            .withName("Elastic Search Stream")
+            .withStatus(EventPublisherJob.Status.ACTIVE)
+            .withTimestamp(1L);
+    when(timeSeriesDAO.getExtension(ELASTIC_SEARCH_ENTITY_FQN_STREAM, ELASTIC_SEARCH_EXTENSION))
+        .thenReturn(JsonUtils.pojoToJson(streamJob));
+    when(client.bulk(any(BulkRequest.class), any(RequestOptions.class)))
+        .thenAnswer(
+            invocation -> {
+              sent.add(invocation.getArgument(0));
+              return responses.remove();
+            });
+    publisher = new ElasticSearchEventPublisher(10, client, dao);
+  }
+
+  @Test
+  void test_eventsOfSameDocumentCombined() throws Exception {
+    Team created = newTeam();
+    Team deleted = newTeam();
+    Team updated = newTeam();
+    responses.add(newResponse(RestStatus.OK, RestStatus.OK, RestStatus.OK, RestStatus.OK));
+
+    publish(
+        newEvent(EventType.ENTITY_CREATED, created),
+        newEvent(EventType.ENTITY_UPDATED, deleted),
+        newEvent(EventType.ENTITY_CREATED, updated),
+        newEvent(EventType.ENTITY_SOFT_DELETED, created),
+        newEvent(EventType.ENTITY_DELETED, deleted),
+        newEvent(EventType.ENTITY_UPDATED, updated));
+
+    // A partial update is sent after the earlier requests for the document, while a delete or a full document upsert
+    // replaces them. Documents are in the order of their first event.
+    assertEquals(1, sent.size());
+    List<DocWriteRequest<?>> requests = sent.get(0).requests();
+    assertEquals(4, requests.size());
+    assertEquals(created.getId().toString(), requests.get(0).id());
+    assertTrue(((UpdateRequest) requests.get(0)).docAsUpsert());
+    assertEquals(created.getId().toString(), requests.get(1).id());
+    assertEquals("ctx._source.deleted=true", ((UpdateRequest) requests.get(1)).script().getIdOrCode());
+    assertEquals(deleted.getId().toString(), requests.get(2).id());
+    assertInstanceOf(DeleteRequest.class, requests.get(2));
+    assertEquals(updated.getId().toString(), requests.get(3).id());
+    assertTrue(((UpdateRequest) requests.get(3)).scriptedUpsert());
+    for (DocWriteRequest<?> request : requests) {
+      assertEquals(ElasticSearchIndexDefinition.ElasticSearchIndexType.TEAM_SEARCH_INDEX.indexName, request.index());
+    }
+
+    // Refresh asked by the delete applies to the bulk request, as it is not allowed on the items
+    assertEquals(RefreshPolicy.WAIT_UNTIL, sent.get(0).getRefreshPolicy());
+    assertEquals(RefreshPolicy.NONE, ((DeleteRequest) requests.get(2)).getRefreshPolicy());
+    verify(timeSeriesDAO, never()).update(any(), any(), any(), any());
+  }
+
+  @Test
+  void test_retriableItemFailuresRetried() throws Exception {
+    Team first = newTeam();
+    Team second = newTeam();
+    responses.add(newResponse(RestStatus.OK, RestStatus.TOO_MANY_REQUESTS));
+    responses.add(newResponse(RestStatus.OK));
+
+    publish(newEvent(EventType.ENTITY_CREATED, first), newEvent(EventType.ENTITY_CREATED, second));
+
+    // Only the failed item is sent again
+    assertEquals(2, sent.size());
+    assertEquals(2, sent.get(0).numberOfActions());
+    assertEquals(1, sent.get(1).numberOfActions());
+    assertEquals(second.getId().toString(), sent.get(1).requests().get(0).id());
+    verify(timeSeriesDAO, never()).update(any(), any(), any(), any());
+  }
+
+  @Test
+  void test_itemFailuresRecorded() throws Exception {
+    Team first = newTeam();
+    Team failed = newTeam();
+    Team last = newTeam();
+    responses.add(newResponse(RestStatus.OK, RestStatus.BAD_REQUEST, RestStatus.OK));
+
+    publish(
+        newEvent(EventType.ENTITY_CREATED, first),
+        newEvent(EventType.ENTITY_CREATED, failed),
+        newEvent(EventType.ENTITY_CREATED, last));
+
+    // An item that fails with a status that is not retriable is recorded in the stream job, and not sent again
+    assertEquals(1, sent.size());
+    ArgumentCaptor<String> job = ArgumentCaptor.forClass(String.class);
+    verify(timeSeriesDAO)
+        .update(eq(ELASTIC_SEARCH_ENTITY_FQN_STREAM), eq(ELASTIC_SEARCH_EXTENSION), job.capture(), eq(1L));
+    EventPublisherJob streamJob = JsonUtils.readValue(job.getValue(), EventPublisherJob.class);
+    assertEquals(EventPublisherJob.Status.ACTIVEWITHERROR, streamJob.getStatus());
+    String context = streamJob.getFailureDetails().getContext();
+    assertTrue(context.contains(failed.getId().toString()), context);
+    assertTrue(context.contains(EventType.ENTITY_CREATED.value()), context);
+    assertTrue(context.contains("[BAD_REQUEST] failed"), context);
+    assertEquals(
+        "Failed to update 1 docs while updating ES. Reason[[BAD_REQUEST] failed]",
+        streamJob.getFailureDetails().getLastFailedReason());
+  }
+
+  private void publish(ChangeEvent... events) throws Exception {
+    publisher.publish(new ChangeEventList(List.of(events), null, null, events.length));
+  }
+
+  private static Team newTeam() {
+    String name = "team" + UUID.randomUUID();
+    return new Team().withId(UUID.randomUUID()).withName(name).withFullyQualifiedName(name).withDisplayName(name);
+  }
+
+  private static ChangeEvent newEvent(EventType eventType, Team team) {
+    return new ChangeEvent()
+        .withEventType(eventType)
+        .withEntityType(Entity.TEAM)
+        .withEntityId(team.getId())
+        .withEntity(team)
+        .withTimestamp(System.currentTimeMillis());
+  }
+
+  /** Bulk response with an item per status, where the items that are not OK failed */
+  private static BulkResponse newResponse(RestStatus... statuses) {
+    BulkItemResponse[] items = new BulkItemResponse[statuses.length];
+    boolean hasFailures = false;
+    for (int i = 0; i < statuses.length; i++) {
+      boolean failed = statuses[i] != RestStatus.OK;
+      hasFailures = hasFailures || failed;
+      items[i] = mock(BulkItemResponse.class);
+      when(items[i].isFailed()).thenReturn(failed);
+      when(items[i].status()).thenReturn(statuses[i]);
+      when(items[i].getFailureMessage()).thenReturn(failed ? "[" + statuses[i] + "] failed" : null);
+    }
+    BulkResponse response = mock(BulkResponse.class);
+    when(response.hasFailures()).thenReturn(hasFailures);
+    when(response.getItems()).thenReturn(items);
+    return response;
+  }
+}
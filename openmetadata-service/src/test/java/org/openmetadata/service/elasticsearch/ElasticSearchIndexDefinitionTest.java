@@ -0,0 +1,102 @@
+package org.openmetadata.service.elasticsearch;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.List;
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest;
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest.AliasActions;
+import org.elasticsearch.action.admin.indices.alias.get.GetAliasesRequest;
+import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
+import org.elasticsearch.action.admin.indices.settings.get.GetSettingsRequest;
+import org.elasticsearch.action.admin.indices.settings.get.GetSettingsResponse;
+import org.elasticsearch.client.IndicesClient;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.client.indices.GetIndexRequest;
+import org.elasticsearch.client.indices.GetIndexResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.openmetadata.service.elasticsearch.ElasticSearchIndexDefinition.ElasticSearchIndexType;
+import org.openmetadata.service.jdbi3.CollectionDAO;
+
+/** Promotion of a shadow index when the team index is an alias of the index built by the previous reindex */
+class ElasticSearchIndexDefinitionTest {
+  private static final String ALIAS = ElasticSearchIndexType.TEAM_SEARCH_INDEX.indexName;
+  private static final String CURRENT_INDEX = ALIAS + "_1";
+
+  private final IndicesClient indices = mock(IndicesClient.class);
+  private ElasticSearchIndexDefinition indexDefinition;
+
+  @BeforeEach
+  void setup() throws IOException {
+    RestHighLevelClient client = mock(RestHighLevelClient.class);
+    when(client.indices()).thenReturn(indices);
+    when(indices.existsAlias(any(GetAliasesRequest.class), any(RequestOptions.class))).thenReturn(true);
+    when(indices.exists(any(GetIndexRequest.class), any(RequestOptions.class))).thenReturn(true);
+    GetIndexResponse getIndexResponse = mock(GetIndexResponse.class);
+    when(getIndexResponse.getIndices()).thenReturn(new String[] {CURRENT_INDEX});
+    when(indices.get(any(GetIndexRequest.class), any(RequestOptions.class))).thenReturn(getIndexResponse);
+    GetSettingsResponse getSettingsResponse = mock(GetSettingsResponse.class);
+    when(getSettingsResponse.getSetting(CURRENT_INDEX, "index.number_of_replicas")).thenReturn("1");
+    when(indices.getSettings(any(GetSettingsRequest.class), any(RequestOptions.class))).thenReturn(getSettingsResponse);
+    indexDefinition = new ElasticSearchIndexDefinition(client, mock(CollectionDAO.class));
+  }
+
+  @Test
+  void test_aliasMovedToShadowIndexBeforeCurrentIndexDeleted() throws IOException {
+    String shadowIndex = indexDefinition.createShadowIndex(ElasticSearchIndexType.TEAM_SEARCH_INDEX);
+    assertEquals(shadowIndex, ElasticSearchIndexDefinition.getShadowIndex(ALIAS));
+    assertTrue(ElasticSearchIndexDefinition.isShadowIndex(shadowIndex));
+
+    indexDefinition.promoteShadowIndex(ElasticSearchIndexType.TEAM_SEARCH_INDEX, shadowIndex);
+
+    // The alias is removed from the current index and added to the shadow index by a single request
+    ArgumentCaptor<IndicesAliasesRequest> aliasesRequest = ArgumentCaptor.forClass(IndicesAliasesRequest.class);
+    ArgumentCaptor<DeleteIndexRequest> deleteRequest = ArgumentCaptor.forClass(DeleteIndexRequest.class);
+    InOrder inOrder = inOrder(indices);
+    inOrder.verify(indices).updateAliases(aliasesRequest.capture(), any(RequestOptions.class));
+    inOrder.verify(indices).delete(deleteRequest.capture(), any(RequestOptions.class));
+    List<AliasActions> actions = aliasesRequest.getValue().getAliasActions();
+    assertEquals(2, actions.size());
+    assertEquals(AliasActions.Type.REMOVE, actions.get(0).actionType());
+    assertArrayEquals(new String[] {CURRENT_INDEX}, actions.get(0).indices());
+    assertArrayEquals(new String[] {ALIAS}, actions.get(0).aliases());
+    assertEquals(AliasActions.Type.ADD, actions.get(1).actionType());
+    assertArrayEquals(new String[] {shadowIndex}, actions.get(1).indices());
+    assertArrayEquals(new String[] {ALIAS}, actions.get(1).aliases());
+
+    // Only the index that was behind the alias is deleted, after the alias moved
+    assertArrayEquals(new String[] {CURRENT_INDEX}, deleteRequest.getValue().indices());
+    assertNull(ElasticSearchIndexDefinition.getShadowIndex(ALIAS));
+    assertFalse(ElasticSearchIndexDefinition.isShadowIndex(shadowIndex));
+  }
+
+  @Test
+  void test_currentIndexKeptWhenAliasNotMoved() throws IOException {
+    String shadowIndex = indexDefinition.createShadowIndex(ElasticSearchIndexType.TEAM_SEARCH_INDEX);
+    when(indices.updateAliases(any(IndicesAliasesRequest.class), any(RequestOptions.class)))
+        .thenThrow(new IOException("ES is down"));
+
+    assertThrows(
+        IOException.class,
+        () -> indexDefinition.promoteShadowIndex(ElasticSearchIndexType.TEAM_SEARCH_INDEX, shadowIndex));
+
+    // The current index keeps serving queries through the alias
+    verify(indices, never()).delete(any(DeleteIndexRequest.class), any(RequestOptions.class));
+    assertNull(ElasticSearchIndexDefinition.getShadowIndex(ALIAS));
+  }
+}
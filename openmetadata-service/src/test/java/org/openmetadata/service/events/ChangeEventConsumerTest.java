@@ -0,0 +1,340 @@
+package org.openmetadata.service.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openmetadata.schema.type.ChangeEvent;
+import org.openmetadata.schema.type.EventType;
+import org.openmetadata.service.jdbi3.CollectionDAO.ChangeEventDAO;
+import org.openmetadata.service.jdbi3.CollectionDAO.ChangeEventRecord;
+import org.openmetadata.service.jdbi3.CollectionDAO.SpilledChangeEvent;
+import org.openmetadata.service.resources.events.EventResource.ChangeEventList;
+import org.openmetadata.service.util.JsonUtils;
+
+/** Consumers of two servers sharing one change event log, kept in memory */
+class ChangeEventConsumerTest {
+  private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
+
+  @AfterEach
+  void stopScheduler() {
+    scheduler.shutdownNow();
+  }
+
+  @Test
+  void test_oneServerConsumesAtATime() throws Exception {
+    InMemoryChangeEventDAO dao = new InMemoryChangeEventDAO();
+    TestPublisher publisherA = new TestPublisher();
+    TestPublisher publisherB = new TestPublisher();
+    ChangeEventConsumer consumerA = new ChangeEventConsumer(publisherA, dao, scheduler, "serverA");
+    consumerA.start();
+    waitFor(() -> "serverA".equals(dao.leaseOwner));
+    ChangeEventConsumer consumerB = new ChangeEventConsumer(publisherB, dao, scheduler, "serverB");
+    consumerB.start();
+
+    // Only the server holding the lease delivers the events
+    List<UUID> events = insertEvents(dao, 30);
+    waitFor(() -> publisherA.getDelivered().size() == 30);
+    assertEquals(events, publisherA.getDelivered());
+    assertTrue(publisherB.getDelivered().isEmpty());
+
+    // The other server takes over from the committed offset once the lease is released
+    consumerA.halt();
+    waitFor(() -> "serverB".equals(dao.leaseOwner));
+    List<UUID> moreEvents = insertEvents(dao, 10);
+    waitFor(() -> publisherB.getDelivered().size() == 10);
+    assertEquals(moreEvents, publisherB.getDelivered());
+    assertEquals(30, publisherA.getDelivered().size());
+    consumerB.halt();
+  }
+
+  @Test
+  void test_missingOffsetWaitsForOpenTransaction() throws Exception {
+    InMemoryChangeEventDAO dao = new InMemoryChangeEventDAO();
+    TestPublisher publisher = new TestPublisher();
+    ChangeEventConsumer consumer = new ChangeEventConsumer(publisher, dao, scheduler, "server");
+    consumer.start();
+    waitFor(() -> "server".equals(dao.leaseOwner));
+
+    // An offset taken by a transaction that commits late is delivered in order
+    UUID first = insertEvents(dao, 1).get(0);
+    UUID late = UUID.randomUUID();
+    long lateOffset = dao.reserve(newEvent(late));
+    UUID third = insertEvents(dao, 1).get(0);
+    Thread.sleep(2500);
+    assertEquals(List.of(first), publisher.getDelivered());
+    dao.commit(lateOffset);
+    waitFor(() -> publisher.getDelivered().size() == 3);
+    assertEquals(List.of(first, late, third), publisher.getDelivered());
+
+    // An offset whose transaction is no longer open was rolled back, and is skipped
+    long rolledBack = dao.reserve(newEvent(UUID.randomUUID()));
+    UUID fifth = insertEvents(dao, 1).get(0);
+    Thread.sleep(1500);
+    assertEquals(3, publisher.getDelivered().size());
+    dao.rollback(rolledBack);
+    waitFor(() -> publisher.getDelivered().size() == 4);
+    assertEquals(fifth, publisher.getDelivered().get(3));
+    consumer.halt();
+  }
+
+  private static List<UUID> insertEvents(InMemoryChangeEventDAO dao, int count) throws JsonProcessingException {
+    List<UUID> ids = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      UUID id = UUID.randomUUID();
+      dao.insert(newEvent(id));
+      ids.add(id);
+    }
+    EventPubSub.publish();
+    return ids;
+  }
+
+  private static String newEvent(UUID entityId) throws JsonProcessingException {
+    return JsonUtils.pojoToJson(
+        new ChangeEvent()
+            .withEventType(EventType.ENTITY_CREATED)
+            .withEntityType("table")
+            .withEntityId(entityId)
+            .withTimestamp(System.currentTimeMillis()));
+  }
+
+  static void waitFor(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 20_000;
+    while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(20);
+    }
+    assertTrue(condition.getAsBoolean());
+  }
+
+  /** Records the entity ids of the events it delivers */
+  static class TestPublisher implements EventPublisher {
+    private final List<UUID> delivered = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public String getName() {
+      return "test";
+    }
+
+    @Override
+    public int getBatchSize() {
+      return 10;
+    }
+
+    @Override
+    public void onStart() {
+      // Nothing to start
+    }
+
+    @Override
+    public void onShutdown() {
+      // Nothing to stop
+    }
+
+    @Override
+    public CompletableFuture<Boolean> process(List<ChangeEvent> events) {
+      events.forEach(event -> delivered.add(event.getEntityId()));
+      return CompletableFuture.completedFuture(true);
+    }
+
+    @Override
+    public void publish(ChangeEventList events) {
+      // Events are delivered by process
+    }
+
+    List<UUID> getDelivered() {
+      synchronized (delivered) {
+        return new ArrayList<>(delivered);
+      }
+    }
+  }
+
+  /** Log with one consumer row, where offsets are taken on insert and visible on commit */
+  static class InMemoryChangeEventDAO implements ChangeEventDAO {
+    private final Map<Long, String> committed = new HashMap<>();
+    private final Map<Long, String> pending = new HashMap<>();
+    private final Map<Long, Long> openTransactions = new HashMap<>();
+    private final Map<Long, String> spilledUsers = new TreeMap<>();
+    private final Map<Long, Long> spilledOffsets = new TreeMap<>();
+    private long nextOffset = 1;
+    private long nextSpillId = 1;
+    private int insertStatements;
+    private Long consumerOffset;
+    private volatile String leaseOwner;
+    private long leaseExpiresAt;
+
+    synchronized long reserve(String json) {
+      long offset = nextOffset++;
+      pending.put(offset, json);
+      openTransactions.put(offset, System.currentTimeMillis());
+      return offset;
+    }
+
+    synchronized void commit(long offset) {
+      String json = pending.remove(offset);
+      openTransactions.remove(offset);
+      committed.put(offset, json);
+    }
+
+    synchronized void rollback(long offset) {
+      pending.remove(offset);
+      openTransactions.remove(offset);
+    }
+
+    synchronized String getJson(long offset) {
+      return committed.get(offset);
+    }
+
+    synchronized int getInsertStatements() {
+      return insertStatements;
+    }
+
+    synchronized Map<Long, Long> getSpilledOffsets() {
+      return new TreeMap<>(spilledOffsets);
+    }
+
+    @Override
+    public synchronized void insert(String json) {
+      insertStatements++;
+      commit(reserve(json));
+    }
+
+    @Override
+    public synchronized List<Long> insertAll(List<ChangeEventRecord> records) {
+      insertStatements++;
+      List<Long> offsets = new ArrayList<>();
+      for (ChangeEventRecord record : records) {
+        long offset = reserve(record.getJson());
+        commit(offset);
+        offsets.add(offset);
+      }
+      return offsets;
+    }
+
+    @Override
+    public synchronized void insertSpilled(String userName, long eventOffset) {
+      long id = nextSpillId++;
+      spilledUsers.put(id, userName);
+      spilledOffsets.put(id, eventOffset);
+    }
+
+    @Override
+    public synchronized List<SpilledChangeEvent> listSpilled(int limit) {
+      return spilledOffsets.entrySet().stream()
+          .limit(limit)
+          .map(e -> new SpilledChangeEvent(e.getKey(), spilledUsers.get(e.getKey()), committed.get(e.getValue())))
+          .collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized int deleteSpilled(long id) {
+      spilledUsers.remove(id);
+      return spilledOffsets.remove(id) == null ? 0 : 1;
+    }
+
+    @Override
+    public synchronized List<ChangeEventRecord> listAfterOffset(long offset, int limit) {
+      return committed.entrySet().stream()
+          .filter(e -> e.getKey() > offset)
+          .sorted(Map.Entry.comparingByKey())
+          .limit(limit)
+          .map(e -> new ChangeEventRecord(e.getKey(), e.getValue()))
+          .collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized long getMaxOffset() {
+      return committed.keySet().stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+
+    @Override
+    public synchronized long getOldestTransactionAge() {
+      long now = System.currentTimeMillis();
+      return openTransactions.values().stream().mapToLong(start -> now - start).max().orElse(0);
+    }
+
+    @Override
+    public synchronized Long getConsumerOffset(String id) {
+      return consumerOffset;
+    }
+
+    @Override
+    public synchronized void insertConsumerOffset(String id, long offset, long updatedAt) {
+      if (consumerOffset == null) {
+        consumerOffset = offset;
+      }
+    }
+
+    @Override
+    public synchronized int commitConsumerOffset(
+        String id, String owner, long expected, long offset, long updatedAt) {
+      if (consumerOffset == null || consumerOffset != expected || !owner.equals(leaseOwner)) {
+        return 0;
+      }
+      consumerOffset = offset;
+      return 1;
+    }
+
+    @Override
+    public synchronized int acquireConsumerLease(String id, String owner, long now, long expiresAt) {
+      if (consumerOffset == null || (leaseOwner != null && !leaseOwner.equals(owner) && leaseExpiresAt >= now)) {
+        return 0;
+      }
+      leaseOwner = owner;
+      leaseExpiresAt = expiresAt;
+      return 1;
+    }
+
+    @Override
+    public synchronized void releaseConsumerLease(String id, String owner) {
+      if (owner.equals(leaseOwner)) {
+        leaseOwner = null;
+        leaseExpiresAt = 0;
+      }
+    }
+
+    @Override
+    public synchronized int setConsumerOffset(String id, long offset, long updatedAt) {
+      consumerOffset = offset;
+      return 1;
+    }
+
+    @Override
+    public void deleteAll(String entityType) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<String> listWithEntityFilter(String eventType, List<String> entityTypes, long timestamp) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<String> listWithoutEntityFilter(String eventType, long timestamp) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<String> listEntityIds(String entityType, long offset) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public synchronized void deleteConsumerOffset(String id) {
+      consumerOffset = null;
+    }
+  }
+}
@@ -0,0 +1,282 @@
+package org.openmetadata.service.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.openmetadata.service.events.ChangeEventConsumerTest.waitFor;
+
+import io.github.maksymdolgykh.dropwizard.micrometer.MicrometerBundle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openmetadata.schema.api.configuration.events.EventHandlerConfiguration;
+import org.openmetadata.schema.api.configuration.events.EventHandlerConfiguration.OverloadPolicy;
+import org.openmetadata.schema.type.ChangeEvent;
+import org.openmetadata.schema.type.EventType;
+import org.openmetadata.service.events.ChangeEventConsumerTest.InMemoryChangeEventDAO;
+import org.openmetadata.service.events.ChangeEventPipeline.PendingEvent;
+import org.openmetadata.service.jdbi3.CollectionDAO.ChangeEventRecord;
+
+/** Change event pipeline with a single worker whose feed processing is held back to fill the queue */
+class ChangeEventPipelineTest {
+  private final ExecutorService requests = Executors.newCachedThreadPool();
+  private final HeldFeed feed = new HeldFeed();
+  private ChangeEventPipeline pipeline;
+
+  @AfterEach
+  void closePipeline() throws InterruptedException {
+    feed.release();
+    if (pipeline != null) {
+      pipeline.close();
+    }
+    requests.shutdownNow();
+  }
+
+  @Test
+  void test_concurrentChangeEventsInsertedTogether() throws Exception {
+    InMemoryChangeEventDAO dao = new InMemoryChangeEventDAO();
+    pipeline = createPipeline(dao, OverloadPolicy.BLOCK, 100, 10, 5000);
+    feed.release();
+
+    // A full group is inserted with one statement without waiting for the end of the commit window
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> submits = new ArrayList<>();
+    List<UUID> entityIds = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      UUID entityId = UUID.randomUUID();
+      entityIds.add(entityId);
+      submits.add(
+          requests.submit(
+              () -> {
+                start.await();
+                pipeline.submit(newEvent(entityId, System.currentTimeMillis()));
+                return null;
+              }));
+    }
+    long startTime = System.currentTimeMillis();
+    start.countDown();
+    for (Future<?> submit : submits) {
+      submit.get(10, TimeUnit.SECONDS);
+    }
+    assertTrue(System.currentTimeMillis() - startTime < 5000);
+    assertEquals(1, dao.getInsertStatements());
+    assertEquals(10, dao.getMaxOffset());
+    waitFor(() -> feed.getProcessed().size() == 10);
+    assertTrue(feed.getProcessed().containsAll(entityIds));
+  }
+
+  @Test
+  void test_failedInsertThrownToEveryRequestOfGroup() throws Exception {
+    InMemoryChangeEventDAO dao =
+        new InMemoryChangeEventDAO() {
+          @Override
+          public synchronized List<Long> insertAll(List<ChangeEventRecord> records) {
+            throw new IllegalStateException("database is down");
+          }
+        };
+    pipeline = createPipeline(dao, OverloadPolicy.BLOCK, 100, 2, 5000);
+    feed.release();
+
+    Future<?> first = requests.submit(() -> submit(UUID.randomUUID()));
+    Future<?> second = requests.submit(() -> submit(UUID.randomUUID()));
+    for (Future<?> submit : List.of(first, second)) {
+      Exception exception = assertThrows(Exception.class, () -> submit.get(10, TimeUnit.SECONDS));
+      assertEquals("database is down", exception.getCause().getMessage());
+    }
+    Thread.sleep(500);
+    assertTrue(feed.getProcessed().isEmpty());
+  }
+
+  @Test
+  void test_blockWaitsForSpaceInQueue() throws Exception {
+    InMemoryChangeEventDAO dao = new InMemoryChangeEventDAO();
+    pipeline = createPipeline(dao, OverloadPolicy.BLOCK, 2, 10, 0);
+    fillQueue();
+
+    // The request waits until the worker takes the queued events
+    Future<?> blocked = requests.submit(() -> submit(UUID.randomUUID()));
+    Thread.sleep(500);
+    assertFalse(blocked.isDone());
+    assertEquals(4, dao.getMaxOffset());
+    assertEquals(2, queueDepth());
+    assertEquals(1, overloadCount(OverloadPolicy.BLOCK));
+
+    feed.release();
+    blocked.get(10, TimeUnit.SECONDS);
+    waitFor(() -> feed.getProcessed().size() == 4);
+    assertEquals(0, queueDepth());
+  }
+
+  @Test
+  void test_shedFeedDropsFeedOfOverflowingEvent() throws Exception {
+    InMemoryChangeEventDAO dao = new InMemoryChangeEventDAO();
+    pipeline = createPipeline(dao, OverloadPolicy.SHED_FEED, 2, 10, 0);
+    List<UUID> queued = fillQueue();
+
+    // The change event is recorded, but its feed is not created
+    UUID shed = UUID.randomUUID();
+    submit(shed);
+    assertEquals(4, dao.getMaxOffset());
+    assertEquals(1, overloadCount(OverloadPolicy.SHED_FEED));
+
+    feed.release();
+    waitFor(() -> feed.getProcessed().size() == 3);
+    Thread.sleep(500);
+    assertEquals(queued, feed.getProcessed());
+    assertFalse(feed.getProcessed().contains(shed));
+  }
+
+  @Test
+  void test_spillToDatabaseStoresOffsetOfOverflowingEvent() throws Exception {
+    InMemoryChangeEventDAO dao = new InMemoryChangeEventDAO();
+    pipeline = createPipeline(dao, OverloadPolicy.SPILL_TO_DATABASE, 2, 10, 0);
+    fillQueue();
+
+    // Only the offset of the change event is spilled, the change event is recorded once
+    UUID spilled = UUID.randomUUID();
+    submit(spilled);
+    assertEquals(4, dao.getMaxOffset());
+    assertEquals(4, dao.getInsertStatements());
+    assertEquals(Map.of(1L, 4L), dao.getSpilledOffsets());
+    assertTrue(dao.getJson(4).contains(spilled.toString()));
+    assertEquals(1, overloadCount(OverloadPolicy.SPILL_TO_DATABASE));
+
+    // The worker takes the spilled event once the queue has space
+    feed.release();
+    waitFor(() -> feed.getProcessed().size() == 4);
+    assertEquals(spilled, feed.getProcessed().get(3));
+    assertTrue(dao.getSpilledOffsets().isEmpty());
+  }
+
+  @Test
+  void test_closeProcessesQueuedEvents() throws Exception {
+    InMemoryChangeEventDAO dao = new InMemoryChangeEventDAO();
+    pipeline = createPipeline(dao, OverloadPolicy.BLOCK, 2, 10, 0);
+    List<UUID> queued = fillQueue();
+
+    CompletableFuture<Void> closed =
+        CompletableFuture.runAsync(
+            () -> {
+              try {
+                pipeline.close();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            },
+            requests);
+    Thread.sleep(500);
+    assertFalse(closed.isDone());
+    feed.release();
+    closed.get(20, TimeUnit.SECONDS);
+    assertEquals(queued, feed.getProcessed());
+    pipeline = null;
+  }
+
+  @Test
+  void test_lagOfProcessedEvent() throws Exception {
+    InMemoryChangeEventDAO dao = new InMemoryChangeEventDAO();
+    pipeline = createPipeline(dao, OverloadPolicy.BLOCK, 2, 10, 0);
+    feed.release();
+
+    // Lag is the time from the change to the processing of its event
+    pipeline.submit(newEvent(UUID.randomUUID(), System.currentTimeMillis() - 5000));
+    waitFor(() -> feed.getProcessed().size() == 1);
+    double lag = MicrometerBundle.prometheusRegistry.get("change_event_lag_ms").gauge().value();
+    assertTrue(lag >= 5000 && lag < 15000, "lag " + lag);
+  }
+
+  private ChangeEventPipeline createPipeline(
+      InMemoryChangeEventDAO dao, OverloadPolicy policy, int queueSize, int batchSize, int commitWindowMs) {
+    EventHandlerConfiguration config =
+        new EventHandlerConfiguration()
+            .withQueueSize(queueSize)
+            .withThreads(1)
+            .withBatchSize(batchSize)
+            .withCommitWindowMs(commitWindowMs)
+            .withOverloadPolicy(policy);
+    return new ChangeEventPipeline(config, dao, feed);
+  }
+
+  /** Hold the worker on the first event and queue two more, which fills a queue of two */
+  private List<UUID> fillQueue() throws Exception {
+    List<UUID> entityIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+    submit(entityIds.get(0));
+    assertTrue(feed.awaitHeld());
+    submit(entityIds.get(1));
+    submit(entityIds.get(2));
+    assertEquals(2, queueDepth());
+    return entityIds;
+  }
+
+  private Void submit(UUID entityId) throws Exception {
+    pipeline.submit(newEvent(entityId, System.currentTimeMillis()));
+    return null;
+  }
+
+  private static double queueDepth() {
+    return MicrometerBundle.prometheusRegistry.get("change_event_queue_depth").gauge().value();
+  }
+
+  private static double overloadCount(OverloadPolicy policy) {
+    return MicrometerBundle.prometheusRegistry
+        .get("change_event_overload")
+        .tag("policy", policy.value())
+        .counter()
+        .count();
+  }
+
+  private static PendingEvent newEvent(UUID entityId, long timestamp) {
+    ChangeEvent changeEvent =
+        new ChangeEvent()
+            .withEventType(EventType.ENTITY_CREATED)
+            .withEntityType("table")
+            .withEntityId(entityId)
+            .withUserName("admin")
+            .withTimestamp(timestamp);
+    return new PendingEvent(changeEvent, "admin", timestamp, null);
+  }
+
+  /** Records the entity ids of the events it processes, holding back the worker until released */
+  static class HeldFeed implements Consumer<PendingEvent> {
+    private final List<UUID> processed = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch held = new CountDownLatch(1);
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    @Override
+    public void accept(PendingEvent event) {
+      held.countDown();
+      try {
+        released.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      processed.add(event.getChangeEvent().getEntityId());
+    }
+
+    boolean awaitHeld() throws InterruptedException {
+      return held.await(10, TimeUnit.SECONDS);
+    }
+
+    void release() {
+      released.countDown();
+    }
+
+    List<UUID> getProcessed() {
+      synchronized (processed) {
+        return new ArrayList<>(processed);
+      }
+    }
+  }
+}
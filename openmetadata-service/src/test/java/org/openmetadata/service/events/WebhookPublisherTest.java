@@ -0,0 +1,235 @@
+package org.openmetadata.service.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.maksymdolgykh.dropwizard.micrometer.MicrometerBundle;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openmetadata.schema.type.ChangeEvent;
+import org.openmetadata.schema.type.EventType;
+import org.openmetadata.schema.type.Webhook;
+import org.openmetadata.schema.type.Webhook.Status;
+import org.openmetadata.service.jdbi3.CollectionDAO;
+
+/** Webhook delivery against a local stub server that injects delays and failures */
+class WebhookPublisherTest {
+  private HttpServer server;
+  private volatile int responseStatus = 200;
+  private volatile long responseDelayMs = 0;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+  private final AtomicInteger received = new AtomicInteger();
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext(
+        "/",
+        exchange -> {
+          maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+          try (InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+            sleep(responseDelayMs);
+          } finally {
+            inFlight.decrementAndGet(); // Before responding, as the next request can be sent once the response is read
+          }
+          received.incrementAndGet();
+          exchange.sendResponseHeaders(responseStatus, -1);
+          exchange.close();
+        });
+    server.start();
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  void test_retryScheduledWithBackoff() throws Exception {
+    TestWebhookPublisher publisher = createPublisher("/backoff", 12);
+    responseStatus = 500;
+    long attemptTime = System.currentTimeMillis();
+    assertFalse(publisher.process(createEvents()).get(10, TimeUnit.SECONDS));
+
+    // The webhook awaits the next attempt in 3 seconds, varied by up to 20%
+    assertEquals(Status.AWAITING_RETRY, publisher.getWebhook().getStatus());
+    assertEquals(500, publisher.getWebhook().getFailureDetails().getLastFailedStatusCode());
+    assertEquals("Internal Server Error", publisher.getWebhook().getFailureDetails().getLastFailedReason());
+    long delay = publisher.getNextAttemptAt() - attemptTime;
+    assertTrue(delay >= 3000 * (1 - AbstractEventPublisher.BACKOFF_JITTER) && delay <= 3000 * 1.3, "delay " + delay);
+    assertEquals(publisher.getNextAttemptAt(), publisher.getWebhook().getFailureDetails().getNextAttempt());
+
+    // The next failure backs off longer
+    assertFalse(publisher.process(createEvents()).get(10, TimeUnit.SECONDS));
+    assertTrue(publisher.getNextAttemptAt() - System.currentTimeMillis() > 20_000);
+
+    // The webhook is active again once the endpoint recovers
+    responseStatus = 200;
+    assertTrue(publisher.process(createEvents()).get(10, TimeUnit.SECONDS));
+    assertEquals(Status.ACTIVE, publisher.getWebhook().getStatus());
+    assertEquals(0, publisher.getNextAttemptAt());
+
+    // Latency and failures are recorded per webhook
+    String name = publisher.getWebhook().getName();
+    assertEquals(
+        3, MicrometerBundle.prometheusRegistry.get("webhook_delivery_latency").tag("webhook", name).timer().count());
+    assertEquals(
+        2, MicrometerBundle.prometheusRegistry.get("webhook_delivery_failures").tag("webhook", name).counter().count());
+  }
+
+  @Test
+  void test_retryLimitReached() throws Exception {
+    TestWebhookPublisher publisher = createPublisher("/retryLimit", 12);
+    responseStatus = 503;
+    for (int i = 0; i < WebhookPublisher.RETRY_LIMIT; i++) {
+      assertFalse(publisher.process(createEvents()).get(10, TimeUnit.SECONDS));
+      assertEquals(Status.AWAITING_RETRY, publisher.getWebhook().getStatus());
+    }
+    assertFalse(publisher.process(createEvents()).get(10, TimeUnit.SECONDS));
+    assertEquals(Status.RETRY_LIMIT_REACHED, publisher.getWebhook().getStatus());
+    assertEquals(EventPublisher.NEVER, publisher.getNextAttemptAt());
+    assertNull(publisher.getWebhook().getFailureDetails().getNextAttempt());
+
+    // Updating the webhook delivers the events again right away
+    publisher.updateWebhook(publisher.getWebhook());
+    assertEquals(0, publisher.getNextAttemptAt());
+  }
+
+  @Test
+  void test_timeoutRetried() throws Exception {
+    TestWebhookPublisher publisher = createPublisher("/timeout", 1);
+    responseDelayMs = 3000;
+    assertFalse(publisher.process(createEvents()).get(10, TimeUnit.SECONDS));
+    assertEquals(Status.AWAITING_RETRY, publisher.getWebhook().getStatus());
+    assertNull(publisher.getWebhook().getFailureDetails().getLastFailedStatusCode());
+    assertEquals("HttpTimeoutException", publisher.getWebhook().getFailureDetails().getLastFailedReason());
+  }
+
+  @Test
+  void test_redirectFailsWithoutRetry() throws Exception {
+    TestWebhookPublisher publisher = createPublisher("/redirect", 12);
+    responseStatus = 301;
+    // The events are skipped and not delivered again
+    assertTrue(publisher.process(createEvents()).get(10, TimeUnit.SECONDS));
+    assertEquals(Status.FAILED, publisher.getWebhook().getStatus());
+    assertEquals("Moved Permanently", publisher.getWebhook().getFailureDetails().getLastFailedReason());
+  }
+
+  @Test
+  void test_inFlightRequestsBoundedPerEndpoint() throws Exception {
+    responseDelayMs = 200;
+    List<CompletableFuture<Boolean>> results = new ArrayList<>();
+    for (int i = 0; i < 3 * WebhookPublisher.MAX_IN_FLIGHT_PER_ENDPOINT; i++) {
+      results.add(createPublisher("/bounded/" + i, 12).process(createEvents()));
+    }
+    for (CompletableFuture<Boolean> result : results) {
+      assertTrue(result.get(30, TimeUnit.SECONDS));
+    }
+    assertEquals(results.size(), received.get());
+    assertTrue(maxInFlight.get() <= WebhookPublisher.MAX_IN_FLIGHT_PER_ENDPOINT, "in flight " + maxInFlight.get());
+    URI endpoint = URI.create("http://localhost:" + server.getAddress().getPort());
+    assertEquals(0, WebhookPublisher.getLimiter(endpoint).getInFlight());
+  }
+
+  @Test
+  void test_limiterRemovedWhenPublishersStop() {
+    int port = server.getAddress().getPort();
+    URI endpoint = URI.create("http://localhost:" + port);
+    URI otherEndpoint = URI.create("http://127.0.0.1:" + port);
+    TestWebhookPublisher first = createPublisher("/first", 12);
+    TestWebhookPublisher second = createPublisher("/second", 12);
+    assertNotNull(WebhookPublisher.getLimiter(endpoint));
+
+    // The limiter is kept while a publisher of the endpoint is started
+    first.onShutdown();
+    assertNotNull(WebhookPublisher.getLimiter(endpoint));
+
+    // The limiter moves with the endpoint of an updated webhook
+    second.updateWebhook(
+        new Webhook()
+            .withEndpoint(URI.create(otherEndpoint + "/second"))
+            .withBatchSize(10)
+            .withTimeout(1)
+            .withReadTimeout(12));
+    assertNull(WebhookPublisher.getLimiter(endpoint));
+    assertNotNull(WebhookPublisher.getLimiter(otherEndpoint));
+
+    second.onShutdown();
+    assertNull(WebhookPublisher.getLimiter(otherEndpoint));
+  }
+
+  private TestWebhookPublisher createPublisher(String path, int readTimeout) {
+    String name = "webhook" + UUID.randomUUID();
+    Webhook webhook =
+        new Webhook()
+            .withId(UUID.randomUUID())
+            .withName(name)
+            .withEndpoint(URI.create("http://localhost:" + server.getAddress().getPort() + path))
+            .withBatchSize(10)
+            .withTimeout(1)
+            .withReadTimeout(readTimeout)
+            .withStatus(Status.ACTIVE);
+    TestWebhookPublisher publisher = new TestWebhookPublisher(webhook);
+    publisher.onStart();
+    return publisher;
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static List<ChangeEvent> createEvents() {
+    List<ChangeEvent> events = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      events.add(
+          new ChangeEvent()
+              .withEventType(EventType.ENTITY_CREATED)
+              .withEntityType("table")
+              .withEntityId(UUID.randomUUID())
+              .withTimestamp(System.currentTimeMillis()));
+    }
+    return events;
+  }
+
+  /** Keeps the status of the webhook in memory instead of storing it */
+  static class TestWebhookPublisher extends WebhookPublisher {
+    TestWebhookPublisher(Webhook webhook) {
+      super(webhook, mock(CollectionDAO.class));
+    }
+
+    @Override
+    void setStatus(Status status, Long attemptTime, Integer statusCode, String reason, Long timestamp) {
+      getWebhook().setStatus(status);
+      getWebhook()
+          .getFailureDetails()
+          .withLastFailedAt(attemptTime)
+          .withLastFailedStatusCode(statusCode)
+          .withLastFailedReason(reason)
+          .withNextAttempt(timestamp);
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package org.openmetadata.service.jdbi3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.openmetadata.schema.entity.data.Table;
+import org.openmetadata.schema.type.EntityReference;
+import org.openmetadata.service.Entity;
+
+class AfterCommitTest {
+  @Test
+  void test_actionsRunWhenTheRequestCompletes() {
+    AfterCommit filter = new AfterCommit();
+    List<String> ran = new ArrayList<>();
+
+    // Outside a request, an action runs right away
+    AfterCommit.run(() -> ran.add("outside"));
+    assertEquals(List.of("outside"), ran);
+
+    // During a request, actions run in order when the response is filtered, even when one of them fails
+    filter.filter(null);
+    AfterCommit.run(() -> ran.add("first"));
+    AfterCommit.run(
+        () -> {
+          throw new IllegalStateException("failed");
+        });
+    AfterCommit.run(() -> ran.add("second"));
+    assertEquals(List.of("outside"), ran);
+    filter.filter(null, null);
+    assertEquals(List.of("outside", "first", "second"), ran);
+
+    // Actions of a request that did not complete run when the next request starts
+    filter.filter(null);
+    AfterCommit.run(() -> ran.add("incomplete"));
+    filter.filter(null);
+    assertEquals(List.of("outside", "first", "second", "incomplete"), ran);
+    filter.filter(null, null);
+    AfterCommit.run(() -> ran.add("after"));
+    assertEquals(List.of("outside", "first", "second", "incomplete", "after"), ran);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void test_referenceInvalidatedAgainWhenTheRequestCompletes() {
+    AfterCommit filter = new AfterCommit();
+    EntityDAO<Table> dao = Mockito.mock(EntityDAO.class, Mockito.CALLS_REAL_METHODS);
+    Mockito.doReturn(Table.class).when(dao).getEntityClass();
+    String entityType = Entity.getEntityTypeFromClass(Table.class);
+    UUID id = UUID.randomUUID();
+
+    // A reference loaded during the request from the rows written so far is evicted once the request completes
+    filter.filter(null);
+    dao.invalidateReference(id, "service.db.schema.table");
+    EntityReferenceCache.put(
+        new EntityReference()
+            .withId(id)
+            .withType(entityType)
+            .withName("table")
+            .withFullyQualifiedName("service.db.schema.table"));
+    assertNotNull(EntityReferenceCache.getById(entityType, id));
+    filter.filter(null, null);
+    assertNull(EntityReferenceCache.getById(entityType, id));
+    assertNull(EntityReferenceCache.getByName(entityType, "service.db.schema.table"));
+  }
+}
@@ -0,0 +1,125 @@
+package org.openmetadata.service.jdbi3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.openmetadata.service.jdbi3.CollectionDAO.CacheInvalidation;
+import org.openmetadata.service.jdbi3.CollectionDAO.CacheInvalidationDAO;
+
+/** Two servers sharing one cache_invalidation table, kept in memory */
+class CacheInvalidationFeedTest {
+  @Test
+  void test_keysInvalidatedByOtherServers() {
+    InMemoryCacheInvalidationDAO dao = new InMemoryCacheInvalidationDAO();
+    dao.insert(CacheInvalidationFeed.USER, "beforeStart", "server0", System.currentTimeMillis());
+    List<String> invalidatedOnA = new ArrayList<>();
+    List<String> invalidatedOnB = new ArrayList<>();
+    CacheInvalidationFeed serverA = startServer("serverA", dao, invalidatedOnA);
+    CacheInvalidationFeed serverB = startServer("serverB", dao, invalidatedOnB);
+
+    serverA.publish(CacheInvalidationFeed.USER, "user1");
+    serverA.publish(CacheInvalidationFeed.TEAM, "team1");
+    serverB.publish(CacheInvalidationFeed.USER, "user2");
+    serverA.poll();
+    serverB.poll();
+
+    // Each server invalidates the keys of the other server, and not its own keys or keys from before it started
+    assertEquals(List.of("user:user2"), invalidatedOnA);
+    assertEquals(List.of("user:user1", "team:team1"), invalidatedOnB);
+
+    // Keys already invalidated are not invalidated again
+    serverB.poll();
+    assertEquals(List.of("user:user1", "team:team1"), invalidatedOnB);
+  }
+
+  @Test
+  void test_rowCommittedAfterLargerIds() {
+    InMemoryCacheInvalidationDAO dao = new InMemoryCacheInvalidationDAO();
+    List<String> invalidated = new ArrayList<>();
+    CacheInvalidationFeed server = startServer("serverB", dao, invalidated);
+
+    // A row takes an id but is committed after a row with a larger id is read
+    long now = System.currentTimeMillis();
+    CacheInvalidation late = dao.reserve(CacheInvalidationFeed.POLICY, "policy1", "serverA", now);
+    dao.insert(CacheInvalidationFeed.ROLE, "role1", "serverA", now);
+    server.poll();
+    assertEquals(List.of("role:role1"), invalidated);
+
+    dao.commit(late);
+    server.poll();
+    assertEquals(List.of("role:role1", "policy:policy1"), invalidated);
+
+    // A row inserted before the window is invalidated once
+    dao.insert(CacheInvalidationFeed.ROLE, "role2", "serverA", now - 2 * CacheInvalidationFeed.WINDOW_MILLIS);
+    server.poll();
+    server.poll();
+    assertEquals(List.of("role:role1", "policy:policy1", "role:role2"), invalidated);
+  }
+
+  @Test
+  void test_cacheExpiry() {
+    CacheInvalidationFeed server = new CacheInvalidationFeed("server");
+    assertEquals(1, server.getCacheExpiryMinutes(1));
+    server.start(new InMemoryCacheInvalidationDAO(), 120);
+    assertEquals(120, server.getCacheExpiryMinutes(1));
+    assertTrue(server.getServerId().length() > 0);
+  }
+
+  private static CacheInvalidationFeed startServer(
+      String serverId, CacheInvalidationDAO dao, List<String> invalidated) {
+    CacheInvalidationFeed server = new CacheInvalidationFeed(serverId);
+    for (String cacheName :
+        List.of(
+            CacheInvalidationFeed.USER,
+            CacheInvalidationFeed.TEAM,
+            CacheInvalidationFeed.ROLE,
+            CacheInvalidationFeed.POLICY)) {
+      server.register(cacheName, key -> invalidated.add(cacheName + ":" + key));
+    }
+    server.start(dao, 60);
+    return server;
+  }
+
+  static class InMemoryCacheInvalidationDAO implements CacheInvalidationDAO {
+    private final List<CacheInvalidation> rows = new ArrayList<>();
+    private long nextId = 1;
+
+    @Override
+    public void insert(String cacheName, String cacheKey, String serverId, long createdAt) {
+      commit(reserve(cacheName, cacheKey, serverId, createdAt));
+    }
+
+    CacheInvalidation reserve(String cacheName, String cacheKey, String serverId, long createdAt) {
+      return new CacheInvalidation(nextId++, cacheName, cacheKey, serverId, createdAt);
+    }
+
+    void commit(CacheInvalidation row) {
+      rows.add(row);
+    }
+
+    @Override
+    public List<CacheInvalidation> listAfter(long after, int limit) {
+      return rows.stream()
+          .filter(row -> row.getId() > after)
+          .sorted((r1, r2) -> Long.compare(r1.getId(), r2.getId()))
+          .limit(limit)
+          .collect(Collectors.toList());
+    }
+
+    @Override
+    public long getMaxId() {
+      return rows.stream().mapToLong(CacheInvalidation::getId).max().orElse(0);
+    }
+
+    @Override
+    public int deleteBefore(long before) {
+      int size = rows.size();
+      rows.removeIf(row -> row.getCreatedAt() < before);
+      return size - rows.size();
+    }
+  }
+}
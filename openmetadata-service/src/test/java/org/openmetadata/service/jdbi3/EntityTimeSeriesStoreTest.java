@@ -0,0 +1,262 @@
+package org.openmetadata.service.jdbi3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+import org.openmetadata.schema.tests.type.TestCaseResult;
+import org.openmetadata.schema.tests.type.TestCaseStatus;
+import org.openmetadata.service.jdbi3.CollectionDAO.EntityExtensionTimeSeriesDAO;
+import org.openmetadata.service.jdbi3.CollectionDAO.ExtensionRecord;
+import org.openmetadata.service.jdbi3.CollectionDAO.TimeSeriesChunkRecord;
+import org.openmetadata.service.util.JsonUtils;
+
+class EntityTimeSeriesStoreTest {
+  private static final String FQN = "service.db.schema.table.testCase";
+  private static final String EXTENSION = TestCaseRepository.TESTCASE_RESULT_EXTENSION;
+  private static final long DAY = 24 * 60 * 60 * 1000L;
+  private static final long START = 1_600_000_000_000L / DAY * DAY;
+
+  private final InMemoryTimeSeriesDAO dao = new InMemoryTimeSeriesDAO();
+  private final EntityTimeSeriesStore store = new EntityTimeSeriesStore(dao);
+
+  @Test
+  void test_putAndCompact() throws IOException {
+    for (int i = 0; i < 10; i++) {
+      put(START + i * DAY / 2, "result" + i);
+    }
+
+    // The entries of the ended buckets move to one chunk per bucket, and the latest entry stays a row
+    assertEquals(9, store.compact(FQN, EXTENSION, START + 10 * DAY, DAY));
+    assertEquals(List.of(START + 9 * DAY / 2), dao.rows.keySet().stream().sorted().collect(Collectors.toList()));
+    assertEquals(5, dao.chunks.size());
+    assertResults(9, 8, 7, 6, 5, 4, 3, 2, 1, 0);
+
+    // A new compaction finds nothing to move
+    assertEquals(0, store.compact(FQN, EXTENSION, START + 10 * DAY, DAY));
+    assertEquals(5, dao.chunks.size());
+  }
+
+  @Test
+  void test_putReplacesTheEntryOfAChunk() throws IOException {
+    for (int i = 0; i < 4; i++) {
+      put(START + i * DAY / 2, "result" + i);
+    }
+    store.compact(FQN, EXTENSION, START + 10 * DAY, DAY);
+    assertEquals(2, dao.chunks.size());
+
+    // The entry is removed from its chunk and written as a row, and the chunk left empty is deleted
+    put(START + DAY, "updated");
+    put(START, "updated");
+    assertEquals(1, dao.chunks.size());
+    assertEquals(3, dao.rows.size());
+    assertEquals("updated", getResult(START + DAY));
+    assertEquals("result1", getResult(START + DAY / 2));
+
+    // The entry of a row is updated in place
+    put(START + 3 * DAY / 2, "updated");
+    assertEquals(3, dao.rows.size());
+    assertEquals("updated", getResult(START + 3 * DAY / 2));
+
+    // Compacting again moves the updated entries back into the chunks
+    assertEquals(2, store.compact(FQN, EXTENSION, START + 10 * DAY, DAY));
+    assertEquals(2, dao.chunks.size());
+    assertEquals(1, dao.rows.size());
+    assertEquals("updated", getResult(START));
+    assertEquals("updated", getResult(START + DAY));
+    assertEquals(4, list().size());
+  }
+
+  @Test
+  void test_deleteFromChunks() throws IOException {
+    for (int i = 0; i < 4; i++) {
+      put(START + i * DAY / 2, "result" + i);
+    }
+    store.compact(FQN, EXTENSION, START + 10 * DAY, DAY);
+
+    // An entry of a chunk is removed from the chunk
+    store.deleteAtTimestamp(FQN, EXTENSION, START + DAY / 2);
+    assertNull(store.getExtensionAtTimestamp(FQN, EXTENSION, START + DAY / 2));
+    assertResults(3, 2, 0);
+
+    // When the latest entry is deleted, the entry that becomes the latest moves from its chunk to a row
+    store.deleteAtTimestamp(FQN, EXTENSION, START + 3 * DAY / 2);
+    assertEquals(List.of(START + DAY), new ArrayList<>(dao.rows.keySet()));
+    assertEquals(1, dao.chunks.size());
+    assertResults(2, 0);
+  }
+
+  private void put(long timestamp, String result) throws IOException {
+    TestCaseResult testCaseResult =
+        new TestCaseResult().withTimestamp(timestamp).withTestCaseStatus(TestCaseStatus.Success).withResult(result);
+    store.put(FQN, EXTENSION, "testCaseResult", JsonUtils.pojoToJson(testCaseResult), timestamp);
+  }
+
+  private String getResult(long timestamp) throws IOException {
+    return JsonUtils.readValue(store.getExtensionAtTimestamp(FQN, EXTENSION, timestamp), TestCaseResult.class)
+        .getResult();
+  }
+
+  private List<TestCaseResult> list() throws IOException {
+    return store.listBetweenTimestamps(FQN, EXTENSION, START, START + 10 * DAY, TestCaseResult.class);
+  }
+
+  /** Check the listed entries, the latest first, given by the index of the half day after START they were put at */
+  private void assertResults(int... indexes) throws IOException {
+    List<TestCaseResult> results = list();
+    assertEquals(indexes.length, results.size());
+    for (int i = 0; i < indexes.length; i++) {
+      assertEquals(START + indexes[i] * DAY / 2, results.get(i).getTimestamp());
+      assertEquals("result" + indexes[i], results.get(i).getResult());
+    }
+  }
+
+  /** Rows and chunks of one time series, with one chunk per bucket as the key of the chunk table */
+  static class InMemoryTimeSeriesDAO implements EntityExtensionTimeSeriesDAO {
+    private final Map<Long, String> rows = new TreeMap<>();
+    private final Map<Long, TimeSeriesChunkRecord> chunks = new TreeMap<>();
+    private final Map<Long, long[]> chunkRanges = new TreeMap<>();
+
+    @Override
+    public void insert(String entityFQN, String extension, String jsonSchema, String json) {
+      try {
+        rows.put(JsonUtils.readTree(json).get("timestamp").asLong(), json);
+      } catch (JsonProcessingException e) {
+        throw new IllegalArgumentException(e);
+      }
+    }
+
+    @Override
+    public int update(String entityFQN, String extension, String json, Long timestamp) {
+      return rows.replace(timestamp, json) == null ? 0 : 1;
+    }
+
+    @Override
+    public String getExtensionAtTimestamp(String entityFQN, String extension, long timestamp) {
+      return rows.get(timestamp);
+    }
+
+    @Override
+    public void deleteAtTimestamp(String entityFQN, String extension, Long timestamp) {
+      rows.remove(timestamp);
+    }
+
+    @Override
+    public List<String> listBetweenTimestamps(String entityFQN, String extension, Long startTs, long endTs) {
+      return rows.entrySet().stream()
+          .filter(e -> e.getKey() >= startTs && e.getKey() <= endTs)
+          .sorted(Map.Entry.<Long, String>comparingByKey().reversed())
+          .map(Map.Entry::getValue)
+          .collect(Collectors.toList());
+    }
+
+    @Override
+    public Long getLatestTimestamp(String entityFQN, String extension) {
+      return rows.keySet().stream().max(Comparator.naturalOrder()).orElse(null);
+    }
+
+    @Override
+    public void deleteAtTimestamps(String entityFQN, String extension, List<Long> timestamps) {
+      timestamps.forEach(rows::remove);
+    }
+
+    @Override
+    public List<String> listAtTimestampsForUpdate(String entityFQN, String extension, List<Long> timestamps) {
+      return timestamps.stream().map(rows::get).filter(json -> json != null).collect(Collectors.toList());
+    }
+
+    @Override
+    public void insertChunk(
+        String entityFQN,
+        String extension,
+        long bucketStart,
+        long startTs,
+        long endTs,
+        long compactedAt,
+        byte[] chunk) {
+      if (chunks.containsKey(bucketStart)) {
+        throw new IllegalStateException("Duplicate chunk of bucket " + bucketStart);
+      }
+      chunks.put(bucketStart, new TimeSeriesChunkRecord(bucketStart, compactedAt, chunk));
+      chunkRanges.put(bucketStart, new long[] {startTs, endTs});
+    }
+
+    @Override
+    public List<TimeSeriesChunkRecord> listChunks(String entityFQN, String extension, long startTs, long endTs) {
+      return chunks.values().stream()
+          .filter(
+              rec ->
+                  chunkRanges.get(rec.getBucketStart())[1] >= startTs
+                      && chunkRanges.get(rec.getBucketStart())[0] <= endTs)
+          .collect(Collectors.toList());
+    }
+
+    @Override
+    public TimeSeriesChunkRecord getChunkForUpdate(String entityFQN, String extension, long bucketStart) {
+      return chunks.get(bucketStart);
+    }
+
+    @Override
+    public Long getLatestChunkTimestamp(String entityFQN, String extension) {
+      return chunkRanges.values().stream().map(range -> range[1]).max(Comparator.naturalOrder()).orElse(null);
+    }
+
+    @Override
+    public void deleteChunk(String entityFQN, String extension, long bucketStart, long compactedAt) {
+      TimeSeriesChunkRecord rec = chunks.get(bucketStart);
+      if (rec != null && rec.getCompactedAt() == compactedAt) {
+        chunks.remove(bucketStart);
+        chunkRanges.remove(bucketStart);
+      }
+    }
+
+    @Override
+    public String getExtension(String entityId, String extension) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String getLatestExtension(String entityFQN, String extension) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<Pair<String, String>> getLatestExtensionBatch(List<String> entityFQNs, String extension) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<String> getLastLatestExtension(String entityFQN, String extension, int limit) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<ExtensionRecord> getExtensions(String id, String extensionPrefix) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void delete(String entityFQN, String extension) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void deleteAll(String entityFQN) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<String> listEntitiesBefore(String extension, long before, String after, int limit) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package org.openmetadata.service.jdbi3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.openmetadata.schema.entity.data.Table;
+import org.openmetadata.schema.type.Column;
+import org.openmetadata.schema.type.ColumnDataType;
+import org.openmetadata.service.jdbi3.CollectionDAO.VersionRecord;
+import org.openmetadata.service.util.JsonUtils;
+
+class EntityVersionStoreTest {
+  @Test
+  void test_deltaRoundTrip() throws IOException {
+    Table base = getTable(0.1);
+    String baseJson = JsonUtils.pojoToJson(base);
+
+    Table version = getTable(0.2).withDescription("new description");
+    version.getColumns().get(3).setDescription("column description");
+    version.getColumns().remove(19);
+    String json = JsonUtils.pojoToJson(version);
+
+    String delta = EntityVersionStore.toDelta(0.1, 1, baseJson, json);
+    assertNotNull(delta);
+    VersionRecord snapshot = new VersionRecord("table.version.0.1", EntityVersionStore.SNAPSHOT, baseJson);
+    VersionRecord deltaRecord = new VersionRecord("table.version.0.2", EntityVersionStore.DELTA, delta);
+    String reconstructed = EntityVersionStore.toJson(deltaRecord, v -> snapshot, new HashMap<>());
+    assertEquals(version, JsonUtils.readValue(reconstructed, Table.class));
+
+    // Snapshots and versions stored before delta storage are read as they are
+    VersionRecord legacy = new VersionRecord("table.version.0.1", "table", baseJson);
+    assertEquals(baseJson, EntityVersionStore.toJson(legacy, v -> null, new HashMap<>()));
+  }
+
+  @Test
+  void test_largeDeltaIsNotStored() throws IOException {
+    String baseJson = JsonUtils.pojoToJson(getTable(0.1));
+    Table version = getTable(0.2);
+    version.getColumns().forEach(c -> c.setDescription("description of " + c.getName()));
+    assertNull(EntityVersionStore.toDelta(0.1, 1, baseJson, JsonUtils.pojoToJson(version)));
+  }
+
+  private static Table getTable(double version) {
+    List<Column> columns = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      columns.add(new Column().withName("c" + i).withDataType(ColumnDataType.INT).withFullyQualifiedName("t.c" + i));
+    }
+    return new Table()
+        .withId(UUID.fromString("4c9e1a4e-3f2b-4b43-9a4f-2a0c5d3b1e11"))
+        .withName("t")
+        .withFullyQualifiedName("t")
+        .withVersion(version)
+        .withColumns(columns);
+  }
+}
@@ -0,0 +1,98 @@
+package org.openmetadata.service.jdbi3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openmetadata.service.Entity;
+import org.openmetadata.service.jdbi3.LineageGraph.LineageEdge;
+
+class LineageGraphTest {
+  private static final int NODE_COUNT = 5;
+  private final List<UUID> ids = new ArrayList<>();
+  private LineageGraph graph;
+
+  @BeforeEach
+  void setup() {
+    // node0 --> node1 --> node2 --> node3 --> node0
+    //                     node2 --> node4
+    ids.clear();
+    for (int i = 0; i < NODE_COUNT; i++) {
+      ids.add(UUID.randomUUID());
+    }
+    graph = new LineageGraph();
+    addEdge(0, 1);
+    addEdge(1, 2);
+    addEdge(2, 3);
+    addEdge(3, 0);
+    addEdge(2, 4);
+    addEdge(2, 4); // Adding the same edge again is ignored
+  }
+
+  @Test
+  void test_traverseLineage() {
+    assertEquals(NODE_COUNT, graph.getNodeCount());
+    assertEquals(5, graph.getEdgeCount());
+
+    Map<UUID, String> nodes = new LinkedHashMap<>();
+    assertEdges(List.of("0->1"), graph.getEdges(ids.get(0), 1, false, nodes, 100));
+    assertEquals(List.of(ids.get(1)), new ArrayList<>(nodes.keySet()));
+
+    // Traversal stops at the nodes already visited when there is a cycle
+    nodes.clear();
+    assertEdges(List.of("0->1", "1->2", "2->3", "2->4", "3->0"), graph.getEdges(ids.get(0), 10, false, nodes, 100));
+    assertEquals(4, nodes.size());
+    nodes.values().forEach(type -> assertEquals(Entity.TABLE, type));
+
+    nodes.clear();
+    assertEdges(List.of("3->0", "2->3", "1->2", "0->1"), graph.getEdges(ids.get(0), 10, true, nodes, 100));
+    assertEquals(3, nodes.size());
+
+    // Only the edges to the nodes within the max nodes limit are returned
+    nodes.clear();
+    assertEdges(List.of("0->1", "1->2"), graph.getEdges(ids.get(0), 10, false, nodes, 2));
+    assertEquals(2, nodes.size());
+  }
+
+  @Test
+  void test_removeEdgeAndNode() {
+    graph.removeEdge(ids.get(2), ids.get(3));
+    assertEquals(4, graph.getEdgeCount());
+    Map<UUID, String> nodes = new LinkedHashMap<>();
+    assertEdges(List.of("0->1", "1->2", "2->4"), graph.getEdges(ids.get(0), 10, false, nodes, 100));
+
+    // Removing an edge that does not exist is ignored
+    graph.removeEdge(ids.get(2), ids.get(3));
+    assertEquals(4, graph.getEdgeCount());
+
+    graph.removeNode(ids.get(2));
+    assertEquals(NODE_COUNT - 1, graph.getNodeCount());
+    assertEquals(2, graph.getEdgeCount());
+    nodes.clear();
+    assertEdges(List.of("0->1"), graph.getEdges(ids.get(0), 10, false, nodes, 100));
+    nodes.clear();
+    assertEdges(List.of(), graph.getEdges(ids.get(4), 10, true, nodes, 100));
+    nodes.clear();
+    assertEdges(List.of(), graph.getEdges(ids.get(2), 10, true, nodes, 100));
+  }
+
+  private void addEdge(int from, int to) {
+    graph.addEdge(ids.get(from), Entity.TABLE, ids.get(to), Entity.TABLE);
+  }
+
+  private void assertEdges(List<String> expected, List<LineageEdge> actual) {
+    List<String> actualEdges =
+        actual.stream()
+            .map(edge -> ids.indexOf(edge.getFromId()) + "->" + ids.indexOf(edge.getToId()))
+            .collect(Collectors.toList());
+    assertEquals(expected.size(), actualEdges.size(), "Edges " + actualEdges);
+    assertTrue(actualEdges.containsAll(expected), "Edges " + actualEdges);
+  }
+}
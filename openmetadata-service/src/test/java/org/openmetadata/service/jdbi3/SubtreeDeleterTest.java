@@ -0,0 +1,21 @@
+package org.openmetadata.service.jdbi3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class SubtreeDeleterTest {
+  @Test
+  void test_coveringPrefixes() {
+    List<String> fqns = List.of("svc.db1", "svc.db1.s1", "svc.db1.s1.t1", "svc.db2.s1", "svc.db2.s1.t1", "svc.db10");
+
+    // Names under another name are covered by the prefix delete of that name
+    assertEquals(Set.of("svc.db1", "svc.db2.s1", "svc.db10"), Set.copyOf(SubtreeDeleter.coveringPrefixes(null, fqns)));
+
+    // Names under the parent are covered by the prefix delete of the parent
+    assertEquals(Set.of(), Set.copyOf(SubtreeDeleter.coveringPrefixes("svc", fqns)));
+    assertEquals(Set.of("svc.db2.s1", "svc.db10"), Set.copyOf(SubtreeDeleter.coveringPrefixes("svc.db1", fqns)));
+  }
+}
@@ -0,0 +1,81 @@
+package org.openmetadata.service.jdbi3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.openmetadata.schema.type.ColumnProfile;
+import org.openmetadata.service.util.JsonUtils;
+
+class TimeSeriesChunkTest {
+  @Test
+  void test_encodeAndDecode() throws IOException {
+    List<ObjectNode> entries = new ArrayList<>();
+    for (int i = 10; i >= 1; i--) {
+      ColumnProfile profile =
+          new ColumnProfile()
+              .withName("c1")
+              .withTimestamp(1_600_000_000_000L + i * 86_400_000L)
+              .withMin(1.5 * i)
+              .withMax(100.5 * i)
+              .withValuesCount(1000.0 + i)
+              .withMean(i % 2 == 0 ? 0.25 * i : null);
+      ObjectNode entry = (ObjectNode) JsonUtils.valueToTree(profile);
+      if (i == 5) {
+        // Fields that are not numbers or strings are stored in the residual json
+        entry.putObject("histogram").set("boundaries", JsonUtils.valueToTree(List.of("0", "10")));
+      }
+      entries.add(entry);
+    }
+
+    TimeSeriesChunk chunk = TimeSeriesChunk.decode(TimeSeriesChunk.fromEntries(entries).encode(), false);
+    assertEquals(10, chunk.size());
+    for (int i = 0; i < chunk.size() - 1; i++) {
+      assertTrue(chunk.getTimestamp(i) < chunk.getTimestamp(i + 1));
+    }
+    for (ObjectNode entry : entries) {
+      int index = chunk.indexOf(entry.get("timestamp").asLong());
+      ColumnProfile expected = JsonUtils.convertValue(entry, ColumnProfile.class);
+      ColumnProfile actual = JsonUtils.convertValue(chunk.getEntry(index), ColumnProfile.class);
+      assertEquals(expected, actual);
+    }
+    assertTrue(chunk.indexOf(0) < 0);
+  }
+
+  @Test
+  void test_entriesWithSameTimestampAreReplaced() {
+    List<ObjectNode> entries = new ArrayList<>();
+    entries.add((ObjectNode) JsonUtils.valueToTree(new ColumnProfile().withName("c1").withTimestamp(1L).withMin(1)));
+    entries.add((ObjectNode) JsonUtils.valueToTree(new ColumnProfile().withName("c1").withTimestamp(1L).withMin(2)));
+
+    TimeSeriesChunk chunk = TimeSeriesChunk.fromEntries(entries);
+    assertEquals(1, chunk.size());
+    assertEquals(2, chunk.getEntry(0).get("min").asInt());
+  }
+
+  @Test
+  void test_decodeMetricsOnly() throws IOException {
+    List<ObjectNode> entries = new ArrayList<>();
+    entries.add(JsonUtils.getObjectNode().put("timestamp", 1L).put("testCaseStatus", "Success").put("rows", 10));
+    entries.add(JsonUtils.getObjectNode().put("timestamp", 2L).put("testCaseStatus", "Failed").put("rows", 2.5));
+    entries.add(JsonUtils.getObjectNode().put("timestamp", 3L).put("testCaseStatus", "Success").put("rows", "none"));
+
+    TimeSeriesChunk chunk = TimeSeriesChunk.decode(TimeSeriesChunk.fromEntries(entries).encode(), true);
+    Map<String, Double> sums = new HashMap<>();
+    for (int i = 0; i < chunk.size(); i++) {
+      chunk.forEachMetric(i, (name, value) -> sums.merge(name, value, Double::sum));
+    }
+    assertEquals(Map.of("rows", 12.5), sums);
+    assertEquals("Success", chunk.getString(0, "testCaseStatus"));
+    assertEquals("Failed", chunk.getString(1, "testCaseStatus"));
+    assertEquals("Success", chunk.getString(2, "testCaseStatus"));
+    assertNull(chunk.getString(2, "rows")); // Strings of a field that holds numbers are in the residual json
+  }
+}
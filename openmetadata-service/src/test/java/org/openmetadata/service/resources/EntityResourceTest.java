@@ -99,6 +99,8 @@ import org.junit.jupiter.api.TestInstance;
 import org.openmetadata.schema.CreateEntity;
 import org.openmetadata.schema.EntityInterface;
 import org.openmetadata.schema.api.data.TermReference;
+import org.openmetadata.schema.api.policies.CreatePolicy;
+import org.openmetadata.schema.api.teams.CreateRole;
 import org.openmetadata.schema.api.teams.CreateTeam;
 import org.openmetadata.schema.api.teams.CreateTeam.TeamType;
 import org.openmetadata.schema.entity.Type;
@@ -109,6 +111,7 @@ import org.openmetadata.schema.entity.data.GlossaryTerm;
 import org.openmetadata.schema.entity.data.Table;
 import org.openmetadata.schema.entity.policies.Policy;
 import org.openmetadata.schema.entity.policies.accessControl.Rule;
+import org.openmetadata.schema.entity.policies.accessControl.Rule.Effect;
 import org.openmetadata.schema.entity.teams.Role;
 import org.openmetadata.schema.entity.teams.Team;
 import org.openmetadata.schema.entity.teams.User;
@@ -839,6 +842,34 @@ public abstract class EntityResourceTest<T extends EntityInterface, K extends Cr
     updateAndCheckEntity(request, CREATED, ADMIN_AUTH_HEADERS, UpdateType.CREATED, null);
   }
 
+  @Test
+  void put_entityCreate_as_non_admin_200(TestInfo test) throws IOException {
+    if (!supportsAuthorizedMetadataOperations) {
+      return; // Entity can only be created by admins
+    }
+    // Create a user with a role that allows creating the entity
+    Rule rule =
+        new Rule()
+            .withName("createRule")
+            .withResources(List.of(entityType))
+            .withOperations(List.of(MetadataOperation.CREATE))
+            .withEffect(Effect.ALLOW);
+    CreatePolicy createPolicy =
+        new CreatePolicy().withName(getEntityName(test)).withDescription("description").withRules(List.of(rule));
+    Policy policy = new PolicyResourceTest().createEntity(createPolicy, ADMIN_AUTH_HEADERS);
+    CreateRole createRole =
+        new CreateRole().withName(getEntityName(test)).withPolicies(List.of(policy.getEntityReference()));
+    Role role = new RoleResourceTest().createEntity(createRole, ADMIN_AUTH_HEADERS);
+    UserResourceTest userResourceTest = new UserResourceTest();
+    User user =
+        userResourceTest.createEntity(
+            userResourceTest.createRequest(test, 3).withRoles(List.of(role.getId())), ADMIN_AUTH_HEADERS);
+
+    // Create a new entity with PUT as the user. The entity does not exist yet when the user is authorized.
+    K request = createRequest(getEntityName(test), "description", "displayName", null);
+    updateAndCheckEntity(request, CREATED, authHeaders(user.getName()), UpdateType.CREATED, null);
+  }
+
   @Test
   void put_entityUpdateWithNoChange_200(TestInfo test) throws IOException {
     // Create a chart with POST
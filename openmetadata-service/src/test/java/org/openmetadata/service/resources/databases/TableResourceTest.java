@@ -97,6 +97,7 @@ import org.openmetadata.schema.entity.data.Table;
 import org.openmetadata.schema.entity.services.DatabaseService;
 import org.openmetadata.schema.entity.teams.User;
 import org.openmetadata.schema.tests.CustomMetric;
+import org.openmetadata.schema.type.BulkEntityResult;
 import org.openmetadata.schema.type.ChangeDescription;
 import org.openmetadata.schema.type.Column;
 import org.openmetadata.schema.type.ColumnConstraint;
@@ -107,6 +108,7 @@ import org.openmetadata.schema.type.ColumnProfilerConfig;
 import org.openmetadata.schema.type.DataModel;
 import org.openmetadata.schema.type.DataModel.ModelType;
 import org.openmetadata.schema.type.EntityReference;
+import org.openmetadata.schema.type.EntityResult;
 import org.openmetadata.schema.type.JoinedWith;
 import org.openmetadata.schema.type.MetadataOperation;
 import org.openmetadata.schema.type.SQLQuery;
@@ -1116,6 +1118,110 @@ public class TableResourceTest extends EntityResourceTest<Table, CreateTable> {
         permissionNotAllowed(USER2.getName(), List.of(MetadataOperation.EDIT_DATA_PROFILE)));
   }
 
+  @Test
+  void get_wideTableColumnTagsAndProfiles_200(TestInfo test) throws IOException, ParseException {
+    // Tags and profiles of all the columns of a wide table are loaded together. Make sure each column gets its own.
+    int columnCount = 200;
+    List<Column> columns = new ArrayList<>();
+    for (int i = 0; i < columnCount; i++) {
+      TagLabel tag = i % 3 == 0 ? USER_ADDRESS_TAG_LABEL : i % 3 == 1 ? GLOSSARY1_TERM1_LABEL : null;
+      columns.add(getColumn("wide" + i, INT, tag));
+    }
+    Column child = getColumn("child", INT, PERSONAL_DATA_TAG_LABEL);
+    columns.add(getColumn("struct", STRUCT, null).withChildren(new ArrayList<>(List.of(child))));
+    Table table = createEntity(createRequest(test).withColumns(columns), ADMIN_AUTH_HEADERS);
+
+    // A table with the same column names and other tags must not change the tags of the wide table
+    List<Column> otherColumns = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      otherColumns.add(getColumn("wide" + i, INT, PERSONAL_DATA_TAG_LABEL));
+    }
+    createEntity(createRequest(test, 1).withColumns(otherColumns), ADMIN_AUTH_HEADERS);
+
+    // Put two profiles for each column. Only the latest profile is returned with the table.
+    for (String date : List.of("2021-09-09", "2021-09-10")) {
+      Long timestamp = TestUtils.dateToTimestamp(date);
+      List<ColumnProfile> columnProfiles = new ArrayList<>();
+      for (int i = 0; i < columnCount; i++) {
+        columnProfiles.add(new ColumnProfile().withName("wide" + i).withMax((double) i).withTimestamp(timestamp));
+      }
+      TableProfile tableProfile =
+          new TableProfile().withRowCount(1.0).withColumnCount((double) columnCount).withTimestamp(timestamp);
+      putTableProfileData(
+          table.getId(),
+          new CreateTableProfile().withTableProfile(tableProfile).withColumnProfile(columnProfiles),
+          ADMIN_AUTH_HEADERS);
+    }
+
+    Long latest = TestUtils.dateToTimestamp("2021-09-10");
+    Table getTable = getEntity(table.getId(), "columns,tags,profile", ADMIN_AUTH_HEADERS);
+    assertColumns(columns, getTable.getColumns());
+    for (int i = 0; i < columnCount; i++) {
+      ColumnProfile profile = getTable.getColumns().get(i).getProfile();
+      assertEquals(latest, profile.getTimestamp());
+      assertEquals((double) i, profile.getMax());
+    }
+
+    // Column tags are not returned when tags are not requested
+    getTable = getEntity(table.getId(), "columns", ADMIN_AUTH_HEADERS);
+    getTable.getColumns().forEach(c -> assertNull(c.getTags()));
+  }
+
+  @Test
+  void put_bulkTables_200(TestInfo test) throws IOException {
+    Table existing = createEntity(createRequest(test, 1), ADMIN_AUTH_HEADERS);
+
+    List<Column> columns = List.of(getColumn("c1", INT, USER_ADDRESS_TAG_LABEL), getColumn("c2", INT, null));
+    CreateTable newTable =
+        createRequest(test, 0).withColumns(columns).withOwner(USER1_REF).withTags(List.of(TIER1_TAG_LABEL));
+    EntityReference invalidSchema =
+        new EntityReference().withId(NON_EXISTENT_ENTITY).withType(Entity.DATABASE_SCHEMA);
+    List<CreateTable> creates =
+        List.of(
+            newTable,
+            createRequest(test, 1).withDescription("updated description"),
+            createRequest(test, 2).withDatabaseSchema(invalidSchema),
+            newTable, // Repeated table
+            createRequest(test, 3));
+    BulkEntityResult result = bulkCreateOrUpdate(creates, ADMIN_AUTH_HEADERS);
+    assertEquals(2, result.getCreated());
+    assertEquals(1, result.getUpdated());
+    assertEquals(2, result.getFailed());
+    List<EntityResult.Status> statuses =
+        result.getResults().stream().map(EntityResult::getStatus).collect(Collectors.toList());
+    assertEquals(
+        List.of(
+            EntityResult.Status.CREATED,
+            EntityResult.Status.UPDATED,
+            EntityResult.Status.FAILED,
+            EntityResult.Status.FAILED,
+            EntityResult.Status.CREATED),
+        statuses);
+
+    // Tables created in bulk have the same relationships and tags as tables created one at a time
+    Table created = getEntity(result.getResults().get(0).getId(), "owner,tags,columns", ADMIN_AUTH_HEADERS);
+    assertReference(USER1_REF, created.getOwner());
+    assertEquals(getContainer().getId(), created.getDatabaseSchema().getId());
+    TestUtils.validateTags(List.of(TIER1_TAG_LABEL), created.getTags());
+    assertColumns(columns, created.getColumns());
+
+    Table updated = getEntity(existing.getId(), "", ADMIN_AUTH_HEADERS);
+    assertEquals("updated description", updated.getDescription());
+    assertEquals(existing.getId(), result.getResults().get(1).getId());
+
+    // Sending the same tables again leaves them unchanged
+    result = bulkCreateOrUpdate(List.of(newTable, createRequest(test, 3)), ADMIN_AUTH_HEADERS);
+    assertEquals(0, result.getCreated());
+    assertEquals(2, result.getUpdated());
+    result.getResults().forEach(r -> assertEquals(EntityResult.Status.UNCHANGED, r.getStatus()));
+  }
+
+  public static BulkEntityResult bulkCreateOrUpdate(List<CreateTable> creates, Map<String, String> authHeaders)
+      throws HttpResponseException {
+    WebTarget target = getResource("tables/bulk");
+    return TestUtils.put(target, creates, BulkEntityResult.class, OK, authHeaders);
+  }
+
   void putTableProfile(Table table, Table table1, Map<String, String> authHeaders) throws IOException, ParseException {
     Long timestamp = TestUtils.dateToTimestamp("2021-09-09");
     ColumnProfile c1Profile =
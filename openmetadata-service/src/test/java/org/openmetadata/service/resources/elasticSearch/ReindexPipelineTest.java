@@ -0,0 +1,293 @@
+package org.openmetadata.service.resources.elasticSearch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.openmetadata.schema.api.CreateEventPublisherJob;
+import org.openmetadata.schema.entity.teams.Team;
+import org.openmetadata.schema.settings.EventPublisherJob.Status;
+import org.openmetadata.schema.settings.StageStats;
+import org.openmetadata.schema.type.Include;
+import org.openmetadata.service.Entity;
+import org.openmetadata.service.elasticsearch.ElasticSearchIndexDefinition;
+import org.openmetadata.service.elasticsearch.ElasticSearchIndexDefinition.ElasticSearchIndexType;
+import org.openmetadata.service.jdbi3.CollectionDAO;
+import org.openmetadata.service.jdbi3.CollectionDAO.ChangeEventDAO;
+import org.openmetadata.service.jdbi3.CollectionDAO.TeamDAO;
+import org.openmetadata.service.jdbi3.ListFilter;
+import org.openmetadata.service.jdbi3.TeamRepository;
+import org.openmetadata.service.util.JsonUtils;
+
+/** Reindexing of teams kept in memory by a fake team DAO, with the bulk requests recorded instead of sent to ES */
+class ReindexPipelineTest {
+  private final NavigableMap<String, Team> teams = new ConcurrentSkipListMap<>(); // In name order like the DAO
+  private final AtomicReference<Runnable> changeAfterRead = new AtomicReference<>(); // Change after the first page
+  private final TeamDAO teamDAO = mock(TeamDAO.class);
+  private final List<DocWriteRequest<?>> written = Collections.synchronizedList(new ArrayList<>());
+  private final RestHighLevelClient client = mock(RestHighLevelClient.class);
+  private final CollectionDAO dao = mock(CollectionDAO.class);
+  private final ChangeEventDAO changeEventDAO = mock(ChangeEventDAO.class);
+  private final ElasticSearchIndexDefinition indexDefinition = mock(ElasticSearchIndexDefinition.class);
+  private final BulkProcessorListener listener = mock(BulkProcessorListener.class);
+
+  @BeforeEach
+  void setup() throws Exception {
+    when(teamDAO.getNameColumn()).thenReturn("name");
+    when(teamDAO.listCount(any(ListFilter.class))).thenAnswer(invocation -> teams.size());
+    when(teamDAO.listRangeBoundaries(any(ListFilter.class), anyInt()))
+        .thenAnswer(invocation -> listRangeBoundaries(invocation.getArgument(1)));
+    when(teamDAO.listRange(any(ListFilter.class), anyInt(), any(), any()))
+        .thenAnswer(
+            invocation -> listRange(invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3)));
+    when(teamDAO.findEntitiesByIds(anyList(), any(Include.class)))
+        .thenAnswer(invocation -> findByIds(invocation.getArgument(0)));
+    when(dao.teamDAO()).thenReturn(teamDAO);
+    when(dao.changeEventDAO()).thenReturn(changeEventDAO);
+    new TeamRepository(dao); // Registers the repository of the teams
+
+    when(indexDefinition.getIndexMappingByEntityType(Entity.TEAM)).thenReturn(ElasticSearchIndexType.TEAM_SEARCH_INDEX);
+    doAnswer(
+            invocation -> {
+              BulkRequest bulkRequest = invocation.getArgument(0);
+              written.addAll(bulkRequest.requests());
+              ActionListener<BulkResponse> bulkListener = invocation.getArgument(2);
+              bulkListener.onResponse(new BulkResponse(new BulkItemResponse[0], 1));
+              return null;
+            })
+        .when(client)
+        .bulkAsync(any(BulkRequest.class), any(RequestOptions.class), any());
+  }
+
+  @Test
+  void test_everyEntityIndexedOnce() throws Exception {
+    List<String> ids = addTeams(50);
+
+    // Ranges of 7 teams read by 3 readers in pages of 5 teams
+    ReindexPipeline pipeline = new ReindexPipeline(client, dao, indexDefinition, listener, createRequest(3, 7, 5));
+    pipeline.run();
+
+    Map<String, Integer> counts = countWrites(ElasticSearchIndexType.TEAM_SEARCH_INDEX.indexName);
+    assertEquals(Set.copyOf(ids), counts.keySet());
+    counts.forEach((id, count) -> assertEquals(1, count, "writes of " + id));
+    assertEquals(List.of(50, 50, 50), getProcessed(pipeline));
+    verify(listener, never()).updateElasticSearchStatus(eq(Status.ACTIVEWITHERROR), any(), any());
+    verify(listener).updateElasticSearchStatus(eq(Status.IDLE), any(), any());
+  }
+
+  @Test
+  void test_failedBuildThreadFallsBackToReaders() throws Exception {
+    List<String> ids = addTeams(100);
+    // A team without id can't be indexed, and recording it fails the only build thread
+    teams.get("team025").setId(null);
+    doThrow(new IllegalStateException("Failed to record the team"))
+        .doNothing()
+        .when(listener)
+        .updateFailedAndSuccess(1, 0);
+
+    // Pages of 10 teams after the third page are built by the reader once the build thread failed
+    ReindexPipeline pipeline = new ReindexPipeline(client, dao, indexDefinition, listener, createRequest(1, 1000, 10));
+    pipeline.run();
+
+    Map<String, Integer> counts = countWrites(ElasticSearchIndexType.TEAM_SEARCH_INDEX.indexName);
+    List<String> expected = new ArrayList<>(ids.subList(0, 20));
+    expected.addAll(ids.subList(30, 100));
+    assertEquals(Set.copyOf(expected), counts.keySet());
+    counts.forEach((id, count) -> assertEquals(1, count, "writes of " + id));
+    assertEquals(List.of(100, 90, 90), getProcessed(pipeline));
+
+    // The job reports the failure and completes
+    verify(listener)
+        .updateElasticSearchStatus(
+            eq(Status.ACTIVEWITHERROR),
+            argThat(
+                details -> details != null && "team:Failure in building documents".equals(details.getContext())),
+            any());
+    verify(listener).updateElasticSearchStatus(eq(Status.IDLE), any(), any());
+  }
+
+  @Test
+  void test_changesDuringRebuildWrittenToShadowIndexBeforeSwap() throws Exception {
+    List<String> ids = addTeams(30);
+    String shadowIndex = "team_search_index_1";
+    when(indexDefinition.createShadowIndex(ElasticSearchIndexType.TEAM_SEARCH_INDEX)).thenReturn(shadowIndex);
+    when(changeEventDAO.getMaxOffset()).thenReturn(42L);
+    List<DocWriteRequest<?>> caughtUp = Collections.synchronizedList(new ArrayList<>());
+    when(client.bulk(any(BulkRequest.class), any(RequestOptions.class)))
+        .thenAnswer(
+            invocation -> {
+              BulkRequest bulkRequest = invocation.getArgument(0);
+              caughtUp.addAll(bulkRequest.requests());
+              return new BulkResponse(new BulkItemResponse[0], 1);
+            });
+
+    // Once the first page is read, a team of the page is updated and another one deleted by another request
+    changeAfterRead.set(
+        () -> {
+          teams.get("team005").setDisplayName("Renamed");
+          teams.remove("team007");
+        });
+    when(changeEventDAO.listEntityIds(Entity.TEAM, 42L)).thenReturn(List.of(ids.get(5), ids.get(7)));
+    new ReindexPipeline(client, dao, indexDefinition, listener, createRequest(1, 1000, 10).withRecreateIndex(true))
+        .run();
+
+    // The shadow index is loaded with the teams as read, and the changed teams are written again before the swap
+    assertEquals(Set.copyOf(ids), countWrites(shadowIndex).keySet());
+    assertEquals(2, caughtUp.size());
+    UpdateRequest renamed = (UpdateRequest) caughtUp.get(0);
+    assertEquals(shadowIndex, renamed.index());
+    assertEquals(ids.get(5), renamed.id());
+    assertEquals("Renamed", renamed.doc().sourceAsMap().get("displayName"));
+    assertEquals(DocWriteRequest.OpType.DELETE, caughtUp.get(1).opType());
+    assertEquals(shadowIndex, caughtUp.get(1).index());
+    assertEquals(ids.get(7), caughtUp.get(1).id());
+
+    // Offset is taken after the shadow index is created and before the teams are read
+    InOrder inOrder = inOrder(indexDefinition, changeEventDAO, teamDAO, client);
+    inOrder.verify(indexDefinition).createShadowIndex(ElasticSearchIndexType.TEAM_SEARCH_INDEX);
+    inOrder.verify(changeEventDAO).getMaxOffset();
+    inOrder.verify(teamDAO, atLeastOnce()).listRange(any(ListFilter.class), anyInt(), any(), any());
+    inOrder.verify(changeEventDAO).listEntityIds(Entity.TEAM, 42L);
+    inOrder.verify(client).bulk(any(BulkRequest.class), any(RequestOptions.class));
+    inOrder.verify(indexDefinition).promoteShadowIndex(ElasticSearchIndexType.TEAM_SEARCH_INDEX, shadowIndex);
+    verify(indexDefinition, never()).discardShadowIndex(any(), any());
+  }
+
+  @Test
+  void test_shadowIndexDiscardedWhenCatchUpFails() throws Exception {
+    List<String> ids = addTeams(10);
+    String shadowIndex = "team_search_index_1";
+    when(indexDefinition.createShadowIndex(ElasticSearchIndexType.TEAM_SEARCH_INDEX)).thenReturn(shadowIndex);
+    when(changeEventDAO.listEntityIds(Entity.TEAM, 0L)).thenReturn(List.of(ids.get(0)));
+    when(client.bulk(any(BulkRequest.class), any(RequestOptions.class))).thenThrow(new IOException("ES is down"));
+
+    new ReindexPipeline(client, dao, indexDefinition, listener, createRequest(1, 1000, 10).withRecreateIndex(true))
+        .run();
+
+    // The current index keeps serving queries
+    verify(indexDefinition, never()).promoteShadowIndex(any(), any());
+    verify(indexDefinition).discardShadowIndex(ElasticSearchIndexType.TEAM_SEARCH_INDEX, shadowIndex);
+    verify(listener)
+        .updateElasticSearchStatus(
+            eq(Status.ACTIVEWITHERROR),
+            argThat(
+                details ->
+                    details != null
+                        && "team_search_index:Failure in promoting reindexed index".equals(details.getContext())),
+            any());
+  }
+
+  private List<String> addTeams(int count) {
+    List<String> ids = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      String name = String.format("team%03d", i);
+      Team team =
+          new Team().withId(UUID.randomUUID()).withName(name).withFullyQualifiedName(name).withDisplayName(name);
+      teams.put(name, team);
+      ids.add(team.getId().toString());
+    }
+    return ids;
+  }
+
+  private static CreateEventPublisherJob createRequest(int concurrency, int rangeSize, int batchSize) {
+    return new CreateEventPublisherJob()
+        .withEntities(Set.of(Entity.TEAM))
+        .withConcurrency(concurrency)
+        .withRangeSize(rangeSize)
+        .withBatchSize(batchSize)
+        .withFlushIntervalInSec(1)
+        .withRecreateIndex(false);
+  }
+
+  /** Number of writes of each document id to an index */
+  private Map<String, Integer> countWrites(String index) {
+    Map<String, Integer> counts = new HashMap<>();
+    synchronized (written) {
+      for (DocWriteRequest<?> request : written) {
+        if (index.equals(request.index())) {
+          counts.merge(request.id(), 1, Integer::sum);
+        }
+      }
+    }
+    return counts;
+  }
+
+  /** Entities processed by the read, build and write stages */
+  private static List<Integer> getProcessed(ReindexPipeline pipeline) {
+    List<StageStats> stats = pipeline.getStageStats();
+    assertEquals(
+        List.of(ReindexPipeline.READ_STAGE, ReindexPipeline.BUILD_STAGE, ReindexPipeline.WRITE_STAGE),
+        stats.stream().map(StageStats::getName).collect(Collectors.toList()));
+    return stats.stream().map(StageStats::getProcessed).collect(Collectors.toList());
+  }
+
+  private List<String> listRangeBoundaries(int rangeSize) {
+    List<String> names = new ArrayList<>(teams.keySet());
+    List<String> boundaries = new ArrayList<>();
+    for (int i = rangeSize; i <= names.size(); i += rangeSize) {
+      boundaries.add(names.get(i - 1));
+    }
+    return boundaries;
+  }
+
+  private List<String> listRange(int limit, String after, String end) throws IOException {
+    NavigableMap<String, Team> range =
+        end == null ? teams.tailMap(after, false) : teams.subMap(after, false, end, true);
+    List<String> jsons = new ArrayList<>();
+    for (Team team : range.values()) {
+      if (jsons.size() == limit) {
+        break;
+      }
+      jsons.add(JsonUtils.pojoToJson(team));
+    }
+    Runnable change = changeAfterRead.getAndSet(null);
+    if (change != null) {
+      change.run();
+    }
+    return jsons;
+  }
+
+  private List<Team> findByIds(List<UUID> ids) throws IOException {
+    List<Team> found = new ArrayList<>();
+    for (Team team : teams.values()) {
+      if (ids.contains(team.getId())) {
+        found.add(JsonUtils.readValue(JsonUtils.pojoToJson(team), Team.class));
+      }
+    }
+    return found;
+  }
+}
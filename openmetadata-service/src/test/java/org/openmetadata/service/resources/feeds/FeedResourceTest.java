@@ -47,6 +47,7 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
@@ -55,6 +56,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.BiPredicate;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -317,6 +321,33 @@ public class FeedResourceTest extends OpenMetadataApplicationTest {
     assertEquals(tableColumnDescriptionThreadCount, getThreadCount(TABLE_COLUMN_LINK, userAuthHeaders));
   }
 
+  @Test
+  void post_threadsConcurrently_countsConsistent_200() throws Exception {
+    String about = String.format("<#E::table::%s::description>", TABLE2.getFullyQualifiedName());
+    int before = listThreads(about, null, AUTH_HEADERS).getPaging().getTotal();
+    CreateThread create = create().withAbout(about);
+
+    // Create threads about the same entity link concurrently
+    int threadCount = 40;
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Thread>> futures = new ArrayList<>();
+      for (int i = 0; i < threadCount; i++) {
+        futures.add(executor.submit(() -> createThread(create, AUTH_HEADERS)));
+      }
+      for (Future<Thread> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // The counts include each of the threads, and match the threads listed
+    int total = listThreads(about, null, AUTH_HEADERS).getPaging().getTotal();
+    assertEquals(before + threadCount, total);
+    assertEquals(total, getThreadCount(about, AUTH_HEADERS));
+  }
+
   @Test
   void post_validTaskAndList_200() throws IOException {
     int totalTaskCount = listTasks(null, null, null, null, null, ADMIN_AUTH_HEADERS).getPaging().getTotal();
@@ -881,6 +912,28 @@ public class FeedResourceTest extends OpenMetadataApplicationTest {
     // Check if get posts API returns all the posts
     PostList postList = listPosts(thread.getId().toString(), AUTH_HEADERS);
     assertEquals(POST_COUNT, postList.getData().size());
+
+    // All the posts are returned when a post is added with the posts field
+    Thread returnedThread = addPost(thread.getId(), createPost(null), "posts", AUTH_HEADERS);
+    validatePost(thread, returnedThread, USER.getName(), "message");
+    assertEquals(POST_COUNT + 1, returnedThread.getPostsCount());
+
+    // Page through the posts forward and backward
+    List<Post> allPosts = postList.getData();
+    PostList page = listPosts(thread.getId().toString(), 4, null, null, AUTH_HEADERS);
+    assertEquals(allPosts.subList(0, 4), page.getData());
+    assertEquals(POST_COUNT, page.getPaging().getTotal());
+    assertNull(page.getPaging().getBefore());
+    page = listPosts(thread.getId().toString(), 4, null, page.getPaging().getAfter(), AUTH_HEADERS);
+    assertEquals(allPosts.subList(4, 8), page.getData());
+    page = listPosts(thread.getId().toString(), 4, null, page.getPaging().getAfter(), AUTH_HEADERS);
+    assertEquals(allPosts.subList(8, 10), page.getData());
+    assertNull(page.getPaging().getAfter());
+    page = listPosts(thread.getId().toString(), 4, page.getPaging().getBefore(), null, AUTH_HEADERS);
+    assertEquals(allPosts.subList(4, 8), page.getData());
+    page = listPosts(thread.getId().toString(), 4, page.getPaging().getBefore(), null, AUTH_HEADERS);
+    assertEquals(allPosts.subList(0, 4), page.getData());
+    assertNull(page.getPaging().getBefore());
   }
 
   @Test
@@ -1150,6 +1203,121 @@ public class FeedResourceTest extends OpenMetadataApplicationTest {
 
     ThreadList threads = listThreadsWithFilter(USER.getId().toString(), FilterType.MENTIONS.toString(), AUTH_HEADERS);
     assertEquals(2, threads.getPaging().getTotal());
+
+    // Create more threads mentioning the user, and page through them
+    for (int i = 0; i < 3; i++) {
+      createAndCheck(create().withMessage(String.format("Message %d mentions %s", i, USER_LINK)), ADMIN_AUTH_HEADERS);
+    }
+    assertPagination(USER.getId().toString(), FilterType.MENTIONS, ThreadType.Conversation, 5);
+  }
+
+  @Test
+  void list_tasksAssignedToWithPagination() throws HttpResponseException {
+    int assignedToCount =
+        listTasks(null, USER2.getId().toString(), FilterType.ASSIGNED_TO.toString(), null, null, ADMIN_AUTH_HEADERS)
+            .getPaging()
+            .getTotal();
+    int tasksOfUserCount =
+        listTasks(null, USER2.getId().toString(), null, null, null, ADMIN_AUTH_HEADERS).getPaging().getTotal();
+    for (int i = 0; i < 5; i++) {
+      createTask("Task " + i, USER2, authHeaders(USER.getEmail()));
+    }
+
+    // The pages listed forward and back have each task once, in the order of the full list
+    assertPagination(USER2.getId().toString(), FilterType.ASSIGNED_TO, ThreadType.Task, assignedToCount + 5);
+    assertPagination(USER2.getId().toString(), null, ThreadType.Task, tasksOfUserCount + 5);
+  }
+
+  @Test
+  void patch_taskAssignees_200() throws IOException {
+    Thread thread = createTask("Task with assignees to replace", USER2, authHeaders(USER.getEmail()));
+    assertTrue(listAssignedTaskIds(USER2).contains(thread.getId()));
+    assertFalse(listAssignedTaskIds(USER).contains(thread.getId()));
+
+    // Replace the assignee of the task, and the task moves to the list of the new assignee
+    String originalJson = JsonUtils.pojoToJson(thread);
+    Thread updated = JsonUtils.readValue(originalJson, Thread.class);
+    updated.getTask().setAssignees(List.of(USER.getEntityReference()));
+    patchThread(thread.getId(), originalJson, updated, ADMIN_AUTH_HEADERS);
+    assertFalse(listAssignedTaskIds(USER2).contains(thread.getId()));
+    assertTrue(listAssignedTaskIds(USER).contains(thread.getId()));
+  }
+
+  private Thread createTask(String message, User assignee, Map<String, String> authHeaders)
+      throws HttpResponseException {
+    CreateTaskDetails taskDetails =
+        new CreateTaskDetails()
+            .withOldValue("old description")
+            .withAssignees(List.of(assignee.getEntityReference()))
+            .withType(TaskType.RequestDescription)
+            .withSuggestion("new description");
+    return createAndCheck(
+        create().withMessage(message).withTaskDetails(taskDetails).withType(ThreadType.Task), authHeaders);
+  }
+
+  private static List<UUID> listAssignedTaskIds(User user) throws HttpResponseException {
+    return listTasks(null, user.getId().toString(), FilterType.ASSIGNED_TO.toString(), null, null, ADMIN_AUTH_HEADERS)
+        .getData()
+        .stream()
+        .map(Thread::getId)
+        .toList();
+  }
+
+  /** Page through the threads of a filter with after and then with before, and compare the pages to the full list */
+  private static void assertPagination(String userId, FilterType filterType, ThreadType threadType, int total)
+      throws HttpResponseException {
+    String filter = filterType != null ? filterType.toString() : null;
+    ThreadList all =
+        listThreads(
+            null, null, ADMIN_AUTH_HEADERS, userId, filter, null, threadType.toString(), null, total + 1, null, null);
+    assertEquals(total, all.getPaging().getTotal());
+    List<UUID> allIds = all.getData().stream().map(Thread::getId).toList();
+    assertEquals(total, allIds.size());
+
+    int limit = 2;
+    List<UUID> forward = new ArrayList<>();
+    ThreadList page =
+        listThreads(
+            null, null, ADMIN_AUTH_HEADERS, userId, filter, null, threadType.toString(), null, limit, null, null);
+    assertNull(page.getPaging().getBefore());
+    forward.addAll(page.getData().stream().map(Thread::getId).toList());
+    while (page.getPaging().getAfter() != null) {
+      page =
+          listThreads(
+              null,
+              null,
+              ADMIN_AUTH_HEADERS,
+              userId,
+              filter,
+              null,
+              threadType.toString(),
+              null,
+              limit,
+              null,
+              page.getPaging().getAfter());
+      forward.addAll(page.getData().stream().map(Thread::getId).toList());
+    }
+    assertEquals(allIds, forward);
+
+    // Going back from the last page lists the threads before it, up to the first one
+    List<UUID> backward = new ArrayList<>(page.getData().stream().map(Thread::getId).toList());
+    while (page.getPaging().getBefore() != null) {
+      page =
+          listThreads(
+              null,
+              null,
+              ADMIN_AUTH_HEADERS,
+              userId,
+              filter,
+              null,
+              threadType.toString(),
+              null,
+              limit,
+              page.getPaging().getBefore(),
+              null);
+      backward.addAll(0, page.getData().stream().map(Thread::getId).toList());
+    }
+    assertEquals(allIds, backward);
   }
 
   @Test
@@ -1353,12 +1521,15 @@ public class FeedResourceTest extends OpenMetadataApplicationTest {
   private Thread addPostAndCheck(Thread thread, CreatePost create, Map<String, String> authHeaders)
       throws HttpResponseException {
     Thread returnedThread = addPost(thread.getId(), create, authHeaders);
-    // Last post is the newly added one
-    validatePost(thread, returnedThread, create.getFrom(), create.getMessage());
+    // The returned thread has the newly added post only
+    assertEquals(1, returnedThread.getPosts().size());
+    assertEquals(create.getFrom(), returnedThread.getPosts().get(0).getFrom());
+    assertEquals(create.getMessage(), returnedThread.getPosts().get(0).getMessage());
+    assertEquals(thread.getPosts().size() + 1, returnedThread.getPostsCount());
 
     Thread getThread = getThread(thread.getId(), authHeaders);
     validatePost(thread, getThread, create.getFrom(), create.getMessage());
-    return returnedThread;
+    return getThread;
   }
 
   private static void validateThread(Thread thread, String message, String from, String about) {
@@ -1385,7 +1556,14 @@ public class FeedResourceTest extends OpenMetadataApplicationTest {
 
   public static Thread addPost(UUID threadId, CreatePost post, Map<String, String> authHeaders)
       throws HttpResponseException {
-    return TestUtils.post(getResource("feed/" + threadId + "/posts"), post, Thread.class, authHeaders);
+    return addPost(threadId, post, null, authHeaders);
+  }
+
+  public static Thread addPost(UUID threadId, CreatePost post, String fields, Map<String, String> authHeaders)
+      throws HttpResponseException {
+    WebTarget target = getResource("feed/" + threadId + "/posts");
+    target = fields != null ? target.queryParam("fields", fields) : target;
+    return TestUtils.post(target, post, Thread.class, authHeaders);
   }
 
   public static Thread deleteThread(UUID threadId, Map<String, String> authHeaders) throws HttpResponseException {
@@ -1530,6 +1708,15 @@ public class FeedResourceTest extends OpenMetadataApplicationTest {
     return TestUtils.get(target, PostList.class, authHeaders);
   }
 
+  public static PostList listPosts(
+      String threadId, int limit, String before, String after, Map<String, String> authHeaders)
+      throws HttpResponseException {
+    WebTarget target = getResource(String.format("feed/%s/posts", threadId)).queryParam("limit", limit);
+    target = before != null ? target.queryParam("before", before) : target;
+    target = after != null ? target.queryParam("after", after) : target;
+    return TestUtils.get(target, PostList.class, authHeaders);
+  }
+
   public static ThreadCount listThreadsCount(String entityLink, Map<String, String> authHeaders)
       throws HttpResponseException {
     WebTarget target = getResource("feed/count");
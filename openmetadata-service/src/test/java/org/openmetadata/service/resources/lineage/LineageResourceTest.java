@@ -287,6 +287,46 @@ public class LineageResourceTest extends OpenMetadataApplicationTest {
     addEdge(TABLES.get(0), TABLES.get(1), details, ADMIN_AUTH_HEADERS);
   }
 
+  @Order(4)
+  @Test
+  void get_lineageWithCycle() throws HttpResponseException {
+    //
+    // Add edges to create a lineage graph with a cycle and an entity shared by multiple paths
+    // table6-->table7-->table8-->table6
+    // table6-->table8
+    addEdge(TABLES.get(6), TABLES.get(7));
+    addEdge(TABLES.get(7), TABLES.get(8));
+    addEdge(TABLES.get(8), TABLES.get(6));
+    addEdge(TABLES.get(6), TABLES.get(8));
+
+    // Each edge is returned only once even when the traversal depth is more than the length of the cycle
+    Edge[] expectedUpstreamEdges = {
+      getEdge(TABLES.get(8), TABLES.get(6)),
+      getEdge(TABLES.get(7), TABLES.get(8)),
+      getEdge(TABLES.get(6), TABLES.get(8)),
+      getEdge(TABLES.get(6), TABLES.get(7))
+    };
+    Edge[] expectedDownstreamEdges = {
+      getEdge(TABLES.get(6), TABLES.get(7)),
+      getEdge(TABLES.get(6), TABLES.get(8)),
+      getEdge(TABLES.get(7), TABLES.get(8)),
+      getEdge(TABLES.get(8), TABLES.get(6))
+    };
+    assertLineage(
+        Entity.TABLE,
+        TABLES.get(6).getId(),
+        TABLES.get(6).getFullyQualifiedName(),
+        3,
+        3,
+        expectedUpstreamEdges,
+        expectedDownstreamEdges);
+
+    deleteEdge(TABLES.get(6), TABLES.get(7));
+    deleteEdge(TABLES.get(7), TABLES.get(8));
+    deleteEdge(TABLES.get(8), TABLES.get(6));
+    deleteEdge(TABLES.get(6), TABLES.get(8));
+  }
+
   public Edge getEdge(Table from, Table to) {
     return getEdge(from.getId(), to.getId(), null);
   }
@@ -18,23 +18,39 @@ import static javax.ws.rs.core.Response.Status.OK;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.openmetadata.service.resources.usage.UsageResourceTest.reportUsage;
+import static org.openmetadata.service.resources.usage.UsageResourceTest.usageReport;
 import static org.openmetadata.service.util.EntityUtil.fieldAdded;
 import static org.openmetadata.service.util.EntityUtil.fieldUpdated;
 import static org.openmetadata.service.util.TestUtils.ADMIN_AUTH_HEADERS;
 import static org.openmetadata.service.util.TestUtils.TEST_AUTH_HEADERS;
 import static org.openmetadata.service.util.TestUtils.assertResponseContains;
 
+import io.dropwizard.db.DataSourceFactory;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.http.client.HttpResponseException;
+import org.jdbi.v3.core.Jdbi;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
+import org.openmetadata.schema.EntityInterface;
+import org.openmetadata.schema.api.configuration.airflow.AirflowConfiguration;
+import org.openmetadata.schema.api.data.CreateDatabase;
+import org.openmetadata.schema.api.data.CreateDatabaseSchema;
+import org.openmetadata.schema.api.data.CreateTable;
 import org.openmetadata.schema.api.services.CreateDatabaseService;
 import org.openmetadata.schema.api.services.CreateDatabaseService.DatabaseServiceType;
 import org.openmetadata.schema.api.services.DatabaseConnection;
 import org.openmetadata.schema.api.services.ingestionPipelines.CreateIngestionPipeline;
+import org.openmetadata.schema.entity.data.Database;
+import org.openmetadata.schema.entity.data.DatabaseSchema;
+import org.openmetadata.schema.entity.data.Table;
 import org.openmetadata.schema.entity.services.DatabaseService;
 import org.openmetadata.schema.entity.services.ingestionPipelines.IngestionPipeline;
 import org.openmetadata.schema.metadataIngestion.DatabaseServiceMetadataPipeline;
@@ -48,12 +64,20 @@ import org.openmetadata.schema.services.connections.database.RedshiftConnection;
 import org.openmetadata.schema.services.connections.database.SnowflakeConnection;
 import org.openmetadata.schema.type.ChangeDescription;
 import org.openmetadata.schema.type.EntityReference;
+import org.openmetadata.schema.type.Include;
 import org.openmetadata.schema.type.Schedule;
 import org.openmetadata.service.Entity;
+import org.openmetadata.service.airflow.AirflowRESTClient;
+import org.openmetadata.service.jdbi3.IngestionPipelineRepository;
 import org.openmetadata.service.resources.EntityResourceTest;
+import org.openmetadata.service.resources.databases.DatabaseResourceTest;
+import org.openmetadata.service.resources.databases.DatabaseSchemaResourceTest;
+import org.openmetadata.service.resources.databases.TableResourceTest;
 import org.openmetadata.service.resources.services.database.DatabaseServiceResource.DatabaseServiceList;
 import org.openmetadata.service.resources.services.ingestionpipelines.IngestionPipelineResourceTest;
+import org.openmetadata.service.util.EntityUtil;
 import org.openmetadata.service.util.JsonUtils;
+import org.openmetadata.service.util.PipelineServiceClient;
 import org.openmetadata.service.util.TestUtils;
 import org.openmetadata.service.util.TestUtils.UpdateType;
 
@@ -244,6 +268,132 @@ public class DatabaseServiceResourceTest extends EntityResourceTest<DatabaseServ
     ingestionPipelineResourceTest.assertEntityDeleted(ingestionPipeline.getId(), true);
   }
 
+  @Test
+  void delete_serviceWithDatabasesSchemasAndTables_200(TestInfo test) throws IOException {
+    // Ingestion pipelines have a postDelete hook and are deleted one at a time instead of with the other children
+    IngestionPipelineRepository pipelineRepository =
+        (IngestionPipelineRepository) Entity.<IngestionPipeline>getEntityRepository(Entity.INGESTION_PIPELINE);
+    PipelineServiceClient pipelineServiceClient = mock(PipelineServiceClient.class);
+    pipelineRepository.setPipelineServiceClient(pipelineServiceClient);
+    try {
+      deleteServiceWithDatabasesSchemasAndTables(test, pipelineServiceClient);
+    } finally {
+      AirflowConfiguration airflowConfiguration = APP.getConfiguration().getAirflowConfiguration();
+      pipelineRepository.setPipelineServiceClient(new AirflowRESTClient(airflowConfiguration));
+    }
+  }
+
+  private void deleteServiceWithDatabasesSchemasAndTables(TestInfo test, PipelineServiceClient pipelineServiceClient)
+      throws IOException {
+    DatabaseService service = createEntity(createRequest(test), ADMIN_AUTH_HEADERS);
+    IngestionPipelineResourceTest ingestionPipelineResourceTest = new IngestionPipelineResourceTest();
+    IngestionPipeline ingestionPipeline =
+        ingestionPipelineResourceTest.createEntity(
+            ingestionPipelineResourceTest.createRequest(test).withService(service.getEntityReference()),
+            ADMIN_AUTH_HEADERS);
+
+    // Create two databases, each with two schemas of two tables. Tables have tags, usage and an older version.
+    DatabaseResourceTest databaseResourceTest = new DatabaseResourceTest();
+    DatabaseSchemaResourceTest databaseSchemaResourceTest = new DatabaseSchemaResourceTest();
+    TableResourceTest tableResourceTest = new TableResourceTest();
+    List<Database> databases = new ArrayList<>();
+    List<DatabaseSchema> schemas = new ArrayList<>();
+    List<Table> tables = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      CreateDatabase createDatabase =
+          databaseResourceTest.createRequest(test, i).withService(service.getEntityReference());
+      Database database = databaseResourceTest.createEntity(createDatabase, ADMIN_AUTH_HEADERS);
+      databases.add(database);
+      for (int j = 0; j < 2; j++) {
+        CreateDatabaseSchema createSchema =
+            databaseSchemaResourceTest.createRequest(test, j).withDatabase(database.getEntityReference());
+        DatabaseSchema schema = databaseSchemaResourceTest.createEntity(createSchema, ADMIN_AUTH_HEADERS);
+        schemas.add(schema);
+        for (int k = 0; k < 2; k++) {
+          CreateTable createTable =
+              tableResourceTest
+                  .createRequest(test, k)
+                  .withDatabaseSchema(schema.getEntityReference())
+                  .withTags(List.of(PERSONAL_DATA_TAG_LABEL));
+          tableResourceTest.createEntity(createTable, ADMIN_AUTH_HEADERS);
+          Table table =
+              tableResourceTest.updateEntity(createTable.withDescription("updated"), OK, ADMIN_AUTH_HEADERS);
+          reportUsage(Entity.TABLE, table.getId(), usageReport(), ADMIN_AUTH_HEADERS);
+          tables.add(table);
+        }
+      }
+    }
+    List<String> childIds = new ArrayList<>();
+    databases.forEach(database -> childIds.add(database.getId().toString()));
+    schemas.forEach(schema -> childIds.add(schema.getId().toString()));
+    tables.forEach(table -> childIds.add(table.getId().toString()));
+    childIds.add(ingestionPipeline.getId().toString());
+    List<String> tagTargets = new ArrayList<>();
+    for (Table table : tables) {
+      tagTargets.add(table.getFullyQualifiedName());
+      table.getColumns().forEach(column -> tagTargets.add(column.getFullyQualifiedName()));
+    }
+
+    // Soft delete only flags the children, without creating a new version of the children
+    deleteEntity(service.getId(), true, false, ADMIN_AUTH_HEADERS);
+    Map<String, String> deleted = Map.of("include", Include.DELETED.value());
+    for (Database database : databases) {
+      assertSoftDeleted(database, databaseResourceTest.getEntity(database.getId(), deleted, "", ADMIN_AUTH_HEADERS));
+    }
+    for (DatabaseSchema schema : schemas) {
+      assertSoftDeleted(schema, databaseSchemaResourceTest.getEntity(schema.getId(), deleted, "", ADMIN_AUTH_HEADERS));
+    }
+    for (Table table : tables) {
+      assertSoftDeleted(table, tableResourceTest.getEntity(table.getId(), deleted, "", ADMIN_AUTH_HEADERS));
+    }
+
+    // A child with a delete hook is soft deleted the same way as when it is deleted by itself
+    IngestionPipeline deletedPipeline =
+        ingestionPipelineResourceTest.getEntity(ingestionPipeline.getId(), deleted, "", ADMIN_AUTH_HEADERS);
+    assertTrue(deletedPipeline.getDeleted());
+    assertEquals(EntityUtil.nextVersion(ingestionPipeline.getVersion()), deletedPipeline.getVersion());
+    verify(pipelineServiceClient).deletePipeline(ingestionPipeline.getName());
+
+    // Relationships, versions, usage and tags of soft deleted children are kept
+    assertTrue(countRows("entity_relationship", "toId", childIds) > 0);
+    assertTrue(countRows("entity_extension", "id", childIds) > 0);
+    assertTrue(countRows("entity_usage", "id", childIds) > 0);
+    assertTrue(countRows("tag_usage", "targetFQN", tagTargets) > 0);
+
+    // Hard delete removes the children along with their rows in the other tables
+    deleteEntity(service.getId(), true, true, ADMIN_AUTH_HEADERS);
+    databases.forEach(database -> databaseResourceTest.assertEntityDeleted(database.getId(), true));
+    schemas.forEach(schema -> databaseSchemaResourceTest.assertEntityDeleted(schema.getId(), true));
+    tables.forEach(table -> tableResourceTest.assertEntityDeleted(table.getId(), true));
+    ingestionPipelineResourceTest.assertEntityDeleted(ingestionPipeline.getId(), true);
+    verify(pipelineServiceClient, times(2)).deletePipeline(ingestionPipeline.getName());
+
+    assertEquals(0, countRows("entity_relationship", "fromId", childIds));
+    assertEquals(0, countRows("entity_relationship", "toId", childIds));
+    assertEquals(0, countRows("entity_extension", "id", childIds));
+    assertEquals(0, countRows("entity_usage", "id", childIds));
+    assertEquals(0, countRows("tag_usage", "targetFQN", tagTargets));
+  }
+
+  private static void assertSoftDeleted(EntityInterface original, EntityInterface deleted) {
+    assertTrue(deleted.getDeleted());
+    assertEquals(original.getVersion(), deleted.getVersion());
+    assertEquals(original.getChangeDescription(), deleted.getChangeDescription());
+  }
+
+  /** Number of rows of a table whose column has one of the given values, read directly from the database */
+  private static long countRows(String table, String column, List<String> values) {
+    DataSourceFactory dataSourceFactory = APP.getConfiguration().getDataSourceFactory();
+    Jdbi jdbi = Jdbi.create(dataSourceFactory.getUrl(), dataSourceFactory.getUser(), dataSourceFactory.getPassword());
+    return jdbi.withHandle(
+        handle ->
+            handle
+                .createQuery(String.format("SELECT COUNT(*) FROM %s WHERE %s IN (<values>)", table, column))
+                .bindList("values", values)
+                .mapTo(Long.class)
+                .one());
+  }
+
   @Override
   public CreateDatabaseService createRequest(String name) {
     return new CreateDatabaseService()
@@ -47,8 +47,11 @@ import org.junit.jupiter.api.TestMethodOrder;
 import org.openmetadata.schema.api.data.CreateTable;
 import org.openmetadata.schema.entity.data.Database;
 import org.openmetadata.schema.entity.data.Table;
+import org.openmetadata.schema.type.BulkUsage;
+import org.openmetadata.schema.type.BulkUsageResult;
 import org.openmetadata.schema.type.DailyCount;
 import org.openmetadata.schema.type.EntityUsage;
+import org.openmetadata.schema.type.EntityUsageCount;
 import org.openmetadata.schema.type.UsageDetails;
 import org.openmetadata.service.Entity;
 import org.openmetadata.service.OpenMetadataApplicationTest;
@@ -170,6 +173,32 @@ class UsageResourceTest extends OpenMetadataApplicationTest {
     }
   }
 
+  @Test
+  void put_bulkUsageByName_200_OK(TestInfo test) throws IOException {
+    TableResourceTest tableResourceTest = new TableResourceTest();
+    Table table1 = tableResourceTest.createEntity(tableResourceTest.createRequest(test, 1), ADMIN_AUTH_HEADERS);
+    Table table2 = tableResourceTest.createEntity(tableResourceTest.createRequest(test, 2), ADMIN_AUTH_HEADERS);
+    String date = RestUtil.DATE_FORMAT.format(new Date());
+    BulkUsage bulkUsage =
+        new BulkUsage()
+            .withDate(date)
+            .withUsage(
+                List.of(
+                    new EntityUsageCount().withFullyQualifiedName(table1.getFullyQualifiedName()).withCount(10),
+                    new EntityUsageCount().withFullyQualifiedName(table2.getFullyQualifiedName()).withCount(20),
+                    new EntityUsageCount().withFullyQualifiedName("invalidTableName").withCount(30)));
+    BulkUsageResult result = reportBulkUsage(TABLE, bulkUsage, ADMIN_AUTH_HEADERS);
+    assertEquals(2, result.getUpdated());
+    assertEquals(List.of("invalidTableName"), result.getNotFound());
+    checkUsageByName(date, TABLE, table1.getFullyQualifiedName(), 10, 10, 10, ADMIN_AUTH_HEADERS);
+    checkUsageByName(date, TABLE, table2.getFullyQualifiedName(), 20, 20, 20, ADMIN_AUTH_HEADERS);
+
+    // Reporting the usage again adds to the usage, the same as reporting the usage of each table with PUT
+    reportBulkUsage(TABLE, bulkUsage, ADMIN_AUTH_HEADERS);
+    checkUsageByName(date, TABLE, table1.getFullyQualifiedName(), 20, 20, 20, ADMIN_AUTH_HEADERS);
+    checkUsageByName(date, TABLE, table2.getFullyQualifiedName(), 40, 40, 40, ADMIN_AUTH_HEADERS);
+  }
+
   @Order(1) // Run this method first before other usage records are created
   @Test
   void put_validUsageForTables_200_OK() throws HttpResponseException {
@@ -350,6 +379,12 @@ class UsageResourceTest extends OpenMetadataApplicationTest {
     TestUtils.put(target, usage, Response.Status.CREATED, authHeaders);
   }
 
+  public static BulkUsageResult reportBulkUsage(String entity, BulkUsage usage, Map<String, String> authHeaders)
+      throws HttpResponseException {
+    WebTarget target = getResource("usage/" + entity + "/bulk");
+    return TestUtils.put(target, usage, BulkUsageResult.class, Response.Status.OK, authHeaders);
+  }
+
   public static void computePercentile(String entity, String date, Map<String, String> authHeaders)
       throws HttpResponseException {
     WebTarget target = getResource("usage/compute.percentile/" + entity + "/" + date);
@@ -43,8 +43,10 @@ import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.UriInfo;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.openmetadata.service.security.auth.VerifiedTokenCache;
 
 class JwtFilterTest {
 
@@ -53,6 +55,7 @@ class JwtFilterTest {
 
   private static Algorithm algorithm;
   private static UriInfo mockRequestURIInfo;
+  private static Jwk mockJwk;
 
   @BeforeAll
   static void before() throws Exception {
@@ -64,7 +67,7 @@ class JwtFilterTest {
 
     // Mock a JwkProvider that has a single JWK containing the public key from the algorithm above
     // This is used to verify the JWT
-    Jwk mockJwk = mock(Jwk.class);
+    mockJwk = mock(Jwk.class);
     when(mockJwk.getPublicKey()).thenReturn(keyPair.getPublic());
     jwkProvider = mock(JwkProvider.class);
     when(jwkProvider.get(algorithm.getSigningKeyId())).thenReturn(mockJwk);
@@ -74,7 +77,10 @@ class JwtFilterTest {
     mockRequestURIInfo = mock(UriInfo.class);
     when(mockRequestURIInfo.getPath()).thenReturn("/login");
     when(mockRequestURIInfo.getRequestUri()).thenReturn(uri);
+  }
 
+  @BeforeEach
+  void createFilter() {
     List<String> principalClaims = List.of("sub", "email");
     String domain = "openmetadata.org";
     boolean enforcePrincipalDomain = false;
@@ -219,6 +225,53 @@ class JwtFilterTest {
     assertTrue(exception.getMessage().toLowerCase(Locale.ROOT).contains("invalid token"));
   }
 
+  @Test
+  void testVerifiedTokenIsCached() throws Exception {
+    JwkProvider countingJwkProvider = mock(JwkProvider.class);
+    when(countingJwkProvider.get(algorithm.getSigningKeyId())).thenReturn(mockJwk);
+    JwtFilter filter = new JwtFilter(countingJwkProvider, List.of("sub", "email"), "openmetadata.org", false);
+    String jwt =
+        JWT.create()
+            .withExpiresAt(Date.from(Instant.now().plus(1, ChronoUnit.DAYS)))
+            .withClaim("sub", "cachedUser")
+            .sign(algorithm);
+
+    // The signature of a token is verified only for the first request with the token
+    for (int i = 0; i < 100; i++) {
+      ContainerRequestContext context = createRequestContextWithJwt(jwt);
+      filter.filter(context);
+      ArgumentCaptor<SecurityContext> securityContextArgument = ArgumentCaptor.forClass(SecurityContext.class);
+      verify(context, times(1)).setSecurityContext(securityContextArgument.capture());
+      assertEquals("cachedUser", securityContextArgument.getValue().getUserPrincipal().getName());
+    }
+    verify(countingJwkProvider, times(1)).get(algorithm.getSigningKeyId());
+
+    // After the token is invalidated, for example on logout, the token is verified again
+    VerifiedTokenCache.getInstance().invalidateToken(jwt);
+    filter.filter(createRequestContextWithJwt(jwt));
+    verify(countingJwkProvider, times(2)).get(algorithm.getSigningKeyId());
+
+    VerifiedTokenCache.getInstance().invalidateUser("cachedUser");
+    filter.filter(createRequestContextWithJwt(jwt));
+    verify(countingJwkProvider, times(3)).get(algorithm.getSigningKeyId());
+  }
+
+  @Test
+  void testVerifiedTokenIsNotSharedBetweenFilters() {
+    String jwt =
+        JWT.create()
+            .withExpiresAt(Date.from(Instant.now().plus(1, ChronoUnit.DAYS)))
+            .withClaim("email", "shared@gmail.com")
+            .sign(algorithm);
+    jwtFilter.filter(createRequestContextWithJwt(jwt));
+
+    // A filter with another configuration verifies the token again, instead of using the token verified by the first
+    JwtFilter enforcingFilter = new JwtFilter(jwkProvider, List.of("sub", "email"), "openmetadata.org", true);
+    ContainerRequestContext context = createRequestContextWithJwt(jwt);
+    Exception exception = assertThrows(AuthenticationException.class, () -> enforcingFilter.filter(context));
+    assertTrue(exception.getMessage().toLowerCase(Locale.ROOT).contains("email does not match the principal domain"));
+  }
+
   /**
    * Creates the ContainerRequestsContext that is passed to the filter. This object can be quite complex, but the
    * JwtFilter cares only about the Authorization header and request URI.
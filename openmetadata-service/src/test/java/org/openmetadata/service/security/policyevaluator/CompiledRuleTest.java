@@ -9,6 +9,7 @@ import java.util.List;
 import java.util.Random;
 import org.junit.jupiter.api.Test;
 import org.openmetadata.schema.entity.policies.accessControl.Rule;
+import org.openmetadata.schema.type.MetadataOperation;
 import org.openmetadata.schema.type.ResourceDescriptor;
 import org.openmetadata.service.resources.policies.PolicyResource;
 
@@ -48,4 +49,24 @@ class CompiledRuleTest {
           "Resource name " + resourceName + " not matched");
     }
   }
+
+  @Test
+  void testOwnerCondition() {
+    // Only the rules for the operations on the resource with a condition on the owner make decisions depend on it
+    CompiledRule rule =
+        new CompiledRule(
+            new Rule()
+                .withName("test")
+                .withResources(List.of("table"))
+                .withOperations(List.of(MetadataOperation.EDIT_DESCRIPTION))
+                .withCondition("isOwner() || matchAnyTag('PII.Sensitive')"));
+    assertTrue(rule.hasOwnerCondition("table", List.of(MetadataOperation.EDIT_DESCRIPTION)));
+    assertFalse(rule.hasOwnerCondition("table", List.of(MetadataOperation.CREATE)));
+    assertFalse(rule.hasOwnerCondition("topic", List.of(MetadataOperation.EDIT_DESCRIPTION)));
+
+    rule.withCondition("matchAnyTag('PII.Sensitive')");
+    assertFalse(rule.hasOwnerCondition("table", List.of(MetadataOperation.EDIT_DESCRIPTION)));
+    rule.withCondition(null);
+    assertFalse(rule.hasOwnerCondition("table", List.of(MetadataOperation.EDIT_DESCRIPTION)));
+  }
 }
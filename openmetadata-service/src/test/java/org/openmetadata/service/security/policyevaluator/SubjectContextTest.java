@@ -14,6 +14,7 @@ package org.openmetadata.service.security.policyevaluator;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
@@ -31,6 +32,7 @@ import org.openmetadata.schema.entity.teams.Role;
 import org.openmetadata.schema.entity.teams.Team;
 import org.openmetadata.schema.entity.teams.User;
 import org.openmetadata.schema.type.EntityReference;
+import org.openmetadata.schema.type.MetadataOperation;
 import org.openmetadata.service.Entity;
 import org.openmetadata.service.jdbi3.CollectionDAO.PolicyDAO;
 import org.openmetadata.service.jdbi3.CollectionDAO.RoleDAO;
@@ -40,6 +42,7 @@ import org.openmetadata.service.jdbi3.PolicyRepository;
 import org.openmetadata.service.jdbi3.RoleRepository;
 import org.openmetadata.service.jdbi3.TeamRepository;
 import org.openmetadata.service.jdbi3.UserRepository;
+import org.openmetadata.service.security.AuthorizationException;
 import org.openmetadata.service.security.policyevaluator.SubjectContext.PolicyContext;
 
 public class SubjectContextTest {
@@ -192,6 +195,73 @@ public class SubjectContextTest {
     assertPolicyIterator(list, actualPolicyIterator);
   }
 
+  @Test
+  void testTeamHierarchyRebuiltOnChange() {
+    SubjectContext subjectContext = SubjectCache.getInstance().getSubjectContext(user.getName());
+    EntityReference teamOwner = team111.getEntityReference();
+    assertTrue(subjectContext.isUserUnderTeam("team12"));
+    assertTrue(subjectContext.isTeamAsset("team12", teamOwner));
+
+    // Remove team12 from the parents of team111. The team hierarchy is rebuilt only after the version changes.
+    List<EntityReference> parents = team111.getParents();
+    SubjectCache.TEAM_CACHE.put(team111.getId(), team111.withParents(List.of(team11.getEntityReference())));
+    try {
+      assertTrue(subjectContext.isUserUnderTeam("team12"));
+      SubjectCache.incrementVersion();
+      assertFalse(subjectContext.isUserUnderTeam("team12"));
+      assertFalse(subjectContext.isTeamAsset("team12", teamOwner));
+      assertTrue(subjectContext.isUserUnderTeam("team1"));
+    } finally {
+      SubjectCache.TEAM_CACHE.put(team111.getId(), team111.withParents(parents));
+      SubjectCache.incrementVersion();
+    }
+    assertTrue(subjectContext.isUserUnderTeam("team12"));
+    assertUserPolicyIterator(subjectContext.getPolicies());
+  }
+
+  @Test
+  void testDecisionCache() throws Exception {
+    Rule rule =
+        new Rule()
+            .withName("allowViewTable")
+            .withResources(List.of(Entity.TABLE))
+            .withOperations(List.of(MetadataOperation.VIEW_ALL))
+            .withEffect(Rule.Effect.ALLOW);
+    Policy policy = new Policy().withName("viewTable").withId(UUID.randomUUID()).withRules(List.of(rule));
+    PolicyCache.POLICY_CACHE.put(policy.getId(), PolicyCache.getInstance().getRules(policy));
+    Role role =
+        new Role().withName("viewer").withId(UUID.randomUUID()).withPolicies(List.of(policy.getEntityReference()));
+    RoleCache.ROLE_CACHE.put(role.getId(), role);
+    User viewer = new User().withName("viewer").withRoles(List.of(role.getEntityReference())).withTeams(List.of());
+    SubjectContext subjectContext = new SubjectContext(viewer);
+
+    ResourceContextInterface resourceContext = Mockito.mock(ResourceContextInterface.class);
+    Mockito.when(resourceContext.getResource()).thenReturn(Entity.TABLE);
+    PolicyEvaluator.hasPermission(
+        subjectContext, resourceContext, new OperationContext(Entity.TABLE, MetadataOperation.VIEW_ALL));
+    assertThrows(
+        AuthorizationException.class,
+        () ->
+            PolicyEvaluator.hasPermission(
+                subjectContext, resourceContext, new OperationContext(Entity.TABLE, MetadataOperation.EDIT_ALL)));
+
+    // No rule has a condition on the owner, so the entity is not loaded for its owner
+    Mockito.verify(resourceContext, Mockito.never()).getOwner();
+
+    // Without a change of version, the decision made with the earlier rules is reused
+    PolicyCache.POLICY_CACHE.put(policy.getId(), List.of());
+    PolicyEvaluator.hasPermission(
+        subjectContext, resourceContext, new OperationContext(Entity.TABLE, MetadataOperation.VIEW_ALL));
+
+    // After a change of version, the decision is made again with the new rules
+    SubjectCache.incrementVersion();
+    assertThrows(
+        AuthorizationException.class,
+        () ->
+            PolicyEvaluator.hasPermission(
+                subjectContext, resourceContext, new OperationContext(Entity.TABLE, MetadataOperation.VIEW_ALL)));
+  }
+
   private static List<Role> getRoles(String prefix, int count) {
     // Create roles with 3 policies each and each policy with 3 rules
     List<Role> roles = new ArrayList<>(count);
@@ -0,0 +1,244 @@
+package org.openmetadata.service.socket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.socket.engineio.server.EngineIoServer;
+import io.socket.engineio.server.EngineIoServerOptions;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Delivery to thousands of in-process clients registered without socket.io connections */
+class WebSocketManagerTest {
+  private WebSocketManager manager;
+
+  @BeforeEach
+  void createManager() {
+    manager = createManager(WebSocketManager.MAX_QUEUED_MESSAGES_PER_USER);
+  }
+
+  @AfterEach
+  void stopManager() {
+    manager.stop();
+  }
+
+  @Test
+  void test_targetedDeliveryToThousandsOfClients() throws Exception {
+    int users = 5000;
+    int messages = 20;
+    int broadcasts = 5;
+    List<UUID> userIds = new ArrayList<>();
+    List<TestClient> clients = new ArrayList<>();
+    // Each recipient socket receives the targeted messages and the broadcasts, the other sockets the broadcasts only
+    CountDownLatch delivered = new CountDownLatch(users * 2 * broadcasts + users * messages);
+    for (int i = 0; i < users; i++) {
+      UUID userId = UUID.randomUUID();
+      userIds.add(userId);
+      for (int socket = 0; socket < 2; socket++) {
+        TestClient client = new TestClient(delivered);
+        clients.add(client);
+        manager.register(userId, userId + "/" + socket, client);
+      }
+    }
+    List<UUID> recipients = new ArrayList<>();
+    for (int i = 0; i < users; i += 2) {
+      recipients.add(userIds.get(i));
+      recipients.add(userIds.get(i)); // Listed twice, and sent once
+    }
+
+    long start = System.nanoTime();
+    for (int i = 0; i < messages; i++) {
+      manager.sendToMany(recipients, WebSocketManager.FEED_BROADCAST_CHANNEL, "message" + i);
+    }
+    for (int i = 0; i < broadcasts; i++) {
+      manager.broadCastMessageToAll(WebSocketManager.ANNOUNCEMENT_CHANNEL, "announcement" + i);
+    }
+    // Sending is done by the sender threads and not by the caller
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000);
+    assertTrue(delivered.await(60, TimeUnit.SECONDS), "not delivered " + delivered.getCount());
+
+    for (int i = 0; i < clients.size(); i++) {
+      List<String> received = clients.get(i).getReceived();
+      boolean recipient = (i / 2) % 2 == 0;
+      List<String> feed = filter(received, WebSocketManager.FEED_BROADCAST_CHANNEL);
+      assertEquals(recipient ? messages : 0, feed.size());
+      for (int m = 0; m < feed.size(); m++) {
+        assertEquals(WebSocketManager.FEED_BROADCAST_CHANNEL + ":message" + m, feed.get(m));
+      }
+      assertEquals(broadcasts, filter(received, WebSocketManager.ANNOUNCEMENT_CHANNEL).size());
+    }
+  }
+
+  @Test
+  void test_slowClientDropsOldestMessages() throws Exception {
+    manager.stop();
+    manager = createManager(5);
+    CountDownLatch sending = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    UUID slowUser = UUID.randomUUID();
+    TestClient slowClient =
+        new TestClient(new CountDownLatch(0)) {
+          @Override
+          public void accept(String event, String message) {
+            super.accept(event, message);
+            sending.countDown();
+            await(release);
+          }
+        };
+    manager.register(slowUser, "slow", slowClient);
+    UUID fastUser = UUID.randomUUID();
+    CountDownLatch fastDelivered = new CountDownLatch(21);
+    TestClient fastClient = new TestClient(fastDelivered);
+    manager.register(fastUser, "fast", fastClient);
+
+    // The slow client is blocked on the first message while the others are queued
+    manager.sendToOne(slowUser, WebSocketManager.FEED_BROADCAST_CHANNEL, "message0");
+    assertTrue(sending.await(10, TimeUnit.SECONDS));
+    for (int i = 1; i <= 20; i++) {
+      manager.sendToMany(List.of(slowUser, fastUser), WebSocketManager.FEED_BROADCAST_CHANNEL, "message" + i);
+    }
+    manager.sendToOne(fastUser, WebSocketManager.FEED_BROADCAST_CHANNEL, "message21");
+
+    // The other clients are not held up by the slow client, and the slow client keeps the latest messages
+    assertTrue(fastDelivered.await(10, TimeUnit.SECONDS));
+    assertEquals(21, fastClient.getReceived().size());
+    release.countDown();
+    waitFor(() -> slowClient.getReceived().size() == 6);
+    assertEquals(
+        List.of("message0", "message16", "message17", "message18", "message19", "message20"),
+        slowClient.getReceived().stream().map(m -> m.substring(m.indexOf(':') + 1)).collect(Collectors.toList()));
+  }
+
+  @Test
+  void test_concurrentConnectAndDisconnect() throws Exception {
+    int threads = 8;
+    int socketsPerThread = 500;
+    List<UUID> userIds = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      userIds.add(UUID.randomUUID());
+    }
+    // Sockets connect and disconnect on several threads while messages are broadcast
+    ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+    List<Future<List<String>>> connected = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      int thread = t;
+      connected.add(
+          executor.submit(
+              () -> {
+                List<String> remaining = new ArrayList<>();
+                for (int i = 0; i < socketsPerThread; i++) {
+                  UUID userId = userIds.get((thread * socketsPerThread + i) % userIds.size());
+                  String socketId = userId + "/" + thread + "/" + i;
+                  manager.register(userId, socketId, new TestClient(new CountDownLatch(0)));
+                  if (i % 3 != 0 || userIds.indexOf(userId) >= 50) {
+                    manager.unregister(userId, socketId);
+                  } else {
+                    remaining.add(socketId);
+                  }
+                }
+                return remaining;
+              }));
+    }
+    Future<?> broadcasts =
+        executor.submit(
+            () -> {
+              for (int i = 0; i < 1000; i++) {
+                manager.broadCastMessageToAll(WebSocketManager.FEED_BROADCAST_CHANNEL, "message" + i);
+              }
+            });
+    Set<UUID> usersWithSockets = new HashSet<>();
+    int remainingSockets = 0;
+    for (Future<List<String>> future : connected) {
+      for (String socketId : future.get(30, TimeUnit.SECONDS)) {
+        usersWithSockets.add(UUID.fromString(socketId.substring(0, socketId.indexOf('/'))));
+        remainingSockets++;
+      }
+    }
+    broadcasts.get(30, TimeUnit.SECONDS);
+    executor.shutdown();
+
+    // The users with no sockets left are removed, and a broadcast reaches each remaining socket once
+    assertEquals(usersWithSockets, Set.copyOf(manager.getConnectedUsers()));
+    List<TestClient> clients = new ArrayList<>();
+    for (Future<List<String>> future : connected) {
+      for (String socketId : future.get()) {
+        TestClient client = new TestClient(new CountDownLatch(0));
+        clients.add(client);
+        manager.register(UUID.fromString(socketId.substring(0, socketId.indexOf('/'))), socketId, client);
+      }
+    }
+    assertEquals(remainingSockets, clients.size());
+    manager.broadCastMessageToAll(WebSocketManager.ANNOUNCEMENT_CHANNEL, "last");
+    waitFor(
+        () ->
+            clients.stream()
+                .allMatch(client -> !filter(client.getReceived(), WebSocketManager.ANNOUNCEMENT_CHANNEL).isEmpty()));
+    clients.forEach(
+        client ->
+            assertEquals(
+                List.of(WebSocketManager.ANNOUNCEMENT_CHANNEL + ":last"),
+                filter(client.getReceived(), WebSocketManager.ANNOUNCEMENT_CHANNEL)));
+  }
+
+  private static WebSocketManager createManager(int queueCapacity) {
+    return new WebSocketManager(
+        new EngineIoServer(EngineIoServerOptions.newFromDefault()), WebSocketManager.SENDER_THREADS, queueCapacity);
+  }
+
+  private static List<String> filter(List<String> received, String event) {
+    return received.stream().filter(m -> m.startsWith(event + ":")).collect(Collectors.toList());
+  }
+
+  private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertTrue(condition.getAsBoolean());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Records the messages sent on a socket */
+  static class TestClient implements BiConsumer<String, String> {
+    private final List<String> received = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch delivered;
+
+    TestClient(CountDownLatch delivered) {
+      this.delivered = delivered;
+    }
+
+    @Override
+    public void accept(String event, String message) {
+      received.add(event + ":" + message);
+      delivered.countDown();
+    }
+
+    List<String> getReceived() {
+      synchronized (received) {
+        return new ArrayList<>(received);
+      }
+    }
+  }
+}
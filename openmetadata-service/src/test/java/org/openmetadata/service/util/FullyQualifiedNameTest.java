@@ -3,9 +3,20 @@ package org.openmetadata.service.util;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.tree.ParseTreeWalker;
 import org.junit.jupiter.api.Test;
+import org.openmetadata.schema.FqnBaseListener;
+import org.openmetadata.schema.FqnLexer;
+import org.openmetadata.schema.FqnParser;
+import org.openmetadata.schema.FqnParser.QuotedNameContext;
+import org.openmetadata.schema.FqnParser.UnquotedNameContext;
 
 class FullyQualifiedNameTest {
   private static class FQNTest {
@@ -79,4 +90,72 @@ class FullyQualifiedNameTest {
   void test_invalid() {
     assertThrows(ParseCancellationException.class, () -> FullyQualifiedName.split("a\""));
   }
+
+  @Test
+  void test_splitMatchesGrammar() {
+    // Every string of up to 7 characters made of names, separators and quotes is split as the parser of Fqn.g4 does
+    char[] alphabet = {'a', '.', '"', 'b'};
+    List<String> fqns =
+        new ArrayList<>(List.of("", " ", "a b.\"c d.e\".f", "\"a.b\"\"c.d\"", "t\u00e9st.\"\u00fc.\u00f1\""));
+    for (int length = 1; length <= 7; length++) {
+      int[] indexes = new int[length];
+      for (int count = 0; count < Math.pow(alphabet.length, length); count++) {
+        StringBuilder fqn = new StringBuilder();
+        for (int index : indexes) {
+          fqn.append(alphabet[index]);
+        }
+        fqns.add(fqn.toString());
+        for (int i = 0; i < length && ++indexes[i] == alphabet.length; i++) {
+          indexes[i] = 0;
+        }
+      }
+    }
+    for (String fqn : fqns) {
+      assertEquals(splitWithGrammar(fqn), splitOrError(fqn), fqn);
+      assertEquals(splitWithGrammar(fqn), splitOrError(fqn), fqn); // Same result from the cache
+    }
+  }
+
+  @Test
+  void test_splitResultNotShared() {
+    String[] split = FullyQualifiedName.split("a.\"b.c\".d");
+    split[0] = "changed";
+    assertEquals(List.of("a", "\"b.c\"", "d"), Arrays.asList(FullyQualifiedName.split("a.\"b.c\".d")));
+  }
+
+  private static String splitOrError(String fqn) {
+    try {
+      return Arrays.toString(FullyQualifiedName.split(fqn));
+    } catch (ParseCancellationException e) {
+      return "invalid";
+    }
+  }
+
+  /** Split with the parser generated from the grammar, which is the reference for the hand-written parser */
+  private static String splitWithGrammar(String fqn) {
+    List<String> names = new ArrayList<>();
+    FqnBaseListener listener =
+        new FqnBaseListener() {
+          @Override
+          public void enterQuotedName(QuotedNameContext ctx) {
+            names.add(ctx.getText());
+          }
+
+          @Override
+          public void enterUnquotedName(UnquotedNameContext ctx) {
+            names.add(ctx.getText());
+          }
+        };
+    FqnLexer fqnLexer = new FqnLexer(CharStreams.fromString(fqn));
+    fqnLexer.removeErrorListeners();
+    FqnParser fqnParser = new FqnParser(new CommonTokenStream(fqnLexer));
+    fqnParser.removeErrorListeners();
+    fqnParser.setErrorHandler(new BailErrorStrategy());
+    try {
+      new ParseTreeWalker().walk(listener, fqnParser.fqn());
+    } catch (ParseCancellationException e) {
+      return "invalid";
+    }
+    return names.toString();
+  }
 }
@@ -106,6 +106,32 @@ class JsonUtilsTest {
     assertTrue(jsonException.getMessage().contains("contains no element for index 3"));
   }
 
+  /** Test the move, copy, replace and test operations, which are applied on the entity tree without javax.json. */
+  @Test
+  void applyPatchOperations() throws IOException {
+    Team original =
+        JsonUtils.readValue(
+            "{\"id\":\"" + UUID.randomUUID() + "\",\"name\":\"finance\",\"displayName\":\"Finance\","
+                + "\"extension\":{\"a/b\":1,\"c~d\":\"x\"}}",
+            Team.class);
+    JsonPatchBuilder patchBuilder = Json.createPatchBuilder();
+    patchBuilder.test("/extension/a~1b", Json.createValue(1.0)); // Numbers are compared by value
+    patchBuilder.replace("/name", "sales");
+    patchBuilder.copy("/description", "/displayName");
+    patchBuilder.move("/extension/e", "/extension/c~0d");
+    Team updated = JsonUtils.applyPatch(original, patchBuilder.build(), Team.class);
+
+    assertEquals("sales", updated.getName());
+    assertEquals("Finance", updated.getDescription());
+    assertEquals(Map.of("a/b", 1, "e", "x"), updated.getExtension());
+    assertEquals("finance", original.getName()); // The original entity is not changed
+
+    final JsonPatchBuilder failingTest = Json.createPatchBuilder().test("/name", "sales");
+    assertThrows(JsonException.class, () -> JsonUtils.applyPatch(original, failingTest.build(), Team.class));
+    final JsonPatchBuilder missingField = Json.createPatchBuilder().replace("/description", "x");
+    assertThrows(JsonException.class, () -> JsonUtils.applyPatch(original, missingField.build(), Team.class));
+  }
+
   @Test
   void testReadValuePassingTypeReference() throws IOException {
     Map<String, String> expectedMap = Map.of("key1", "value1", "key2", "value2");
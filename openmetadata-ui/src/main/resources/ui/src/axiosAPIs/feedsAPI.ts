@@ -117,9 +117,11 @@ export const getFeedById = (id: string): Promise<AxiosResponse<Thread>> => {
 };
 
 export const postFeedById = async (id: string, data: Post) => {
+  // The thread is returned with all its posts, which the pages show in place of the posts they have
   const response = await APIClient.post<Post, AxiosResponse<Thread>>(
     `/feed/${id}/posts`,
-    data
+    data,
+    { params: { fields: 'posts' } }
   );
 
   return response.data;